@@ -0,0 +1,25 @@
+package no.ntnu.idata2306.y2024.g2.backend.config;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the executor that search work is run on outside the request thread.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+  /**
+   * Creates the executor for search tasks.
+   *
+   * @return Return the holder of an executor that starts a new virtual thread per task.
+   */
+  @Bean(destroyMethod = "close")
+  public SearchExecutor searchExecutor() {
+    return new SearchExecutor();
+  }
+}
@@ -0,0 +1,116 @@
+package no.ntnu.idata2306.y2024.g2.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Provider;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Role;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configures the Hibernate second-level cache and query cache for the reference entities: airports, airlines,
+ * locations, providers, class types, extra features and roles. These change a few times a day but are read by
+ * every search and most other requests.
+ * The cache is held in process by Caffeine. Each entity has a region of its own, limited in size and in how long
+ * an entry is kept. The limits are read from {@code second-level-cache.<region>.max-size} and
+ * {@code second-level-cache.<region>.ttl}. The regions are read-write, so writes through the services update or
+ * evict the cached entity when their transaction commits, and queries whose tables were written are not answered
+ * from the query cache again. The time to live only bounds how long a change made outside this application goes
+ * unseen. Hibernate statistics are enabled, so the hits and misses of each region are published as metrics.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  /**
+   * A region of the cache with its default limits.
+   *
+   * @param name    The name of the region.
+   * @param key     The key of the region in the configuration properties.
+   * @param maxSize The default maximum number of entries.
+   * @param ttl     The default time an entry is kept after it was written.
+   */
+  private record Region(String name, String key, long maxSize, Duration ttl) {
+  }
+
+  private static final List<Region> REGIONS = List.of(
+      new Region(Airport.class.getName(), "airport", 10_000, Duration.ofHours(1)),
+      new Region(Airline.class.getName(), "airline", 1_000, Duration.ofHours(1)),
+      new Region(Location.class.getName(), "location", 10_000, Duration.ofHours(1)),
+      new Region(Provider.class.getName(), "provider", 1_000, Duration.ofHours(1)),
+      new Region(ClassType.class.getName(), "class-type", 1_000, Duration.ofHours(1)),
+      new Region(ExtraFeature.class.getName(), "extra-feature", 1_000, Duration.ofHours(1)),
+      new Region(Role.class.getName(), "role", 100, Duration.ofHours(1)),
+      new Region(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, "query-results", 1_000, Duration.ofMinutes(10)));
+
+  /**
+   * Creates the cache manager holding the regions of the second-level cache.
+   *
+   * @param environment The environment the limits of the regions are read from.
+   * @return Return the cache manager.
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(Environment environment) {
+    // Each application context gets a cache manager of its own, so contexts never share cached entities.
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+    for (Region region : REGIONS) {
+      long maxSize = environment.getProperty("second-level-cache." + region.key() + ".max-size", Long.class, region.maxSize());
+      Duration ttl = environment.getProperty("second-level-cache." + region.key() + ".ttl", Duration.class, region.ttl());
+      if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+        throw new IllegalArgumentException("The limits of the " + region.key() + " cache region must be positive");
+      }
+      cacheManager.createCache(region.name(), configuration()
+          .setMaximumSize(OptionalLong.of(maxSize))
+          .setExpireAfterWrite(OptionalLong.of(ttl.toNanos())));
+    }
+    // The update timestamps tell which cached query results are stale, so they must never be evicted.
+    cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuration());
+    return cacheManager;
+  }
+
+  private static CaffeineConfiguration<Object, Object> configuration() {
+    return new CaffeineConfiguration<>()
+        .setStoreByValue(false)
+        .setStatisticsEnabled(true);
+  }
+
+  /**
+   * Enables the second-level cache and query cache in Hibernate, backed by the regions of the cache manager.
+   *
+   * @param secondLevelCacheManager The cache manager holding the regions.
+   * @return Return the customizer of the Hibernate properties.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+      // Every region is created above, so a missing one is a mistake in the mapping.
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+      properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    };
+  }
+}
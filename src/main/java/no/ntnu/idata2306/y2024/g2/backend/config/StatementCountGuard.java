@@ -0,0 +1,81 @@
+package no.ntnu.idata2306.y2024.g2.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request runs and warns about requests that run more than a set number of them,
+ * which is how lazy loading of one association per entity (N+1 queries) shows itself.
+ * Hibernate passes every statement it prepares through this inspector, which counts it for the request on the
+ * current thread. Statements run on other threads, such as the legs of a round trip search or the trips of a
+ * streamed search, are not counted.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class StatementCountGuard implements StatementInspector, AsyncHandlerInterceptor, HibernatePropertiesCustomizer {
+
+  private static final Logger logger = LoggerFactory.getLogger(StatementCountGuard.class);
+
+  private final ThreadLocal<int[]> count = new ThreadLocal<>();
+  private final int maxStatements;
+
+  /**
+   * Constructs the statement count guard.
+   *
+   * @param maxStatements The number of statements a request may run before it is warned about.
+   */
+  @Autowired
+  public StatementCountGuard(@Value("${jpa.statement-guard.max-statements:30}") int maxStatements) {
+    if (maxStatements <= 0) {
+      throw new IllegalArgumentException("Max statements must be positive");
+    }
+    this.maxStatements = maxStatements;
+  }
+
+  @Override
+  public void customize(Map<String, Object> hibernateProperties) {
+    hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+  }
+
+  @Override
+  public String inspect(String sql) {
+    int[] current = count.get();
+    if (current != null) {
+      current[0]++;
+    }
+    return sql;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    count.set(new int[1]);
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    count.remove();
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    int[] current = count.get();
+    count.remove();
+    if (current != null && current[0] > maxStatements) {
+      logger.warn("{} {} ran {} SQL statements, more than {}", request.getMethod(), request.getRequestURI(), current[0], maxStatements);
+    }
+  }
+}
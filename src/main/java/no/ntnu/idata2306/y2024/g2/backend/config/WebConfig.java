@@ -1,8 +1,11 @@
 package no.ntnu.idata2306.y2024.g2.backend.config;
 
+import no.ntnu.idata2306.y2024.g2.backend.controller.SearchController;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -13,6 +16,13 @@ public class WebConfig implements WebMvcConfigurer {
   @Value("#{'${cors.allowedOrigins}'.split(',')}")
   private List<String> allowedOrigins;
 
+  private final StatementCountGuard statementCountGuard;
+
+  @Autowired
+  public WebConfig(StatementCountGuard statementCountGuard) {
+    this.statementCountGuard = statementCountGuard;
+  }
+
   @Override
   public void addCorsMappings(CorsRegistry registry) {
     String[] originsArray = allowedOrigins.toArray(new String[0]);
@@ -20,6 +30,12 @@ public class WebConfig implements WebMvcConfigurer {
         .allowedOrigins(originsArray)
         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
         .allowedHeaders("*")
+        .exposedHeaders(SearchController.NEXT_CURSOR_HEADER)
         .allowCredentials(true);
   }
-}
\ No newline at end of file
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(statementCountGuard);
+  }
+}
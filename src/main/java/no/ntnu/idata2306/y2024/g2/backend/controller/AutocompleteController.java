@@ -0,0 +1,169 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.AutocompleteLocation;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteIndex;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompletePayloadCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Represents a rest controller for suggesting locations and airports as the user types.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("search")
+@Tag(name = "Search API")
+public class AutocompleteController {
+
+  private static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+  private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+  private final AutocompleteIndex autocompleteIndex;
+  private final AutocompletePayloadCache autocompletePayloadCache;
+
+  /**
+   * Constructs an instance of AutocompleteController with necessary dependency.
+   *
+   * @param autocompleteIndex        The index that locations and airports are suggested from.
+   * @param autocompletePayloadCache The serialized listing of every location and airport.
+   */
+  @Autowired
+  public AutocompleteController(AutocompleteIndex autocompleteIndex, AutocompletePayloadCache autocompletePayloadCache) {
+    this.autocompleteIndex = autocompleteIndex;
+    this.autocompletePayloadCache = autocompletePayloadCache;
+  }
+
+  /**
+   * Suggests locations and airports for what the user has typed, from the autocomplete index.
+   * Names of locations and airports and codes of airports are matched by the start of their words, with a few
+   * typos allowed in longer words, or anywhere in the name. Without a query every location and airport is returned.
+   * That listing only changes when a location or airport is written, so it is served as JSON serialized and
+   * gzipped ahead of time, with an entity tag that lets clients revalidate their copy instead of downloading it.
+   *
+   * @param query          The text typed by the user (optional).
+   * @param limit          The most suggestions to return when a query is given.
+   * @param ifNoneMatch    The entity tags of the listing the client has (optional).
+   * @param acceptEncoding The content codings the client accepts (optional).
+   * @return ResponseEntity containing the best matching locations and airports, best first, or an error message.
+   */
+  @GetMapping("/autocomplete-locations")
+  @Operation(summary = "Autocomplete locations and airports",
+      description = "Returns the locations and airports best matching q by name or airport code, allowing typos, " +
+          "or every location and airport when q is not given. The full listing has an ETag and is answered with " +
+          "304 when If-None-Match holds it.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved the suggestions", content = @Content),
+      @ApiResponse(responseCode = "304", description = "The listing has not changed", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid limit provided", content = @Content),
+      @ApiResponse(responseCode = "404", description = "No locations found", content = @Content),
+      @ApiResponse(responseCode = "503", description = "The autocomplete index is still being built", content = @Content)
+  })
+  public ResponseEntity<?> autocompleteLocations(
+      @RequestParam(name = "q", required = false) String query,
+      @RequestParam(name = "l", defaultValue = "" + DEFAULT_AUTOCOMPLETE_LIMIT) Integer limit,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+  ) {
+    if (limit < 1 || limit > MAX_AUTOCOMPLETE_LIMIT) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("l must be between 1 and " + MAX_AUTOCOMPLETE_LIMIT);
+    }
+    if (!autocompleteIndex.isReady()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Autocomplete is not available yet");
+    }
+    if (query == null) {
+      return autocompleteListing(ifNoneMatch, acceptEncoding);
+    }
+    List<AutocompleteLocation> autocompleteLocations = autocompleteIndex.search(query, limit);
+
+    if (autocompleteLocations.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No locations found");
+    } else {
+      return ResponseEntity.ok(autocompleteLocations);
+    }
+  }
+
+  /**
+   * Responds with the pre-serialized listing of every location and airport, gzipped if the client accepts it, or
+   * with 304 if the client already has it.
+   */
+  private ResponseEntity<?> autocompleteListing(String ifNoneMatch, String acceptEncoding) {
+    AutocompletePayloadCache.Payload payload = autocompletePayloadCache.get();
+    if (payload.empty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No locations found");
+    }
+    boolean gzip = acceptsGzip(acceptEncoding);
+    String etag = gzip ? payload.gzipEtag() : payload.etag();
+    if (matchesEtag(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+          .cacheControl(CacheControl.noCache())
+          .build();
+    }
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .cacheControl(CacheControl.noCache());
+    if (gzip) {
+      return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+    }
+    return ok.body(payload.json());
+  }
+
+  /**
+   * Checks if an Accept-Encoding header accepts gzip, that is, names gzip or * without a zero quality.
+   */
+  private boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      String name = parts[0].trim();
+      if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+        boolean refused = false;
+        for (int i = 1; i < parts.length; i++) {
+          String parameter = parts[i].trim().replace(" ", "");
+          refused |= parameter.matches("(?i)q=0(\\.0{0,3})?");
+        }
+        return !refused;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if an If-None-Match header holds the given entity tag, comparing weakly as the header requires.
+   */
+  private boolean matchesEtag(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      String candidate = tag.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
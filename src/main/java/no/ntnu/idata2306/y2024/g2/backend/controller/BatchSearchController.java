@@ -0,0 +1,152 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.BatchSearchResult;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.BatchSearchSpec;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Represents a rest controller for running several searches of trips in one request.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("search")
+@Tag(name = "Search API")
+public class BatchSearchController {
+
+  private static final int MAX_BATCH_SIZE = 25;
+  private static final Duration BATCH_DEADLINE = Duration.ofSeconds(5);
+  // Query timeouts are whole seconds, so a search may overrun its deadline by up to a second before it gives up.
+  private static final Duration DEADLINE_GRACE = Duration.ofSeconds(1);
+
+  private final SearchRequests searchRequests;
+  private final ExecutorService searchExecutor;
+
+  /**
+   * Constructs an instance of BatchSearchController with necessary dependency.
+   *
+   * @param searchRequests The resolver and runner of searches.
+   * @param searchExecutor The executor that the searches of a batch are run on.
+   */
+  @Autowired
+  public BatchSearchController(SearchRequests searchRequests, SearchExecutor searchExecutor) {
+    this.searchRequests = searchRequests;
+    this.searchExecutor = searchExecutor.getExecutorService();
+  }
+
+  /**
+   * Runs several searches in one request, see {@link SearchController#search}. Each search is given with the same fields as the
+   * parameters of a single search, and an optional key. The searches are run concurrently. Each search may take
+   * the time it asks for, but no longer than {@link #BATCH_DEADLINE} from the start of the request; a search that
+   * runs out of time responds with the trips found so far, flagged as partial, instead of holding up the others.
+   *
+   * @param specs The searches to run.
+   * @return ResponseEntity containing the result of each search by its key, or an error message.
+   */
+  @PostMapping("/batch")
+  @Operation(summary = "Run several searches at once",
+      description = "Runs up to " + MAX_BATCH_SIZE + " searches concurrently and returns the result of each under its " +
+          "key, or its index in the batch when no key is given. Each result holds the status the single search " +
+          "would have responded with.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully ran the searches", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid batch provided", content = @Content)
+  })
+  @JsonView(Views.Search.class)
+  public ResponseEntity<?> batchSearch(@RequestBody List<BatchSearchSpec> specs) {
+    if (specs == null || specs.isEmpty() || specs.size() > MAX_BATCH_SIZE) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A batch must contain between 1 and " + MAX_BATCH_SIZE + " searches");
+    }
+    if (specs.contains(null)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Searches cannot be null");
+    }
+    SearchDeadline batchDeadline = SearchDeadline.after(BATCH_DEADLINE);
+
+    List<String> keys = new ArrayList<>();
+    Map<String, BatchSearchResult> results = new HashMap<>();
+    Map<String, Future<TripSearchPage>> searches = new LinkedHashMap<>();
+    Map<String, SearchDeadline> deadlines = new HashMap<>();
+    for (int i = 0; i < specs.size(); i++) {
+      BatchSearchSpec spec = specs.get(i);
+      String key = spec.getKey() != null ? spec.getKey() : String.valueOf(i);
+      if (keys.contains(key)) {
+        searches.values().forEach(search -> search.cancel(true));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Duplicate search key: " + key);
+      }
+      keys.add(key);
+      try {
+        SearchRequests.SpecSearch search = searchRequests.toSpecSearch(spec);
+        SearchDeadline deadline = searchRequests.toDeadline(spec.getTimeout()).min(batchDeadline);
+        deadlines.put(key, deadline);
+        searches.put(key, searchExecutor.submit(() -> searchRequests.findTrips(search.query(), search.sort(), search.filter(),
+            search.after(), search.pageable(), search.facets(), deadline)));
+      } catch (IllegalArgumentException e) {
+        results.put(key, new BatchSearchResult(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+      }
+    }
+
+    for (Map.Entry<String, Future<TripSearchPage>> search : searches.entrySet()) {
+      results.put(search.getKey(), awaitSearch(search.getValue(), deadlines.get(search.getKey())));
+    }
+    Map<String, BatchSearchResult> ordered = new LinkedHashMap<>();
+    keys.forEach(key -> ordered.put(key, results.get(key)));
+    return ResponseEntity.ok(ordered);
+  }
+
+  /**
+   * Waits for a search of a batch. Searches respond with partial results at their deadline, so a search is only
+   * reported as timed out if it overruns its deadline by more than {@link #DEADLINE_GRACE}.
+   */
+  private BatchSearchResult awaitSearch(Future<TripSearchPage> search, SearchDeadline deadline) {
+    BatchSearchResult result;
+    try {
+      TripSearchPage trips = search.get(deadline.remainingNanos() + DEADLINE_GRACE.toNanos(), TimeUnit.NANOSECONDS);
+      if (trips.getTrips().isEmpty() && trips.getFacets() == null && !trips.isPartial()) {
+        result = new BatchSearchResult(HttpStatus.NOT_FOUND.value(), "No trips found");
+      } else {
+        result = new BatchSearchResult(trips);
+      }
+    } catch (TimeoutException e) {
+      search.cancel(true);
+      result = new BatchSearchResult(HttpStatus.GATEWAY_TIMEOUT.value(), "Search timed out");
+    } catch (InterruptedException e) {
+      search.cancel(true);
+      Thread.currentThread().interrupt();
+      result = new BatchSearchResult(HttpStatus.SERVICE_UNAVAILABLE.value(), "Search was interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IllegalStateException) {
+        result = new BatchSearchResult(HttpStatus.SERVICE_UNAVAILABLE.value(), SearchRequests.UNAVAILABLE_MESSAGE);
+      } else {
+        result = new BatchSearchResult(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Search failed");
+      }
+    }
+    return result;
+  }
+}
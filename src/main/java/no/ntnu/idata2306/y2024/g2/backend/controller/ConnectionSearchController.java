@@ -0,0 +1,129 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.ItinerarySearchResult;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ItineraryEngine;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQuery;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.FlightService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * Represents a rest controller for searches of itineraries built from connecting flights.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("search")
+@Tag(name = "Search API")
+public class ConnectionSearchController {
+
+  private static final int MAX_STOPS = 3;
+  private static final Duration MAX_CONNECTION = Duration.ofHours(24);
+
+  private final SearchRequests searchRequests;
+  private final FlightService flightService;
+
+  /**
+   * Constructs an instance of ConnectionSearchController with necessary dependency.
+   *
+   * @param searchRequests The resolver of search parameters.
+   * @param flightService  The service handling flights.
+   */
+  @Autowired
+  public ConnectionSearchController(SearchRequests searchRequests, FlightService flightService) {
+    this.searchRequests = searchRequests;
+    this.flightService = flightService;
+  }
+
+  /**
+   * Searches for itineraries built from connecting flights at query time, instead of stored trips.
+   * The itineraries are returned in the same shape as {@link SearchController#search}, without ids and prices.
+   *
+   * @param fromAirportId        The ID of the departure airport.
+   * @param fromLocationId       The ID of the departure location.
+   * @param toAirportId          The ID of the arrival airport.
+   * @param toLocationId         The ID of the arrival location.
+   * @param departureDate        The start date for departure.
+   * @param returnDate           The start date for return (optional for one-way itineraries).
+   * @param maxStops             The maximum number of stops per direction.
+   * @param minConnectionMinutes The minimum time between two connecting flights, in minutes.
+   * @param limit                The number of records per page.
+   * @param page                 The page number.
+   * @param timeout              The time the search may take, in milliseconds (optional).
+   * @return ResponseEntity containing the list of itineraries or an error message.
+   */
+  @GetMapping("/connections")
+  @Operation(summary = "Search for connecting itineraries",
+      description = "Builds one-way or round trip itineraries from the flight timetable, with up to maxStops stops " +
+          "and at least minConnectionMinutes between connecting flights. A search that has to stop before it has " +
+          "looked at every flight, or that runs past its timeout, responds with the itineraries found so far and the " +
+          SearchController.PARTIAL_HEADER + " header.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of itineraries", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid parameters provided", content = @Content),
+      @ApiResponse(responseCode = "404", description = "No itineraries found matching the criteria", content = @Content)
+  })
+  @JsonView(Views.Search.class)
+  public ResponseEntity<?> searchConnections(
+      @RequestParam(required = false) Integer fromAirportId,
+      @RequestParam(required = false) Integer fromLocationId,
+      @RequestParam(required = false) Integer toAirportId,
+      @RequestParam(required = false) Integer toLocationId,
+      @RequestParam Long departureDate,
+      @RequestParam(required = false) Long returnDate,
+      @RequestParam(defaultValue = "1") Integer maxStops,
+      @RequestParam(defaultValue = "45") Integer minConnectionMinutes,
+      @RequestParam(name = "l") Integer limit,
+      @RequestParam(name = "p") Integer page,
+      @RequestParam(required = false) Long timeout
+  ) {
+    if (maxStops < 0 || maxStops > MAX_STOPS) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("maxStops must be between 0 and " + MAX_STOPS);
+    }
+    if (minConnectionMinutes < 0) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("minConnectionMinutes cannot be negative");
+    }
+
+    SearchQuery query;
+    SearchDeadline deadline;
+    try {
+      query = searchRequests.toSearchQuery(fromAirportId, fromLocationId, toAirportId, toLocationId, departureDate, returnDate);
+      deadline = searchRequests.toDeadline(timeout);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    ItineraryEngine.Limits limits = new ItineraryEngine.Limits(maxStops, Duration.ofMinutes(minConnectionMinutes), MAX_CONNECTION);
+    Pageable pageable = PageRequest.of(page, limit);
+    ItineraryEngine.Page<ItinerarySearchResult> itineraries;
+    if (query.isRoundTrip()) {
+      itineraries = flightService.getRoundTripItineraries(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), limits, pageable, deadline);
+    } else {
+      itineraries = flightService.getOneWayItineraries(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), limits, pageable, deadline);
+    }
+    if (itineraries.items().isEmpty() && !itineraries.partial()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No itineraries found");
+    }
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+    if (itineraries.partial()) {
+      ok.header(SearchController.PARTIAL_HEADER, "true");
+    }
+    return ok.body(itineraries.items());
+  }
+}
@@ -0,0 +1,92 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.IngestReport;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestFormat;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestKind;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.IngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a rest controller for ingesting flights, trips and prices in bulk.
+ * The body is streamed to the ingest service as it arrives, so bodies of any size can be posted.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("ingest")
+@Tag(name = "Ingest API")
+public class IngestController {
+
+  private final IngestService ingestService;
+  private static final Logger logger = LoggerFactory.getLogger(IngestController.class);
+
+  /**
+   * Constructs an instance of IngestController with necessary dependency.
+   *
+   * @param ingestService The Service handling ingest operations.
+   */
+  @Autowired
+  public IngestController(IngestService ingestService) {
+    this.ingestService = ingestService;
+  }
+
+  /**
+   * Ingests flights, trips or prices from a body of newline delimited JSON or CSV.
+   *
+   * @param kind    What the rows are: flights, trips or prices.
+   * @param request The request, whose body is read one row at a time.
+   * @return Return a ResponseEntity with the report of the ingest, or a Bad Request status if the body cannot be read.
+   */
+  @PostMapping(value = "/{kind}", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @Operation(summary = "Ingest Flights, Trips or Prices",
+      description = "Writes the rows of a body of newline delimited JSON, or CSV with a header, in batches. " +
+          "Airports are referred to by code, airlines and providers by name, and class types and extra features by " +
+          "description. Flights are referred to as name@departureDate, lists are separated by | and prices of trips " +
+          "are written provider:price:currency. Rows that cannot be written are reported with their line. " +
+          "Requires ROLE_ADMIN authority.",
+      security = @SecurityRequirement(name = "bearerAuth"))
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "The body was ingested, the report is in the response body."),
+      @ApiResponse(responseCode = "400", description = "Unknown kind, or a body that cannot be read.", content = @Content)
+  })
+  public ResponseEntity<?> ingest(@PathVariable String kind, HttpServletRequest request) {
+    ResponseEntity<?> response;
+    try {
+      MediaType contentType = MediaType.parseMediaType(request.getContentType());
+      Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+      try (Reader body = new InputStreamReader(request.getInputStream(), charset)) {
+        IngestReport report = ingestService.ingest(IngestKind.of(kind), IngestFormat.of(contentType), body);
+        logger.info("Ingested {} rows of {}.", report.getRowsWritten(), kind);
+        response = new ResponseEntity<>(report, HttpStatus.OK);
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      logger.warn("Could not ingest {}: {}", kind, e.getMessage());
+      response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+    return response;
+  }
+
+}
@@ -1,11 +1,13 @@
 package no.ntnu.idata2306.y2024.g2.backend.controller;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
 import no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
 import no.ntnu.idata2306.y2024.g2.backend.db.services.LocationService;
@@ -48,12 +50,13 @@ public class LocationController {
   }
 
   /**
-   * Return all Locations
+   * Return all Locations, without their images.
    *
    * @return Return all Locations.
    */
   @GetMapping
-  @Operation(summary = "Get all Locations.", description = "Get an JSON list of all Locations.")
+  @JsonView(Views.Search.class)
+  @Operation(summary = "Get all Locations.", description = "Get an JSON list of all Locations, without their images.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "The Location return in the response body."),
       @ApiResponse(responseCode = "204", description = "No Location are available, none exist.", content = @Content)
@@ -96,6 +99,24 @@ public class LocationController {
     return response;
   }
 
+  /**
+   * Return the image of a location, which the list of locations does not include.
+   *
+   * @param id The id of the location
+   * @return Return the image of the location, or 404 if there is no such location or it has no image
+   */
+  @GetMapping("/{id}/image")
+  @Operation(summary = "Get the image of a Location.", description = "Get the image of a single Location.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "The image return in the response body."),
+      @ApiResponse(responseCode = "404", description = "No Location with that id, or it has no image.", content = @Content)
+  })
+  public ResponseEntity<String> getImage(@PathVariable Integer id) {
+    return locationService.getLocationImage(id)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("No image found."));
+  }
+
   /**
    * Adds a new location.
    *
@@ -188,15 +209,32 @@ public class LocationController {
     return response;
   }
 
+  /**
+   * Return the locations with the most arrivals in the days before and after today.
+   *
+   * @param fromLocationId The id of the location the flights depart from, or null for flights from anywhere.
+   * @param days           The number of days before and after today that arrivals are counted in, 5 by default.
+   * @param limit          The maximum number of locations to return, 5 by default.
+   * @return Return the locations with their number of arrivals, the most popular first.
+   */
   @GetMapping("/popularDestinations")
   public ResponseEntity<?> getPopularDestinations(@RequestParam(required = false) Integer fromLocationId,
+                                                  @RequestParam(required = false, name = "d") Integer days,
                                                   @RequestParam(required = false, name = "l") Integer limit
   ) {
+    if (days == null) {
+      days = 5;
+    }
     if (limit == null) {
       limit = 5;
     }
     Location fromLocation = fromLocationId != null ? locationService.getLocation(fromLocationId).orElse(null) : null;
-    List<PopularDestination> locations = locationService.getPopularDestinations(fromLocation, true, limit);
+    List<PopularDestination> locations;
+    try {
+      locations = locationService.getPopularDestinations(fromLocation, true, days, limit);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
 
     if (locations.isEmpty()) {
       return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No popular destinations found.");
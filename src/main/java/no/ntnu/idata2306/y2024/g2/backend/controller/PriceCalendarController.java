@@ -0,0 +1,148 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.CalendarFare;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQuery;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.TripService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Represents a rest controller for the lowest prices of a route per day.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("search")
+@Tag(name = "Search API")
+public class PriceCalendarController {
+
+  private static final int MAX_CALENDAR_DAYS = 62;
+
+  private final SearchRequests searchRequests;
+  private final TripService tripService;
+
+  /**
+   * Constructs an instance of PriceCalendarController with necessary dependency.
+   *
+   * @param searchRequests The resolver of search parameters.
+   * @param tripService    The service handling trips.
+   */
+  @Autowired
+  public PriceCalendarController(SearchRequests searchRequests, TripService tripService) {
+    this.searchRequests = searchRequests;
+    this.tripService = tripService;
+  }
+
+  /**
+   * Returns the lowest price per departure day of a route, for drawing a fare calendar.
+   * The departure days are given either as a month or as a range of days. When a range of return days is given
+   * as well, the lowest price is returned per pair of departure and return day instead.
+   *
+   * @param fromAirportId  The ID of the departure airport.
+   * @param fromLocationId The ID of the departure location.
+   * @param toAirportId    The ID of the arrival airport.
+   * @param toLocationId   The ID of the arrival location.
+   * @param month          The month of departure, as yyyy-MM.
+   * @param departureFrom  The first day of departure, as an epoch unix timestamp.
+   * @param departureTo    The last day of departure, as an epoch unix timestamp.
+   * @param returnFrom     The first day of return, as an epoch unix timestamp (optional for one-way trips).
+   * @param returnTo       The last day of return, as an epoch unix timestamp (optional for one-way trips).
+   * @return ResponseEntity containing the lowest price of each day or an error message.
+   */
+  @GetMapping("/calendar")
+  @Operation(summary = "Get a price calendar",
+      description = "Returns the lowest price of the trips on a route per departure day, or per departure and " +
+          "return day for round trips, for up to " + MAX_CALENDAR_DAYS + " days in each direction.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved the price calendar", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid parameters provided", content = @Content),
+      @ApiResponse(responseCode = "404", description = "No prices found matching the criteria", content = @Content),
+      @ApiResponse(responseCode = "503", description = "The search index is still being built", content = @Content)
+  })
+  @JsonView(Views.Search.class)
+  public ResponseEntity<?> priceCalendar(
+      @RequestParam(required = false) Integer fromAirportId,
+      @RequestParam(required = false) Integer fromLocationId,
+      @RequestParam(required = false) Integer toAirportId,
+      @RequestParam(required = false) Integer toLocationId,
+      @RequestParam(required = false) String month,
+      @RequestParam(required = false) Long departureFrom,
+      @RequestParam(required = false) Long departureTo,
+      @RequestParam(required = false) Long returnFrom,
+      @RequestParam(required = false) Long returnTo
+  ) {
+    SearchQuery query;
+    try {
+      searchRequests.checkEndpoints(fromAirportId, fromLocationId, toAirportId, toLocationId);
+      Pair<LocalDateTime, LocalDateTime> departureDays;
+      if (month != null && departureFrom == null && departureTo == null) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        departureDays = toDayWindow(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+      } else if (month == null && departureFrom != null && departureTo != null) {
+        departureDays = toDayWindow(toDate(departureFrom), toDate(departureTo));
+      } else {
+        throw new IllegalArgumentException("Either month or both departureFrom and departureTo must be provided");
+      }
+      Pair<LocalDateTime, LocalDateTime> returnDays = null;
+      if (returnFrom != null && returnTo != null) {
+        returnDays = toDayWindow(toDate(returnFrom), toDate(returnTo));
+      } else if (returnFrom != null || returnTo != null) {
+        throw new IllegalArgumentException("Both returnFrom and returnTo must be provided for round trips");
+      }
+      query = new SearchQuery(searchRequests.getAirportIdsByIdOrLocation(fromAirportId, fromLocationId),
+          searchRequests.getAirportIdsByIdOrLocation(toAirportId, toLocationId), departureDays.getFirst(), departureDays.getSecond(),
+          returnDays != null ? returnDays.getFirst() : null, returnDays != null ? returnDays.getSecond() : null);
+    } catch (DateTimeException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid month or dates. Month must be yyyy-MM and dates epoch unix timestamps");
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    if (!tripService.isSearchIndexReady()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("The price calendar is not available yet");
+    }
+    List<CalendarFare> calendar = tripService.getPriceCalendar(query);
+    if (calendar.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No prices found");
+    }
+    return ResponseEntity.ok(calendar);
+  }
+
+  /**
+   * Returns the window from the start of the first day to the end of the last day, both in UTC.
+   *
+   * @throws IllegalArgumentException If the window is empty or longer than {@link #MAX_CALENDAR_DAYS}.
+   */
+  private Pair<LocalDateTime, LocalDateTime> toDayWindow(LocalDate first, LocalDate last) throws IllegalArgumentException {
+    if (last.isBefore(first) || ChronoUnit.DAYS.between(first, last) >= MAX_CALENDAR_DAYS) {
+      throw new IllegalArgumentException("A calendar must span between 1 and " + MAX_CALENDAR_DAYS + " days");
+    }
+    return Pair.of(first.atStartOfDay(), last.atTime(LocalTime.MAX).withNano(0));
+  }
+
+  private LocalDate toDate(long epochSecond) {
+    return LocalDate.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+  }
+}
@@ -7,33 +7,37 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import com.fasterxml.jackson.annotation.JsonView;
 import no.ntnu.idata2306.y2024.g2.backend.Views;
-import no.ntnu.idata2306.y2024.g2.backend.db.dto.AutocompleteLocation;
-import no.ntnu.idata2306.y2024.g2.backend.db.dto.LocationType;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.FacetedSearchResult;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
 import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult;
-import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
-import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
-import no.ntnu.idata2306.y2024.g2.backend.db.services.AirportService;
-import no.ntnu.idata2306.y2024.g2.backend.db.services.LocationService;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchCursor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchExecutor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchFilter;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQuery;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchSort;
 import no.ntnu.idata2306.y2024.g2.backend.db.services.TripService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.util.Pair;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
- * Represents a rest controller for locations entities.
- * Provides CRUD operations.
+ * Represents a rest controller for searches of stored trips.
+ * Provides paged, sorted, filtered and faceted searches, and searches streamed as they are loaded.
  *
  * @author Anders Lund
  * @version 18.05.2024
@@ -44,56 +48,87 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Tag(name = "Search API")
 public class SearchController {
 
+  /**
+   * The response header holding the cursor of the next page of a search.
+   */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  /**
+   * The response header that is set when a search reached its deadline and only holds the trips found so far.
+   */
+  public static final String PARTIAL_HEADER = "X-Partial-Results";
+  private static final String NDJSON_VALUE = "application/x-ndjson";
+  private static final int STREAM_CHUNK_SIZE = 100;
+  private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(5);
+
+  private final SearchRequests searchRequests;
   private final TripService tripService;
-  private final LocationService locationService;
-  private final AirportService airportService;
+  private final ExecutorService searchExecutor;
 
   /**
    * Constructs an instance of SearchController with necessary dependency.
    *
-   * @param tripService     The service handling trips.
-   * @param locationService The service handling locations.
-   * @param airportService  The service handling airports.
+   * @param searchRequests The resolver and runner of searches.
+   * @param tripService    The service handling trips.
+   * @param searchExecutor The executor that streamed searches are run on.
    */
   @Autowired
-  public SearchController(TripService tripService, LocationService locationService, AirportService airportService) {
+  public SearchController(SearchRequests searchRequests, TripService tripService, SearchExecutor searchExecutor) {
+    this.searchRequests = searchRequests;
     this.tripService = tripService;
-    this.locationService = locationService;
-    this.airportService = airportService;
-  }
-
-  private List<Integer> getAirportIdsByIdOrLocation(Integer airportId, Integer locationId) throws IllegalArgumentException {
-    List<Integer> airportIds = new ArrayList<>();
-    if (airportId != null) {
-      airportService.getAirport(airportId).ifPresent(fromAirport -> airportIds.add(fromAirport.getId()));
-    } else if (locationId != null) {
-      airportService.getAirportsByLocation(locationService.getLocation(locationId).orElse(null)).forEach(airport -> airportIds.add(airport.getId()));
-    } else {
-      throw new IllegalArgumentException("Either airportId or locationId must be provided");
-    }
-    return airportIds;
+    this.searchExecutor = searchExecutor.getExecutorService();
   }
 
   /**
    * Performs a complex search for trips based on various criteria.
+   * Pages can be requested by page number, or by passing the cursor from the {@value #NEXT_CURSOR_HEADER}
+   * header of the previous response, which continues right after the last trip of that page.
+   * The trips are ordered by departure date unless another sort is given, and can be narrowed down by stops,
+   * airlines, time of day and price. Sorting and filtering are done before paging, so only the requested page
+   * is loaded.
+   * When facets are asked for, the response is an object holding the trips of the page and the number of trips
+   * per airline, number of stops and price range of the whole search, counted in the same pass as the page.
+   * Since the facets tell how to widen a search that found nothing, such a search responds with the facets
+   * instead of 404.
+   * A search may take a limited time, which the client can shorten or extend up to a maximum. The time is also
+   * the timeout of its database queries. A search that runs out of time responds with the trips found so far and
+   * the {@value #PARTIAL_HEADER} header, instead of holding the request; its cursor continues after the last trip
+   * found.
    *
-   * @param fromAirportId  The ID of the departure airport.
-   * @param fromLocationId The ID of the departure location.
-   * @param toAirportId    The ID of the arrival airport.
-   * @param toLocationId   The ID of the arrival location.
-   * @param departureDate  The start date for departure.
-   * @param returnDate     The end date for return (optional for one-way trips).
-   * @param limit          The number of records per page.
-   * @param page           The page number.
-   * @return ResponseEntity containing the list of trips or an error message.
+   * @param fromAirportId     The ID of the departure airport.
+   * @param fromLocationId    The ID of the departure location.
+   * @param toAirportId       The ID of the arrival airport.
+   * @param toLocationId      The ID of the arrival location.
+   * @param departureDate     The start date for departure.
+   * @param returnDate        The end date for return (optional for one-way trips).
+   * @param limit             The number of records per page.
+   * @param page              The page number; ignored when a cursor is given.
+   * @param cursor            The cursor of the previous page (optional).
+   * @param sort              The order of the trips: departure, arrival, price or duration (optional).
+   * @param maxStops          The most stops allowed on either leg (optional).
+   * @param airlineIds        The airlines to search for; a trip needs a flight by one of them (optional).
+   * @param departureTimeFrom The earliest time of day to depart, as HH:mm in UTC (optional).
+   * @param departureTimeTo   The latest time of day to depart, as HH:mm in UTC (optional).
+   * @param arrivalTimeFrom   The earliest time of day to arrive, as HH:mm in UTC (optional).
+   * @param arrivalTimeTo     The latest time of day to arrive, as HH:mm in UTC (optional).
+   * @param maxPrice          The highest price allowed (optional).
+   * @param facets            Whether to respond with the facets of the search as well.
+   * @param timeout           The time the search may take, in milliseconds (optional).
+   * @return ResponseEntity containing the list of trips, or the trips and facets, or an error message.
    */
   @GetMapping
   @Operation(summary = "Search for trips",
-      description = "Performs search for one-way or round trips based on departure and arrival locations and dates.")
+      description = "Performs search for one-way or round trips based on departure and arrival locations and dates. " +
+          "The trips can be sorted by departure, arrival, price or duration, and filtered by stops, airlines, " +
+          "time of day and price. With facets=true the trips are returned together with the number of trips per " +
+          "airline, number of stops and price range. A search that runs out of time responds with the trips found " +
+          "so far and the " + PARTIAL_HEADER + " header.")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of trips", content = @Content),
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved the list of trips. " +
+          "The " + NEXT_CURSOR_HEADER + " header holds the cursor of the next page, if there is one", content = @Content),
       @ApiResponse(responseCode = "400", description = "Invalid parameters provided", content = @Content),
-      @ApiResponse(responseCode = "404", description = "No trips found matching the criteria", content = @Content)
+      @ApiResponse(responseCode = "404", description = "No trips found matching the criteria", content = @Content),
+      @ApiResponse(responseCode = "503", description = "Sorting, filtering and facets are not available until the " +
+          "search index is built", content = @Content)
   })
   @JsonView(Views.Search.class)
   public ResponseEntity<?> search(
@@ -104,80 +139,167 @@ public class SearchController {
       @RequestParam Long departureDate,
       @RequestParam(required = false) Long returnDate,
       @RequestParam(name = "l") Integer limit,
-      @RequestParam(name = "p") Integer page
+      @RequestParam(name = "p", defaultValue = "0") Integer page,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) Integer maxStops,
+      @RequestParam(required = false) List<Integer> airlineIds,
+      @RequestParam(required = false) String departureTimeFrom,
+      @RequestParam(required = false) String departureTimeTo,
+      @RequestParam(required = false) String arrivalTimeFrom,
+      @RequestParam(required = false) String arrivalTimeTo,
+      @RequestParam(required = false) Integer maxPrice,
+      @RequestParam(defaultValue = "false") boolean facets,
+      @RequestParam(required = false) Long timeout
   ) {
     ResponseEntity<?> response;
-    List<Integer> fromAirportIds;
-    List<Integer> toAirportIds;
-    Pair<LocalDateTime, LocalDateTime> parsedDepartureDate;
-    Pair<LocalDateTime, LocalDateTime> parsedReturnDate = null;
-
-//    System out the headers of the request
-
-    int dateOffset = 2;
-
-    if (fromAirportId == null && fromLocationId == null) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Either fromAirportId or fromLocationId must be provided");
-    }
-    if (toAirportId == null && toLocationId == null) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Either toAirportId or toLocationId must be provided");
-    }
-
-    AtomicBoolean fromAirportSuccess = new AtomicBoolean(false);
+    SearchQuery query;
+    SearchSort order;
+    SearchFilter filter;
+    SearchCursor after;
+    SearchDeadline deadline;
     try {
-      fromAirportIds = new ArrayList<>(getAirportIdsByIdOrLocation(fromAirportId, fromLocationId));
-      fromAirportSuccess.set(true);
-      toAirportIds = new ArrayList<>(getAirportIdsByIdOrLocation(toAirportId, toLocationId));
-    } catch (NumberFormatException e) {
-      String parameterPrefix = fromAirportSuccess.get() ? "to" : "from";
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid " + parameterPrefix + "AirportId or " + parameterPrefix + "LocationId. Must be an integer");
+      deadline = searchRequests.toDeadline(timeout);
+      query = searchRequests.toSearchQuery(fromAirportId, fromLocationId, toAirportId, toLocationId, departureDate, returnDate);
+      order = SearchSort.parse(sort);
+      filter = searchRequests.toSearchFilter(maxStops, airlineIds, departureTimeFrom, departureTimeTo, arrivalTimeFrom, arrivalTimeTo, maxPrice);
+      after = searchRequests.toCursor(cursor, order);
     } catch (IllegalArgumentException e) {
       return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
+    TripSearchPage trips;
     try {
-      LocalDateTime fromDateLower = LocalDateTime.ofInstant(Instant.ofEpochSecond(departureDate), ZoneId.ofOffset("UTC", ZoneOffset.UTC)).withHour(0).withMinute(0).withSecond(0);
-      LocalDateTime fromDateUpper = fromDateLower.plusDays(dateOffset);
-      parsedDepartureDate = Pair.of(fromDateLower, fromDateUpper);
-      if (returnDate != null) {
-        LocalDateTime toDateLower = LocalDateTime.ofInstant(Instant.ofEpochSecond(returnDate), ZoneId.ofOffset("UTC", ZoneOffset.UTC)).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime toDateUpper = toDateLower.plusDays(dateOffset);
-        parsedReturnDate = Pair.of(toDateLower, toDateUpper);
-      }
-    } catch (Exception e) {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid fromDate or toDate. Must be epoch unix timestamps");
+      trips = searchRequests.findTrips(query, order, filter, after, PageRequest.of(page, limit), facets, deadline);
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(SearchRequests.UNAVAILABLE_MESSAGE);
     }
-
-    Pageable pageable = PageRequest.of(page, limit);
-
-    List<TripSearchResult> trips = new ArrayList<>();
-    if (parsedReturnDate != null) {
-      trips.addAll(tripService.getRoundTripTripsByAirportIdsAndDateRange(fromAirportIds, toAirportIds, parsedDepartureDate.getFirst(), parsedDepartureDate.getSecond(), parsedReturnDate.getFirst(), parsedReturnDate.getSecond(), pageable));
-    } else {
-      trips.addAll(tripService.getOneWayTripsByAirportIdsAndDepartureDate(fromAirportIds, toAirportIds, parsedDepartureDate.getFirst(), parsedDepartureDate.getSecond(), pageable));
-    }
-    if (trips.isEmpty()) {
+    if (trips.getTrips().isEmpty() && !facets && !trips.isPartial()) {
       response = ResponseEntity.status(HttpStatus.NOT_FOUND).body("No trips found");
     } else {
-      response = ResponseEntity.ok(trips);
+      ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+      if (trips.getNextCursor() != null) {
+        ok.header(NEXT_CURSOR_HEADER, trips.getNextCursor().encode());
+      }
+      if (trips.isPartial()) {
+        ok.header(PARTIAL_HEADER, "true");
+      }
+      response = facets ? ok.body(new FacetedSearchResult(trips)) : ok.body(trips.getTrips());
     }
     return response;
   }
 
-  @GetMapping("/autocomplete-locations")
-  public ResponseEntity<?> autocompleteLocations() {
-    List<AutocompleteLocation> autocompleteLocations = new ArrayList<>();
-    List<Location> locations = locationService.getAllLocations();
-    List<Airport> airports = airportService.getAllAirports();
+  /**
+   * Streams the results of a search instead of returning them as one list, see {@link #search}.
+   * Selected by requesting application/x-ndjson, which writes one trip per line, or text/event-stream, which
+   * sends one trip event per trip. Trips are loaded and written one chunk at a time, so memory use does not grow
+   * with the number of results. A stream that reaches its deadline ends with a partial line, or a partial event,
+   * holding the cursor to continue from.
+   *
+   * @param fromAirportId  The ID of the departure airport.
+   * @param fromLocationId The ID of the departure location.
+   * @param toAirportId    The ID of the arrival airport.
+   * @param toLocationId   The ID of the arrival location.
+   * @param departureDate  The start date for departure.
+   * @param returnDate     The end date for return (optional for one-way trips).
+   * @param limit          The maximum number of trips to stream (optional).
+   * @param cursor         The cursor to start streaming after (optional).
+   * @param accept         The accepted media types of the request.
+   * @return ResponseEntity streaming the trips, or an error message.
+   */
+  @GetMapping(produces = {NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  @Operation(summary = "Stream search results",
+      description = "Performs the same search as the list endpoint, but streams the trips as newline delimited JSON " +
+          "or server-sent events as soon as they are loaded. A stream cut short by its deadline ends with " +
+          "{\"partial\":true,\"nextCursor\":...} as its last line, or as the data of a partial event.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Streaming the matching trips", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid parameters provided", content = @Content)
+  })
+  public ResponseEntity<ResponseBodyEmitter> streamSearch(
+      @RequestParam(required = false) Integer fromAirportId,
+      @RequestParam(required = false) Integer fromLocationId,
+      @RequestParam(required = false) Integer toAirportId,
+      @RequestParam(required = false) Integer toLocationId,
+      @RequestParam Long departureDate,
+      @RequestParam(required = false) Long returnDate,
+      @RequestParam(name = "l", required = false) Integer limit,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(HttpHeaders.ACCEPT) String accept
+  ) {
+    SearchQuery query;
+    SearchCursor after;
+    try {
+      query = searchRequests.toSearchQuery(fromAirportId, fromLocationId, toAirportId, toLocationId, departureDate, returnDate);
+      after = searchRequests.toCursor(cursor, SearchSort.DEPARTURE);
+      if (limit != null && limit < 0) {
+        throw new IllegalArgumentException("Limit cannot be negative");
+      }
+    } catch (IllegalArgumentException e) {
+      ResponseBodyEmitter error = new ResponseBodyEmitter();
+      try {
+        error.send(e.getMessage(), MediaType.TEXT_PLAIN);
+        error.complete();
+      } catch (IOException ioException) {
+        error.completeWithError(ioException);
+      }
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.TEXT_PLAIN).body(error);
+    }
+
+    boolean sse = MediaType.parseMediaTypes(accept).stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+    ResponseBodyEmitter emitter = sse ? new SseEmitter(STREAM_TIMEOUT.toMillis()) : new ResponseBodyEmitter(STREAM_TIMEOUT.toMillis());
+    int maxTrips = limit != null ? limit : Integer.MAX_VALUE;
+    // Written from a separate thread, so each chunk is loaded in its own short session instead of the request's.
+    searchExecutor.execute(() -> streamTrips(query, after, maxTrips, emitter, sse));
+    return ResponseEntity.ok()
+        .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.parseMediaType(NDJSON_VALUE))
+        .body(emitter);
+  }
 
-    locations.forEach(location -> autocompleteLocations.add(new AutocompleteLocation(location.getId(), location.getName(), LocationType.LOCATION)));
-    airports.forEach(airport -> autocompleteLocations.add(new AutocompleteLocation(airport.getId(), airport.getFullName(), LocationType.AIRPORT)));
+  private void streamTrips(SearchQuery query, SearchCursor after, int maxTrips, ResponseBodyEmitter emitter, boolean sse) {
+    // The stream is given up on after STREAM_TIMEOUT, so its queries may not take longer.
+    SearchDeadline deadline = SearchDeadline.after(STREAM_TIMEOUT);
+    try {
+      int sent = 0;
+      SearchCursor cursor = after;
+      boolean more = true;
+      while (more && sent < maxTrips) {
+        TripSearchPage chunk = tripService.getTripsAfter(query, cursor, Math.min(STREAM_CHUNK_SIZE, maxTrips - sent), deadline);
+        for (TripSearchResult trip : chunk.getTrips()) {
+          MappingJacksonValue value = new MappingJacksonValue(trip);
+          value.setSerializationView(Views.Search.class);
+          if (sse) {
+            ((SseEmitter) emitter).send(SseEmitter.event().name("trip").data(value, MediaType.APPLICATION_JSON));
+          } else {
+            emitter.send(value, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+          }
+        }
+        sent += chunk.getTrips().size();
+        cursor = chunk.getNextCursor();
+        if (chunk.isPartial()) {
+          sendPartial(emitter, sse, cursor);
+        }
+        more = cursor != null && !chunk.isPartial();
+      }
+      emitter.complete();
+    } catch (Exception e) {
+      emitter.completeWithError(e);
+    }
+  }
 
-    if (autocompleteLocations.isEmpty()) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No locations found");
+  /**
+   * Tells the client that the stream stopped at its deadline, and where to continue from.
+   */
+  private void sendPartial(ResponseBodyEmitter emitter, boolean sse, SearchCursor next) throws IOException {
+    Map<String, Object> partial = new LinkedHashMap<>();
+    partial.put("partial", true);
+    partial.put("nextCursor", next != null ? next.encode() : null);
+    if (sse) {
+      ((SseEmitter) emitter).send(SseEmitter.event().name("partial").data(partial, MediaType.APPLICATION_JSON));
     } else {
-      return ResponseEntity.ok(autocompleteLocations);
+      emitter.send(partial, MediaType.APPLICATION_JSON);
+      emitter.send("\n", MediaType.TEXT_PLAIN);
     }
   }
 }
-
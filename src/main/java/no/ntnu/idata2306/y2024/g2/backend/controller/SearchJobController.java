@@ -0,0 +1,138 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.BatchSearchSpec;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.SearchJobStatus;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchJob;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchJobs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Represents a rest controller for searches of trips that run in the background as search jobs.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("search")
+@Tag(name = "Search API")
+public class SearchJobController {
+
+  private final SearchRequests searchRequests;
+  private final SearchJobs searchJobs;
+
+  /**
+   * Constructs an instance of SearchJobController with necessary dependency.
+   *
+   * @param searchRequests The resolver and runner of searches.
+   * @param searchJobs     The search jobs running in the background.
+   */
+  @Autowired
+  public SearchJobController(SearchRequests searchRequests, SearchJobs searchJobs) {
+    this.searchRequests = searchRequests;
+    this.searchJobs = searchJobs;
+  }
+
+  /**
+   * Starts a search job, which runs a search in the background and loads its pages one after another, see
+   * {@link SearchController#search}. The search is given with the same fields as a search of a batch; its key and page number are
+   * not used, since the job starts at its cursor, or the first trip, and pages on its own. The response holds the
+   * id of the job to poll with {@link #getSearchJob}. A job may run for as long as the client asks for, up to a
+   * maximum, and stops at its last trip or after a maximum number of pages.
+   *
+   * @param spec The search to run.
+   * @return ResponseEntity containing the state of the started job, or an error message.
+   */
+  @PostMapping("/jobs")
+  @Operation(summary = "Start a search job",
+      description = "Starts running a search in the background and returns the id of the job right away. The pages " +
+          "of the search can be read from the job as soon as they are loaded.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "202", description = "Started the job. The Location header holds its URL", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid search provided", content = @Content),
+      @ApiResponse(responseCode = "503", description = "Too many search jobs are running", content = @Content)
+  })
+  @JsonView(Views.Search.class)
+  public ResponseEntity<?> startSearchJob(@RequestBody BatchSearchSpec spec) {
+    if (spec == null) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A search must be provided");
+    }
+    SearchRequests.SpecSearch search;
+    SearchDeadline deadline;
+    try {
+      search = searchRequests.toSpecSearch(spec);
+      deadline = searchRequests.toJobDeadline(spec.getTimeout());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    Pageable pageable = PageRequest.of(0, search.pageable().getPageSize());
+    SearchJob job;
+    try {
+      job = searchJobs.submit(search.after(), deadline, (after, page, jobDeadline) -> {
+        try {
+          return searchRequests.findTrips(search.query(), search.sort(), search.filter(), after, pageable,
+              search.facets() && page == 0, jobDeadline);
+        } catch (IllegalStateException e) {
+          throw new IllegalStateException(SearchRequests.UNAVAILABLE_MESSAGE, e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many search jobs, try again later");
+    }
+    return ResponseEntity.accepted()
+        .location(URI.create("/search/jobs/" + job.getId()))
+        .body(new SearchJobStatus(job, 0));
+  }
+
+  /**
+   * Returns the state of a search job, with the trips of one of its pages once that page has been loaded.
+   * A finished job is kept for a while after it finishes, so its pages can be read again without searching.
+   *
+   * @param id   The id of the job.
+   * @param page The page to return the trips of.
+   * @return ResponseEntity containing the state of the job, or an error message.
+   */
+  @GetMapping("/jobs/{id}")
+  @Operation(summary = "Get a search job",
+      description = "Returns the status of a search job, how many pages and trips it has found so far, and the trips " +
+          "of page p once it has been loaded.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved the job", content = @Content),
+      @ApiResponse(responseCode = "400", description = "Invalid page provided", content = @Content),
+      @ApiResponse(responseCode = "404", description = "No such job, or it has expired, or the finished job has no " +
+          "such page", content = @Content)
+  })
+  @JsonView(Views.Search.class)
+  public ResponseEntity<?> getSearchJob(@PathVariable String id, @RequestParam(name = "p", defaultValue = "0") Integer page) {
+    if (page < 0) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("p cannot be negative");
+    }
+    Optional<SearchJob> job = searchJobs.get(id);
+    if (job.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No search job found");
+    }
+    SearchJobStatus status = new SearchJobStatus(job.get(), page);
+    if (status.getStatus() == SearchJob.Status.DONE && status.getTrips() == null && page > 0) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body("The search job has no page " + page);
+    }
+    return ResponseEntity.ok(status);
+  }
+}
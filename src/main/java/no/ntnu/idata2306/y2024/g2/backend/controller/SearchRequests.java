@@ -0,0 +1,246 @@
+package no.ntnu.idata2306.y2024.g2.backend.controller;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.BatchSearchSpec;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchCursor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchFilter;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQuery;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchSort;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.AirportService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.TripService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Resolves the parameters shared by the search endpoints into searches, and runs searches of stored trips.
+ * The time a search may take is configured here, so every search endpoint gives its searches the same deadlines.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+class SearchRequests {
+
+  /**
+   * The message of a search that needs the search index before it is built.
+   */
+  static final String UNAVAILABLE_MESSAGE = "Sorting, filtering and facets are not available yet";
+
+  private final TripService tripService;
+  private final AirportService airportService;
+  private final Duration searchTimeout;
+  private final Duration maxSearchTimeout;
+  private final Duration maxJobTimeout;
+
+  /**
+   * Constructs an instance of SearchRequests with necessary dependency.
+   *
+   * @param tripService      The service handling trips.
+   * @param airportService   The service handling airports.
+   * @param searchTimeout    The time a search may take when the client does not ask for another.
+   * @param maxSearchTimeout The longest time a client may let a search take.
+   * @param maxJobTimeout    The longest time a search job may take.
+   */
+  @Autowired
+  public SearchRequests(TripService tripService, AirportService airportService,
+                        @Value("${search.timeout:3s}") Duration searchTimeout,
+                        @Value("${search.max-timeout:10s}") Duration maxSearchTimeout,
+                        @Value("${search.jobs.timeout:2m}") Duration maxJobTimeout) {
+    if (searchTimeout.isNegative() || searchTimeout.isZero() || maxSearchTimeout.compareTo(searchTimeout) < 0) {
+      throw new IllegalArgumentException("The search timeout must be positive and at most the max search timeout");
+    }
+    if (maxJobTimeout.isNegative() || maxJobTimeout.isZero()) {
+      throw new IllegalArgumentException("The search job timeout must be positive");
+    }
+    this.tripService = tripService;
+    this.airportService = airportService;
+    this.searchTimeout = searchTimeout;
+    this.maxSearchTimeout = maxSearchTimeout;
+    this.maxJobTimeout = maxJobTimeout;
+  }
+
+  List<Integer> getAirportIdsByIdOrLocation(Integer airportId, Integer locationId) throws IllegalArgumentException {
+    return airportService.resolveAirportIds(airportId, locationId);
+  }
+
+  /**
+   * Resolves the search parameters shared by the search endpoints.
+   *
+   * @throws IllegalArgumentException If a parameter is missing or invalid, with a message for the client.
+   */
+  SearchQuery toSearchQuery(Integer fromAirportId, Integer fromLocationId, Integer toAirportId, Integer toLocationId,
+                                    Long departureDate, Long returnDate) throws IllegalArgumentException {
+    int dateOffset = 2;
+
+    checkEndpoints(fromAirportId, fromLocationId, toAirportId, toLocationId);
+    List<Integer> fromAirportIds = getAirportIdsByIdOrLocation(fromAirportId, fromLocationId);
+    List<Integer> toAirportIds = getAirportIdsByIdOrLocation(toAirportId, toLocationId);
+
+    Pair<LocalDateTime, LocalDateTime> parsedDepartureDate;
+    Pair<LocalDateTime, LocalDateTime> parsedReturnDate = null;
+    try {
+      parsedDepartureDate = toDateWindow(departureDate, dateOffset);
+      if (returnDate != null) {
+        parsedReturnDate = toDateWindow(returnDate, dateOffset);
+      }
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid fromDate or toDate. Must be epoch unix timestamps");
+    }
+    return new SearchQuery(fromAirportIds, toAirportIds, parsedDepartureDate.getFirst(), parsedDepartureDate.getSecond(),
+        parsedReturnDate != null ? parsedReturnDate.getFirst() : null, parsedReturnDate != null ? parsedReturnDate.getSecond() : null);
+  }
+
+  void checkEndpoints(Integer fromAirportId, Integer fromLocationId, Integer toAirportId, Integer toLocationId) throws IllegalArgumentException {
+    if (fromAirportId == null && fromLocationId == null) {
+      throw new IllegalArgumentException("Either fromAirportId or fromLocationId must be provided");
+    }
+    if (toAirportId == null && toLocationId == null) {
+      throw new IllegalArgumentException("Either toAirportId or toLocationId must be provided");
+    }
+  }
+
+  /**
+   * Resolves the time a search may take, as asked for by the client, into its deadline.
+   *
+   * @param timeout The time in milliseconds, or null for the default.
+   * @throws IllegalArgumentException If the time is not positive.
+   */
+  SearchDeadline toDeadline(Long timeout) throws IllegalArgumentException {
+    if (timeout == null) {
+      return SearchDeadline.after(searchTimeout);
+    }
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    Duration requested = Duration.ofMillis(timeout);
+    return SearchDeadline.after(requested.compareTo(maxSearchTimeout) > 0 ? maxSearchTimeout : requested);
+  }
+
+  /**
+   * Resolves the time a search job may take, as asked for by the client, into its deadline.
+   *
+   * @param timeout The time in milliseconds, or null for the longest time a job may take.
+   * @throws IllegalArgumentException If the time is not positive.
+   */
+  SearchDeadline toJobDeadline(Long timeout) throws IllegalArgumentException {
+    if (timeout == null) {
+      return SearchDeadline.after(maxJobTimeout);
+    }
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    Duration requested = Duration.ofMillis(timeout);
+    return SearchDeadline.after(requested.compareTo(maxJobTimeout) > 0 ? maxJobTimeout : requested);
+  }
+
+  /**
+   * Resolves the filter parameters of a search.
+   *
+   * @throws IllegalArgumentException If a parameter is invalid, with a message for the client.
+   */
+  SearchFilter toSearchFilter(Integer maxStops, List<Integer> airlineIds, String departureTimeFrom,
+                                      String departureTimeTo, String arrivalTimeFrom, String arrivalTimeTo,
+                                      Integer maxPrice) throws IllegalArgumentException {
+    if (airlineIds != null && airlineIds.stream().anyMatch(Objects::isNull)) {
+      throw new IllegalArgumentException("Airline ids cannot be null");
+    }
+    try {
+      return new SearchFilter(maxStops, airlineIds != null ? Set.copyOf(airlineIds) : null,
+          departureTimeFrom != null ? LocalTime.parse(departureTimeFrom) : null,
+          departureTimeTo != null ? LocalTime.parse(departureTimeTo) : null,
+          arrivalTimeFrom != null ? LocalTime.parse(arrivalTimeFrom) : null,
+          arrivalTimeTo != null ? LocalTime.parse(arrivalTimeTo) : null, maxPrice);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid time. Times of day must be HH:mm");
+    }
+  }
+
+  /**
+   * Decodes the cursor of a search, which must have been returned by a search with the same sort.
+   *
+   * @throws IllegalArgumentException If the cursor is invalid or belongs to a search with another sort.
+   */
+  SearchCursor toCursor(String cursor, SearchSort sort) throws IllegalArgumentException {
+    if (cursor == null) {
+      return null;
+    }
+    SearchCursor after = SearchCursor.decode(cursor);
+    if (after.sort() != sort) {
+      throw new IllegalArgumentException("The cursor belongs to a search with another sort");
+    }
+    return after;
+  }
+
+  /**
+   * A search given in a request body, resolved.
+   */
+  record SpecSearch(SearchQuery query, SearchSort sort, SearchFilter filter, SearchCursor after,
+                            Pageable pageable, boolean facets) {
+  }
+
+  /**
+   * Resolves a search given in a request body.
+   *
+   * @throws IllegalArgumentException If a field is missing or invalid, with a message for the client.
+   */
+  SpecSearch toSpecSearch(BatchSearchSpec spec) throws IllegalArgumentException {
+    if (spec.getDepartureDate() == null) {
+      throw new IllegalArgumentException("departureDate must be provided");
+    }
+    if (spec.getLimit() == null || spec.getLimit() < 1) {
+      throw new IllegalArgumentException("l must be provided and positive");
+    }
+    if (spec.getPage() != null && spec.getPage() < 0) {
+      throw new IllegalArgumentException("p cannot be negative");
+    }
+    SearchQuery query = toSearchQuery(spec.getFromAirportId(), spec.getFromLocationId(), spec.getToAirportId(),
+        spec.getToLocationId(), spec.getDepartureDate(), spec.getReturnDate());
+    SearchSort sort = SearchSort.parse(spec.getSort());
+    SearchFilter filter = toSearchFilter(spec.getMaxStops(), spec.getAirlineIds(), spec.getDepartureTimeFrom(),
+        spec.getDepartureTimeTo(), spec.getArrivalTimeFrom(), spec.getArrivalTimeTo(), spec.getMaxPrice());
+    SearchCursor after = toCursor(spec.getCursor(), sort);
+    Pageable pageable = PageRequest.of(spec.getPage() != null ? spec.getPage() : 0, spec.getLimit());
+    return new SpecSearch(query, sort, filter, after, pageable, Boolean.TRUE.equals(spec.getFacets()));
+  }
+
+  private Pair<LocalDateTime, LocalDateTime> toDateWindow(long epochSecond, int dateOffset) {
+    LocalDateTime lower = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.ofOffset("UTC", ZoneOffset.UTC)).withHour(0).withMinute(0).withSecond(0);
+    return Pair.of(lower, lower.plusDays(dateOffset));
+  }
+
+  /**
+   * Runs a search. Searches in departure order without a filter or facets can also be answered before the search
+   * index is built.
+   *
+   * @throws IllegalStateException If the search is sorted, filtered or faceted and the search index is not built
+   *                               yet.
+   */
+  TripSearchPage findTrips(SearchQuery query, SearchSort sort, SearchFilter filter, SearchCursor after,
+                                   Pageable pageable, boolean facets, SearchDeadline deadline) throws IllegalStateException {
+    TripSearchPage trips;
+    if (facets || sort != SearchSort.DEPARTURE || !filter.isEmpty()) {
+      trips = tripService.searchTrips(query, sort, filter, after, pageable, facets, deadline);
+    } else if (query.isRoundTrip()) {
+      trips = tripService.getRoundTripTripsByAirportIdsAndDateRange(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), after, pageable, deadline);
+    } else {
+      trips = tripService.getOneWayTripsByAirportIdsAndDepartureDate(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), after, pageable, deadline);
+    }
+    return trips;
+  }
+}
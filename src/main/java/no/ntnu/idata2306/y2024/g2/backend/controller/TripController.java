@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripFetchPlan;
 import no.ntnu.idata2306.y2024.g2.backend.db.services.TripService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,7 +80,7 @@ public class TripController {
   })
   public ResponseEntity<Trip> getOne(@PathVariable Integer id) {
     ResponseEntity<Trip> response;
-    Optional<Trip> trip = tripService.getTrip(id);
+    Optional<Trip> trip = tripService.getTrip(id, TripFetchPlan.FULL);
     if (trip.isPresent()) {
       logger.info("Returning a single Trip.");
       response = new ResponseEntity<>(trip.get(), HttpStatus.OK);
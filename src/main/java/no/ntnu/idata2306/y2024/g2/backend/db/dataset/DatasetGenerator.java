@@ -0,0 +1,446 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dataset;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.builders.TripBuilder;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Provider;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.IngestRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.AirlineService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.AirportService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.ClassTypeService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.ExtraFeatureService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.LocationService;
+import no.ntnu.idata2306.y2024.g2.backend.db.services.ProviderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates a synthetic dataset of a configurable size, so searches and popular destinations can be tried against
+ * as many flights and trips as production has. The reference data — locations, airports, airlines, providers,
+ * class types and extra features — is added through the services. The flights follow a {@link SyntheticSchedule}
+ * starting today, and trips are made from them: some with a connection, some with a way back, each with prices
+ * from several providers.
+ * <p>
+ * The same seed and settings give the same dataset. Every flight and trip is made from a random generator seeded
+ * by its own index, so it does not matter which thread makes it. Flights and then trips are written for one
+ * departure airport at a time on {@code dataset.threads} threads, with JDBC batches in transactions of
+ * {@code dataset.batch-size} rows. The in-memory indexes are not updated while writing; they are built from the
+ * database afterwards, as on every start.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class DatasetGenerator {
+
+  private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+  private static final String[][] CITIES = {
+      {"Oslo", "Norway", "OSL"}, {"Los Angeles", "USA", "LAX"}, {"New York", "USA", "JFK"},
+      {"London", "United Kingdom", "LHR"}, {"Paris", "France", "CDG"}, {"Berlin", "Germany", "BER"},
+      {"Amsterdam", "Netherlands", "AMS"}, {"Madrid", "Spain", "MAD"}, {"Rome", "Italy", "FCO"},
+      {"Stockholm", "Sweden", "ARN"}, {"Copenhagen", "Denmark", "CPH"}, {"Helsinki", "Finland", "HEL"},
+      {"Bergen", "Norway", "BGO"}, {"Trondheim", "Norway", "TRD"}, {"Dubai", "United Arab Emirates", "DXB"},
+      {"Tokyo", "Japan", "HND"}, {"Singapore", "Singapore", "SIN"}, {"Bangkok", "Thailand", "BKK"},
+      {"Sydney", "Australia", "SYD"}, {"Chicago", "USA", "ORD"}, {"Miami", "USA", "MIA"},
+      {"Toronto", "Canada", "YYZ"}, {"Barcelona", "Spain", "BCN"}, {"Istanbul", "Turkey", "IST"}
+  };
+  private static final String[][] AIRLINES = {
+      {"SAS", "SK"}, {"Norwegian", "DY"}, {"Lufthansa", "LH"}, {"KLM", "KL"}, {"Air France", "AF"},
+      {"British Airways", "BA"}, {"Delta", "DL"}, {"United", "UA"}, {"American Airlines", "AA"},
+      {"Emirates", "EK"}, {"Qatar Airways", "QR"}, {"Finnair", "AY"}
+  };
+  private static final String[] PROVIDERS = {"Google", "Expedia", "Kayak", "Skyscanner", "Momondo", "Booking.com"};
+  private static final String[] CLASS_TYPES = {"Economy", "Premium Economy", "Business", "First"};
+  private static final String[] EXTRA_FEATURES = {"Wifi", "Food", "Extra legroom", "Checked bag", "Lounge access"};
+  private static final String IMAGE_URL = "https://source.unsplash.com/400x400/?";
+  private static final String CURRENCY = "NOK";
+  private static final int MIN_CONNECTION_MINUTES = 60;
+  private static final int MAX_STAY_DAYS = 14;
+
+  private final LocationService locationService;
+  private final AirportService airportService;
+  private final AirlineService airlineService;
+  private final ProviderService providerService;
+  private final ClassTypeService classTypeService;
+  private final ExtraFeatureService extraFeatureService;
+  private final IngestRepository ingestRepository;
+  private final TransactionTemplate transaction;
+  private final long seed;
+  private final int locations;
+  private final int airportsPerLocation;
+  private final int airlines;
+  private final int routesPerAirport;
+  private final int days;
+  private final int flightsPerRouteDay;
+  private final int providers;
+  private final int pricesPerTrip;
+  private final double tripShare;
+  private final double connectionShare;
+  private final double returnShare;
+  private final int threads;
+  private final int batchSize;
+
+  /**
+   * The reference data of a dataset, shared by the threads writing flights and trips.
+   */
+  private record References(List<Airport> airports, List<Airline> airlines, List<String> flightPrefixes,
+                            List<Provider> providers, List<ClassType> classTypes, List<ExtraFeature> extraFeatures) {
+  }
+
+  /**
+   * Constructs the dataset generator.
+   *
+   * @param locationService     The service the locations are added with.
+   * @param airportService      The service the airports are added with.
+   * @param airlineService      The service the airlines are added with.
+   * @param providerService     The service the providers are added with.
+   * @param classTypeService    The service the class types are added with.
+   * @param extraFeatureService The service the extra features are added with.
+   * @param ingestRepository    The repository the flights and trips are written with.
+   * @param transactionManager  The transaction manager the batches are written in.
+   * @param seed                The seed of the dataset.
+   * @param locations           The number of locations.
+   * @param airportsPerLocation The number of airports at each location.
+   * @param airlines            The number of airlines.
+   * @param routesPerAirport    The number of routes from each airport.
+   * @param days                The number of days with flights, from today.
+   * @param flightsPerRouteDay  The number of flights on each route each day.
+   * @param providers           The number of providers.
+   * @param pricesPerTrip       The number of prices of each trip, from different providers.
+   * @param tripShare           The share of flights that a trip starts with.
+   * @param connectionShare     The share of trips with a connection.
+   * @param returnShare         The share of trips with a way back.
+   * @param threads             The number of threads writing flights and trips.
+   * @param batchSize           The number of flights or trips written in each transaction.
+   */
+  @Autowired
+  public DatasetGenerator(LocationService locationService, AirportService airportService, AirlineService airlineService,
+                          ProviderService providerService, ClassTypeService classTypeService,
+                          ExtraFeatureService extraFeatureService, IngestRepository ingestRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${dataset.seed:42}") long seed,
+                          @Value("${dataset.locations:20}") int locations,
+                          @Value("${dataset.airports-per-location:1}") int airportsPerLocation,
+                          @Value("${dataset.airlines:5}") int airlines,
+                          @Value("${dataset.routes-per-airport:4}") int routesPerAirport,
+                          @Value("${dataset.days:30}") int days,
+                          @Value("${dataset.flights-per-route-per-day:2}") int flightsPerRouteDay,
+                          @Value("${dataset.providers:3}") int providers,
+                          @Value("${dataset.prices-per-trip:2}") int pricesPerTrip,
+                          @Value("${dataset.trip-share:0.5}") double tripShare,
+                          @Value("${dataset.connection-share:0.3}") double connectionShare,
+                          @Value("${dataset.return-share:0.5}") double returnShare,
+                          @Value("${dataset.threads:4}") int threads,
+                          @Value("${dataset.batch-size:1000}") int batchSize) {
+    if (locations < 1 || airportsPerLocation < 1 || airlines < 1 || providers < 1 || pricesPerTrip < 1) {
+      throw new IllegalArgumentException("Locations, airports per location, airlines, providers and prices per trip must be positive");
+    }
+    if (!isShare(tripShare) || !isShare(connectionShare) || !isShare(returnShare)) {
+      throw new IllegalArgumentException("Trip, connection and return shares must be between 0 and 1");
+    }
+    if (threads < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Threads and batch size must be positive");
+    }
+    this.locationService = locationService;
+    this.airportService = airportService;
+    this.airlineService = airlineService;
+    this.providerService = providerService;
+    this.classTypeService = classTypeService;
+    this.extraFeatureService = extraFeatureService;
+    this.ingestRepository = ingestRepository;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.seed = seed;
+    this.locations = locations;
+    this.airportsPerLocation = airportsPerLocation;
+    this.airlines = airlines;
+    this.routesPerAirport = routesPerAirport;
+    this.days = days;
+    this.flightsPerRouteDay = flightsPerRouteDay;
+    this.providers = providers;
+    this.pricesPerTrip = pricesPerTrip;
+    this.tripShare = tripShare;
+    this.connectionShare = connectionShare;
+    this.returnShare = returnShare;
+    this.threads = threads;
+    this.batchSize = batchSize;
+  }
+
+  private static boolean isShare(double share) {
+    return share >= 0 && share <= 1;
+  }
+
+  /**
+   * Generates the dataset and writes it to the database.
+   *
+   * @throws IllegalArgumentException If the settings do not make a valid schedule.
+   * @throws IllegalStateException    If writing the flights or trips fails.
+   */
+  public void generate() throws IllegalArgumentException, IllegalStateException {
+    long start = System.currentTimeMillis();
+    SyntheticSchedule schedule = new SyntheticSchedule(seed, locations * airportsPerLocation, routesPerAirport, days,
+        flightsPerRouteDay, airlines, LocalDate.now());
+    logger.info("Generating a dataset of {} airports and {} flights.", schedule.getAirports(), schedule.getFlightCount());
+    References references = addReferences(new SplittableRandom(seed));
+
+    int[] flightIds = new int[schedule.getFlightCount()];
+    forEachAirport(schedule, airport -> writeFlights(schedule, airport, references, flightIds));
+    logger.info("Wrote {} flights.", flightIds.length);
+    LongAdder trips = new LongAdder();
+    forEachAirport(schedule, airport -> trips.add(writeTrips(schedule, airport, references, flightIds)));
+    logger.info("Generated {} flights and {} trips in {} ms.", flightIds.length, trips.sum(),
+        System.currentTimeMillis() - start);
+  }
+
+  private References addReferences(SplittableRandom random) {
+    Set<String> codes = new HashSet<>();
+    for (String[] city : CITIES) {
+      codes.add(city[2]);
+    }
+    int nextCode = 0;
+    List<Airport> airports = new ArrayList<>();
+    for (int i = 0; i < locations; i++) {
+      String[] city = i < CITIES.length ? CITIES[i] : null;
+      String name = city != null ? city[0] : "City " + (i + 1);
+      String country = city != null ? city[1] : CITIES[i % CITIES.length][1];
+      String image = city != null || random.nextBoolean() ? IMAGE_URL + name.toLowerCase(Locale.ROOT).replace(' ', '-') : null;
+      Location location = new Location(country, name, image);
+      locationService.addLocation(location);
+      for (int j = 0; j < airportsPerLocation; j++) {
+        String code;
+        if (city != null && j == 0) {
+          code = city[2];
+        } else {
+          do {
+            code = toCode(nextCode++);
+          } while (!codes.add(code));
+        }
+        Airport airport = new Airport(code, name + " Airport" + (j > 0 ? " " + (j + 1) : ""), location);
+        airportService.addAirport(airport);
+        airports.add(airport);
+      }
+    }
+
+    List<Airline> airlineList = new ArrayList<>();
+    List<String> flightPrefixes = new ArrayList<>();
+    for (int i = 0; i < airlines; i++) {
+      Airline airline = new Airline(i < AIRLINES.length ? AIRLINES[i][0] : "Airline " + (i + 1));
+      airlineService.addAirline(airline);
+      airlineList.add(airline);
+      flightPrefixes.add(i < AIRLINES.length ? AIRLINES[i][1] : toCode(i).substring(1));
+    }
+    List<Provider> providerList = new ArrayList<>();
+    for (int i = 0; i < providers; i++) {
+      Provider provider = new Provider(i < PROVIDERS.length ? PROVIDERS[i] : "Provider " + (i + 1));
+      providerService.addProvider(provider);
+      providerList.add(provider);
+    }
+    List<ClassType> classTypes = new ArrayList<>();
+    for (String description : CLASS_TYPES) {
+      ClassType classType = new ClassType(description);
+      classTypeService.addClassType(classType);
+      classTypes.add(classType);
+    }
+    List<ExtraFeature> extraFeatures = new ArrayList<>();
+    for (String description : EXTRA_FEATURES) {
+      ExtraFeature extraFeature = new ExtraFeature(description);
+      extraFeatureService.addExtraFeature(extraFeature);
+      extraFeatures.add(extraFeature);
+    }
+    return new References(airports, airlineList, flightPrefixes, providerList, classTypes, extraFeatures);
+  }
+
+  /**
+   * Returns the airport code of a number, from AAA to ZZZ.
+   */
+  private static String toCode(int number) {
+    if (number >= 26 * 26 * 26) {
+      throw new IllegalArgumentException("There cannot be more than " + 26 * 26 * 26 + " airports");
+    }
+    return "" + (char) ('A' + number / (26 * 26)) + (char) ('A' + number / 26 % 26) + (char) ('A' + number % 26);
+  }
+
+  /**
+   * Runs a task for each airport on the threads of the generator, and waits for all of them.
+   */
+  private void forEachAirport(SyntheticSchedule schedule, IntConsumer task) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int airport = 0; airport < schedule.getAirports(); airport++) {
+        int current = airport;
+        futures.add(executor.submit(() -> task.accept(current)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Generating the dataset was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Generating the dataset failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Writes the flights departing from an airport, and keeps their ids by their index in the schedule.
+   */
+  private void writeFlights(SyntheticSchedule schedule, int airport, References references, int[] flightIds) {
+    List<Flight> batch = new ArrayList<>(batchSize);
+    int[] indexes = new int[batchSize];
+    for (int i = 0; i < schedule.getRoutesPerAirport(); i++) {
+      int route = schedule.getRoute(airport, i);
+      Airport departureAirport = references.airports().get(airport);
+      Airport arrivalAirport = references.airports().get(schedule.getDestination(route));
+      int airline = schedule.getAirline(route);
+      for (int day = 0; day < schedule.getDays(); day++) {
+        for (int slot = 0; slot < schedule.getFlightsPerRouteDay(); slot++) {
+          indexes[batch.size()] = schedule.getFlight(route, day, slot);
+          batch.add(new Flight(references.flightPrefixes().get(airline) + (route * schedule.getFlightsPerRouteDay() + slot + 1),
+              departureAirport, arrivalAirport, references.airlines().get(airline),
+              schedule.getDeparture(route, day, slot), schedule.getArrival(route, day, slot)));
+          if (batch.size() == batchSize) {
+            writeFlightBatch(batch, indexes, flightIds);
+          }
+        }
+      }
+    }
+    writeFlightBatch(batch, indexes, flightIds);
+  }
+
+  private void writeFlightBatch(List<Flight> batch, int[] indexes, int[] flightIds) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    transaction.executeWithoutResult(status -> ingestRepository.insertFlights(batch));
+    for (int i = 0; i < batch.size(); i++) {
+      flightIds[indexes[i]] = batch.get(i).getId();
+    }
+    batch.clear();
+  }
+
+  /**
+   * Writes the trips starting with the flights departing from an airport.
+   *
+   * @return Return the number of trips written.
+   */
+  private int writeTrips(SyntheticSchedule schedule, int airport, References references, int[] flightIds) {
+    List<Trip> batch = new ArrayList<>(batchSize);
+    int written = 0;
+    for (int i = 0; i < schedule.getRoutesPerAirport(); i++) {
+      int route = schedule.getRoute(airport, i);
+      for (int day = 0; day < schedule.getDays(); day++) {
+        for (int slot = 0; slot < schedule.getFlightsPerRouteDay(); slot++) {
+          SplittableRandom random = new SplittableRandom(SyntheticSchedule.mix(seed, 4, schedule.getFlight(route, day, slot)));
+          if (random.nextDouble() < tripShare) {
+            batch.add(createTrip(schedule, random, route, day, slot, references, flightIds));
+          }
+          if (batch.size() == batchSize) {
+            written += writeTripBatch(batch);
+          }
+        }
+      }
+    }
+    return written + writeTripBatch(batch);
+  }
+
+  private int writeTripBatch(List<Trip> batch) {
+    int size = batch.size();
+    if (size > 0) {
+      transaction.executeWithoutResult(status -> ingestRepository.insertTrips(batch));
+      batch.clear();
+    }
+    return size;
+  }
+
+  private Trip createTrip(SyntheticSchedule schedule, SplittableRandom random, int route, int day, int slot,
+                          References references, int[] flightIds) {
+    TripBuilder trip = new TripBuilder().setLeaveInitialFlight(flight(flightIds[schedule.getFlight(route, day, slot)]));
+    int minutes = schedule.getDurationMinutes(route);
+    int lastDay = day;
+    int connection = -1;
+    if (random.nextDouble() < connectionShare) {
+      int next = schedule.getRoute(schedule.getDestination(route), random.nextInt(schedule.getRoutesPerAirport()));
+      int[] departure = schedule.findDepartureAfter(next, day,
+          schedule.getArrival(route, day, slot).plusMinutes(MIN_CONNECTION_MINUTES));
+      if (schedule.getDestination(next) != schedule.getOrigin(route) && departure != null) {
+        trip.setLeaveArrivalFlight(flight(flightIds[schedule.getFlight(next, departure[0], departure[1])]));
+        minutes += schedule.getDurationMinutes(next);
+        lastDay = departure[0];
+        connection = next;
+      }
+    }
+
+    int returnDay = lastDay + 1 + random.nextInt(MAX_STAY_DAYS);
+    if (random.nextDouble() < returnShare && returnDay < schedule.getDays()) {
+      int returnSlot = random.nextInt(schedule.getFlightsPerRouteDay());
+      if (connection < 0 && schedule.getReverseRoute(route) >= 0) {
+        int back = schedule.getReverseRoute(route);
+        trip.setReturnInitialFlight(flight(flightIds[schedule.getFlight(back, returnDay, returnSlot)]));
+        minutes += schedule.getDurationMinutes(back);
+      } else if (connection >= 0 && schedule.getReverseRoute(connection) >= 0 && schedule.getReverseRoute(route) >= 0) {
+        int first = schedule.getReverseRoute(connection);
+        int second = schedule.getReverseRoute(route);
+        int[] departure = schedule.findDepartureAfter(second, returnDay,
+            schedule.getArrival(first, returnDay, returnSlot).plusMinutes(MIN_CONNECTION_MINUTES));
+        if (departure != null) {
+          trip.setReturnInitialFlight(flight(flightIds[schedule.getFlight(first, returnDay, returnSlot)]));
+          trip.setReturnArrivalFlight(flight(flightIds[schedule.getFlight(second, departure[0], departure[1])]));
+          minutes += schedule.getDurationMinutes(first) + schedule.getDurationMinutes(second);
+        }
+      }
+    }
+
+    // Longer trips cost more, and each provider offers its own price around the fare.
+    int fare = 400 + minutes * 3;
+    List<Provider> providerList = new ArrayList<>(references.providers());
+    Set<Price> prices = new LinkedHashSet<>();
+    for (int i = 0; i < Math.min(pricesPerTrip, providerList.size()); i++) {
+      Provider provider = providerList.remove(random.nextInt(providerList.size()));
+      prices.add(new Price(provider, (int) (fare * (0.8 + 0.6 * random.nextDouble())), CURRENCY));
+    }
+    Set<ClassType> classTypes = new LinkedHashSet<>();
+    classTypes.add(references.classTypes().get(0));
+    references.classTypes().stream().skip(1).filter(classType -> random.nextDouble() < 0.4).forEach(classTypes::add);
+    Set<ExtraFeature> extraFeatures = new LinkedHashSet<>();
+    references.extraFeatures().stream().filter(extraFeature -> random.nextBoolean()).forEach(extraFeatures::add);
+    if (extraFeatures.isEmpty()) {
+      extraFeatures.add(references.extraFeatures().get(random.nextInt(references.extraFeatures().size())));
+    }
+    return trip.setPrices(prices).setClassTypes(classTypes).setExtraFeatures(extraFeatures).build();
+  }
+
+  private static Flight flight(int id) {
+    Flight flight = new Flight();
+    flight.setId(id);
+    return flight;
+  }
+}
@@ -0,0 +1,249 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The flight schedule of a synthetic dataset. Every airport has the same number of routes to other airports, and
+ * every route has the same number of flights each day. Everything about a flight — its airline, departure and
+ * arrival — is computed from the seed and the index of the flight alone, so the schedule is the same however its
+ * flights are split between threads, and the flight a trip connects to can be found without looking it up.
+ * <p>
+ * Routes go from an airport to the airports a set of offsets away, and the offsets are picked in pairs where
+ * possible, so most routes have a route back.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class SyntheticSchedule {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private final long seed;
+  private final int airports;
+  private final int[] offsets;
+  private final Map<Integer, Integer> offsetRoutes = new HashMap<>();
+  private final int days;
+  private final int flightsPerRouteDay;
+  private final int airlines;
+  private final LocalDate startDate;
+
+  /**
+   * Construct the schedule.
+   *
+   * @param seed               The seed everything in the schedule is computed from.
+   * @param airports           The number of airports.
+   * @param routesPerAirport   The number of routes from each airport.
+   * @param days               The number of days with flights.
+   * @param flightsPerRouteDay The number of flights on each route each day.
+   * @param airlines           The number of airlines the routes are shared between.
+   * @param startDate          The first day with flights.
+   */
+  public SyntheticSchedule(long seed, int airports, int routesPerAirport, int days, int flightsPerRouteDay, int airlines,
+                           LocalDate startDate) {
+    if (airports < 2) {
+      throw new IllegalArgumentException("There must be at least two airports");
+    }
+    if (routesPerAirport < 1 || routesPerAirport >= airports) {
+      throw new IllegalArgumentException("Routes per airport must be between 1 and the number of other airports");
+    }
+    if (days < 1) {
+      throw new IllegalArgumentException("Days must be positive");
+    }
+    if (flightsPerRouteDay < 1 || flightsPerRouteDay > MINUTES_PER_DAY) {
+      throw new IllegalArgumentException("Flights per route per day must be between 1 and " + MINUTES_PER_DAY);
+    }
+    if (airlines < 1) {
+      throw new IllegalArgumentException("Airlines must be positive");
+    }
+    if (startDate == null) {
+      throw new IllegalArgumentException("Start date cannot be null");
+    }
+    if ((long) airports * routesPerAirport * days * flightsPerRouteDay > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The schedule cannot have more than " + Integer.MAX_VALUE + " flights");
+    }
+    this.seed = seed;
+    this.airports = airports;
+    this.offsets = pickOffsets(new SplittableRandom(seed), airports, routesPerAirport);
+    for (int i = 0; i < offsets.length; i++) {
+      offsetRoutes.put(offsets[i], i);
+    }
+    this.days = days;
+    this.flightsPerRouteDay = flightsPerRouteDay;
+    this.airlines = airlines;
+    this.startDate = startDate;
+  }
+
+  /**
+   * Picks distinct offsets from 1 to airports - 1, each followed by its opposite where there is room for it.
+   */
+  private static int[] pickOffsets(SplittableRandom random, int airports, int count) {
+    int[] candidates = new int[airports - 1];
+    for (int i = 0; i < candidates.length; i++) {
+      candidates[i] = i + 1;
+    }
+    boolean[] taken = new boolean[airports];
+    int[] offsets = new int[count];
+    int picked = 0;
+    for (int i = 0; picked < count; i++) {
+      int j = i + random.nextInt(candidates.length - i);
+      int offset = candidates[j];
+      candidates[j] = candidates[i];
+      candidates[i] = offset;
+      if (taken[offset]) {
+        continue;
+      }
+      taken[offset] = true;
+      offsets[picked++] = offset;
+      int opposite = airports - offset;
+      if (picked < count && !taken[opposite]) {
+        taken[opposite] = true;
+        offsets[picked++] = opposite;
+      }
+    }
+    return offsets;
+  }
+
+  public int getAirports() {
+    return airports;
+  }
+
+  public int getRoutesPerAirport() {
+    return offsets.length;
+  }
+
+  public int getDays() {
+    return days;
+  }
+
+  public int getFlightsPerRouteDay() {
+    return flightsPerRouteDay;
+  }
+
+  /**
+   * Returns the number of flights in the schedule.
+   *
+   * @return Return the number of flights.
+   */
+  public int getFlightCount() {
+    return airports * offsets.length * days * flightsPerRouteDay;
+  }
+
+  /**
+   * Returns a route from an airport.
+   *
+   * @param airport The index of the airport.
+   * @param i       Which of the routes from the airport, from 0.
+   * @return Return the index of the route.
+   */
+  public int getRoute(int airport, int i) {
+    return airport * offsets.length + i;
+  }
+
+  public int getOrigin(int route) {
+    return route / offsets.length;
+  }
+
+  public int getDestination(int route) {
+    return (getOrigin(route) + offsets[route % offsets.length]) % airports;
+  }
+
+  /**
+   * Returns the route back from the destination of a route to its origin.
+   *
+   * @param route The index of the route.
+   * @return Return the index of the route back, or -1 if there is none.
+   */
+  public int getReverseRoute(int route) {
+    Integer i = offsetRoutes.get(airports - offsets[route % offsets.length]);
+    return i == null ? -1 : getRoute(getDestination(route), i);
+  }
+
+  /**
+   * Returns the airline that flies a route.
+   *
+   * @param route The index of the route.
+   * @return Return the index of the airline.
+   */
+  public int getAirline(int route) {
+    return (int) Math.floorMod(mix(seed, 1, route), (long) airlines);
+  }
+
+  /**
+   * Returns how long the flights of a route take, from 45 minutes to 12 hours.
+   *
+   * @param route The index of the route.
+   * @return Return the duration in minutes.
+   */
+  public int getDurationMinutes(int route) {
+    return 45 + (int) Math.floorMod(mix(seed, 2, route), 12L * 60 - 45 + 1);
+  }
+
+  /**
+   * Returns the index of a flight.
+   *
+   * @param route The index of the route.
+   * @param day   The day, from 0.
+   * @param slot  Which of the flights of the route that day, from 0.
+   * @return Return the index of the flight.
+   */
+  public int getFlight(int route, int day, int slot) {
+    return (route * days + day) * flightsPerRouteDay + slot;
+  }
+
+  /**
+   * Returns when a flight departs. The flights of a route each day are spread over the day, each at a random
+   * minute of its part of it.
+   *
+   * @param route The index of the route.
+   * @param day   The day, from 0.
+   * @param slot  Which of the flights of the route that day, from 0.
+   * @return Return the departure date of the flight.
+   */
+  public LocalDateTime getDeparture(int route, int day, int slot) {
+    int slotMinutes = MINUTES_PER_DAY / flightsPerRouteDay;
+    int minute = slot * slotMinutes + (int) Math.floorMod(mix(seed, 3, getFlight(route, day, slot)), (long) slotMinutes);
+    return startDate.plusDays(day).atStartOfDay().plusMinutes(minute);
+  }
+
+  public LocalDateTime getArrival(int route, int day, int slot) {
+    return getDeparture(route, day, slot).plusMinutes(getDurationMinutes(route));
+  }
+
+  /**
+   * Finds the first flight of a route that departs at or after a time, on the given day or the day after.
+   *
+   * @param route The index of the route.
+   * @param day   The first day to look in.
+   * @param time  The earliest departure.
+   * @return Return the day and slot of the flight, or null if there is none.
+   */
+  public int[] findDepartureAfter(int route, int day, LocalDateTime time) {
+    for (int d = day; d < Math.min(day + 2, days); d++) {
+      for (int slot = 0; slot < flightsPerRouteDay; slot++) {
+        if (!getDeparture(route, d, slot).isBefore(time)) {
+          return new int[]{d, slot};
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Mixes a seed, a stream and a value into a well spread number, the finalizer of SplitMix64.
+   *
+   * @param seed   The seed.
+   * @param stream What the number is used for, so numbers for different uses are independent.
+   * @param value  The value, such as the index of a route or flight.
+   * @return Return the mixed number.
+   */
+  public static long mix(long seed, long stream, long value) {
+    long z = seed + stream * 0x9E3779B97F4A7C15L + value * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
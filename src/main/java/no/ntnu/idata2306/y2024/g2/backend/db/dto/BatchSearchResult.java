@@ -0,0 +1,86 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+
+import java.util.List;
+
+/**
+ * Represents the result of one search of a batch search. The status is the status a single search would have
+ * responded with; the trips and next cursor are only set when it succeeded, and the message only when it did not.
+ * The facets are only set when they were asked for, and partial only when the search ran out of time and holds
+ * the trips found so far.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSearchResult {
+
+  @JsonView(Views.Search.class)
+  private final int status;
+  @JsonView(Views.Search.class)
+  private final List<TripSearchResult> trips;
+  @JsonView(Views.Search.class)
+  private final String nextCursor;
+  @JsonView(Views.Search.class)
+  private final String message;
+  @JsonView(Views.Search.class)
+  private final SearchFacets facets;
+  @JsonView(Views.Search.class)
+  private final Boolean partial;
+
+  /**
+   * Construct the result of a search that found trips.
+   *
+   * @param page The page of trips that was found, with the facets of the search if they were asked for.
+   */
+  public BatchSearchResult(TripSearchPage page) {
+    this.status = 200;
+    this.trips = page.getTrips();
+    this.nextCursor = page.getNextCursor() != null ? page.getNextCursor().encode() : null;
+    this.message = null;
+    this.facets = page.getFacets();
+    this.partial = page.isPartial() ? Boolean.TRUE : null;
+  }
+
+  /**
+   * Construct the result of a search that did not find trips, or could not be run.
+   *
+   * @param status  The status a single search would have responded with.
+   * @param message The message describing why.
+   */
+  public BatchSearchResult(int status, String message) {
+    this.status = status;
+    this.trips = null;
+    this.nextCursor = null;
+    this.message = message;
+    this.facets = null;
+    this.partial = null;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public List<TripSearchResult> getTrips() {
+    return trips;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public SearchFacets getFacets() {
+    return facets;
+  }
+
+  public Boolean getPartial() {
+    return partial;
+  }
+}
@@ -0,0 +1,169 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Represents one search of a batch search. Holds the same fields as the parameters of a single search,
+ * together with the key that its result is returned under.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class BatchSearchSpec {
+
+  private final String key;
+  private final Integer fromAirportId;
+  private final Integer fromLocationId;
+  private final Integer toAirportId;
+  private final Integer toLocationId;
+  private final Long departureDate;
+  private final Long returnDate;
+  private final Integer limit;
+  private final Integer page;
+  private final String cursor;
+  private final String sort;
+  private final Integer maxStops;
+  private final List<Integer> airlineIds;
+  private final String departureTimeFrom;
+  private final String departureTimeTo;
+  private final String arrivalTimeFrom;
+  private final String arrivalTimeTo;
+  private final Integer maxPrice;
+  private final Boolean facets;
+  private final Long timeout;
+
+  /**
+   * Construct a new BatchSearchSpec.
+   *
+   * @param key               The key the result is returned under; the index of the search in the batch if null.
+   * @param fromAirportId     The ID of the departure airport.
+   * @param fromLocationId    The ID of the departure location.
+   * @param toAirportId       The ID of the arrival airport.
+   * @param toLocationId      The ID of the arrival location.
+   * @param departureDate     The start date for departure.
+   * @param returnDate        The end date for return (optional for one-way trips).
+   * @param limit             The number of records per page.
+   * @param page              The page number; ignored when a cursor is given.
+   * @param cursor            The cursor of the previous page (optional).
+   * @param sort              The order of the trips: departure, arrival, price or duration (optional).
+   * @param maxStops          The most stops allowed on either leg (optional).
+   * @param airlineIds        The airlines to search for; a trip needs a flight by one of them (optional).
+   * @param departureTimeFrom The earliest time of day to depart, as HH:mm in UTC (optional).
+   * @param departureTimeTo   The latest time of day to depart, as HH:mm in UTC (optional).
+   * @param arrivalTimeFrom   The earliest time of day to arrive, as HH:mm in UTC (optional).
+   * @param arrivalTimeTo     The latest time of day to arrive, as HH:mm in UTC (optional).
+   * @param maxPrice          The highest price allowed (optional).
+   * @param facets            Whether to return the facets of the search as well (optional).
+   * @param timeout           The time the search may take, in milliseconds (optional).
+   */
+  public BatchSearchSpec(String key, Integer fromAirportId, Integer fromLocationId, Integer toAirportId, Integer toLocationId,
+                         Long departureDate, Long returnDate, @JsonProperty("l") Integer limit, @JsonProperty("p") Integer page,
+                         String cursor, String sort, Integer maxStops, List<Integer> airlineIds, String departureTimeFrom,
+                         String departureTimeTo, String arrivalTimeFrom, String arrivalTimeTo, Integer maxPrice,
+                         Boolean facets, Long timeout) {
+    this.key = key;
+    this.fromAirportId = fromAirportId;
+    this.fromLocationId = fromLocationId;
+    this.toAirportId = toAirportId;
+    this.toLocationId = toLocationId;
+    this.departureDate = departureDate;
+    this.returnDate = returnDate;
+    this.limit = limit;
+    this.page = page;
+    this.cursor = cursor;
+    this.sort = sort;
+    this.maxStops = maxStops;
+    this.airlineIds = airlineIds;
+    this.departureTimeFrom = departureTimeFrom;
+    this.departureTimeTo = departureTimeTo;
+    this.arrivalTimeFrom = arrivalTimeFrom;
+    this.arrivalTimeTo = arrivalTimeTo;
+    this.maxPrice = maxPrice;
+    this.facets = facets;
+    this.timeout = timeout;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public Integer getFromAirportId() {
+    return fromAirportId;
+  }
+
+  public Integer getFromLocationId() {
+    return fromLocationId;
+  }
+
+  public Integer getToAirportId() {
+    return toAirportId;
+  }
+
+  public Integer getToLocationId() {
+    return toLocationId;
+  }
+
+  public Long getDepartureDate() {
+    return departureDate;
+  }
+
+  public Long getReturnDate() {
+    return returnDate;
+  }
+
+  @JsonProperty("l")
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @JsonProperty("p")
+  public Integer getPage() {
+    return page;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public String getSort() {
+    return sort;
+  }
+
+  public Integer getMaxStops() {
+    return maxStops;
+  }
+
+  public List<Integer> getAirlineIds() {
+    return airlineIds;
+  }
+
+  public String getDepartureTimeFrom() {
+    return departureTimeFrom;
+  }
+
+  public String getDepartureTimeTo() {
+    return departureTimeTo;
+  }
+
+  public String getArrivalTimeFrom() {
+    return arrivalTimeFrom;
+  }
+
+  public String getArrivalTimeTo() {
+    return arrivalTimeTo;
+  }
+
+  public Integer getMaxPrice() {
+    return maxPrice;
+  }
+
+  public Boolean getFacets() {
+    return facets;
+  }
+
+  public Long getTimeout() {
+    return timeout;
+  }
+}
@@ -0,0 +1,53 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Represents one cell of a price calendar: the lowest price of the trips departing on a day, and for round trips
+ * returning on a day. Like {@link TripSearchResult#getMinPrice()}, prices are compared by amount only.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class CalendarFare implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @JsonView(Views.Search.class)
+  private final LocalDate departureDate;
+  @JsonView(Views.Search.class)
+  private final LocalDate returnDate;
+  @JsonView(Views.Search.class)
+  private final Price minPrice;
+
+  /**
+   * Construct a new CalendarFare.
+   *
+   * @param departureDate The departure day.
+   * @param returnDate    The return day, or null for one-way trips.
+   * @param minPrice      The lowest price.
+   */
+  public CalendarFare(LocalDate departureDate, LocalDate returnDate, Price minPrice) {
+    this.departureDate = departureDate;
+    this.returnDate = returnDate;
+    this.minPrice = minPrice;
+  }
+
+  public LocalDate getDepartureDate() {
+    return departureDate;
+  }
+
+  public LocalDate getReturnDate() {
+    return returnDate;
+  }
+
+  public Price getMinPrice() {
+    return minPrice;
+  }
+}
@@ -0,0 +1,39 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+
+import java.util.List;
+
+/**
+ * Represents the response of a search that asked for facets: the trips on the requested page together with the
+ * facets of all trips of the search.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class FacetedSearchResult {
+
+  @JsonView(Views.Search.class)
+  private final List<TripSearchResult> trips;
+  @JsonView(Views.Search.class)
+  private final SearchFacets facets;
+
+  /**
+   * Construct a new FacetedSearchResult.
+   *
+   * @param page The page of trips, with the facets of the search.
+   */
+  public FacetedSearchResult(TripSearchPage page) {
+    this.trips = page.getTrips();
+    this.facets = page.getFacets();
+  }
+
+  public List<TripSearchResult> getTrips() {
+    return trips;
+  }
+
+  public SearchFacets getFacets() {
+    return facets;
+  }
+}
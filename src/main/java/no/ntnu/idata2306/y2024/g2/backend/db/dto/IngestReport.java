@@ -0,0 +1,109 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of an ingest: how many rows were read, written and failed, and why each failed row failed.
+ * Only the first errors are kept, so the report stays small however many rows fail; truncated tells whether
+ * errors were left out.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class IngestReport {
+
+  /**
+   * The error of a row that was not written.
+   */
+  public static class RowError {
+    private final long line;
+    private final String message;
+
+    /**
+     * Construct a new RowError.
+     *
+     * @param line    The number of the line the row starts on.
+     * @param message Why the row was not written.
+     */
+    public RowError(long line, String message) {
+      this.line = line;
+      this.message = message;
+    }
+
+    public long getLine() {
+      return line;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+  }
+
+  private final int maxErrors;
+  private long rowsRead;
+  private long rowsWritten;
+  private long rowsFailed;
+  private final List<RowError> errors = new ArrayList<>();
+
+  /**
+   * Construct a new, empty IngestReport.
+   *
+   * @param maxErrors The number of errors to keep.
+   */
+  public IngestReport(int maxErrors) {
+    if (maxErrors < 0) {
+      throw new IllegalArgumentException("maxErrors cannot be negative");
+    }
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * Counts a row that was read.
+   */
+  public void addRead() {
+    rowsRead++;
+  }
+
+  /**
+   * Counts rows that were written.
+   *
+   * @param rows The number of rows written.
+   */
+  public void addWritten(int rows) {
+    rowsWritten += rows;
+  }
+
+  /**
+   * Counts a row that failed, and keeps its error if there is room for it.
+   *
+   * @param line    The number of the line the row starts on.
+   * @param message Why the row was not written.
+   */
+  public void addError(long line, String message) {
+    rowsFailed++;
+    if (errors.size() < maxErrors) {
+      errors.add(new RowError(line, message));
+    }
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  public long getRowsFailed() {
+    return rowsFailed;
+  }
+
+  public List<RowError> getErrors() {
+    return errors;
+  }
+
+  public boolean isTruncated() {
+    return rowsFailed > errors.size();
+  }
+}
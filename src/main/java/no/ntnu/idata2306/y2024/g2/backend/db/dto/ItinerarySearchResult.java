@@ -0,0 +1,84 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents an itinerary that is built from connecting flights at query time instead of being stored as a trip.
+ * It is serialized in the same shape as {@link TripSearchResult}, without an id since it is not persisted.
+ * Itineraries have no prices, so minPrice is always null.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class ItinerarySearchResult implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @JsonView(Views.Search.class)
+  private final Flight leaveInitialFlight;
+  @JsonView(Views.Search.class)
+  private final Flight leaveArrivalFlight;
+  @JsonView(Views.Search.class)
+  private final List<Flight> leaveFlightIntervals;
+  @JsonView(Views.Search.class)
+  private final Flight returnInitialFlight;
+  @JsonView(Views.Search.class)
+  private final Flight returnArrivalFlight;
+  @JsonView(Views.Search.class)
+  private final List<Flight> returnFlightIntervals;
+
+  /**
+   * Construct a new ItinerarySearchResult from the flights of the outbound and return itineraries.
+   *
+   * @param leaveFlights  The outbound flights in travel order; must not be empty.
+   * @param returnFlights The return flights in travel order; empty for one-way itineraries.
+   */
+  public ItinerarySearchResult(List<Flight> leaveFlights, List<Flight> returnFlights) {
+    if (leaveFlights == null || leaveFlights.isEmpty()) {
+      throw new IllegalArgumentException("There must be leave flights in the list");
+    }
+    this.leaveInitialFlight = leaveFlights.get(0);
+    this.leaveArrivalFlight = leaveFlights.size() > 1 ? leaveFlights.get(leaveFlights.size() - 1) : null;
+    this.leaveFlightIntervals = leaveFlights.size() > 2 ? List.copyOf(leaveFlights.subList(1, leaveFlights.size() - 1)) : null;
+    boolean hasReturn = returnFlights != null && !returnFlights.isEmpty();
+    this.returnInitialFlight = hasReturn ? returnFlights.get(0) : null;
+    this.returnArrivalFlight = hasReturn && returnFlights.size() > 1 ? returnFlights.get(returnFlights.size() - 1) : null;
+    this.returnFlightIntervals = hasReturn && returnFlights.size() > 2 ? List.copyOf(returnFlights.subList(1, returnFlights.size() - 1)) : null;
+  }
+
+  public Flight getLeaveInitialFlight() {
+    return leaveInitialFlight;
+  }
+
+  public Flight getLeaveArrivalFlight() {
+    return leaveArrivalFlight;
+  }
+
+  public List<Flight> getLeaveFlightIntervals() {
+    return leaveFlightIntervals;
+  }
+
+  public Flight getReturnInitialFlight() {
+    return returnInitialFlight;
+  }
+
+  public Flight getReturnArrivalFlight() {
+    return returnArrivalFlight;
+  }
+
+  public List<Flight> getReturnFlightIntervals() {
+    return returnFlightIntervals;
+  }
+
+  @JsonView(Views.Search.class)
+  public Price getMinPrice() {
+    return null;
+  }
+}
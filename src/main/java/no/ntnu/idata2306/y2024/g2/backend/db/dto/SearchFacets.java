@@ -0,0 +1,176 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents the facets of a trip search: the number of trips per airline, per number of stops and per price range.
+ * Each facet counts the trips that meet every filter of the search except the filter on the facet itself, so a
+ * client can show how many trips each value of a filter would give. Like {@link CalendarFare}, prices are compared
+ * by amount only.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class SearchFacets implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @JsonView(Views.Search.class)
+  private final int total;
+  @JsonView(Views.Search.class)
+  private final List<AirlineCount> airlines;
+  @JsonView(Views.Search.class)
+  private final List<StopsCount> stops;
+  @JsonView(Views.Search.class)
+  private final List<PriceRange> prices;
+
+  /**
+   * Construct a new SearchFacets.
+   *
+   * @param total    The number of trips meeting every filter.
+   * @param airlines The trips per airline, ordered by airline id.
+   * @param stops    The trips per number of stops, ordered by stops.
+   * @param prices   The trips per price range, ordered by price.
+   */
+  public SearchFacets(int total, List<AirlineCount> airlines, List<StopsCount> stops, List<PriceRange> prices) {
+    this.total = total;
+    this.airlines = List.copyOf(airlines);
+    this.stops = List.copyOf(stops);
+    this.prices = List.copyOf(prices);
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public List<AirlineCount> getAirlines() {
+    return airlines;
+  }
+
+  public List<StopsCount> getStops() {
+    return stops;
+  }
+
+  public List<PriceRange> getPrices() {
+    return prices;
+  }
+
+  /**
+   * The number of trips of a search with a flight operated by an airline, and their lowest price.
+   */
+  public static class AirlineCount implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(Views.Search.class)
+    private final Airline airline;
+    @JsonView(Views.Search.class)
+    private final int count;
+    @JsonView(Views.Search.class)
+    private final Price minPrice;
+
+    /**
+     * Construct a new AirlineCount.
+     *
+     * @param airline  The airline.
+     * @param count    The number of trips.
+     * @param minPrice The lowest price of the trips, or null if none of them have prices.
+     */
+    public AirlineCount(Airline airline, int count, Price minPrice) {
+      this.airline = airline;
+      this.count = count;
+      this.minPrice = minPrice;
+    }
+
+    public Airline getAirline() {
+      return airline;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public Price getMinPrice() {
+      return minPrice;
+    }
+  }
+
+  /**
+   * The number of trips of a search with a number of stops on the leg with the most stops.
+   */
+  public static class StopsCount implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(Views.Search.class)
+    private final int stops;
+    @JsonView(Views.Search.class)
+    private final int count;
+
+    /**
+     * Construct a new StopsCount.
+     *
+     * @param stops The number of stops.
+     * @param count The number of trips.
+     */
+    public StopsCount(int stops, int count) {
+      this.stops = stops;
+      this.count = count;
+    }
+
+    public int getStops() {
+      return stops;
+    }
+
+    public int getCount() {
+      return count;
+    }
+  }
+
+  /**
+   * The number of trips of a search whose lowest price is in a range.
+   */
+  public static class PriceRange implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(Views.Search.class)
+    private final long from;
+    @JsonView(Views.Search.class)
+    private final long to;
+    @JsonView(Views.Search.class)
+    private final int count;
+
+    /**
+     * Construct a new PriceRange.
+     *
+     * @param from  The lowest price of the range, inclusive.
+     * @param to    The highest price of the range, exclusive.
+     * @param count The number of trips.
+     */
+    public PriceRange(long from, long to, int count) {
+      this.from = from;
+      this.to = to;
+      this.count = count;
+    }
+
+    public long getFrom() {
+      return from;
+    }
+
+    public long getTo() {
+      return to;
+    }
+
+    public int getCount() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonView;
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchJob;
+
+import java.util.List;
+
+/**
+ * Represents the state of a search job: its status, how many pages and trips it has found so far, and the trips
+ * of the page that was asked for once that page has been loaded. The next cursor is set when the job stopped
+ * before the last trip of the search, the facets when they were asked for, and the error when the job failed.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchJobStatus {
+
+  @JsonView(Views.Search.class)
+  private final String id;
+  @JsonView(Views.Search.class)
+  private final SearchJob.Status status;
+  @JsonView(Views.Search.class)
+  private final int completedPages;
+  @JsonView(Views.Search.class)
+  private final int foundTrips;
+  @JsonView(Views.Search.class)
+  private final boolean partial;
+  @JsonView(Views.Search.class)
+  private final int page;
+  @JsonView(Views.Search.class)
+  private final List<TripSearchResult> trips;
+  @JsonView(Views.Search.class)
+  private final String nextCursor;
+  @JsonView(Views.Search.class)
+  private final SearchFacets facets;
+  @JsonView(Views.Search.class)
+  private final String error;
+
+  /**
+   * Construct a new SearchJobStatus.
+   *
+   * @param job  The job.
+   * @param page The index of the page to include the trips of.
+   */
+  public SearchJobStatus(SearchJob job, int page) {
+    // The status is read first, so a finished job is always shown with all of its pages.
+    this.status = job.getStatus();
+    this.id = job.getId();
+    this.completedPages = job.getCompletedPages();
+    this.foundTrips = job.getFoundTrips();
+    this.partial = job.isPartial();
+    this.page = page;
+    this.trips = job.getPage(page);
+    this.nextCursor = job.getNextCursor() != null ? job.getNextCursor().encode() : null;
+    this.facets = job.getFacets();
+    this.error = job.getError();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public SearchJob.Status getStatus() {
+    return status;
+  }
+
+  public int getCompletedPages() {
+    return completedPages;
+  }
+
+  public int getFoundTrips() {
+    return foundTrips;
+  }
+
+  public boolean isPartial() {
+    return partial;
+  }
+
+  public int getPage() {
+    return page;
+  }
+
+  public List<TripSearchResult> getTrips() {
+    return trips;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public SearchFacets getFacets() {
+    return facets;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
@@ -0,0 +1,78 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dto;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchCursor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Represents one page of trip search results together with the cursor that the next page starts after, and the
+ * facets of the search when they were asked for.
+ * A page is partial when the search reached its deadline before all of its trips were loaded. It then holds the
+ * trips loaded so far, and the cursor continues right after the last of them.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class TripSearchPage implements Serializable {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final List<TripSearchResult> trips;
+  private final SearchCursor nextCursor;
+  private final SearchFacets facets;
+  private final boolean partial;
+
+  /**
+   * Construct a new TripSearchPage.
+   *
+   * @param trips      The trips on the page, ordered by departure date and trip id.
+   * @param nextCursor The cursor of the last trip on the page, or null if this is the last page.
+   */
+  public TripSearchPage(List<TripSearchResult> trips, SearchCursor nextCursor) {
+    this(trips, nextCursor, null);
+  }
+
+  /**
+   * Construct a new TripSearchPage with the facets of the search.
+   *
+   * @param trips      The trips on the page.
+   * @param nextCursor The cursor of the last trip on the page, or null if this is the last page.
+   * @param facets     The facets of the search, or null if they were not asked for.
+   */
+  public TripSearchPage(List<TripSearchResult> trips, SearchCursor nextCursor, SearchFacets facets) {
+    this(trips, nextCursor, facets, false);
+  }
+
+  /**
+   * Construct a new TripSearchPage that may be partial.
+   *
+   * @param trips      The trips on the page.
+   * @param nextCursor The cursor of the last trip on the page, or null if there are no more trips to continue with.
+   * @param facets     The facets of the search, or null if they were not asked for.
+   * @param partial    Whether the search reached its deadline before the page was complete.
+   */
+  public TripSearchPage(List<TripSearchResult> trips, SearchCursor nextCursor, SearchFacets facets, boolean partial) {
+    this.trips = List.copyOf(trips);
+    this.nextCursor = nextCursor;
+    this.facets = facets;
+    this.partial = partial;
+  }
+
+  public List<TripSearchResult> getTrips() {
+    return trips;
+  }
+
+  public SearchCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  public SearchFacets getFacets() {
+    return facets;
+  }
+
+  public boolean isPartial() {
+    return partial;
+  }
+}
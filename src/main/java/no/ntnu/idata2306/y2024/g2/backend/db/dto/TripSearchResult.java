@@ -2,13 +2,14 @@ package no.ntnu.idata2306.y2024.g2.backend.db.dto;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Comparator;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a TripSearchResult entity with a unique identifier, leaveStopCount, returnStopCount and minPrice
@@ -24,30 +25,36 @@ public class TripSearchResult extends Trip implements Serializable {
   @JsonView(Views.Search.class)
   private final int id;
 
-  @JsonView(Views.Search.class)
-  private final Price minPrice;
 
 
   /**
-   * Construct a new TripSearchResult with the specified trip, leaveStopCount and returnStopCount.
+   * Construct a new TripSearchResult with the specified trip.
+   * The minimum price is the one maintained on the trip, so the prices of the trip are not loaded.
    *
    * @param trip The trip object.
    */
   public TripSearchResult(Trip trip) {
-    super(trip.getLeaveInitialFlight(), trip.getLeaveArrivalFlight(), trip.getReturnArrivalFlight(), trip.getReturnInitialFlight(), trip.getPrices(), trip.getClassTypes(), trip.getExtraFeatures(), trip.getLeaveFlightIntervals(), trip.getReturnFlightIntervals());
+    super(trip);
     this.id = trip.getId();
-//    Return the price object whose getPrice returns the smallest value
-    this.minPrice = trip.getPrices().stream().min(Comparator.comparingInt(Price::getPrice)).orElse(null);
-
   }
 
   /**
-   * Return the minimum price of the trip.
+   * Construct a new TripSearchResult from the flights and lowest price of a trip, read as plain columns instead
+   * of loaded as a managed trip. Only what the search view shows is held.
    *
-   * @return The minimum price of the trip.
+   * @param id                    The id of the trip.
+   * @param leaveInitialFlight    The leaveInitialFlight of the trip.
+   * @param leaveArrivalFlight    The leaveArrivalFlight of the trip, or null.
+   * @param returnInitialFlight   The returnInitialFlight of the trip, or null.
+   * @param returnArrivalFlight   The returnArrivalFlight of the trip, or null.
+   * @param leaveFlightIntervals  The leaveFlightIntervals of the trip.
+   * @param returnFlightIntervals The returnFlightIntervals of the trip.
+   * @param minPrice              The lowest price of the trip, or null.
    */
-  public Price getMinPrice() {
-    return minPrice;
+  public TripSearchResult(int id, Flight leaveInitialFlight, Flight leaveArrivalFlight, Flight returnInitialFlight, Flight returnArrivalFlight,
+                          Set<Flight> leaveFlightIntervals, Set<Flight> returnFlightIntervals, Price minPrice) {
+    super(id, leaveInitialFlight, leaveArrivalFlight, returnInitialFlight, returnArrivalFlight, leaveFlightIntervals, returnFlightIntervals, minPrice);
+    this.id = id;
   }
 
   @Override
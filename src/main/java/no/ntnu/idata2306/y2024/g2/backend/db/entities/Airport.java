@@ -1,10 +1,13 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import no.ntnu.idata2306.y2024.g2.backend.Views;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
@@ -17,6 +20,8 @@ import java.util.Objects;
  * @version 16.05.2024
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Schema(description = "Represents a Airport.")
 public class Airport {
   @Id
@@ -36,6 +41,7 @@ public class Airport {
   @JoinColumn(name = "location_id")
   @Schema(description = "The location the Airport is in.")
   @JsonView(Views.Search.class)
+  @JsonIgnoreProperties("image")
   private Location location;
 
 
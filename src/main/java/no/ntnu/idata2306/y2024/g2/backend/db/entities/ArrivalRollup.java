@@ -0,0 +1,185 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Represents the number of flights arriving at a location from another location on one day.
+ * The rows are derived from the flights and kept up to date as flights are written, so the popular destinations
+ * are summed from a few rows per day instead of counted from the flights. The locations are stored as plain ids
+ * without foreign keys, since the rows of a location are removed with its flights and not before it.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Entity
+@Table(name = "arrival_rollup",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"arrival_day", "destination_location_id", "origin_location_id"}),
+    indexes = @Index(columnList = "arrival_day, origin_location_id"))
+public class ArrivalRollup {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private int id;
+  @Column(name = "origin_location_id")
+  private Integer originLocationId;
+  @Column(name = "destination_location_id", nullable = false)
+  private int destinationLocationId;
+  @Column(name = "arrival_day", nullable = false)
+  private LocalDate day;
+  @Column(nullable = false)
+  private long arrivals;
+
+  /**
+   * Default JPA constructor.
+   */
+  public ArrivalRollup() {
+  }
+
+  /**
+   * Construct a new ArrivalRollup with the specified locations, day and number of arrivals.
+   *
+   * @param originLocationId      The id of the location the flights depart from, or null if their airport has none.
+   * @param destinationLocationId The id of the location the flights arrive at.
+   * @param day                   The day the flights arrive.
+   * @param arrivals              The number of flights.
+   */
+  public ArrivalRollup(Integer originLocationId, int destinationLocationId, LocalDate day, long arrivals) {
+    this.originLocationId = originLocationId;
+    setDestinationLocationId(destinationLocationId);
+    setDay(day);
+    setArrivals(arrivals);
+  }
+
+  /**
+   * Return the unique identifier of the ArrivalRollup.
+   *
+   * @return The id of the entity.
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Return the id of the location the flights depart from.
+   *
+   * @return The id of the origin location, or null if the departure airport has no location.
+   */
+  public Integer getOriginLocationId() {
+    return originLocationId;
+  }
+
+  /**
+   * Return the id of the location the flights arrive at.
+   *
+   * @return The id of the destination location.
+   */
+  public int getDestinationLocationId() {
+    return destinationLocationId;
+  }
+
+  /**
+   * Return the day the flights arrive.
+   *
+   * @return The day of the entity.
+   */
+  public LocalDate getDay() {
+    return day;
+  }
+
+  /**
+   * Return the number of flights.
+   *
+   * @return The number of arrivals.
+   */
+  public long getArrivals() {
+    return arrivals;
+  }
+
+  /**
+   * Sets the unique identifier for this ArrivalRollup.
+   *
+   * @param id The new id of this entity.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if id is less than 0.
+   */
+  public void setId(int id) {
+    if (id < 0) {
+      throw new IllegalArgumentException("ID cannot be less then zero");
+    }
+    this.id = id;
+  }
+
+  /**
+   * Sets the id of the location the flights arrive at.
+   *
+   * @param destinationLocationId The new destination location id.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if the id is less than 0.
+   */
+  public void setDestinationLocationId(int destinationLocationId) {
+    if (destinationLocationId < 0) {
+      throw new IllegalArgumentException("Destination location ID cannot be less then zero");
+    }
+    this.destinationLocationId = destinationLocationId;
+  }
+
+  /**
+   * Sets the day the flights arrive.
+   *
+   * @param day The new day of this entity.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if day is null.
+   */
+  public void setDay(LocalDate day) {
+    if (day == null) {
+      throw new IllegalArgumentException("Day cannot be null");
+    }
+    this.day = day;
+  }
+
+  /**
+   * Sets the number of flights.
+   *
+   * @param arrivals The new number of arrivals.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if arrivals is less than 0.
+   */
+  public void setArrivals(long arrivals) {
+    if (arrivals < 0) {
+      throw new IllegalArgumentException("Arrivals cannot be less then zero");
+    }
+    this.arrivals = arrivals;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (obj == null || obj.getClass() != this.getClass()) return false;
+    var that = (ArrivalRollup) obj;
+    return this.id == that.id &&
+        Objects.equals(this.originLocationId, that.originLocationId) &&
+        this.destinationLocationId == that.destinationLocationId &&
+        Objects.equals(this.day, that.day) &&
+        this.arrivals == that.arrivals;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, originLocationId, destinationLocationId, day, arrivals);
+  }
+
+  @Override
+  public String toString() {
+    return "ArrivalRollup[" +
+        "id=" + id + ", " +
+        "originLocationId=" + originLocationId + ", " +
+        "destinationLocationId=" + destinationLocationId + ", " +
+        "day=" + day + ", " +
+        "arrivals=" + arrivals + ']';
+  }
+}
@@ -18,6 +18,7 @@ import java.util.Objects;
  * @version 17.05.2024
  */
 @Entity
+@Table(indexes = @Index(name = "idx_flight_departure_date", columnList = "departureDate"))
 @Schema(description = "Represents a Flight.")
 public class Flight {
   @Id
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import no.ntnu.idata2306.y2024.g2.backend.Views;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
@@ -16,6 +18,8 @@ import java.util.Objects;
  * @version 10.04.2024
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Schema(description = "Represents a Location.")
 public class Location {
   @Id
@@ -31,11 +35,11 @@ public class Location {
   @Schema(description = "The name of the Location.")
   @JsonView({Views.Search.class, Views.NoId.class})
   private String name;
-  @Lob
-  @Column(nullable = true, columnDefinition = "TEXT")
-  @Schema(description = "The image of the Location.")
-  @JsonView({Views.Full.class, Views.NoId.class})
-  private String image;
+  // The image is kept in a table of its own and loaded lazily, so loading a location does not read it.
+  @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+  @JoinColumn(name = "image_id")
+  @JsonIgnore
+  private LocationImage locationImage;
 
   /**
    * Default JPA constructor.
@@ -85,12 +89,24 @@ public class Location {
   }
 
   /**
-   * Return the image of the Location
+   * Return the image of the Location, loading it if it has not been loaded.
    *
    * @return Return the image of the entity.
    */
+  @Schema(description = "The image of the Location.")
+  @JsonView({Views.Full.class, Views.NoId.class})
   public String getImage() {
-    return image;
+    return locationImage != null ? locationImage.getImage() : null;
+  }
+
+  /**
+   * Checks if the Location has an image, without loading it.
+   *
+   * @return Return true if the Location has an image, false otherwise.
+   */
+  @JsonIgnore
+  public boolean hasImage() {
+    return locationImage != null;
   }
 
   /**
@@ -147,7 +163,13 @@ public class Location {
     if (image != null && (image.isEmpty() || image.isBlank())) {
       throw new IllegalArgumentException("Image cannot be blank");
     }
-    this.image = image;
+    if (image == null) {
+      locationImage = null;
+    } else if (locationImage == null) {
+      locationImage = new LocationImage(image);
+    } else {
+      locationImage.setImage(image);
+    }
   }
 
   /**
@@ -0,0 +1,111 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+/**
+ * Represents the image of a {@link Location}, kept in a table of its own.
+ * A location refers to its image lazily, so the image is only read from the database when it is asked for, and
+ * not every time a location is loaded on its way to a search result.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Entity
+@Table(name = "location_image")
+public class LocationImage {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private int id;
+  @Lob
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String image;
+
+  /**
+   * Default JPA constructor.
+   */
+  public LocationImage() {
+  }
+
+  /**
+   * Construct a new LocationImage with the specified image.
+   *
+   * @param image The image of the location.
+   */
+  public LocationImage(String image) {
+    setImage(image);
+  }
+
+  /**
+   * Return the unique identifier of the LocationImage.
+   *
+   * @return The id of the entity.
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Return the image.
+   *
+   * @return The image of the entity.
+   */
+  public String getImage() {
+    return image;
+  }
+
+  /**
+   * Sets the unique identifier for this LocationImage.
+   *
+   * @param id The new id of this entity.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if id is less than 0.
+   */
+  public void setId(int id) {
+    if (id < 0) {
+      throw new IllegalArgumentException("ID cannot be less then zero");
+    }
+    this.id = id;
+  }
+
+  /**
+   * Sets the image.
+   *
+   * @param image The new image of this entity.
+   * @throws IllegalArgumentException Throws IllegalArgumentException if image is null or blank.
+   */
+  public void setImage(String image) {
+    if (image == null) {
+      throw new IllegalArgumentException("Image cannot be null");
+    }
+    if (image.isEmpty() || image.isBlank()) {
+      throw new IllegalArgumentException("Image cannot be blank");
+    }
+    this.image = image;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (!(obj instanceof LocationImage that)) return false;
+    return this.getId() == that.getId() &&
+        Objects.equals(this.getImage(), that.getImage());
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getId(), getImage());
+  }
+
+  @Override
+  public String toString() {
+    return "LocationImage[" +
+        "id=" + getId() + "]";
+  }
+}
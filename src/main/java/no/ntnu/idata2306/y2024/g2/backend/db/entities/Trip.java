@@ -1,6 +1,7 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
@@ -10,6 +11,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.validation.constraints.NotNull;
 import no.ntnu.idata2306.y2024.g2.backend.Views;
 
@@ -27,8 +31,31 @@ import java.util.Set;
  * @version 17.05.2024
  */
 @Entity
+@NamedEntityGraph(name = Trip.FLIGHTS_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "leaveInitialFlight", subgraph = "flight"),
+        @NamedAttributeNode(value = "leaveArrivalFlight", subgraph = "flight"),
+        @NamedAttributeNode(value = "returnInitialFlight", subgraph = "flight"),
+        @NamedAttributeNode(value = "returnArrivalFlight", subgraph = "flight"),
+        @NamedAttributeNode(value = "minPrice", subgraph = "price")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "flight", attributeNodes = {
+            @NamedAttributeNode(value = "departureAirport", subgraph = "airport"),
+            @NamedAttributeNode(value = "arrivalAirport", subgraph = "airport"),
+            @NamedAttributeNode("airline")
+        }),
+        @NamedSubgraph(name = "airport", attributeNodes = @NamedAttributeNode("location")),
+        @NamedSubgraph(name = "price", attributeNodes = @NamedAttributeNode("provider"))
+    })
 @Schema(description = "Represents a Trip.")
 public class Trip {
+  /**
+   * The entity graph of a trip with its four flights, their airports, locations and airlines, and its lowest price.
+   */
+  public static final String FLIGHTS_GRAPH = "Trip.flights";
+
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   @Schema(description = "The unique identifier of the Trip.")
@@ -79,6 +106,13 @@ public class Trip {
   private Set<Flight> returnFlightIntervals;
   @Schema(description = "The active status of the trip.")
   private boolean active = true;
+  @ManyToOne
+  @Schema(description = "The lowest of the prices of the Trip. Maintained by the server.")
+  @JsonView(Views.Search.class)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Price minPrice;
+  @JsonIgnore
+  private Integer minPriceAmount;
 
   /**
    * Default JPA constructor.
@@ -111,6 +145,57 @@ public class Trip {
     setExtraFeatures(extraFeatures);
   }
 
+  /**
+   * Construct a copy of the given Trip, sharing its flights and collections.
+   * The trip is not validated again, so none of its collections are loaded.
+   *
+   * @param trip The trip to copy.
+   */
+  protected Trip(Trip trip) {
+    this.id = trip.id;
+    this.leaveInitialFlight = trip.leaveInitialFlight;
+    this.leaveArrivalFlight = trip.leaveArrivalFlight;
+    this.returnArrivalFlight = trip.returnArrivalFlight;
+    this.returnInitialFlight = trip.returnInitialFlight;
+    this.prices = trip.prices;
+    this.classTypes = trip.classTypes;
+    this.extraFeatures = trip.extraFeatures;
+    this.leaveFlightIntervals = trip.leaveFlightIntervals;
+    this.returnFlightIntervals = trip.returnFlightIntervals;
+    this.active = trip.active;
+    this.minPrice = trip.minPrice;
+    this.minPriceAmount = trip.minPriceAmount;
+  }
+
+  /**
+   * Construct a trip holding only the parts of it that the search view shows: its flights and its lowest price.
+   * The trip is not validated, and its prices, class types and extra features are left empty.
+   *
+   * @param id                    The id of the trip.
+   * @param leaveInitialFlight    The leaveInitialFlight of the trip.
+   * @param leaveArrivalFlight    The leaveArrivalFlight of the trip, or null.
+   * @param returnInitialFlight   The returnInitialFlight of the trip, or null.
+   * @param returnArrivalFlight   The returnArrivalFlight of the trip, or null.
+   * @param leaveFlightIntervals  The leaveFlightIntervals of the trip.
+   * @param returnFlightIntervals The returnFlightIntervals of the trip.
+   * @param minPrice              The lowest price of the trip, or null.
+   */
+  protected Trip(int id, Flight leaveInitialFlight, Flight leaveArrivalFlight, Flight returnInitialFlight, Flight returnArrivalFlight,
+                 Set<Flight> leaveFlightIntervals, Set<Flight> returnFlightIntervals, Price minPrice) {
+    this.id = id;
+    this.leaveInitialFlight = leaveInitialFlight;
+    this.leaveArrivalFlight = leaveArrivalFlight;
+    this.returnInitialFlight = returnInitialFlight;
+    this.returnArrivalFlight = returnArrivalFlight;
+    this.prices = Set.of();
+    this.classTypes = Set.of();
+    this.extraFeatures = Set.of();
+    this.leaveFlightIntervals = leaveFlightIntervals;
+    this.returnFlightIntervals = returnFlightIntervals;
+    this.minPrice = minPrice;
+    this.minPriceAmount = minPrice != null ? minPrice.getPrice() : null;
+  }
+
   /**
    * Return the unique identifier of the Trip
    *
@@ -210,6 +295,23 @@ public class Trip {
     return active;
   }
 
+  /**
+   * Return the lowest of the prices of the Trip.
+   *
+   * @return Return the lowest price of this entity, or null if it has not been set.
+   */
+  public Price getMinPrice() {
+    return minPrice;
+  }
+
+  /**
+   * Return the amount of the lowest of the prices of the Trip.
+   *
+   * @return Return the amount of the lowest price of this entity, or null if it has not been set.
+   */
+  public Integer getMinPriceAmount() {
+    return minPriceAmount;
+  }
 
   /**
    * Sets the unique identifier for this Trip.
@@ -346,6 +448,17 @@ public class Trip {
     this.active = active;
   }
 
+  /**
+   * Sets the lowest of the prices of the Trip, together with its amount.
+   * Must be one of the prices of the Trip, and is kept up to date by the trip service.
+   *
+   * @param minPrice The new lowest price of this entity, or null if it has no prices.
+   */
+  public void setMinPrice(Price minPrice) {
+    this.minPrice = minPrice;
+    this.minPriceAmount = minPrice != null ? minPrice.getPrice() : null;
+  }
+
 
   /**
    * Checks if the object is a valid User.
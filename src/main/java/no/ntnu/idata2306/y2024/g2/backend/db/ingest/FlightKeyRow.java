@@ -0,0 +1,16 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import java.time.LocalDateTime;
+
+/**
+ * The natural key of a flight, its name and departure date, with its id.
+ * Instances are created directly by the JPQL constructor expressions in the flight repository.
+ *
+ * @param flightId      The id of the flight.
+ * @param name          The name of the flight.
+ * @param departureDate The departure date of the flight.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record FlightKeyRow(int flightId, String name, LocalDateTime departureDate) {
+}
@@ -0,0 +1,51 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The formats rows can be ingested in.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public enum IngestFormat {
+  /**
+   * One JSON object per line.
+   */
+  NDJSON(MediaType.APPLICATION_NDJSON_VALUE),
+  /**
+   * Comma separated values, with the names of the fields in the first record.
+   */
+  CSV("text/csv");
+
+  private final String mediaType;
+
+  IngestFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * Returns the media type of the format.
+   *
+   * @return Return the media type, without parameters.
+   */
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Returns the format of the given media type.
+   *
+   * @param mediaType The media type of a request body.
+   * @return Return the format of the media type.
+   * @throws IllegalArgumentException If the media type is not a format that can be ingested.
+   */
+  public static IngestFormat of(MediaType mediaType) throws IllegalArgumentException {
+    for (IngestFormat format : values()) {
+      if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(mediaType)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported media type: " + mediaType);
+  }
+}
@@ -0,0 +1,61 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The kinds of rows that can be ingested, with the fields each row may have.
+ * References to other entities are given by their natural keys: airports by code, airlines and providers by name,
+ * class types and extra features by description, and flights by name and departure date, written
+ * {@code name@departureDate}. Lists are separated by {@code |}, and the prices of a trip are written
+ * {@code provider:price:currency}.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public enum IngestKind {
+  /**
+   * New flights.
+   */
+  FLIGHTS(List.of("name", "departureAirport", "arrivalAirport", "airline", "departureDate", "arrivalDate")),
+  /**
+   * New trips between flights that already exist, with their prices.
+   */
+  TRIPS(List.of("leaveInitialFlight", "leaveArrivalFlight", "returnInitialFlight", "returnArrivalFlight",
+      "leaveFlightIntervals", "returnFlightIntervals", "prices", "classTypes", "extraFeatures")),
+  /**
+   * New prices of trips that already exist, given by id.
+   */
+  PRICES(List.of("trip", "provider", "price", "currency"));
+
+  private final List<String> fields;
+
+  IngestKind(List<String> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * Returns the names of the fields a row of this kind may have.
+   *
+   * @return Return the names of the fields.
+   */
+  public List<String> getFields() {
+    return fields;
+  }
+
+  /**
+   * Returns the kind with the given name, as used in the path of the ingest endpoint.
+   *
+   * @param name The name of the kind, such as {@code flights}.
+   * @return Return the kind with the name.
+   * @throws IllegalArgumentException If there is no kind with the name.
+   */
+  public static IngestKind of(String name) throws IllegalArgumentException {
+    for (IngestKind kind : values()) {
+      if (kind.name().toLowerCase(Locale.ROOT).equals(name)) {
+        return kind;
+      }
+    }
+    throw new IllegalArgumentException("Unknown kind: " + name);
+  }
+}
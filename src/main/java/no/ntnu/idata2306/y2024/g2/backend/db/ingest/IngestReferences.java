@@ -0,0 +1,127 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Provider;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the references of ingested rows from their natural keys, using maps held in memory for the whole
+ * ingest: airports by code, airlines and providers by name, and class types and extra features by description.
+ * Keys are compared without case. A key that more than one entity has is ambiguous and cannot be resolved.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class IngestReferences {
+
+  private final Map<String, Airport> airports;
+  private final Map<String, Airline> airlines;
+  private final Map<String, Provider> providers;
+  private final Map<String, ClassType> classTypes;
+  private final Map<String, ExtraFeature> extraFeatures;
+
+  /**
+   * Construct the references from all entities that can be referred to.
+   *
+   * @param airports      All airports.
+   * @param airlines      All airlines.
+   * @param providers     All providers.
+   * @param classTypes    All class types.
+   * @param extraFeatures All extra features.
+   */
+  public IngestReferences(Iterable<Airport> airports, Iterable<Airline> airlines, Iterable<Provider> providers,
+                          Iterable<ClassType> classTypes, Iterable<ExtraFeature> extraFeatures) {
+    this.airports = index(airports, Airport::getCode);
+    this.airlines = index(airlines, Airline::getName);
+    this.providers = index(providers, Provider::getName);
+    this.classTypes = index(classTypes, ClassType::getDescription);
+    this.extraFeatures = index(extraFeatures, ExtraFeature::getDescription);
+  }
+
+  /**
+   * Returns the airport with the given code.
+   *
+   * @param code The code of the airport.
+   * @return Return the airport.
+   * @throws IllegalArgumentException If no airport, or more than one, has the code.
+   */
+  public Airport getAirport(String code) throws IllegalArgumentException {
+    return resolve(airports, "airport", code);
+  }
+
+  /**
+   * Returns the airline with the given name.
+   *
+   * @param name The name of the airline.
+   * @return Return the airline.
+   * @throws IllegalArgumentException If no airline, or more than one, has the name.
+   */
+  public Airline getAirline(String name) throws IllegalArgumentException {
+    return resolve(airlines, "airline", name);
+  }
+
+  /**
+   * Returns the provider with the given name.
+   *
+   * @param name The name of the provider.
+   * @return Return the provider.
+   * @throws IllegalArgumentException If no provider, or more than one, has the name.
+   */
+  public Provider getProvider(String name) throws IllegalArgumentException {
+    return resolve(providers, "provider", name);
+  }
+
+  /**
+   * Returns the class type with the given description.
+   *
+   * @param description The description of the class type.
+   * @return Return the class type.
+   * @throws IllegalArgumentException If no class type, or more than one, has the description.
+   */
+  public ClassType getClassType(String description) throws IllegalArgumentException {
+    return resolve(classTypes, "class type", description);
+  }
+
+  /**
+   * Returns the extra feature with the given description.
+   *
+   * @param description The description of the extra feature.
+   * @return Return the extra feature.
+   * @throws IllegalArgumentException If no extra feature, or more than one, has the description.
+   */
+  public ExtraFeature getExtraFeature(String description) throws IllegalArgumentException {
+    return resolve(extraFeatures, "extra feature", description);
+  }
+
+  /**
+   * Maps the entities by their keys. Keys that more than one entity has are mapped to null.
+   */
+  private static <T> Map<String, T> index(Iterable<T> entities, Function<T, String> key) {
+    Map<String, T> index = new HashMap<>();
+    for (T entity : entities) {
+      String normalized = normalize(key.apply(entity));
+      index.put(normalized, index.containsKey(normalized) ? null : entity);
+    }
+    return index;
+  }
+
+  private static <T> T resolve(Map<String, T> index, String type, String key) {
+    String normalized = normalize(key);
+    T entity = index.get(normalized);
+    if (entity == null) {
+      throw new IllegalArgumentException((index.containsKey(normalized) ? "Ambiguous " : "Unknown ") + type + ": " + key);
+    }
+    return entity;
+  }
+
+  private static String normalize(String key) {
+    return key == null ? null : key.trim().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,55 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A row read from an ingested body, with the values of its fields as text. Fields without a value are left out.
+ *
+ * @param line   The number of the line the row starts on, counted from 1.
+ * @param fields The values of the fields of the row by name.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record IngestRow(long line, Map<String, String> fields) {
+
+  /**
+   * Returns the value of a field.
+   *
+   * @param name The name of the field.
+   * @return Return the value of the field, or null if it has none.
+   */
+  public String get(String name) {
+    return fields.get(name);
+  }
+
+  /**
+   * Returns the value of a field that must have one.
+   *
+   * @param name The name of the field.
+   * @return Return the value of the field.
+   * @throws IllegalArgumentException If the field has no value.
+   */
+  public String require(String name) throws IllegalArgumentException {
+    String value = fields.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException(name + " is missing");
+    }
+    return value;
+  }
+
+  /**
+   * Returns the values of a field holding a list separated by {@code |}.
+   *
+   * @param name The name of the field.
+   * @return Return the values of the list, which is empty if the field has no value.
+   */
+  public List<String> getList(String name) {
+    String value = fields.get(name);
+    if (value == null) {
+      return List.of();
+    }
+    return Arrays.stream(value.split("\\|")).map(String::trim).filter(element -> !element.isEmpty()).toList();
+  }
+}
@@ -0,0 +1,289 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the rows of an ingested body one at a time, so the body is never held in memory as a whole.
+ * A row that cannot be read is reported by throwing an {@link IllegalArgumentException}, after which reading
+ * continues with the next row. Rows longer than {@link #MAX_ROW_LENGTH} characters are not read, so a body without
+ * line breaks cannot fill the memory either.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public abstract class IngestRowReader implements Closeable {
+
+  /**
+   * The most characters a row may have.
+   */
+  public static final int MAX_ROW_LENGTH = 1 << 16;
+
+  private final BufferedReader reader;
+  private long nextLine = 1;
+  private long line = 0;
+
+  private IngestRowReader(Reader reader) {
+    this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+  }
+
+  /**
+   * Opens a reader of the rows of a body.
+   *
+   * @param format       The format of the body.
+   * @param reader       The body.
+   * @param objectMapper The mapper that rows in JSON are read with.
+   * @return Return the reader of the rows.
+   * @throws IOException              If the body cannot be read.
+   * @throws IllegalArgumentException If the names of the fields of a CSV body cannot be read.
+   */
+  public static IngestRowReader open(IngestFormat format, Reader reader, ObjectMapper objectMapper) throws IOException, IllegalArgumentException {
+    return switch (format) {
+      case NDJSON -> new NdjsonRowReader(reader, objectMapper);
+      case CSV -> new CsvRowReader(reader);
+    };
+  }
+
+  /**
+   * Reads the next row.
+   *
+   * @return Return the next row, or null if there are no more rows.
+   * @throws IOException              If the body cannot be read.
+   * @throws IllegalArgumentException If the row cannot be read; the next call reads the row after it.
+   */
+  public abstract IngestRow next() throws IOException, IllegalArgumentException;
+
+  /**
+   * Returns the names of the fields given in the header of the body, for formats that have one.
+   *
+   * @return Return the names of the fields, or null if the format has no header.
+   */
+  public List<String> getColumns() {
+    return null;
+  }
+
+  /**
+   * Returns the number of the line that the last row read, or failed to be read, starts on.
+   *
+   * @return Return the number of the line, counted from 1.
+   */
+  public long getLine() {
+    return line;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void startRow() {
+    line = nextLine;
+  }
+
+  private int read() throws IOException {
+    int c = reader.read();
+    if (c == '\n') {
+      nextLine++;
+    }
+    return c;
+  }
+
+  /**
+   * Reads the rest of the current line and reports the row as too long.
+   */
+  private IllegalArgumentException skipLongRow() throws IOException {
+    int c;
+    do {
+      c = read();
+    } while (c != -1 && c != '\n');
+    return new IllegalArgumentException("Row is longer than " + MAX_ROW_LENGTH + " characters");
+  }
+
+  /**
+   * Reads rows from JSON objects, one on each line. Fields holding arrays are read as lists.
+   */
+  private static final class NdjsonRowReader extends IngestRowReader {
+    private final ObjectMapper objectMapper;
+
+    private NdjsonRowReader(Reader reader, ObjectMapper objectMapper) {
+      super(reader);
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public IngestRow next() throws IOException {
+      String text;
+      do {
+        text = readLine();
+      } while (text != null && text.isBlank());
+      if (text == null) {
+        return null;
+      }
+      JsonNode node;
+      try {
+        node = objectMapper.readTree(text);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+      }
+      if (!node.isObject()) {
+        throw new IllegalArgumentException("Row must be a JSON object");
+      }
+      Map<String, String> fields = new LinkedHashMap<>();
+      Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+      while (entries.hasNext()) {
+        Map.Entry<String, JsonNode> entry = entries.next();
+        String value = toText(entry.getKey(), entry.getValue());
+        if (value != null && !value.isBlank()) {
+          fields.put(entry.getKey(), value.trim());
+        }
+      }
+      return new IngestRow(getLine(), fields);
+    }
+
+    private static String toText(String name, JsonNode value) {
+      if (value.isNull()) {
+        return null;
+      }
+      if (value.isArray()) {
+        return StreamSupport.stream(value.spliterator(), false)
+            .map(element -> toText(name, element))
+            .collect(Collectors.joining("|"));
+      }
+      if (value.isObject()) {
+        throw new IllegalArgumentException(name + " cannot be an object");
+      }
+      return value.asText();
+    }
+
+    private String readLine() throws IOException {
+      super.startRow();
+      StringBuilder text = new StringBuilder();
+      int c = super.read();
+      if (c == -1) {
+        return null;
+      }
+      while (c != -1 && c != '\n') {
+        if (text.length() == MAX_ROW_LENGTH) {
+          throw super.skipLongRow();
+        }
+        text.append((char) c);
+        c = super.read();
+      }
+      return text.toString();
+    }
+  }
+
+  /**
+   * Reads rows from comma separated values. Values may be quoted with {@code "}, in which case they may hold commas,
+   * line breaks and quotes written twice. The first record holds the names of the fields.
+   */
+  private static final class CsvRowReader extends IngestRowReader {
+    private final List<String> columns;
+
+    private CsvRowReader(Reader reader) throws IOException {
+      super(reader);
+      List<String> header = readRecord();
+      if (header == null) {
+        throw new IllegalArgumentException("The body must start with the names of the fields");
+      }
+      columns = header.stream().map(String::trim).toList();
+      Set<String> distinct = new HashSet<>();
+      for (String column : columns) {
+        if (column.isEmpty() || !distinct.add(column)) {
+          throw new IllegalArgumentException("The names of the fields must be distinct and not blank");
+        }
+      }
+    }
+
+    @Override
+    public List<String> getColumns() {
+      return columns;
+    }
+
+    @Override
+    public IngestRow next() throws IOException {
+      List<String> values;
+      do {
+        values = readRecord();
+      } while (values != null && values.size() == 1 && values.get(0).isBlank());
+      if (values == null) {
+        return null;
+      }
+      if (values.size() != columns.size()) {
+        throw new IllegalArgumentException("Expected " + columns.size() + " values but found " + values.size());
+      }
+      Map<String, String> fields = new LinkedHashMap<>();
+      for (int i = 0; i < columns.size(); i++) {
+        String value = values.get(i).trim();
+        if (!value.isEmpty()) {
+          fields.put(columns.get(i), value);
+        }
+      }
+      return new IngestRow(getLine(), fields);
+    }
+
+    private List<String> readRecord() throws IOException {
+      super.startRow();
+      int c = super.read();
+      if (c == -1) {
+        return null;
+      }
+      List<String> values = new ArrayList<>();
+      StringBuilder value = new StringBuilder();
+      int length = 0;
+      boolean quoted = false;
+      while (c != -1 && (quoted || c != '\n')) {
+        if (++length > MAX_ROW_LENGTH) {
+          if (quoted) {
+            // The line breaks of the quoted value belong to the row, so the rest of the value is skipped as well.
+            do {
+              c = super.read();
+            } while (c != -1 && c != '"');
+          }
+          throw super.skipLongRow();
+        }
+        if (quoted) {
+          if (c == '"') {
+            super.reader.mark(1);
+            if (super.reader.read() == '"') {
+              value.append('"');
+            } else {
+              super.reader.reset();
+              quoted = false;
+            }
+          } else {
+            value.append((char) c);
+          }
+        } else if (c == '"' && value.isEmpty()) {
+          quoted = true;
+        } else if (c == ',') {
+          values.add(value.toString());
+          value.setLength(0);
+        } else if (c != '\r') {
+          value.append((char) c);
+        }
+        c = super.read();
+      }
+      if (quoted) {
+        throw new IllegalArgumentException("Quoted value is not closed");
+      }
+      values.add(value.toString());
+      return values;
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
+import jakarta.persistence.QueryHint;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 /**
@@ -12,5 +15,9 @@ import org.springframework.data.repository.CrudRepository;
  * @version 18.05.2024
  */
 public interface AirlineRepository extends CrudRepository<Airline, Integer> {
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  @Override
+  Iterable<Airline> findAll();
+
   boolean existsById(Integer id);
 }
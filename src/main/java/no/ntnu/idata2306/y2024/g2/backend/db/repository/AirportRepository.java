@@ -1,10 +1,18 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
+import jakarta.persistence.QueryHint;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AirportLocationRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for {@link Airport} entities.
@@ -15,7 +23,22 @@ import java.util.List;
  * @version 18.05.2024
  */
 public interface AirportRepository extends CrudRepository<Airport, Integer> {
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  @Override
+  Iterable<Airport> findAll();
+
   List<Airport> findByLocation(Location location);
 
   List<Airport> findAirportsByLocation_Id(int id);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.AirportLocationRow(a.id, l.id) " +
+      "FROM Airport a LEFT JOIN a.location l")
+  List<AirportLocationRow> findAirportLocationRows();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.AirportLocationRow(a.id, l.id) " +
+      "FROM Airport a LEFT JOIN a.location l WHERE a.id = :id")
+  Optional<AirportLocationRow> findAirportLocationRow(@Param("id") int id);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow(a.id, a.name, a.code) FROM Airport a")
+  List<AutocompleteRow> findAutocompleteRows();
 }
@@ -0,0 +1,63 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.repository;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ArrivalRollup;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link ArrivalRollup} entities.
+ * Extends {@link JpaRepository} to support the popular destination queries and the upkeep of the rollup.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public interface ArrivalRollupRepository extends JpaRepository<ArrivalRollup, Integer> {
+  @Query("SELECT r FROM ArrivalRollup r WHERE r.day = :day AND r.destinationLocationId = :destinationLocationId " +
+      "AND (r.originLocationId = :originLocationId OR (:originLocationId IS NULL AND r.originLocationId IS NULL))")
+  Optional<ArrivalRollup> findCell(@Param("originLocationId") Integer originLocationId,
+                                   @Param("destinationLocationId") int destinationLocationId,
+                                   @Param("day") LocalDate day);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow(r.originLocationId, " +
+      "r.destinationLocationId, r.day, r.arrivals) FROM ArrivalRollup r WHERE r.day BETWEEN :startDay AND :endDay")
+  List<ArrivalCountRow> findArrivalCountRows(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+  Optional<ArrivalRollup> findFirstByOrderByIdAsc();
+
+  @Modifying
+  @Query("INSERT INTO ArrivalRollup (originLocationId, destinationLocationId, day, arrivals) " +
+      "SELECT dl.id, al.id, CAST(f.arrivalDate AS LocalDate), COUNT(f) FROM Flight f " +
+      "JOIN f.departureAirport da LEFT JOIN da.location dl JOIN f.arrivalAirport aa JOIN aa.location al " +
+      "GROUP BY dl.id, al.id, CAST(f.arrivalDate AS LocalDate)")
+  int insertFromFlights();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination(l, SUM(r.arrivals)) " +
+      "FROM ArrivalRollup r JOIN Location l ON l.id = r.destinationLocationId " +
+      "WHERE r.day BETWEEN :startDay AND :endDay " +
+      "AND (:fromLocationId IS NULL OR r.originLocationId = :fromLocationId) " +
+      "GROUP BY l ORDER BY SUM(r.arrivals) DESC")
+  List<PopularDestination> findPopularDestinationsWithoutImage(@Param("fromLocationId") Integer fromLocationId,
+                                                               @Param("startDay") LocalDate startDay,
+                                                               @Param("endDay") LocalDate endDay,
+                                                               Pageable pageable);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination(l, SUM(r.arrivals)) " +
+      "FROM ArrivalRollup r JOIN Location l ON l.id = r.destinationLocationId " +
+      "WHERE r.day BETWEEN :startDay AND :endDay " +
+      "AND (:fromLocationId IS NULL OR r.originLocationId = :fromLocationId) " +
+      "AND l.locationImage IS NOT NULL " +
+      "GROUP BY l ORDER BY SUM(r.arrivals) DESC")
+  List<PopularDestination> findPopularDestinationsWithImage(@Param("fromLocationId") Integer fromLocationId,
+                                                            @Param("startDay") LocalDate startDay,
+                                                            @Param("endDay") LocalDate endDay,
+                                                            Pageable pageable);
+}
@@ -2,8 +2,16 @@ package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.FlightKeyRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchFlightRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TimetableRow;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -25,4 +33,50 @@ public interface FlightRepository extends CrudRepository<Flight, Integer> {
   List<Flight> findFlightsByDepartureAirport_Id(int id);
 
   List<Flight> findFlightsByAirlineId_Id(int id);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.SearchFlightRow(f.id, f.name, f.departureDate, f.arrivalDate, " +
+      "da.id, da.code, da.name, dl.id, dl.country, dl.name, " +
+      "aa.id, aa.code, aa.name, al.id, al.country, al.name, " +
+      "a.id, a.name, a.logo) " +
+      "FROM Flight f JOIN f.departureAirport da LEFT JOIN da.location dl " +
+      "JOIN f.arrivalAirport aa LEFT JOIN aa.location al " +
+      "JOIN f.airline a " +
+      "WHERE f.id IN :flightIds")
+  List<SearchFlightRow> findSearchFlightRowsByFlightIds(@Param("flightIds") Collection<Integer> flightIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TimetableRow(f.id, f.departureAirport.id, " +
+      "f.arrivalAirport.id, f.departureDate, f.arrivalDate) FROM Flight f")
+  List<TimetableRow> findTimetableRows();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TimetableRow(f.id, f.departureAirport.id, " +
+      "f.arrivalAirport.id, f.departureDate, f.arrivalDate) FROM Flight f WHERE f.id IN :flightIds")
+  List<TimetableRow> findTimetableRowsByFlightIds(@Param("flightIds") Collection<Integer> flightIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow(dl.id, al.id, " +
+      "CAST(f.arrivalDate AS LocalDate), COUNT(f)) FROM Flight f " +
+      "JOIN f.departureAirport da LEFT JOIN da.location dl JOIN f.arrivalAirport aa JOIN aa.location al " +
+      "WHERE f.id IN :flightIds " +
+      "GROUP BY dl.id, al.id, CAST(f.arrivalDate AS LocalDate)")
+  List<ArrivalCountRow> findArrivalCountRowsByFlightIds(@Param("flightIds") Collection<Integer> flightIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow(dl.id, al.id, " +
+      "CAST(f.arrivalDate AS LocalDate), COUNT(f)) FROM Flight f " +
+      "JOIN f.departureAirport da LEFT JOIN da.location dl JOIN f.arrivalAirport aa JOIN aa.location al " +
+      "WHERE da.id = :airportId OR aa.id = :airportId " +
+      "GROUP BY dl.id, al.id, CAST(f.arrivalDate AS LocalDate)")
+  List<ArrivalCountRow> findArrivalCountRowsByAirportId(@Param("airportId") int airportId);
+
+  @Query("SELECT COUNT(f) FROM Flight f JOIN f.departureAirport da LEFT JOIN da.location dl " +
+      "WHERE f.arrivalAirport.location.id = :destinationLocationId " +
+      "AND (dl.id = :originLocationId OR (:originLocationId IS NULL AND dl.id IS NULL)) " +
+      "AND f.arrivalDate >= :start AND f.arrivalDate < :end")
+  long countArrivals(@Param("originLocationId") Integer originLocationId,
+                     @Param("destinationLocationId") int destinationLocationId,
+                     @Param("start") LocalDateTime start,
+                     @Param("end") LocalDateTime end);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.ingest.FlightKeyRow(f.id, f.name, f.departureDate) " +
+      "FROM Flight f WHERE f.name IN :names AND f.departureDate IN :departureDates")
+  List<FlightKeyRow> findFlightKeyRows(@Param("names") Collection<String> names,
+                                       @Param("departureDates") Collection<LocalDateTime> departureDates);
 }
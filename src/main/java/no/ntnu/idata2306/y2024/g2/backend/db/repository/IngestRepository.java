@@ -0,0 +1,193 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.repository;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Writes ingested flights, trips and prices with JDBC batches: one statement is prepared for each table and every
+ * row of the batch is added to it, so a batch takes a few round trips to the database instead of one for each row.
+ * Hibernate cannot batch the inserts of entities with generated ids, which is why the rows are not written through
+ * the entity manager. The generated ids are set on the written entities. The writes take part in the current
+ * transaction, and nothing is written through the entity manager, so there is nothing to flush.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Repository
+public class IngestRepository {
+
+  private static final Comparator<Price> LOWEST_PRICE = Comparator.comparingInt(Price::getPrice).thenComparingInt(Price::getId);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Binds the values of an entity to the parameters of a prepared statement.
+   */
+  @FunctionalInterface
+  private interface Binder<T> {
+    void bind(PreparedStatement statement, T entity) throws SQLException;
+  }
+
+  /**
+   * Constructs the ingest repository.
+   *
+   * @param jdbcTemplate The template the batches are written with, bound to the current transaction.
+   */
+  @Autowired
+  public IngestRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Inserts new flights, and sets their ids.
+   *
+   * @param flights The flights to insert, with their airports and airline.
+   */
+  public void insertFlights(List<Flight> flights) {
+    insert("INSERT INTO flight (name, departure_airport_id, arrival_airport_id, airline_id, departure_date, arrival_date) " +
+        "VALUES (?, ?, ?, ?, ?, ?)", flights, (statement, flight) -> {
+      statement.setString(1, flight.getName());
+      statement.setInt(2, flight.getDepartureAirport().getId());
+      statement.setInt(3, flight.getArrivalAirport().getId());
+      statement.setInt(4, flight.getAirline().getId());
+      statement.setObject(5, flight.getDepartureDate());
+      statement.setObject(6, flight.getArrivalDate());
+    }, Flight::setId);
+  }
+
+  /**
+   * Inserts new trips together with their prices, and sets the ids of both. The lowest of the prices of each trip
+   * is set as its lowest price.
+   *
+   * @param trips The trips to insert, with the flights, class types and extra features they refer to.
+   */
+  public void insertTrips(List<Trip> trips) {
+    insertPrices(trips.stream().flatMap(trip -> trip.getPrices().stream()).toList());
+    trips.forEach(trip -> trip.setMinPrice(trip.getPrices().stream().min(LOWEST_PRICE).orElse(null)));
+    insert("INSERT INTO trip (leave_initial_flight_id, leave_arrival_flight_id, return_initial_flight_id, " +
+        "return_arrival_flight_id, min_price_id, min_price_amount, active) VALUES (?, ?, ?, ?, ?, ?, ?)", trips, (statement, trip) -> {
+      statement.setInt(1, trip.getLeaveInitialFlight().getId());
+      setFlightId(statement, 2, trip.getLeaveArrivalFlight());
+      setFlightId(statement, 3, trip.getReturnInitialFlight());
+      setFlightId(statement, 4, trip.getReturnArrivalFlight());
+      statement.setInt(5, trip.getMinPrice().getId());
+      statement.setInt(6, trip.getMinPriceAmount());
+      statement.setBoolean(7, trip.isActive());
+    }, Trip::setId);
+
+    List<Object[]> prices = new ArrayList<>();
+    List<Object[]> classTypes = new ArrayList<>();
+    List<Object[]> extraFeatures = new ArrayList<>();
+    List<Object[]> leaveFlightIntervals = new ArrayList<>();
+    List<Object[]> returnFlightIntervals = new ArrayList<>();
+    for (Trip trip : trips) {
+      trip.getPrices().forEach(price -> prices.add(new Object[]{trip.getId(), price.getId()}));
+      trip.getClassTypes().forEach(classType -> classTypes.add(new Object[]{trip.getId(), classType.getId()}));
+      trip.getExtraFeatures().forEach(extraFeature -> extraFeatures.add(new Object[]{trip.getId(), extraFeature.getId()}));
+      intervals(trip.getLeaveFlightIntervals()).forEach(flight -> leaveFlightIntervals.add(new Object[]{trip.getId(), flight.getId()}));
+      intervals(trip.getReturnFlightIntervals()).forEach(flight -> returnFlightIntervals.add(new Object[]{trip.getId(), flight.getId()}));
+    }
+    batchUpdate("INSERT INTO trip_prices (trip_id, prices_id) VALUES (?, ?)", prices);
+    batchUpdate("INSERT INTO trip_class_types (trip_id, class_types_id) VALUES (?, ?)", classTypes);
+    batchUpdate("INSERT INTO trip_extra_features (trip_id, extra_features_id) VALUES (?, ?)", extraFeatures);
+    batchUpdate("INSERT INTO trip_leave_flight_intervals (trip_id, leave_flight_intervals_id) VALUES (?, ?)", leaveFlightIntervals);
+    batchUpdate("INSERT INTO trip_return_flight_intervals (trip_id, return_flight_intervals_id) VALUES (?, ?)", returnFlightIntervals);
+  }
+
+  /**
+   * Inserts new prices of existing trips, and sets their ids. A new price becomes the lowest price of its trip if
+   * it is lower than the lowest price the trip has; on a tie the older price stays the lowest, since it has the
+   * lower id.
+   *
+   * @param tripIds The ids of the trips, one for each price.
+   * @param prices  The prices to insert, with their providers.
+   */
+  public void insertTripPrices(List<Integer> tripIds, List<Price> prices) {
+    if (tripIds.size() != prices.size()) {
+      throw new IllegalArgumentException("There must be one trip for each price");
+    }
+    insertPrices(prices);
+    List<Object[]> links = new ArrayList<>();
+    List<Object[]> minPrices = new ArrayList<>();
+    for (int i = 0; i < prices.size(); i++) {
+      Price price = prices.get(i);
+      links.add(new Object[]{tripIds.get(i), price.getId()});
+      minPrices.add(new Object[]{price.getId(), price.getPrice(), tripIds.get(i), price.getPrice()});
+    }
+    batchUpdate("INSERT INTO trip_prices (trip_id, prices_id) VALUES (?, ?)", links);
+    // Prices are applied in the order they were inserted, so of equal new prices the first one is kept.
+    batchUpdate("UPDATE trip SET min_price_id = ?, min_price_amount = ? " +
+        "WHERE id = ? AND (min_price_amount IS NULL OR min_price_amount > ?)", minPrices);
+  }
+
+  private void insertPrices(List<Price> prices) {
+    insert("INSERT INTO price (provider_id, price, currency) VALUES (?, ?, ?)", prices, (statement, price) -> {
+      statement.setInt(1, price.getProvider().getId());
+      statement.setInt(2, price.getPrice());
+      statement.setString(3, price.getCurrency());
+    }, Price::setId);
+  }
+
+  private static Collection<Flight> intervals(Collection<Flight> flights) {
+    return flights != null ? flights : List.of();
+  }
+
+  private static void setFlightId(PreparedStatement statement, int index, Flight flight) throws SQLException {
+    if (flight != null) {
+      statement.setInt(index, flight.getId());
+    } else {
+      statement.setNull(index, Types.INTEGER);
+    }
+  }
+
+  /**
+   * Inserts the entities in one batch, and sets the ids the database generated for them.
+   */
+  private <T> void insert(String sql, List<T> entities, Binder<T> binder, ObjIntConsumer<T> setId) {
+    if (entities.isEmpty()) {
+      return;
+    }
+    PreparedStatementCreator creator = connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    jdbcTemplate.execute(creator, (PreparedStatementCallback<Void>) statement -> {
+      for (T entity : entities) {
+        binder.bind(statement, entity);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      try (ResultSet keys = statement.getGeneratedKeys()) {
+        for (T entity : entities) {
+          if (!keys.next()) {
+            throw new IllegalStateException("The database did not return the ids of all inserted rows");
+          }
+          setId.accept(entity, keys.getInt(1));
+        }
+      }
+      return null;
+    });
+  }
+
+  private void batchUpdate(String sql, List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, rows);
+    }
+  }
+}
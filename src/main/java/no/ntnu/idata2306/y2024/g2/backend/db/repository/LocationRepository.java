@@ -1,14 +1,17 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
-import no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination;
+import jakarta.persistence.QueryHint;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
-import org.springframework.data.domain.Pageable;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for {@link Location} entities.
@@ -18,27 +21,19 @@ import java.util.List;
  * @version 18.05.2024
  */
 public interface LocationRepository extends JpaRepository<Location, Integer> {
-  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination(l, COUNT(f)) FROM Flight f " +
-      "JOIN f.departureAirport da " +
-      "JOIN f.arrivalAirport aa " +
-      "JOIN aa.location l " +
-      "WHERE f.arrivalDate BETWEEN :startDate AND :endDate " +
-      "AND (:fromLocation IS NULL OR da.location = :fromLocation) " +
-      "GROUP BY l ORDER BY COUNT(f) DESC")
-  List<PopularDestination> findPopularDestinationsWithoutImage(@Param("fromLocation") Location fromLocation,
-                                                               @Param("startDate") LocalDateTime startDate,
-                                                               @Param("endDate") LocalDateTime endDate,
-                                                               Pageable pageable);
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  @Override
+  List<Location> findAll();
 
-  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination(l, COUNT(f)) FROM Flight f " +
-      "JOIN f.arrivalAirport aa " +
-      "JOIN aa.location l " +
-      "WHERE f.arrivalDate BETWEEN :startDate AND :endDate " +
-      "AND (:fromLocation IS NULL OR f.departureAirport.location = :fromLocation) " +
-      "AND l.image IS NOT NULL " +
-      "GROUP BY l ORDER BY COUNT(f) DESC")
-  List<PopularDestination> findPopularDestinationsWithImage(@Param("fromLocation") Location fromLocation,
-                                                            @Param("startDate") LocalDateTime startDate,
-                                                            @Param("endDate") LocalDateTime endDate,
-                                                            Pageable pageable);
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow(l.id, l.name) FROM Location l")
+  List<AutocompleteRow> findAutocompleteRows();
+
+  @Query("SELECT l.id FROM Location l WHERE l.locationImage IS NOT NULL")
+  List<Integer> findIdsWithImage();
+
+  @Query("SELECT i.image FROM Location l JOIN l.locationImage i WHERE l.id = :id")
+  Optional<String> findImageById(@Param("id") int id);
+
+  @Query("SELECT l FROM Location l LEFT JOIN FETCH l.locationImage WHERE l.id IN :ids")
+  List<Location> findAllWithImageByIdIn(@Param("ids") Collection<Integer> ids);
 }
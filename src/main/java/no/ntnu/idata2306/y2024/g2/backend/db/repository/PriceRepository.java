@@ -1,7 +1,10 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -15,4 +18,7 @@ import java.util.List;
  */
 public interface PriceRepository extends CrudRepository<Price, Integer> {
   List<Price> findPricesByProvider_Id(int id);
+
+  @Query("SELECT p FROM Trip t JOIN t.prices p WHERE t.id = :tripId ORDER BY p.price ASC, p.id ASC")
+  List<Price> findPricesOfTripByPrice(@Param("tripId") Integer tripId, Pageable pageable);
 }
@@ -2,7 +2,9 @@ package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Saved;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.User;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -24,4 +26,7 @@ public interface SavedRepository extends CrudRepository<Saved, Integer> {
 
   List<Saved> findSavedsByUser_Email(String email);
 
+  @Query("SELECT s.trip.id FROM Saved s WHERE s.user.email = :email")
+  List<Integer> findTripIdsByUserEmail(@Param("email") String email);
+
 }
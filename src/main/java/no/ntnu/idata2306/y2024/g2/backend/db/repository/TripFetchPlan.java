@@ -0,0 +1,83 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.repository;
+
+import no.ntnu.idata2306.y2024.g2.backend.Views;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+
+import java.util.List;
+
+/**
+ * The parts of a trip that are loaded together with it, one plan for each view a trip entity is serialized in.
+ * Searches serialize {@link Views.Search} from projections instead of entities, so they need no plan.
+ * The flights of a trip and its lowest price are loaded by its entity graph in the query of the trips. Each of
+ * the collections of the plan is loaded afterwards by a query of its own over the same trips, so loading a page
+ * of trips takes the same number of queries however many trips, flights and prices it holds, without multiplying
+ * the rows of one collection by those of another.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public enum TripFetchPlan {
+  /**
+   * Loads everything a trip holds, for {@link Views.Full} and for trips serialized without a view.
+   */
+  FULL(Trip.FLIGHTS_GRAPH, List.of(FetchedCollection.values()));
+
+  /**
+   * The collections of a trip, with the query that loads each of them, and what its elements hold, for a set of
+   * trips.
+   */
+  enum FetchedCollection {
+    PRICES("LEFT JOIN FETCH t.prices p LEFT JOIN FETCH p.provider"),
+    CLASS_TYPES("LEFT JOIN FETCH t.classTypes"),
+    EXTRA_FEATURES("LEFT JOIN FETCH t.extraFeatures"),
+    LEAVE_FLIGHT_INTERVALS("LEFT JOIN FETCH t.leaveFlightIntervals f " + flightJoins()),
+    RETURN_FLIGHT_INTERVALS("LEFT JOIN FETCH t.returnFlightIntervals f " + flightJoins());
+
+    private final String joins;
+
+    FetchedCollection(String joins) {
+      this.joins = joins;
+    }
+
+    private static String flightJoins() {
+      return "LEFT JOIN FETCH f.departureAirport da LEFT JOIN FETCH da.location " +
+          "LEFT JOIN FETCH f.arrivalAirport aa LEFT JOIN FETCH aa.location " +
+          "LEFT JOIN FETCH f.airline";
+    }
+
+    /**
+     * Returns the fetch joins that load the collection.
+     *
+     * @return Return the joins to add after {@code FROM Trip t}.
+     */
+    String getJoins() {
+      return joins;
+    }
+  }
+
+  private final String graph;
+  private final List<FetchedCollection> collections;
+
+  TripFetchPlan(String graph, List<FetchedCollection> collections) {
+    this.graph = graph;
+    this.collections = collections;
+  }
+
+  /**
+   * Returns the name of the entity graph the trips are loaded with.
+   *
+   * @return Return the name of a named entity graph of {@link Trip}.
+   */
+  String getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the collections that are loaded after the trips.
+   *
+   * @return Return the collections of the plan.
+   */
+  List<FetchedCollection> getCollections() {
+    return collections;
+  }
+}
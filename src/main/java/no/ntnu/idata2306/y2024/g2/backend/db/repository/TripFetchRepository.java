@@ -0,0 +1,33 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.repository;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment loading {@link Trip} entities by a {@link TripFetchPlan}.
+ * Mixed into {@link TripRepository}.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public interface TripFetchRepository {
+
+  /**
+   * Retrieves all trips with the parts of them the given plan loads.
+   *
+   * @param plan The parts of the trips to load.
+   * @return Return the trips, ordered by id.
+   */
+  List<Trip> findAllWithPlan(TripFetchPlan plan);
+
+  /**
+   * Retrieves the trips with the given ids with the parts of them the given plan loads.
+   *
+   * @param ids  The ids of the trips.
+   * @param plan The parts of the trips to load.
+   * @return Return the trips that were found, ordered by id.
+   */
+  List<Trip> findAllByIdWithPlan(Collection<Integer> ids, TripFetchPlan plan);
+}
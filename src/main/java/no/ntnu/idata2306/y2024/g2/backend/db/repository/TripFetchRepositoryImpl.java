@@ -0,0 +1,69 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Loads trips by a {@link TripFetchPlan}: the trips with the entity graph of the plan first, and then each of the
+ * collections of the plan with a fetch join over the same trips. The collection queries run in the same
+ * persistence context, so they fill in the collections of the trips already loaded instead of loading them again.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class TripFetchRepositoryImpl implements TripFetchRepository {
+
+  private static final String LOAD_GRAPH_HINT = "jakarta.persistence.loadgraph";
+
+  private final EntityManager entityManager;
+
+  /**
+   * Constructs the fetch repository.
+   *
+   * @param entityManager The shared entity manager, bound to the current transaction.
+   */
+  @Autowired
+  public TripFetchRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  @Transactional
+  public List<Trip> findAllWithPlan(TripFetchPlan plan) {
+    return find(null, plan);
+  }
+
+  @Override
+  @Transactional
+  public List<Trip> findAllByIdWithPlan(Collection<Integer> ids, TripFetchPlan plan) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return find(ids, plan);
+  }
+
+  private List<Trip> find(Collection<Integer> ids, TripFetchPlan plan) {
+    String where = ids != null ? " WHERE t.id IN :ids" : "";
+    TypedQuery<Trip> tripQuery = entityManager.createQuery("SELECT t FROM Trip t" + where + " ORDER BY t.id", Trip.class)
+        .setHint(LOAD_GRAPH_HINT, entityManager.getEntityGraph(plan.getGraph()));
+    List<Trip> trips = withIds(tripQuery, ids).getResultList();
+    if (trips.isEmpty()) {
+      return trips;
+    }
+    for (TripFetchPlan.FetchedCollection collection : plan.getCollections()) {
+      withIds(entityManager.createQuery("SELECT t FROM Trip t " + collection.getJoins() + where, Trip.class), ids)
+          .getResultList();
+    }
+    return trips;
+  }
+
+  private static TypedQuery<Trip> withIds(TypedQuery<Trip> query, Collection<Integer> ids) {
+    return ids != null ? query.setParameter("ids", ids) : query;
+  }
+}
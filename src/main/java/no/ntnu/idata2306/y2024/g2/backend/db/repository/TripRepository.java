@@ -1,59 +1,77 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.repository;
 
-import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIndexRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripLegRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripSearchRow;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository interface for {@link Trip} entities.
  * Extends {@link JpaRepository} to provide basic CRUD operations for the management of Trip entities.
  * This interface can be extended to include more complex queries specific to the Trip entity as needed.
+ * Trips are loaded together with what their view shows through {@link TripFetchRepository}.
  *
  * @author Daniel Neset
  * @version 18.05.2024
  */
-public interface TripRepository extends JpaRepository<Trip, Integer> {
-  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult(t) " +
+public interface TripRepository extends JpaRepository<Trip, Integer>, TripFetchRepository {
+  @Query("SELECT t.id " +
       "FROM Trip t LEFT JOIN t.leaveArrivalFlight laf JOIN t.leaveInitialFlight lif " +
-      "WHERE lif.departureAirport.id IN :departureAirportIds " +
+      "WHERE t.active = true AND lif.departureAirport.id IN :departureAirportIds " +
+      "AND ((laf IS NOT NULL AND laf.arrivalAirport.id IN :arrivalAirportIds) OR (laf IS NULL AND lif.arrivalAirport.id IN :arrivalAirportIds)) " +
+      "AND t.returnInitialFlight IS NULL " +
+      "AND lif.departureDate BETWEEN :departureDateLower AND :departureDateUpper " +
+      "ORDER BY lif.departureDate ASC, t.id ASC")
+  List<Integer> findOneWayTripIdsByAirportIdsAndDepartureDate(@Param("departureAirportIds") List<Integer> departureAirportIds,
+                                                              @Param("departureDateLower") LocalDateTime departureDateLower,
+                                                              @Param("departureDateUpper") LocalDateTime departureDateUpper,
+                                                              @Param("arrivalAirportIds") List<Integer> arrivalAirportIds,
+                                                              Pageable pageable);
+
+  @Query("SELECT t.id " +
+      "FROM Trip t LEFT JOIN t.leaveArrivalFlight laf JOIN t.leaveInitialFlight lif " +
+      "WHERE t.active = true AND lif.departureAirport.id IN :departureAirportIds " +
       "AND ((laf IS NOT NULL AND laf.arrivalAirport.id IN :arrivalAirportIds) OR (laf IS NULL AND lif.arrivalAirport.id IN :arrivalAirportIds)) " +
       "AND t.returnInitialFlight IS NULL " +
-      "AND t.leaveInitialFlight.departureDate BETWEEN :departureDateLower AND :departureDateUpper " +
-      "GROUP BY t " +
-      "ORDER BY t.leaveInitialFlight.departureDate ASC ")
-  List<TripSearchResult> findOneWayTripsByAirportIdsAndDepartureDate(@Param("departureAirportIds") List<Integer> departureAirportIds,
-                                                                     @Param("departureDateLower") LocalDateTime departureDateLower,
-                                                                     @Param("departureDateUpper") LocalDateTime departureDateUpper,
-                                                                     @Param("arrivalAirportIds") List<Integer> arrivalAirportIds,
-                                                                     Pageable pageable);
-
-  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult(t) FROM Trip t " +
-      "LEFT JOIN t.leaveArrivalFlight laf " +
-      "JOIN t.leaveInitialFlight lif " +
-      "LEFT JOIN t.returnArrivalFlight raf " +
-      "LEFT JOIN t.returnInitialFlight rif " +
-      "WHERE lif.departureAirport.id IN :departureAirportIds " +
-      "AND ((laf IS NOT NULL AND laf.arrivalAirport.id IN :arrivalAirportIds) OR " +
-      "(lif.arrivalAirport.id IN :arrivalAirportIds)) " +
-      "AND ((raf IS NOT NULL AND raf.arrivalAirport.id IN :departureAirportIds) OR " +
-      "(rif IS NOT NULL AND rif.arrivalAirport.id IN :departureAirportIds)) " +
       "AND lif.departureDate BETWEEN :departureDateLower AND :departureDateUpper " +
+      "AND (lif.departureDate > :afterDepartureDate OR (lif.departureDate = :afterDepartureDate AND t.id > :afterTripId)) " +
+      "ORDER BY lif.departureDate ASC, t.id ASC")
+  List<Integer> findOneWayTripIdsByAirportIdsAndDepartureDateAfter(@Param("departureAirportIds") List<Integer> departureAirportIds,
+                                                                   @Param("departureDateLower") LocalDateTime departureDateLower,
+                                                                   @Param("departureDateUpper") LocalDateTime departureDateUpper,
+                                                                   @Param("arrivalAirportIds") List<Integer> arrivalAirportIds,
+                                                                   @Param("afterDepartureDate") LocalDateTime afterDepartureDate,
+                                                                   @Param("afterTripId") Integer afterTripId,
+                                                                   Pageable pageable);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripLegRow(t.id, lif.departureDate) " +
+      "FROM Trip t JOIN t.leaveInitialFlight lif LEFT JOIN t.leaveArrivalFlight laf " +
+      "WHERE t.active = true AND t.returnInitialFlight IS NOT NULL " +
+      "AND lif.departureAirport.id IN :departureAirportIds " +
+      "AND lif.departureDate BETWEEN :departureDateLower AND :departureDateUpper " +
+      "AND COALESCE(laf.arrivalAirport.id, lif.arrivalAirport.id) IN :arrivalAirportIds")
+  List<TripLegRow> findRoundTripOutboundLegs(@Param("departureAirportIds") List<Integer> departureAirportIds,
+                                             @Param("arrivalAirportIds") List<Integer> arrivalAirportIds,
+                                             @Param("departureDateLower") LocalDateTime departureDateLower,
+                                             @Param("departureDateUpper") LocalDateTime departureDateUpper);
+
+  @Query("SELECT t.id FROM Trip t JOIN t.returnInitialFlight rif LEFT JOIN t.returnArrivalFlight raf " +
+      "WHERE t.active = true " +
       "AND rif.departureDate BETWEEN :returnDateLower AND :returnDateUpper " +
-      "GROUP BY t " +
-      "ORDER BY lif.departureDate ASC")
-  List<TripSearchResult> findRoundTripTripsByAirportIdsAndDateRange(@Param("departureAirportIds") List<Integer> departureAirportIds,
-                                                                    @Param("departureDateLower") LocalDateTime departureDateLower,
-                                                                    @Param("departureDateUpper") LocalDateTime departureDateUpper,
-                                                                    @Param("arrivalAirportIds") List<Integer> arrivalAirportIds,
-                                                                    @Param("returnDateLower") LocalDateTime returnDateLower,
-                                                                    @Param("returnDateUpper") LocalDateTime returnDateUpper,
-                                                                    Pageable pageable);
+      "AND COALESCE(raf.arrivalAirport.id, rif.arrivalAirport.id) IN :returnArrivalAirportIds")
+  List<Integer> findRoundTripReturnLegTripIds(@Param("returnArrivalAirportIds") List<Integer> returnArrivalAirportIds,
+                                              @Param("returnDateLower") LocalDateTime returnDateLower,
+                                              @Param("returnDateUpper") LocalDateTime returnDateUpper);
 
   @Query("SELECT t FROM Trip t WHERE " +
       "t.leaveInitialFlight.id = :flightId OR " +
@@ -63,4 +81,69 @@ public interface TripRepository extends JpaRepository<Trip, Integer> {
       "EXISTS (SELECT 1 FROM t.leaveFlightIntervals df WHERE df.id = :flightId) OR " +
       "EXISTS (SELECT 1 FROM t.returnFlightIntervals rf WHERE rf.id = :flightId)")
   List<Trip> findTripsIncludingFlight(@Param("flightId") Integer flightId);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIndexRow(t.id, lif.departureAirport.id, " +
+      "COALESCE(laf.arrivalAirport.id, lif.arrivalAirport.id), lif.departureDate, COALESCE(laf.arrivalDate, lif.arrivalDate), " +
+      "rif.departureDate, COALESCE(raf.arrivalAirport.id, rif.arrivalAirport.id), COALESCE(raf.arrivalDate, rif.arrivalDate), " +
+      "t.minPriceAmount, mp.id, lif.airline.id, laf.airline.id, SIZE(t.leaveFlightIntervals), " +
+      "rif.airline.id, raf.airline.id, SIZE(t.returnFlightIntervals)) " +
+      "FROM Trip t JOIN t.leaveInitialFlight lif " +
+      "LEFT JOIN t.leaveArrivalFlight laf " +
+      "LEFT JOIN t.returnInitialFlight rif " +
+      "LEFT JOIN t.returnArrivalFlight raf " +
+      "LEFT JOIN t.minPrice mp " +
+      "WHERE t.active = true")
+  List<TripIndexRow> findSearchIndexRows();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIndexRow(t.id, lif.departureAirport.id, " +
+      "COALESCE(laf.arrivalAirport.id, lif.arrivalAirport.id), lif.departureDate, COALESCE(laf.arrivalDate, lif.arrivalDate), " +
+      "rif.departureDate, COALESCE(raf.arrivalAirport.id, rif.arrivalAirport.id), COALESCE(raf.arrivalDate, rif.arrivalDate), " +
+      "t.minPriceAmount, mp.id, lif.airline.id, laf.airline.id, SIZE(t.leaveFlightIntervals), " +
+      "rif.airline.id, raf.airline.id, SIZE(t.returnFlightIntervals)) " +
+      "FROM Trip t JOIN t.leaveInitialFlight lif " +
+      "LEFT JOIN t.leaveArrivalFlight laf " +
+      "LEFT JOIN t.returnInitialFlight rif " +
+      "LEFT JOIN t.returnArrivalFlight raf " +
+      "LEFT JOIN t.minPrice mp " +
+      "WHERE t.active = true AND t.id IN :tripIds")
+  List<TripIndexRow> findSearchIndexRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripSearchRow(t.id, t.leaveInitialFlight.id, " +
+      "laf.id, rif.id, raf.id, mp.id, mp.price, mp.currency) " +
+      "FROM Trip t LEFT JOIN t.leaveArrivalFlight laf " +
+      "LEFT JOIN t.returnInitialFlight rif " +
+      "LEFT JOIN t.returnArrivalFlight raf " +
+      "LEFT JOIN t.minPrice mp " +
+      "WHERE t.id IN :tripIds")
+  List<TripSearchRow> findSearchRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalRow(t.id, f.id) " +
+      "FROM Trip t JOIN t.leaveFlightIntervals f WHERE t.id IN :tripIds")
+  List<TripIntervalRow> findLeaveIntervalRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalRow(t.id, f.id) " +
+      "FROM Trip t JOIN t.returnFlightIntervals f WHERE t.id IN :tripIds")
+  List<TripIntervalRow> findReturnIntervalRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow(t.id, f.airline.id) " +
+      "FROM Trip t JOIN t.leaveFlightIntervals f WHERE t.active = true")
+  List<TripIntervalAirlineRow> findLeaveIntervalAirlineRows();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow(t.id, f.airline.id) " +
+      "FROM Trip t JOIN t.returnFlightIntervals f WHERE t.active = true")
+  List<TripIntervalAirlineRow> findReturnIntervalAirlineRows();
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow(t.id, f.airline.id) " +
+      "FROM Trip t JOIN t.leaveFlightIntervals f WHERE t.active = true AND t.id IN :tripIds")
+  List<TripIntervalAirlineRow> findLeaveIntervalAirlineRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT new no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow(t.id, f.airline.id) " +
+      "FROM Trip t JOIN t.returnFlightIntervals f WHERE t.active = true AND t.id IN :tripIds")
+  List<TripIntervalAirlineRow> findReturnIntervalAirlineRowsByTripIds(@Param("tripIds") Collection<Integer> tripIds);
+
+  @Query("SELECT t.id FROM Trip t JOIN t.prices p WHERE p.id = :priceId")
+  List<Integer> findTripIdsByPriceId(@Param("priceId") Integer priceId);
+
+  @Query("SELECT t.id FROM Trip t WHERE t.id IN :tripIds")
+  List<Integer> findExistingIds(@Param("tripIds") Collection<Integer> tripIds);
 }
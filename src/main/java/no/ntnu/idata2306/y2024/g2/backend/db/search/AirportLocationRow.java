@@ -0,0 +1,13 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+/**
+ * The location of an airport, as used to resolve the airports of a search.
+ * Instances are created directly by the JPQL constructor expressions in the airport repository.
+ *
+ * @param airportId  The id of the airport.
+ * @param locationId The id of the location of the airport, or null if it has none.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record AirportLocationRow(int airportId, Integer locationId) {
+}
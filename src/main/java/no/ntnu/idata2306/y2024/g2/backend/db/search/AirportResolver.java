@@ -0,0 +1,100 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the airport or location of a search into the ids of its airports without going to the database.
+ * The airport ids of every airport and location are loaded in one query on first use and kept in memory as
+ * immutable lists, so resolving a search allocates nothing. The airport and location services invalidate them
+ * whenever they write airports or locations, and they are loaded again on the next search.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class AirportResolver {
+
+  /**
+   * The airport ids of each airport and of each location.
+   */
+  private record Snapshot(Map<Integer, List<Integer>> airports, Map<Integer, List<Integer>> locations) {
+  }
+
+  private final AirportRepository airportRepository;
+  // Incremented on every invalidation, so airports loaded while a write happened are not kept.
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Constructs the airport resolver.
+   *
+   * @param airportRepository The repository the airports are loaded from.
+   */
+  @Autowired
+  public AirportResolver(AirportRepository airportRepository) {
+    this.airportRepository = airportRepository;
+  }
+
+  /**
+   * Resolves an airport or a location into the ids of its airports.
+   *
+   * @param airportId  The id of the airport, or null to resolve the location.
+   * @param locationId The id of the location; ignored if an airport is given.
+   * @return Return the id of the airport, or the ids of the airports of the location in ascending order. The list
+   *     is empty if there is no such airport or location, and may not be modified.
+   * @throws IllegalArgumentException If neither an airport nor a location is given.
+   */
+  public List<Integer> resolve(Integer airportId, Integer locationId) throws IllegalArgumentException {
+    Snapshot current = snapshot();
+    if (airportId != null) {
+      return current.airports().getOrDefault(airportId, List.of());
+    } else if (locationId != null) {
+      return current.locations().getOrDefault(locationId, List.of());
+    } else {
+      throw new IllegalArgumentException("Either airportId or locationId must be provided");
+    }
+  }
+
+  /**
+   * Drops the resolved airports after airports or locations have been written.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      long startGeneration = generation.get();
+      current = load();
+      synchronized (this) {
+        if (generation.get() == startGeneration) {
+          snapshot = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private Snapshot load() {
+    Map<Integer, List<Integer>> airports = new HashMap<>();
+    Map<Integer, List<Integer>> locations = new HashMap<>();
+    for (AirportLocationRow row : airportRepository.findAirportLocationRows()) {
+      airports.put(row.airportId(), List.of(row.airportId()));
+      if (row.locationId() != null) {
+        locations.computeIfAbsent(row.locationId(), locationId -> new ArrayList<>()).add(row.airportId());
+      }
+    }
+    locations.replaceAll((locationId, airportIds) -> airportIds.stream().sorted().toList());
+    return new Snapshot(Map.copyOf(airports), Map.copyOf(locations));
+  }
+}
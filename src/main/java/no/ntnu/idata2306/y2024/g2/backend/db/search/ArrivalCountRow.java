@@ -0,0 +1,20 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDate;
+
+/**
+ * The number of flights arriving at a location from another location on one day.
+ * Instances are created directly by the JPQL constructor expressions in the flight repository.
+ *
+ * @param originLocationId      The location of the departure airport, or null if it has none.
+ * @param destinationLocationId The location of the arrival airport.
+ * @param day                   The day the flights arrive.
+ * @param arrivals              The number of flights.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record ArrivalCountRow(Integer originLocationId,
+                              int destinationLocationId,
+                              LocalDate day,
+                              long arrivals) {
+}
@@ -0,0 +1,526 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.AutocompleteLocation;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.LocationType;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the names of locations and airports, and the codes of airports, for autocomplete.
+ * Names are normalized to lower case without accents and split into words. A query matches an entry when each of
+ * its words is the start of a word of the entry, allowing a few typos in longer words, or when the query occurs
+ * anywhere in the name of the entry. Words are found by prefix in a sorted map, typo candidates through the
+ * bigrams they share with the query, and names containing the query through their trigrams, so a query never
+ * looks at every entry.
+ * The index is built once from the database and then kept up to date by the location and airport services as
+ * they write, so answering a query never touches the database.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class AutocompleteIndex {
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int TYPO_MIN_LENGTH = 4;
+  private static final int TWO_TYPOS_MIN_LENGTH = 8;
+  private static final int INFIX_MIN_LENGTH = 3;
+
+  private static final int EXACT_WORD_SCORE = 100;
+  private static final int PREFIX_SCORE = 80;
+  private static final int TYPO_SCORE = 60;
+  private static final int TYPO_PENALTY = 15;
+  private static final int INFIX_SCORE = 30;
+  private static final int NAME_PREFIX_BONUS = 20;
+  private static final int CODE_BONUS = 50;
+
+  /**
+   * Identifies an entry of the index.
+   */
+  private record Key(LocationType type, int id) {
+  }
+
+  /**
+   * An indexed location or airport.
+   *
+   * @param location The location or airport as returned to the client.
+   * @param name     The normalized name.
+   * @param code     The normalized code, or null for locations.
+   * @param words    The normalized words of the name and code.
+   */
+  private record Entry(AutocompleteLocation location, String name, String code, List<String> words) {
+  }
+
+  /**
+   * Every location and airport of the index, as of a version of the index.
+   *
+   * @param version   The version of the index, which changes on every write.
+   * @param locations The locations and airports, locations first, each ordered by id.
+   */
+  public record Listing(long version, List<AutocompleteLocation> locations) {
+  }
+
+  /**
+   * A scored match of a query.
+   */
+  private record Match(Entry entry, int score) {
+  }
+
+  // Best match first: highest score, then shortest name, then locations before airports, then by name and id.
+  private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+      .thenComparingInt(match -> match.entry().name().length())
+      .thenComparing(match -> match.entry().location().getLocationTypeString(), Comparator.reverseOrder())
+      .thenComparing(match -> match.entry().name())
+      .thenComparingInt(match -> match.entry().location().getId());
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Key, Entry> entries = new HashMap<>();
+  private final TreeMap<String, Set<Key>> keysByWord = new TreeMap<>();
+  private final Map<String, Set<String>> wordsByBigram = new HashMap<>();
+  private final Map<String, Set<Key>> keysByTrigram = new HashMap<>();
+  private volatile boolean ready;
+  private volatile long version;
+
+  /**
+   * Replaces the content of the index with the locations and airports loaded by the given suppliers.
+   * They are loaded while writes to the index wait, so a location or airport written during the rebuild is
+   * either loaded or written to the index after it.
+   *
+   * @param locations Loads the rows of all locations.
+   * @param airports  Loads the rows of all airports.
+   */
+  public void rebuild(Supplier<List<AutocompleteRow>> locations, Supplier<List<AutocompleteRow>> airports) {
+    lock.writeLock().lock();
+    try {
+      List<AutocompleteRow> locationRows = locations.get();
+      List<AutocompleteRow> airportRows = airports.get();
+      entries.clear();
+      keysByWord.clear();
+      wordsByBigram.clear();
+      keysByTrigram.clear();
+      locationRows.forEach(row -> add(new Key(LocationType.LOCATION, row.id()), row));
+      airportRows.forEach(row -> add(new Key(LocationType.AIRPORT, row.id()), row));
+      ready = true;
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Checks if the index has been built.
+   *
+   * @return Return true if the index holds every location and airport.
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Return the number of indexed locations and airports.
+   *
+   * @return The number of indexed locations and airports.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a location to the index, or replaces it.
+   *
+   * @param row The row of the location.
+   */
+  public void putLocation(AutocompleteRow row) {
+    put(new Key(LocationType.LOCATION, row.id()), row);
+  }
+
+  /**
+   * Adds an airport to the index, or replaces it.
+   *
+   * @param row The row of the airport.
+   */
+  public void putAirport(AutocompleteRow row) {
+    put(new Key(LocationType.AIRPORT, row.id()), row);
+  }
+
+  /**
+   * Removes a location from the index.
+   *
+   * @param id The id of the location.
+   */
+  public void removeLocation(int id) {
+    remove(new Key(LocationType.LOCATION, id));
+  }
+
+  /**
+   * Removes an airport from the index.
+   *
+   * @param id The id of the airport.
+   */
+  public void removeAirport(int id) {
+    remove(new Key(LocationType.AIRPORT, id));
+  }
+
+  /**
+   * Returns the version of the index, which changes whenever a location or airport is written to it.
+   *
+   * @return Return the version of the index.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns every location and airport, locations first, each ordered by id.
+   *
+   * @return Return all indexed locations and airports.
+   */
+  public List<AutocompleteLocation> getAll() {
+    return getListing().locations();
+  }
+
+  /**
+   * Returns every location and airport together with the version of the index they were read at.
+   *
+   * @return Return all indexed locations and airports and the version of the index.
+   */
+  public Listing getListing() {
+    lock.readLock().lock();
+    try {
+      return new Listing(version, entries.entrySet().stream()
+          .sorted(Comparator.comparing((Map.Entry<Key, Entry> entry) -> entry.getKey().type())
+              .reversed().thenComparingInt(entry -> entry.getKey().id()))
+          .map(entry -> entry.getValue().location())
+          .toList());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the locations and airports that best match a query.
+   * Exact words score above word prefixes, which score above words with typos, which score above names that
+   * only contain the query. Names starting with the query and airports whose code is the query score higher.
+   *
+   * @param query The text typed by the user.
+   * @param limit The most matches to return.
+   * @return Return the best matches, best first.
+   */
+  public List<AutocompleteLocation> search(String query, int limit) {
+    List<String> queryWords = words(normalize(query));
+    if (queryWords.isEmpty() || limit < 1) {
+      return List.of();
+    }
+    String joinedQuery = String.join(" ", queryWords);
+
+    lock.readLock().lock();
+    try {
+      Set<Key> candidates = new LinkedHashSet<>();
+      String firstWord = queryWords.get(0);
+      keysByWord.subMap(firstWord, firstWord + Character.MAX_VALUE).values().forEach(candidates::addAll);
+      for (String word : typoCandidates(firstWord)) {
+        candidates.addAll(keysByWord.get(word));
+      }
+      candidates.addAll(infixCandidates(joinedQuery));
+
+      // Keeps the best matches, with the worst of them on top.
+      PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+      for (Key key : candidates) {
+        Entry entry = entries.get(key);
+        int score = score(entry, queryWords, joinedQuery);
+        if (score > 0) {
+          best.add(new Match(entry, score));
+          if (best.size() > limit) {
+            best.poll();
+          }
+        }
+      }
+      List<Match> matches = new ArrayList<>(best);
+      matches.sort(RANKING);
+      return matches.stream().map(match -> match.entry().location()).toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void put(Key key, AutocompleteRow row) {
+    lock.writeLock().lock();
+    try {
+      removeEntry(key);
+      add(key, row);
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void remove(Key key) {
+    lock.writeLock().lock();
+    try {
+      if (removeEntry(key)) {
+        version++;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void add(Key key, AutocompleteRow row) {
+    String displayName = row.code() == null ? row.name() : row.name() + " (" + row.code() + ")";
+    List<String> nameWords = words(normalize(row.name()));
+    String name = String.join(" ", nameWords);
+    String code = row.code() == null ? null : normalize(row.code());
+    Set<String> words = new LinkedHashSet<>(nameWords);
+    if (code != null) {
+      words.addAll(words(code));
+    }
+    Entry entry = new Entry(new AutocompleteLocation(row.id(), displayName, key.type()), name, code, List.copyOf(words));
+    entries.put(key, entry);
+    for (String word : entry.words()) {
+      Set<Key> keys = keysByWord.computeIfAbsent(word, w -> new HashSet<>());
+      if (keys.isEmpty()) {
+        bigrams(word).forEach(bigram -> wordsByBigram.computeIfAbsent(bigram, b -> new HashSet<>()).add(word));
+      }
+      keys.add(key);
+    }
+    trigrams(name).forEach(trigram -> keysByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key));
+  }
+
+  private boolean removeEntry(Key key) {
+    Entry entry = entries.remove(key);
+    if (entry == null) {
+      return false;
+    }
+    for (String word : entry.words()) {
+      Set<Key> keys = keysByWord.get(word);
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        keysByWord.remove(word);
+        for (String bigram : bigrams(word)) {
+          Set<String> words = wordsByBigram.get(bigram);
+          words.remove(word);
+          if (words.isEmpty()) {
+            wordsByBigram.remove(bigram);
+          }
+        }
+      }
+    }
+    for (String trigram : trigrams(entry.name())) {
+      Set<Key> keys = keysByTrigram.get(trigram);
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        keysByTrigram.remove(trigram);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the indexed words that may start with the query word with typos. A word within the allowed edit
+   * distance of the query shares at least all but three bigrams per typo with it.
+   */
+  private Set<String> typoCandidates(String queryWord) {
+    int maxTypos = maxTypos(queryWord);
+    if (maxTypos == 0) {
+      return Set.of();
+    }
+    List<String> queryBigrams = bigrams(queryWord);
+    int minShared = Math.max(1, queryBigrams.size() - 3 * maxTypos);
+    Map<String, Integer> shared = new HashMap<>();
+    for (String bigram : queryBigrams) {
+      for (String word : wordsByBigram.getOrDefault(bigram, Set.of())) {
+        shared.merge(word, 1, Integer::sum);
+      }
+    }
+    Set<String> candidates = new HashSet<>();
+    shared.forEach((word, count) -> {
+      if (count >= minShared) {
+        candidates.add(word);
+      }
+    });
+    return candidates;
+  }
+
+  /**
+   * Returns the entries whose name holds every trigram of the query.
+   */
+  private Set<Key> infixCandidates(String query) {
+    if (query.length() < INFIX_MIN_LENGTH) {
+      return Set.of();
+    }
+    Set<Key> candidates = null;
+    for (String trigram : trigrams(query)) {
+      Set<Key> keys = keysByTrigram.getOrDefault(trigram, Set.of());
+      if (candidates == null) {
+        candidates = new HashSet<>(keys);
+      } else {
+        candidates.retainAll(keys);
+      }
+      if (candidates.isEmpty()) {
+        break;
+      }
+    }
+    return candidates == null ? Set.of() : candidates;
+  }
+
+  /**
+   * Scores an entry against the words of a query.
+   *
+   * @return Return the score, or 0 if the entry does not match.
+   */
+  private static int score(Entry entry, List<String> queryWords, String query) {
+    int total = 0;
+    for (String queryWord : queryWords) {
+      int best = 0;
+      for (String word : entry.words()) {
+        best = Math.max(best, scoreWord(word, queryWord));
+      }
+      if (best == 0) {
+        total = 0;
+        break;
+      }
+      total += best;
+    }
+    int score;
+    if (total > 0) {
+      score = total / queryWords.size();
+    } else if (query.length() >= INFIX_MIN_LENGTH && entry.name().contains(query)) {
+      score = INFIX_SCORE;
+    } else {
+      return 0;
+    }
+    if (entry.name().startsWith(query)) {
+      score += NAME_PREFIX_BONUS;
+    }
+    if (query.equals(entry.code())) {
+      score += CODE_BONUS;
+    }
+    return score;
+  }
+
+  private static int scoreWord(String word, String queryWord) {
+    if (word.equals(queryWord)) {
+      return EXACT_WORD_SCORE;
+    }
+    if (word.startsWith(queryWord)) {
+      return PREFIX_SCORE;
+    }
+    int maxTypos = maxTypos(queryWord);
+    if (maxTypos == 0) {
+      return 0;
+    }
+    // A typo may add or drop a letter, so the query is compared with prefixes of the word one letter longer or shorter.
+    int typos = Integer.MAX_VALUE;
+    for (int length = queryWord.length() - maxTypos; length <= queryWord.length() + maxTypos; length++) {
+      if (length > 0 && length <= word.length()) {
+        typos = Math.min(typos, editDistance(word.substring(0, length), queryWord, maxTypos));
+      }
+    }
+    return typos <= maxTypos ? TYPO_SCORE - TYPO_PENALTY * (typos - 1) : 0;
+  }
+
+  private static int maxTypos(String queryWord) {
+    if (queryWord.length() >= TWO_TYPOS_MIN_LENGTH) {
+      return 2;
+    }
+    return queryWord.length() >= TYPO_MIN_LENGTH ? 1 : 0;
+  }
+
+  /**
+   * Returns the edit distance between two words, counting insertions, deletions, substitutions and swaps of two
+   * neighbouring letters as one edit each.
+   *
+   * @return Return the distance, or a number above the maximum if it is larger than the maximum.
+   */
+  static int editDistance(String a, String b, int max) {
+    if (Math.abs(a.length() - b.length()) > max) {
+      return max + 1;
+    }
+    int[][] distance = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      distance[i][0] = i;
+    }
+    for (int j = 0; j <= b.length(); j++) {
+      distance[0][j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      int rowMin = Integer.MAX_VALUE;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int d = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1), distance[i - 1][j - 1] + cost);
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          d = Math.min(d, distance[i - 2][j - 2] + 1);
+        }
+        distance[i][j] = d;
+        rowMin = Math.min(rowMin, d);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+    }
+    return distance[a.length()][b.length()];
+  }
+
+  /**
+   * Normalizes a name or query: lower case, without accents, with ø and æ spelled out.
+   */
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    String lower = text.toLowerCase(Locale.ROOT).replace("ø", "o").replace("æ", "ae");
+    return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+  }
+
+  private static List<String> words(String normalized) {
+    List<String> words = new ArrayList<>();
+    for (String word : SEPARATORS.split(normalized)) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+
+  /**
+   * Returns the distinct bigrams of a word, the first of them marking the start of the word.
+   */
+  private static List<String> bigrams(String word) {
+    Set<String> bigrams = new LinkedHashSet<>();
+    String marked = "^" + word;
+    for (int i = 0; i + 2 <= marked.length(); i++) {
+      bigrams.add(marked.substring(i, i + 2));
+    }
+    return List.copyOf(bigrams);
+  }
+
+  private static Set<String> trigrams(String text) {
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      trigrams.add(text.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+}
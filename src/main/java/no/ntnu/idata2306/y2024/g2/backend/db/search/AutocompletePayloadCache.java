@@ -0,0 +1,104 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the response listing every location and airport, serialized to JSON and gzipped ahead of time.
+ * The listing only changes when a location or airport is written, so it is serialized again only when the
+ * version of the {@link AutocompleteIndex} has changed since the last time. The entity tag of the payload is
+ * derived from its content, so it stays the same across restarts as long as the listing does.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class AutocompletePayloadCache {
+
+  /**
+   * The serialized listing of one version of the index.
+   *
+   * @param version The version of the index the listing was read at.
+   * @param empty   Whether the listing holds no locations or airports.
+   * @param json    The listing as JSON.
+   * @param gzip    The listing as gzipped JSON.
+   * @param etag    The strong entity tag of the JSON, quoted.
+   */
+  public record Payload(long version, boolean empty, byte[] json, byte[] gzip, String etag) {
+
+    /**
+     * Returns the strong entity tag of the gzipped JSON, which differs from that of the JSON since it is another
+     * representation of the listing.
+     *
+     * @return Return the entity tag of the gzipped JSON, quoted.
+     */
+    public String gzipEtag() {
+      return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+  }
+
+  private final AutocompleteIndex autocompleteIndex;
+  private final ObjectMapper objectMapper;
+  private volatile Payload payload;
+
+  /**
+   * Constructs the payload cache.
+   *
+   * @param autocompleteIndex The index the listing is read from.
+   * @param objectMapper      The object mapper the listing is serialized with.
+   */
+  @Autowired
+  public AutocompletePayloadCache(AutocompleteIndex autocompleteIndex, ObjectMapper objectMapper) {
+    this.autocompleteIndex = autocompleteIndex;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Returns the serialized listing of the current version of the index, serializing it if the index has changed.
+   *
+   * @return Return the serialized listing.
+   */
+  public Payload get() {
+    Payload current = payload;
+    if (current == null || current.version() != autocompleteIndex.getVersion()) {
+      synchronized (this) {
+        current = payload;
+        if (current == null || current.version() != autocompleteIndex.getVersion()) {
+          current = serialize(autocompleteIndex.getListing());
+          payload = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private Payload serialize(AutocompleteIndex.Listing listing) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(listing.locations());
+      ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+        out.write(json);
+      }
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+      String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+      return new Payload(listing.version(), listing.locations().isEmpty(), json, gzip.toByteArray(), etag);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("The autocomplete listing could not be serialized", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
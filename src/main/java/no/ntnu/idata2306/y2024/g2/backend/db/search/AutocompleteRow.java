@@ -0,0 +1,24 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+/**
+ * The names of a location or an airport, as indexed for autocomplete.
+ * Instances are created directly by the JPQL constructor expressions in the location and airport repositories.
+ *
+ * @param id   The id of the location or airport.
+ * @param name The name of the location or airport.
+ * @param code The code of the airport, or null for locations.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record AutocompleteRow(int id, String name, String code) {
+
+  /**
+   * Creates the row of a location, which has no code.
+   *
+   * @param id   The id of the location.
+   * @param name The name of the location.
+   */
+  public AutocompleteRow(int id, String name) {
+    this(id, name, null);
+  }
+}
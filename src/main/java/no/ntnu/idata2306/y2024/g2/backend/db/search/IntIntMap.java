@@ -0,0 +1,143 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.util.Arrays;
+
+/**
+ * A map from int to int, stored in two primitive arrays with open addressing.
+ * The in-memory indexes keep one entry per flight or trip, and a {@link java.util.HashMap} of boxed keys and
+ * values costs several times the heap of the two ints. Not thread safe; the indexes use it under their locks.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+final class IntIntMap {
+
+  private static final int FREE = Integer.MIN_VALUE;
+  private static final int NO_VALUE = -1;
+
+  private int[] keys;
+  private int[] values;
+  private int size;
+
+  /**
+   * Construct a new, empty IntIntMap.
+   */
+  IntIntMap() {
+    clear();
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * @param key The key.
+   * @return Return the value of the key, or -1 if the key is not in the map.
+   */
+  int get(int key) {
+    int slot = slotOf(key);
+    return keys[slot] == key ? values[slot] : NO_VALUE;
+  }
+
+  /**
+   * Sets the value of a key.
+   *
+   * @param key   The key; must not be {@link Integer#MIN_VALUE}.
+   * @param value The value; must not be negative.
+   * @throws IllegalArgumentException If the key or value is out of range.
+   */
+  void put(int key, int value) throws IllegalArgumentException {
+    if (key == FREE || value < 0) {
+      throw new IllegalArgumentException("Key " + key + " or value " + value + " is out of range");
+    }
+    int slot = slotOf(key);
+    if (keys[slot] != key) {
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] = value;
+    if (size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  /**
+   * Removes a key.
+   *
+   * @param key The key.
+   * @return Return the value the key had, or -1 if the key was not in the map.
+   */
+  int remove(int key) {
+    int slot = slotOf(key);
+    if (keys[slot] != key) {
+      return NO_VALUE;
+    }
+    int value = values[slot];
+    size--;
+    // Moves the later entries of the probe sequence back, so lookups never stop at the freed slot too early.
+    int mask = keys.length - 1;
+    int free = slot;
+    for (int next = (free + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        values[free] = values[next];
+        free = next;
+      }
+    }
+    keys[free] = FREE;
+    return value;
+  }
+
+  /**
+   * Removes every key.
+   */
+  void clear() {
+    keys = new int[16];
+    Arrays.fill(keys, FREE);
+    values = new int[16];
+    size = 0;
+  }
+
+  /**
+   * Return the number of keys.
+   *
+   * @return The number of keys in the map.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the slot of a key, or the free slot it would be put in.
+   */
+  private int slotOf(int key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (keys[slot] != FREE && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void resize(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new int[capacity];
+    Arrays.fill(keys, FREE);
+    values = new int[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        int slot = slotOf(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Spreads sequential ids over the table.
+   */
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
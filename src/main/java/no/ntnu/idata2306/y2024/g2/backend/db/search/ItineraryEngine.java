@@ -0,0 +1,638 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Builds multi-leg itineraries from the flight timetable at query time.
+ * Every airport keeps its departing flights in primitive arrays sorted by departure time. A search makes one run
+ * per departure from the origin airports, in departure order, and each run searches round by round, RAPTOR
+ * style: round k looks at the airports reached with k flights, scanning the departures of each of them once for
+ * all the ways it was reached, and boards the flights leaving inside the connection window. A run boards each
+ * flight at most once, in the first round that reaches it, since every later way of reaching it departs at the
+ * same time, arrives at the same time and has more flights. Airports are labelled with the flights that reach
+ * them rather than with their earliest arrival alone, because with a maximum connection time an earlier arrival
+ * can miss a connection that a later one makes. Itineraries never visit the same airport twice and end at the
+ * first destination airport they reach.
+ * Searches stop as soon as they have the itineraries they were asked for, and every search looks at no more than
+ * {@link #MAX_SCANNED_FLIGHTS} departures. A search that is stopped by that limit or by its deadline returns the
+ * itineraries found so far, flagged as partial.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class ItineraryEngine {
+
+  /**
+   * The maximum number of departures a single search looks at, to keep wide searches bounded.
+   */
+  public static final int MAX_SCANNED_FLIGHTS = 2_000_000;
+  /**
+   * The maximum number of itineraries each leg of a round trip search collects for pairing.
+   */
+  public static final int MAX_ITINERARIES = 10000;
+  private static final Comparator<Itinerary> ORDER = Comparator.comparingLong(Itinerary::departureSecond)
+      .thenComparingLong(Itinerary::arrivalSecond)
+      .thenComparingInt(itinerary -> itinerary.flightIds().length)
+      .thenComparing(Itinerary::flightIds, Arrays::compare);
+
+  private final Map<Integer, Departures> departuresByAirport = new HashMap<>();
+  // Only the departure airport of each flight is kept, to find its departures again when it is updated.
+  private final IntIntMap airportsByFlightId = new IntIntMap();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * An itinerary of one or more connecting flights.
+   *
+   * @param flightIds       The ids of the flights, in travel order.
+   * @param departureSecond The departure of the first flight, in epoch seconds.
+   * @param arrivalSecond   The arrival of the last flight, in epoch seconds.
+   */
+  public record Itinerary(int[] flightIds, long departureSecond, long arrivalSecond) {
+  }
+
+  /**
+   * An outbound itinerary paired with a return itinerary.
+   *
+   * @param outbound The outbound itinerary.
+   * @param inbound  The return itinerary.
+   */
+  public record RoundTrip(Itinerary outbound, Itinerary inbound) {
+  }
+
+  /**
+   * A page of search results.
+   *
+   * @param items   The results on the requested page.
+   * @param partial Whether the search was stopped before it had looked at every departure, so results may be
+   *                missing from the page.
+   * @param <T>     The type of the results.
+   */
+  public record Page<T>(List<T> items, boolean partial) {
+  }
+
+  /**
+   * The itineraries a search found, in the order of {@link #ORDER}.
+   */
+  private record Found(List<Itinerary> itineraries, boolean partial) {
+  }
+
+  /**
+   * The limits an itinerary must respect.
+   *
+   * @param maxStops      The maximum number of stops, that is flights minus one.
+   * @param minConnection The minimum time between an arrival and the next departure.
+   * @param maxConnection The maximum time between an arrival and the next departure.
+   */
+  public record Limits(int maxStops, Duration minConnection, Duration maxConnection) {
+  }
+
+  /**
+   * Adds a flight to the timetable, replacing any previous entry for the same flight.
+   *
+   * @param row The timetable row of the flight.
+   */
+  public void put(TimetableRow row) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(row.flightId());
+      addInternal(row);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a flight from the timetable. Does nothing if the flight is not present.
+   *
+   * @param flightId The id of the flight to remove.
+   */
+  public void remove(int flightId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(flightId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the whole timetable.
+   *
+   * @param rows The timetable rows of all flights.
+   */
+  public void replaceAll(Collection<TimetableRow> rows) {
+    lock.writeLock().lock();
+    try {
+      departuresByAirport.clear();
+      airportsByFlightId.clear();
+      rows.forEach(this::addInternal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Return the number of flights in the timetable.
+   *
+   * @return The number of flights in the timetable.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return airportsByFlightId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Finds one-way itineraries, ordered by departure, then arrival, then number of flights.
+   * The search stops once it has found the itineraries up to the end of the page.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure of the first flight, inclusive.
+   * @param departureDateUpper    The latest departure of the first flight, inclusive.
+   * @param limits                The limits the itineraries must respect.
+   * @param offset                The number of itineraries to skip.
+   * @param limit                 The maximum number of itineraries to return.
+   * @param deadline              The deadline the search stops at.
+   * @return Return the requested page of itineraries.
+   */
+  public Page<Itinerary> findOneWay(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                                    LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                                    Limits limits, int offset, int limit, SearchDeadline deadline) {
+    int from = Math.max(offset, 0);
+    int wanted = (int) Math.min((long) from + Math.max(limit, 0), Integer.MAX_VALUE);
+    Found found = find(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper, limits, wanted,
+        deadline);
+    List<Itinerary> itineraries = found.itineraries();
+    int to = Math.min(wanted, itineraries.size());
+    return new Page<>(new ArrayList<>(itineraries.subList(Math.min(from, to), to)), found.partial());
+  }
+
+  /**
+   * Finds round trips by searching the outbound and the return itineraries independently, in parallel, and
+   * pairing every outbound itinerary with the return itineraries that depart after it has arrived.
+   * Pairs are ordered by the outbound itinerary, then by the return itinerary. Each leg is searched for at most
+   * {@link #MAX_ITINERARIES} itineraries, and the page is partial if either leg has more. Both legs stop at the
+   * deadline, and the return leg is not waited for past it.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure of the outbound itinerary, inclusive.
+   * @param departureDateUpper    The latest departure of the outbound itinerary, inclusive.
+   * @param returnDateLower       The earliest departure of the return itinerary, inclusive.
+   * @param returnDateUpper       The latest departure of the return itinerary, inclusive.
+   * @param limits                The limits the itineraries must respect.
+   * @param offset                The number of pairs to skip.
+   * @param limit                 The maximum number of pairs to return.
+   * @param executor              The executor the return itineraries are searched on.
+   * @param deadline              The deadline the search stops at.
+   * @return Return the requested page of round trips.
+   */
+  public Page<RoundTrip> findRoundTrip(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                                       LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                                       LocalDateTime returnDateLower, LocalDateTime returnDateUpper,
+                                       Limits limits, int offset, int limit, Executor executor,
+                                       SearchDeadline deadline) {
+    CompletableFuture<Found> inbound = CompletableFuture.supplyAsync(() -> find(destinationAirportIds,
+        originAirportIds, returnDateLower, returnDateUpper, limits, MAX_ITINERARIES + 1, deadline), executor);
+    Found outbound = find(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper, limits,
+        MAX_ITINERARIES + 1, deadline);
+    Found returning;
+    try {
+      returning = inbound.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      returning = new Found(List.of(), true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      returning = new Found(List.of(), true);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+    return pair(outbound, returning, limits, offset, limit);
+  }
+
+  /**
+   * Pairs outbound itineraries with the return itineraries that depart at least the minimum connection time
+   * after the outbound itinerary has arrived.
+   *
+   * @param outbound The outbound itineraries, ordered by departure.
+   * @param inbound  The return itineraries, ordered by departure.
+   * @param limits   The limits the itineraries must respect.
+   * @param offset   The number of pairs to skip.
+   * @param limit    The maximum number of pairs to return.
+   * @return Return the requested page of round trips.
+   */
+  private static Page<RoundTrip> pair(Found outbound, Found inbound, Limits limits, int offset, int limit) {
+    boolean partial = outbound.partial() || inbound.partial();
+    List<Itinerary> outbounds = outbound.itineraries();
+    List<Itinerary> inbounds = inbound.itineraries();
+    if (outbounds.size() > MAX_ITINERARIES || inbounds.size() > MAX_ITINERARIES) {
+      partial = true;
+      outbounds = outbounds.subList(0, Math.min(outbounds.size(), MAX_ITINERARIES));
+      inbounds = inbounds.subList(0, Math.min(inbounds.size(), MAX_ITINERARIES));
+    }
+    long[] inboundDepartures = new long[inbounds.size()];
+    for (int i = 0; i < inbounds.size(); i++) {
+      inboundDepartures[i] = inbounds.get(i).departureSecond();
+    }
+    long minConnection = limits.minConnection().toSeconds();
+    List<RoundTrip> page = new ArrayList<>();
+    long skip = Math.max(offset, 0);
+    for (Itinerary out : outbounds) {
+      if (page.size() >= limit) {
+        break;
+      }
+      int first = lowerBound(inboundDepartures, inboundDepartures.length, out.arrivalSecond() + minConnection);
+      int matches = inboundDepartures.length - first;
+      if (skip >= matches) {
+        skip -= matches;
+        continue;
+      }
+      for (int i = first + (int) skip; i < inboundDepartures.length && page.size() < limit; i++) {
+        page.add(new RoundTrip(out, inbounds.get(i)));
+      }
+      skip = 0;
+    }
+    return new Page<>(page, partial);
+  }
+
+  /**
+   * Finds itineraries between the airports, ordered by departure, then arrival, then number of flights.
+   * The departures from the origin airports are run in departure order, and the search stops after the first
+   * departure time that brings the number of itineraries up to the wanted number.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure of the first flight, inclusive.
+   * @param departureDateUpper    The latest departure of the first flight, inclusive.
+   * @param limits                The limits the itineraries must respect.
+   * @param wanted                The number of itineraries to find.
+   * @param deadline              The deadline the search stops at.
+   * @return Return the itineraries found, which may be more than wanted.
+   */
+  private Found find(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                     LocalDateTime departureDateLower, LocalDateTime departureDateUpper, Limits limits, int wanted,
+                     SearchDeadline deadline) {
+    long lowerSecond = toEpochSecond(departureDateLower);
+    long upperSecond = toEpochSecond(departureDateUpper);
+    Search search = new Search(new HashSet<>(destinationAirportIds), limits, deadline);
+    List<Itinerary> itineraries = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      List<Integer> origins = new ArrayList<>();
+      List<Departures> originDepartures = new ArrayList<>();
+      for (int origin : new HashSet<>(originAirportIds)) {
+        Departures departures = departuresByAirport.get(origin);
+        if (departures != null) {
+          origins.add(origin);
+          originDepartures.add(departures);
+        }
+      }
+      int[] next = new int[origins.size()];
+      for (int j = 0; j < next.length; j++) {
+        next[j] = originDepartures.get(j).lowerBound(lowerSecond);
+      }
+      List<Itinerary> group = new ArrayList<>();
+      while (!search.stopped && itineraries.size() < wanted) {
+        long second = Long.MAX_VALUE;
+        for (int j = 0; j < next.length; j++) {
+          Departures departures = originDepartures.get(j);
+          if (next[j] < departures.size && departures.departureSeconds[next[j]] <= upperSecond) {
+            second = Math.min(second, departures.departureSeconds[next[j]]);
+          }
+        }
+        if (second == Long.MAX_VALUE) {
+          break;
+        }
+        // Runs departing at the same second are collected together, since their itineraries are ordered by arrival.
+        group.clear();
+        for (int j = 0; j < next.length && !search.stopped; j++) {
+          Departures departures = originDepartures.get(j);
+          for (; next[j] < departures.size && departures.departureSeconds[next[j]] == second && !search.stopped; next[j]++) {
+            search.run(origins.get(j), departures, next[j], group);
+          }
+        }
+        group.sort(ORDER);
+        itineraries.addAll(group);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return new Found(itineraries, search.stopped);
+  }
+
+  private void addInternal(TimetableRow row) {
+    departuresByAirport.computeIfAbsent(row.departureAirportId(), key -> new Departures())
+        .insert(toEpochSecond(row.departureDate()), toEpochSecond(row.arrivalDate()), row.flightId(),
+            row.arrivalAirportId());
+    airportsByFlightId.put(row.flightId(), row.departureAirportId());
+  }
+
+  private void removeInternal(int flightId) {
+    int airportId = airportsByFlightId.remove(flightId);
+    if (airportId < 0) {
+      return;
+    }
+    Departures departures = departuresByAirport.get(airportId);
+    if (departures != null && departures.remove(flightId) && departures.size == 0) {
+      departuresByAirport.remove(airportId);
+    }
+  }
+
+  private static long toEpochSecond(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static int lowerBound(long[] values, int size, long value) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * The state of a single search. Must only be used while holding the read lock.
+   * The labels of a run are the flights it has boarded: the airport each arrives at, when, and the label it was
+   * boarded from, so the itinerary of a label is found by following its parents back to the first flight.
+   */
+  private final class Search {
+    // The deadline is looked at on the first departure and then once per this many, since reading the clock is not
+    // free.
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    private final Set<Integer> destinations;
+    private final SearchDeadline deadline;
+    private final int maxFlights;
+    private final long minConnection;
+    private final long maxConnection;
+    // The run each departure was last boarded in, by the departures of its airport, so a run boards it only once.
+    private final Map<Departures, int[]> boardedRuns = new IdentityHashMap<>();
+    private int run;
+    private int scanned;
+    private boolean stopped;
+    private int[] labelFlights = new int[16];
+    private int[] labelAirports = new int[16];
+    private long[] labelArrivals = new long[16];
+    private int[] labelParents = new int[16];
+    private int labels;
+
+    private Search(Set<Integer> destinations, Limits limits, SearchDeadline deadline) {
+      this.destinations = destinations;
+      this.deadline = deadline;
+      this.maxFlights = Math.max(limits.maxStops(), 0) + 1;
+      this.minConnection = limits.minConnection().toSeconds();
+      this.maxConnection = limits.maxConnection().toSeconds();
+    }
+
+    /**
+     * Searches the itineraries that start with the given departure from an origin airport.
+     *
+     * @param origin     The origin airport.
+     * @param departures The departures of the origin airport.
+     * @param index      The index of the first flight in the departures.
+     * @param found      The list the itineraries are added to.
+     */
+    private void run(int origin, Departures departures, int index, List<Itinerary> found) {
+      if (!scan()) {
+        return;
+      }
+      run++;
+      labels = 0;
+      long departureSecond = departures.departureSeconds[index];
+      int first = addLabel(departures.flightIds[index], departures.arrivalAirports[index],
+          departures.arrivalSeconds[index], -1);
+      if (destinations.contains(labelAirports[first])) {
+        found.add(toItinerary(first, departureSecond));
+        return;
+      }
+      int[] round = {first};
+      for (int flights = 1; flights < maxFlights && round.length > 0 && !stopped; flights++) {
+        round = nextRound(round, flights, origin, departureSecond, found);
+      }
+    }
+
+    /**
+     * Boards the flights that connect to the labels of a round, scanning the departures of each airport once.
+     *
+     * @return Return the labels of the next round, the boarded flights that did not reach a destination.
+     */
+    private int[] nextRound(int[] round, int flights, int origin, long departureSecond, List<Itinerary> found) {
+      boolean last = flights + 1 == maxFlights;
+      int[] next = new int[16];
+      int nextSize = 0;
+      long[] byAirport = new long[round.length];
+      for (int i = 0; i < round.length; i++) {
+        byAirport[i] = ((long) labelAirports[round[i]] << 32) | round[i];
+      }
+      Arrays.sort(byAirport);
+      for (int start = 0; start < byAirport.length && !stopped; ) {
+        int airport = (int) (byAirport[start] >> 32);
+        int end = start;
+        while (end < byAirport.length && (int) (byAirport[end] >> 32) == airport) {
+          end++;
+        }
+        // The labels at the airport ordered by arrival, relative to the earliest of them so the key stays positive.
+        long earliest = Long.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+          earliest = Math.min(earliest, labelArrivals[(int) byAirport[i]]);
+        }
+        long[] byArrival = new long[end - start];
+        for (int i = start; i < end; i++) {
+          int label = (int) byAirport[i];
+          byArrival[i - start] = ((labelArrivals[label] - earliest) << 31) | label;
+        }
+        Arrays.sort(byArrival);
+        start = end;
+        Departures departures = departuresByAirport.get(airport);
+        if (departures == null) {
+          continue;
+        }
+        int arrived = 0;
+        int i = departures.lowerBound(arrivalOf(byArrival[0]) + minConnection);
+        while (i < departures.size && scan()) {
+          long departure = departures.departureSeconds[i];
+          while (arrived < byArrival.length && arrivalOf(byArrival[arrived]) + minConnection <= departure) {
+            arrived++;
+          }
+          if (arrivalOf(byArrival[arrived - 1]) + maxConnection < departure) {
+            // No label can connect to this departure; skip to the window of the next label, if there is one.
+            if (arrived == byArrival.length) {
+              break;
+            }
+            i = departures.lowerBound(arrivalOf(byArrival[arrived]) + minConnection);
+            continue;
+          }
+          int destination = departures.arrivalAirports[i];
+          boolean reachesDestination = destinations.contains(destination);
+          if ((reachesDestination || !last) && !isBoarded(departures, i)) {
+            // Board from the label that arrived last before the departure, unless its itinerary visits the airport.
+            for (int j = arrived - 1; j >= 0 && arrivalOf(byArrival[j]) + maxConnection >= departure; j--) {
+              int parent = (int) (byArrival[j] & 0x7FFFFFFFL);
+              if (!visits(parent, origin, destination)) {
+                board(departures, i);
+                int label = addLabel(departures.flightIds[i], destination, departures.arrivalSeconds[i], parent);
+                if (reachesDestination) {
+                  found.add(toItinerary(label, departureSecond));
+                } else {
+                  if (nextSize == next.length) {
+                    next = Arrays.copyOf(next, nextSize * 2);
+                  }
+                  next[nextSize++] = label;
+                }
+                break;
+              }
+            }
+          }
+          i++;
+        }
+      }
+      return Arrays.copyOf(next, nextSize);
+    }
+
+    private long arrivalOf(long byArrival) {
+      return labelArrivals[(int) (byArrival & 0x7FFFFFFFL)];
+    }
+
+    /**
+     * Counts a departure that is looked at, and stops the search once it has looked at too many or its deadline
+     * has been reached.
+     *
+     * @return Return true if the search may go on.
+     */
+    private boolean scan() {
+      if (++scanned > MAX_SCANNED_FLIGHTS
+          || (scanned % DEADLINE_CHECK_INTERVAL == 1 && deadline.isExpired())) {
+        stopped = true;
+      }
+      return !stopped;
+    }
+
+    private boolean isBoarded(Departures departures, int i) {
+      int[] runs = boardedRuns.get(departures);
+      return runs != null && runs[i] == run;
+    }
+
+    private void board(Departures departures, int i) {
+      boardedRuns.computeIfAbsent(departures, key -> new int[key.size])[i] = run;
+    }
+
+    private boolean visits(int label, int origin, int airport) {
+      if (origin == airport) {
+        return true;
+      }
+      for (int i = label; i >= 0; i = labelParents[i]) {
+        if (labelAirports[i] == airport) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int addLabel(int flightId, int airport, long arrivalSecond, int parent) {
+      if (labels == labelFlights.length) {
+        labelFlights = Arrays.copyOf(labelFlights, labels * 2);
+        labelAirports = Arrays.copyOf(labelAirports, labels * 2);
+        labelArrivals = Arrays.copyOf(labelArrivals, labels * 2);
+        labelParents = Arrays.copyOf(labelParents, labels * 2);
+      }
+      labelFlights[labels] = flightId;
+      labelAirports[labels] = airport;
+      labelArrivals[labels] = arrivalSecond;
+      labelParents[labels] = parent;
+      return labels++;
+    }
+
+    private Itinerary toItinerary(int label, long departureSecond) {
+      int flights = 0;
+      for (int i = label; i >= 0; i = labelParents[i]) {
+        flights++;
+      }
+      int[] flightIds = new int[flights];
+      for (int i = label; i >= 0; i = labelParents[i]) {
+        flightIds[--flights] = labelFlights[i];
+      }
+      return new Itinerary(flightIds, departureSecond, labelArrivals[label]);
+    }
+  }
+
+  /**
+   * The flights departing from one airport, kept sorted by departure time.
+   */
+  private static final class Departures {
+    private long[] departureSeconds = new long[4];
+    private long[] arrivalSeconds = new long[4];
+    private int[] flightIds = new int[4];
+    private int[] arrivalAirports = new int[4];
+    private int size;
+
+    private int lowerBound(long departureSecond) {
+      return ItineraryEngine.lowerBound(departureSeconds, size, departureSecond);
+    }
+
+    private void insert(long departureSecond, long arrivalSecond, int flightId, int arrivalAirport) {
+      if (size == departureSeconds.length) {
+        departureSeconds = Arrays.copyOf(departureSeconds, size * 2);
+        arrivalSeconds = Arrays.copyOf(arrivalSeconds, size * 2);
+        flightIds = Arrays.copyOf(flightIds, size * 2);
+        arrivalAirports = Arrays.copyOf(arrivalAirports, size * 2);
+      }
+      int index = lowerBound(departureSecond);
+      System.arraycopy(departureSeconds, index, departureSeconds, index + 1, size - index);
+      System.arraycopy(arrivalSeconds, index, arrivalSeconds, index + 1, size - index);
+      System.arraycopy(flightIds, index, flightIds, index + 1, size - index);
+      System.arraycopy(arrivalAirports, index, arrivalAirports, index + 1, size - index);
+      departureSeconds[index] = departureSecond;
+      arrivalSeconds[index] = arrivalSecond;
+      flightIds[index] = flightId;
+      arrivalAirports[index] = arrivalAirport;
+      size++;
+    }
+
+    /**
+     * Removes a flight. The flight is looked for in every departure, which costs no more than moving the
+     * departures after it.
+     */
+    private boolean remove(int flightId) {
+      for (int index = 0; index < size; index++) {
+        if (flightIds[index] == flightId) {
+          System.arraycopy(departureSeconds, index + 1, departureSeconds, index, size - index - 1);
+          System.arraycopy(arrivalSeconds, index + 1, arrivalSeconds, index, size - index - 1);
+          System.arraycopy(flightIds, index + 1, flightIds, index, size - index - 1);
+          System.arraycopy(arrivalAirports, index + 1, arrivalAirports, index, size - index - 1);
+          size--;
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ArrivalRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Counts the arrivals at each location per day in memory, so the popular destinations of any window around today
+ * are summed from a few small maps instead of queried from the database.
+ * The counts are held in ring buffers with one slot per day from {@code maxDays} before today to {@code maxDays}
+ * after it: one ring for each origin location and one for the flights from anywhere. As the days pass, the slot of
+ * the day that falls out of the range is reused for the day that enters it, which is loaded from the rollup of
+ * arrivals. The rollup service sets the count of a cell whenever it refreshes it, so the counters follow the
+ * flights that are written.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class PopularityCounters {
+
+  /**
+   * The number of arrivals at a location in a window.
+   *
+   * @param locationId The id of the destination location.
+   * @param arrivals   The number of flights arriving in the window.
+   */
+  public record Count(int locationId, long arrivals) {
+  }
+
+  private static final Comparator<Count> RANKING = Comparator.comparingLong(Count::arrivals).reversed()
+      .thenComparingInt(Count::locationId);
+
+  /**
+   * The arrivals per destination location of each day in the range, indexed by slot.
+   */
+  private static final class Ring {
+    private final List<Map<Integer, Long>> slots;
+
+    private Ring(int capacity) {
+      slots = new ArrayList<>(capacity);
+      for (int i = 0; i < capacity; i++) {
+        slots.add(new HashMap<>());
+      }
+    }
+
+    private void add(int slot, int locationId, long delta) {
+      if (slots.get(slot).merge(locationId, delta, Long::sum) == 0) {
+        slots.get(slot).remove(locationId);
+      }
+    }
+  }
+
+  private final ArrivalRollupRepository arrivalRollupRepository;
+  private final Clock clock;
+  private final int maxDays;
+  private final int capacity;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // The epoch day each slot holds, or Long.MIN_VALUE if it holds none yet.
+  private final long[] slotDays;
+  private final Map<Integer, Ring> byOrigin = new HashMap<>();
+  private final Ring total;
+  private long today = Long.MIN_VALUE;
+  private volatile boolean ready;
+
+  /**
+   * Constructs the popularity counters.
+   *
+   * @param arrivalRollupRepository The rollup the days are loaded from.
+   * @param maxDays                 The number of days before and after today that arrivals are counted for.
+   */
+  @Autowired
+  public PopularityCounters(ArrivalRollupRepository arrivalRollupRepository,
+                            @Value("${popular-destinations.max-days:30}") int maxDays) {
+    this(arrivalRollupRepository, maxDays, Clock.systemDefaultZone());
+  }
+
+  PopularityCounters(ArrivalRollupRepository arrivalRollupRepository, int maxDays, Clock clock) {
+    if (maxDays < 0) {
+      throw new IllegalArgumentException("maxDays cannot be negative");
+    }
+    this.arrivalRollupRepository = arrivalRollupRepository;
+    this.clock = clock;
+    this.maxDays = maxDays;
+    this.capacity = 2 * maxDays + 1;
+    this.slotDays = new long[capacity];
+    this.total = new Ring(capacity);
+    Arrays.fill(slotDays, Long.MIN_VALUE);
+  }
+
+  /**
+   * Returns whether the counters have been loaded.
+   *
+   * @return Return true once the counters have been loaded from the rollup.
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Returns the number of days before and after today that arrivals are counted for.
+   *
+   * @return Return the largest window the counters can answer.
+   */
+  public int getMaxDays() {
+    return maxDays;
+  }
+
+  /**
+   * Loads every day in the range from the rollup of arrivals, replacing the counts.
+   */
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      Arrays.fill(slotDays, Long.MIN_VALUE);
+      today = LocalDate.now(clock).toEpochDay();
+      load(today - maxDays, today + maxDays);
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Sets the number of arrivals of a cell of the rollup. Days outside the range are ignored, since they are loaded
+   * from the rollup once they enter it.
+   *
+   * @param cell The cell and its number of arrivals.
+   */
+  public void set(ArrivalCountRow cell) {
+    lock.writeLock().lock();
+    try {
+      if (!ready) {
+        return;
+      }
+      advance();
+      long day = cell.day().toEpochDay();
+      int slot = slot(day);
+      if (slotDays[slot] == day) {
+        Ring ring = byOrigin.computeIfAbsent(cell.originLocationId(), originLocationId -> new Ring(capacity));
+        long previous = ring.slots.get(slot).getOrDefault(cell.destinationLocationId(), 0L);
+        ring.add(slot, cell.destinationLocationId(), cell.arrivals() - previous);
+        total.add(slot, cell.destinationLocationId(), cell.arrivals() - previous);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the locations with the most arrivals in the days around today.
+   *
+   * @param fromLocationId The id of the location the flights depart from, or null for flights from anywhere.
+   * @param days           The number of days before and after today that arrivals are counted in.
+   * @param limit          The maximum number of locations to return.
+   * @param include        Tests whether a destination location may be returned.
+   * @return Return the locations with their number of arrivals, the most popular first and then by id.
+   * @throws IllegalArgumentException If the window is negative or larger than the counters hold.
+   */
+  public List<Count> top(Integer fromLocationId, int days, int limit, IntPredicate include) throws IllegalArgumentException {
+    if (days < 0 || days > maxDays) {
+      throw new IllegalArgumentException("days must be between 0 and " + maxDays);
+    }
+    if (LocalDate.now(clock).toEpochDay() != currentDay()) {
+      lock.writeLock().lock();
+      try {
+        advance();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    Map<Integer, Long> sums = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      Ring ring = fromLocationId == null ? total : byOrigin.get(fromLocationId);
+      if (ring == null || limit <= 0) {
+        return List.of();
+      }
+      for (long day = today - days; day <= today + days; day++) {
+        int slot = slot(day);
+        if (slotDays[slot] == day) {
+          ring.slots.get(slot).forEach((locationId, arrivals) -> sums.merge(locationId, arrivals, Long::sum));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    PriorityQueue<Count> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+    sums.forEach((locationId, arrivals) -> {
+      if (arrivals > 0 && include.test(locationId)) {
+        best.add(new Count(locationId, arrivals));
+        if (best.size() > limit) {
+          best.poll();
+        }
+      }
+    });
+    List<Count> counts = new ArrayList<>(best);
+    counts.sort(RANKING);
+    return counts;
+  }
+
+  private long currentDay() {
+    lock.readLock().lock();
+    try {
+      return today;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Moves the range to today, loading the days that entered it. Must be called with the write lock held.
+   */
+  private void advance() {
+    long now = LocalDate.now(clock).toEpochDay();
+    if (now == today || !ready) {
+      return;
+    }
+    long start = now < today ? now - maxDays : Math.max(now - maxDays, today + maxDays + 1);
+    today = now;
+    if (start <= now + maxDays) {
+      load(start, now + maxDays);
+    }
+  }
+
+  /**
+   * Empties the slots of the given days and loads them from the rollup. Must be called with the write lock held.
+   */
+  private void load(long startDay, long endDay) {
+    if (endDay - startDay + 1 >= capacity) {
+      byOrigin.clear();
+      total.slots.forEach(Map::clear);
+    } else {
+      for (long day = startDay; day <= endDay; day++) {
+        int slot = slot(day);
+        byOrigin.values().forEach(ring -> ring.slots.get(slot).clear());
+        total.slots.get(slot).clear();
+      }
+    }
+    for (long day = startDay; day <= endDay; day++) {
+      slotDays[slot(day)] = day;
+    }
+    for (ArrivalCountRow row : arrivalRollupRepository.findArrivalCountRows(LocalDate.ofEpochDay(startDay),
+        LocalDate.ofEpochDay(endDay))) {
+      int slot = slot(row.day().toEpochDay());
+      byOrigin.computeIfAbsent(row.originLocationId(), originLocationId -> new Ring(capacity))
+          .add(slot, row.destinationLocationId(), row.arrivals());
+      total.add(slot, row.destinationLocationId(), row.arrivals());
+    }
+  }
+
+  private int slot(long day) {
+    return (int) Math.floorMod(day, (long) capacity);
+  }
+}
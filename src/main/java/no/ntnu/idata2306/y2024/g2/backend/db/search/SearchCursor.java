@@ -0,0 +1,88 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position in the results of a search, given by the departure date and id of the last trip on a page.
+ * Search results are ordered by departure date, then trip id, so the next page starts right after this
+ * position regardless of how many trips came before it or were inserted since.
+ * Results sorted by something else are ordered by the sort value first, so their cursors carry the sort and the
+ * sort value of the last trip as well.
+ * Clients only see the cursor in its opaque, encoded form.
+ *
+ * @param departureDate The departure date of the last trip on the page.
+ * @param tripId        The id of the last trip on the page.
+ * @param sort          The sort of the search.
+ * @param sortValue     The sort value of the last trip on the page; 0 when sorted by departure.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record SearchCursor(LocalDateTime departureDate, int tripId, SearchSort sort, long sortValue) {
+
+  /**
+   * Construct a new SearchCursor.
+   *
+   * @param departureDate The departure date of the last trip on the page; must not be null.
+   * @param tripId        The id of the last trip on the page.
+   * @param sort          The sort of the search; must not be null.
+   * @param sortValue     The sort value of the last trip on the page.
+   */
+  public SearchCursor {
+    if (departureDate == null) {
+      throw new IllegalArgumentException("Departure date cannot be null");
+    }
+    if (sort == null) {
+      throw new IllegalArgumentException("Sort cannot be null");
+    }
+  }
+
+  /**
+   * Construct a new SearchCursor for results ordered by departure date.
+   *
+   * @param departureDate The departure date of the last trip on the page; must not be null.
+   * @param tripId        The id of the last trip on the page.
+   */
+  public SearchCursor(LocalDateTime departureDate, int tripId) {
+    this(departureDate, tripId, SearchSort.DEPARTURE, 0);
+  }
+
+  /**
+   * Encodes the cursor in the opaque form that is handed to clients.
+   *
+   * @return Return the encoded cursor.
+   */
+  public String encode() {
+    String value = departureDate.toEpochSecond(ZoneOffset.UTC) + ":" + departureDate.getNano() + ":" + tripId;
+    if (sort != SearchSort.DEPARTURE) {
+      value += ":" + sort.name() + ":" + sortValue;
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor that was previously returned by {@link #encode()}.
+   *
+   * @param cursor The encoded cursor.
+   * @return Return the decoded cursor.
+   * @throws IllegalArgumentException If the cursor is not a valid encoded cursor.
+   */
+  public static SearchCursor decode(String cursor) throws IllegalArgumentException {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+      if (parts.length != 3 && parts.length != 5) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      long epochSecond = Long.parseLong(parts[0]);
+      int nano = Integer.parseInt(parts[1]);
+      int tripId = Integer.parseInt(parts[2]);
+      SearchSort sort = parts.length == 5 ? SearchSort.valueOf(parts[3]) : SearchSort.DEPARTURE;
+      long sortValue = parts.length == 5 ? Long.parseLong(parts[4]) : 0;
+      return new SearchCursor(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC), tripId, sort, sortValue);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.Duration;
+
+/**
+ * The point in time by which a search has to respond. A search that reaches its deadline stops looking up more
+ * trips and responds with the trips found so far, flagged as partial.
+ *
+ * @param nanoTime The deadline, as a value of {@link System#nanoTime()}.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record SearchDeadline(long nanoTime) {
+
+  /**
+   * Creates the deadline of a search that may take the given time from now.
+   *
+   * @param budget The time the search may take; must be positive.
+   * @return Return the deadline.
+   * @throws IllegalArgumentException If the budget is null or not positive.
+   */
+  public static SearchDeadline after(Duration budget) throws IllegalArgumentException {
+    if (budget == null || budget.isNegative() || budget.isZero()) {
+      throw new IllegalArgumentException("The time budget of a search must be positive");
+    }
+    return new SearchDeadline(System.nanoTime() + budget.toNanos());
+  }
+
+  /**
+   * Returns the earlier of this and another deadline.
+   *
+   * @param other The other deadline.
+   * @return Return the deadline that is reached first.
+   */
+  public SearchDeadline min(SearchDeadline other) {
+    return nanoTime - other.nanoTime <= 0 ? this : other;
+  }
+
+  /**
+   * Returns the time left until the deadline.
+   *
+   * @return Return the time left, or 0 if the deadline has been reached.
+   */
+  public long remainingNanos() {
+    return Math.max(0, nanoTime - System.nanoTime());
+  }
+
+  /**
+   * Checks if the deadline has been reached.
+   *
+   * @return Return true if there is no time left.
+   */
+  public boolean isExpired() {
+    return remainingNanos() == 0;
+  }
+}
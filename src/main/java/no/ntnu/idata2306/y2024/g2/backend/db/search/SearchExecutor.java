@@ -0,0 +1,35 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the executor that search work is run on outside the request thread.
+ * Search tasks mostly wait on the database or on the client, so each task gets its own virtual thread.
+ * The executor is held instead of being a bean itself, since an {@link java.util.concurrent.Executor} bean makes
+ * Spring Boot leave out its own task executor, which Spring MVC runs asynchronous requests on.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class SearchExecutor implements AutoCloseable {
+
+  private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Returns the executor search tasks are submitted to.
+   *
+   * @return Return an executor that starts a new virtual thread per task.
+   */
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  /**
+   * Stops accepting search tasks and waits for the running ones to finish.
+   */
+  @Override
+  public void close() {
+    executorService.close();
+  }
+}
@@ -0,0 +1,71 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Narrows down the trips of a search. Every criterion is optional, and a trip has to meet all that are given.
+ * Time windows are times of day in UTC and apply to the leave leg; a window whose start is after its end wraps
+ * around midnight.
+ *
+ * @param maxStops          The most stops allowed on either leg, or null for any number.
+ * @param airlineIds        The airlines to search for; at least one flight of a trip must be operated by one of
+ *                          them. Empty for any airline.
+ * @param departureTimeFrom The earliest time of day to depart, or null for any time.
+ * @param departureTimeTo   The latest time of day to depart, or null for any time.
+ * @param arrivalTimeFrom   The earliest time of day to arrive, or null for any time.
+ * @param arrivalTimeTo     The latest time of day to arrive, or null for any time.
+ * @param maxPrice          The highest lowest price allowed, or null for any price. Trips without prices are
+ *                          left out when given.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record SearchFilter(Integer maxStops,
+                           Set<Integer> airlineIds,
+                           LocalTime departureTimeFrom,
+                           LocalTime departureTimeTo,
+                           LocalTime arrivalTimeFrom,
+                           LocalTime arrivalTimeTo,
+                           Integer maxPrice) {
+
+  /**
+   * The filter that lets every trip through.
+   */
+  public static final SearchFilter NONE = new SearchFilter(null, null, null, null, null, null, null);
+
+  /**
+   * Construct a new SearchFilter.
+   *
+   * @param maxStops          The most stops allowed on either leg, or null; must not be negative.
+   * @param airlineIds        The airlines to search for, or null or empty for any airline.
+   * @param departureTimeFrom The earliest time of day to depart; must be given together with departureTimeTo.
+   * @param departureTimeTo   The latest time of day to depart.
+   * @param arrivalTimeFrom   The earliest time of day to arrive; must be given together with arrivalTimeTo.
+   * @param arrivalTimeTo     The latest time of day to arrive.
+   * @param maxPrice          The highest price allowed, or null; must not be negative.
+   */
+  public SearchFilter {
+    if (maxStops != null && maxStops < 0) {
+      throw new IllegalArgumentException("maxStops cannot be negative");
+    }
+    if (maxPrice != null && maxPrice < 0) {
+      throw new IllegalArgumentException("maxPrice cannot be negative");
+    }
+    if ((departureTimeFrom == null) != (departureTimeTo == null)) {
+      throw new IllegalArgumentException("Both or none of departureTimeFrom and departureTimeTo must be given");
+    }
+    if ((arrivalTimeFrom == null) != (arrivalTimeTo == null)) {
+      throw new IllegalArgumentException("Both or none of arrivalTimeFrom and arrivalTimeTo must be given");
+    }
+    airlineIds = airlineIds != null ? Set.copyOf(airlineIds) : Set.of();
+  }
+
+  /**
+   * Checks if this filter lets every trip through.
+   *
+   * @return Return true if no criterion is given.
+   */
+  public boolean isEmpty() {
+    return equals(NONE);
+  }
+}
@@ -0,0 +1,87 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a flight, its airports, their locations and its airline that a search result shows.
+ * Instances are created directly by the JPQL constructor expressions in the flight repository.
+ *
+ * @param flightId                 The id of the flight.
+ * @param name                     The name of the flight.
+ * @param departureDate            The departure date of the flight.
+ * @param arrivalDate              The arrival date of the flight.
+ * @param departureAirportId       The id of the departure airport.
+ * @param departureAirportCode     The code of the departure airport.
+ * @param departureAirportName     The name of the departure airport.
+ * @param departureLocationId      The id of the location of the departure airport, or null if it has none.
+ * @param departureLocationCountry The country of the location of the departure airport, or null.
+ * @param departureLocationName    The name of the location of the departure airport, or null.
+ * @param arrivalAirportId         The id of the arrival airport.
+ * @param arrivalAirportCode       The code of the arrival airport.
+ * @param arrivalAirportName       The name of the arrival airport.
+ * @param arrivalLocationId        The id of the location of the arrival airport, or null if it has none.
+ * @param arrivalLocationCountry   The country of the location of the arrival airport, or null.
+ * @param arrivalLocationName      The name of the location of the arrival airport, or null.
+ * @param airlineId                The id of the airline.
+ * @param airlineName              The name of the airline.
+ * @param airlineLogo              The logo of the airline, or null.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record SearchFlightRow(int flightId,
+                              String name,
+                              LocalDateTime departureDate,
+                              LocalDateTime arrivalDate,
+                              int departureAirportId,
+                              String departureAirportCode,
+                              String departureAirportName,
+                              Integer departureLocationId,
+                              String departureLocationCountry,
+                              String departureLocationName,
+                              int arrivalAirportId,
+                              String arrivalAirportCode,
+                              String arrivalAirportName,
+                              Integer arrivalLocationId,
+                              String arrivalLocationCountry,
+                              String arrivalLocationName,
+                              int airlineId,
+                              String airlineName,
+                              String airlineLogo) {
+
+  /**
+   * Builds the flight of the row. The flight, its airports, locations and airline are plain objects that are not
+   * managed by any persistence context.
+   *
+   * @return Return the flight.
+   */
+  public Flight toFlight() {
+    Airline airline = new Airline(airlineName);
+    airline.setId(airlineId);
+    airline.setLogo(airlineLogo);
+    Flight flight = new Flight(name, toAirport(departureAirportId, departureAirportCode, departureAirportName, departureLocationId, departureLocationCountry, departureLocationName),
+        toAirport(arrivalAirportId, arrivalAirportCode, arrivalAirportName, arrivalLocationId, arrivalLocationCountry, arrivalLocationName),
+        airline, departureDate, arrivalDate);
+    flight.setId(flightId);
+    return flight;
+  }
+
+  private static Airport toAirport(int id, String code, String name, Integer locationId, String country, String locationName) {
+    Airport airport = new Airport();
+    airport.setId(id);
+    airport.setCode(code);
+    airport.setName(name);
+    if (locationId != null) {
+      Location location = new Location();
+      location.setId(locationId);
+      location.setCountry(country);
+      location.setName(locationName);
+      airport.setLocation(location);
+    }
+    return airport;
+  }
+}
@@ -0,0 +1,152 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.SearchFacets;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A search that is run in the background, one page at a time, see {@link SearchJobs}.
+ * Pages are published as soon as they are loaded, so a client can read the first pages while the job is still
+ * running. The state of a job is only written by the thread running it.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class SearchJob {
+
+  /**
+   * The state of a search job.
+   */
+  public enum Status {
+    /**
+     * The job waits for a free worker.
+     */
+    QUEUED,
+    /**
+     * The job is loading pages.
+     */
+    RUNNING,
+    /**
+     * The job has loaded all of its pages.
+     */
+    DONE,
+    /**
+     * The job stopped because the search failed.
+     */
+    FAILED
+  }
+
+  private final String id;
+  private final List<List<TripSearchResult>> pages = new CopyOnWriteArrayList<>();
+  private volatile Status status = Status.QUEUED;
+  private volatile int foundTrips;
+  private volatile SearchFacets facets;
+  private volatile boolean partial;
+  private volatile SearchCursor nextCursor;
+  private volatile String error;
+  private volatile long finishedAt;
+
+  SearchJob(String id) {
+    this.id = id;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Checks if the job has stopped, either done or failed.
+   *
+   * @return Return true if no more pages will be loaded.
+   */
+  public boolean isFinished() {
+    return status == Status.DONE || status == Status.FAILED;
+  }
+
+  /**
+   * Returns the number of pages loaded so far.
+   *
+   * @return Return the number of pages that can be read.
+   */
+  public int getCompletedPages() {
+    return pages.size();
+  }
+
+  /**
+   * Returns a loaded page.
+   *
+   * @param page The index of the page.
+   * @return Return the trips of the page, or null if the page has not been loaded.
+   */
+  public List<TripSearchResult> getPage(int page) {
+    return page >= 0 && page < pages.size() ? pages.get(page) : null;
+  }
+
+  public int getFoundTrips() {
+    return foundTrips;
+  }
+
+  public SearchFacets getFacets() {
+    return facets;
+  }
+
+  /**
+   * Checks if the job ran out of time before it had loaded every trip of the search.
+   *
+   * @return Return true if the pages only hold the trips found before the deadline.
+   */
+  public boolean isPartial() {
+    return partial;
+  }
+
+  /**
+   * Returns the cursor to continue the search with, when the job stopped before the last trip of the search.
+   *
+   * @return Return the cursor after the last trip of the job, or null if the job found every trip.
+   */
+  public SearchCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  long getFinishedAt() {
+    return finishedAt;
+  }
+
+  void start() {
+    status = Status.RUNNING;
+  }
+
+  void add(TripSearchPage page) {
+    if (page.getFacets() != null && facets == null) {
+      facets = page.getFacets();
+    }
+    if (!page.getTrips().isEmpty()) {
+      pages.add(page.getTrips());
+      foundTrips += page.getTrips().size();
+    }
+  }
+
+  void finish(boolean partial, SearchCursor nextCursor) {
+    this.partial = partial;
+    this.nextCursor = nextCursor;
+    this.finishedAt = System.nanoTime();
+    this.status = Status.DONE;
+  }
+
+  void fail(String error) {
+    this.error = error;
+    this.finishedAt = System.nanoTime();
+    this.status = Status.FAILED;
+  }
+}
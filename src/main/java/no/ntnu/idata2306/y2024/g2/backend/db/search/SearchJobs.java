@@ -0,0 +1,163 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import jakarta.annotation.PreDestroy;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs expensive searches in the background, so a client can start a search and poll for its pages instead of
+ * holding a request open until it is done. Jobs run on a bounded number of workers with a bounded queue, and a
+ * job is refused when both are full. A job loads the pages of its search one after another until there are no
+ * more trips, it has loaded the maximum number of pages, or its deadline is reached; in the latter cases it keeps
+ * the cursor to continue the search with. Finished jobs are kept for a while, so their pages can be read any
+ * number of times without searching again.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class SearchJobs {
+
+  private static final Logger logger = LoggerFactory.getLogger(SearchJobs.class);
+
+  /**
+   * Loads one page of the search of a job.
+   */
+  @FunctionalInterface
+  public interface PageLoader {
+
+    /**
+     * Loads a page of the search.
+     *
+     * @param after    The cursor the page starts after; the cursor of the search itself for the first page.
+     * @param page     The index of the page.
+     * @param deadline The deadline of the job.
+     * @return Return the page.
+     */
+    TripSearchPage load(SearchCursor after, int page, SearchDeadline deadline);
+  }
+
+  private final Map<String, SearchJob> jobs = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor executor;
+  private final int maxJobs;
+  private final int maxPages;
+  private final long ttlNanos;
+
+  /**
+   * Constructs the search jobs.
+   *
+   * @param workers       The number of jobs that run at the same time.
+   * @param queueCapacity The number of jobs that may wait for a worker.
+   * @param maxJobs       The number of jobs, running or finished, that are kept at the same time.
+   * @param maxPages      The most pages a job loads.
+   * @param ttl           How long the pages of a finished job are kept.
+   */
+  @Autowired
+  public SearchJobs(@Value("${search.jobs.workers:4}") int workers,
+                    @Value("${search.jobs.queue-capacity:50}") int queueCapacity,
+                    @Value("${search.jobs.max-jobs:1000}") int maxJobs,
+                    @Value("${search.jobs.max-pages:50}") int maxPages,
+                    @Value("${search.jobs.ttl:5m}") Duration ttl) {
+    if (workers < 1 || queueCapacity < 1 || maxJobs < 1 || maxPages < 1) {
+      throw new IllegalArgumentException("The workers, queue capacity, max jobs and max pages of search jobs must be positive");
+    }
+    this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("search-job-", 0).factory());
+    this.maxJobs = maxJobs;
+    this.maxPages = maxPages;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /**
+   * Starts a job.
+   *
+   * @param after    The cursor the search starts after, or null to start from the first trip.
+   * @param deadline The deadline of the job.
+   * @param loader   Loads the pages of the search.
+   * @return Return the started job.
+   * @throws RejectedExecutionException If too many jobs are running, waiting or kept already.
+   */
+  public SearchJob submit(SearchCursor after, SearchDeadline deadline, PageLoader loader) throws RejectedExecutionException {
+    removeExpired();
+    if (jobs.size() >= maxJobs) {
+      throw new RejectedExecutionException("Too many search jobs");
+    }
+    SearchJob job = new SearchJob(UUID.randomUUID().toString());
+    jobs.put(job.getId(), job);
+    try {
+      executor.execute(() -> run(job, after, deadline, loader));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      throw e;
+    }
+    return job;
+  }
+
+  /**
+   * Returns a job that has not expired.
+   *
+   * @param id The id of the job.
+   * @return Return the job, or an empty optional if there is no such job or it has expired.
+   */
+  public Optional<SearchJob> get(String id) {
+    removeExpired();
+    return Optional.ofNullable(jobs.get(id));
+  }
+
+  /**
+   * Stops the running jobs when the application shuts down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void run(SearchJob job, SearchCursor after, SearchDeadline deadline, PageLoader loader) {
+    job.start();
+    try {
+      SearchCursor cursor = after;
+      boolean partial = false;
+      for (int page = 0; page < maxPages; page++) {
+        if (deadline.isExpired() || Thread.currentThread().isInterrupted()) {
+          partial = true;
+          break;
+        }
+        TripSearchPage loaded = loader.load(cursor, page, deadline);
+        job.add(loaded);
+        cursor = loaded.getNextCursor();
+        if (loaded.isPartial()) {
+          partial = true;
+          break;
+        }
+        if (cursor == null) {
+          break;
+        }
+      }
+      job.finish(partial, cursor);
+    } catch (IllegalStateException e) {
+      job.fail(e.getMessage());
+    } catch (RuntimeException e) {
+      logger.error("Search job {} failed", job.getId(), e);
+      job.fail("Search failed");
+    }
+  }
+
+  private void removeExpired() {
+    long now = System.nanoTime();
+    jobs.values().removeIf(job -> job.isFinished() && now - job.getFinishedAt() >= ttlNanos);
+  }
+}
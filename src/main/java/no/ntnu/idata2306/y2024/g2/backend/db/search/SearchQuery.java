@@ -0,0 +1,57 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The resolved criteria of a trip search: the airports on both ends and the date windows.
+ *
+ * @param departureAirportIds The ids of the departure airports.
+ * @param arrivalAirportIds   The ids of the arrival airports.
+ * @param departureDateLower  The earliest departure date.
+ * @param departureDateUpper  The latest departure date.
+ * @param returnDateLower     The earliest return date, or null for one-way searches.
+ * @param returnDateUpper     The latest return date, or null for one-way searches.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record SearchQuery(List<Integer> departureAirportIds,
+                          List<Integer> arrivalAirportIds,
+                          LocalDateTime departureDateLower,
+                          LocalDateTime departureDateUpper,
+                          LocalDateTime returnDateLower,
+                          LocalDateTime returnDateUpper) {
+
+  /**
+   * Construct a new SearchQuery.
+   *
+   * @param departureAirportIds The ids of the departure airports; must not be null.
+   * @param arrivalAirportIds   The ids of the arrival airports; must not be null.
+   * @param departureDateLower  The earliest departure date; must not be null.
+   * @param departureDateUpper  The latest departure date; must not be null.
+   * @param returnDateLower     The earliest return date, or null for one-way searches.
+   * @param returnDateUpper     The latest return date; must be given together with returnDateLower.
+   */
+  public SearchQuery {
+    if (departureAirportIds == null || arrivalAirportIds == null) {
+      throw new IllegalArgumentException("Airport ids cannot be null");
+    }
+    if (departureDateLower == null || departureDateUpper == null) {
+      throw new IllegalArgumentException("Departure dates cannot be null");
+    }
+    if ((returnDateLower == null) != (returnDateUpper == null)) {
+      throw new IllegalArgumentException("Both or none of the return dates must be given");
+    }
+    departureAirportIds = List.copyOf(departureAirportIds);
+    arrivalAirportIds = List.copyOf(arrivalAirportIds);
+  }
+
+  /**
+   * Checks if this is a round trip search.
+   *
+   * @return Return true if return dates are given.
+   */
+  public boolean isRoundTrip() {
+    return returnDateLower != null;
+  }
+}
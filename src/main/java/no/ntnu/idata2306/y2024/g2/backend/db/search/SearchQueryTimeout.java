@@ -0,0 +1,77 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Applies the deadline of a search to the database queries it runs, so that a slow database makes a query fail
+ * with a {@link org.springframework.dao.QueryTimeoutException} at the deadline instead of holding the search up.
+ * The timeout is set on the persistence context of the current transaction for as long as the search runs, and is
+ * put back afterwards, since with open-in-view the persistence context lives on for the rest of the request.
+ * JDBC query timeouts are whole seconds, so the remaining time is rounded up to a second.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class SearchQueryTimeout {
+
+  private static final String QUERY_TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+  // A query timeout of 0 is no timeout.
+  private static final int NO_TIMEOUT = 0;
+
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
+
+  /**
+   * Constructs the query timeout.
+   *
+   * @param entityManager      The shared entity manager, bound to the current transaction.
+   * @param transactionManager The transaction manager that lookups on other threads run their transaction in.
+   */
+  @Autowired
+  public SearchQueryTimeout(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Runs a search whose queries time out at the deadline, and then puts back the query timeout the persistence
+   * context had before. Must be called in a transaction.
+   *
+   * @param deadline The deadline of the search.
+   * @param search   The search to run.
+   * @param <T>      The type of the result.
+   * @return Return the result of the search.
+   */
+  public <T> T within(SearchDeadline deadline, Supplier<T> search) {
+    Object previous = entityManager.getProperties().get(QUERY_TIMEOUT_HINT);
+    long seconds = Math.max(1, (deadline.remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    entityManager.setProperty(QUERY_TIMEOUT_HINT, (int) Math.min(seconds * 1000, Integer.MAX_VALUE));
+    try {
+      return search.get();
+    } finally {
+      entityManager.setProperty(QUERY_TIMEOUT_HINT, previous != null ? previous : NO_TIMEOUT);
+    }
+  }
+
+  /**
+   * Runs a lookup whose queries time out at the deadline, in a read-only transaction of its own unless a
+   * transaction is already active. Used for lookups that a search fans out to other threads.
+   *
+   * @param deadline The deadline of the search.
+   * @param lookup   The lookup to run.
+   * @param <T>      The type of the result.
+   * @return Return the result of the lookup.
+   */
+  public <T> T call(SearchDeadline deadline, Supplier<T> lookup) {
+    return readOnlyTransaction.execute(status -> within(deadline, lookup));
+  }
+}
@@ -0,0 +1,242 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, least recently used cache of search result pages.
+ * Entries are keyed by the canonical form of the search, see {@link Key}. When a trip is written the entries
+ * whose search could have included the trip, before or after the write, are evicted. Reference data that is
+ * shown in search results (airports, airlines, locations) clears the whole cache when it changes.
+ * Hit, miss and eviction counts are published as the search.cache.* metrics.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Component
+public class SearchResultCache {
+
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final Map<Key, Entry> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  // Incremented on every invalidation, so results computed while a write happened are not stored.
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * The canonical form of a search: distinct, sorted airport ids, the date windows, the order and filter of the
+   * results, the page, given either by a cursor or by an offset, and whether facets are included.
+   *
+   * @param departureAirportIds The sorted ids of the departure airports.
+   * @param arrivalAirportIds   The sorted ids of the arrival airports.
+   * @param departureDateLower  The earliest departure date.
+   * @param departureDateUpper  The latest departure date.
+   * @param returnDateLower     The earliest return date, or null for one-way searches.
+   * @param returnDateUpper     The latest return date, or null for one-way searches.
+   * @param sort                The order of the results.
+   * @param filter              The criteria the results meet.
+   * @param after               The cursor the page starts after, or null for offset pages.
+   * @param offset              The offset of the page; 0 for cursor pages.
+   * @param limit               The size of the page.
+   * @param facets              Whether the facets of the search are cached with the page.
+   */
+  public record Key(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds,
+                    LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                    LocalDateTime returnDateLower, LocalDateTime returnDateUpper,
+                    SearchSort sort, SearchFilter filter, SearchCursor after, long offset, int limit,
+                    boolean facets) {
+
+    /**
+     * Creates the canonical key of a search.
+     *
+     * @param departureAirportIds The ids of the departure airports, in any order.
+     * @param arrivalAirportIds   The ids of the arrival airports, in any order.
+     * @param departureDateLower  The earliest departure date.
+     * @param departureDateUpper  The latest departure date.
+     * @param returnDateLower     The earliest return date, or null for one-way searches.
+     * @param returnDateUpper     The latest return date, or null for one-way searches.
+     * @param sort                The order of the results.
+     * @param filter              The criteria the results meet.
+     * @param after               The cursor the page starts after, or null for offset pages.
+     * @param offset              The offset of the page; ignored for cursor pages.
+     * @param limit               The size of the page.
+     * @param facets              Whether the facets of the search are cached with the page.
+     * @return Return the canonical key.
+     */
+    public static Key of(Collection<Integer> departureAirportIds, Collection<Integer> arrivalAirportIds,
+                         LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                         LocalDateTime returnDateLower, LocalDateTime returnDateUpper,
+                         SearchSort sort, SearchFilter filter, SearchCursor after, long offset, int limit,
+                    boolean facets) {
+      return new Key(departureAirportIds.stream().distinct().sorted().toList(),
+          arrivalAirportIds.stream().distinct().sorted().toList(),
+          departureDateLower, departureDateUpper, returnDateLower, returnDateUpper,
+          sort, filter, after, after == null ? offset : 0, limit, facets);
+    }
+
+    /**
+     * Checks if a trip with the given route could be part of the results of this search.
+     *
+     * @param route The route and departure of the trip.
+     * @return Return true if the trip's route and departure date fall inside this search.
+     */
+    public boolean covers(TripSearchIndex.Route route) {
+      return departureAirportIds.contains(route.originAirportId())
+          && arrivalAirportIds.contains(route.destinationAirportId())
+          && !route.departureDate().isBefore(departureDateLower)
+          && !route.departureDate().isAfter(departureDateUpper);
+    }
+  }
+
+  private record Entry(Object value, long createdAt) {
+  }
+
+  /**
+   * Constructs the cache and registers its metrics.
+   *
+   * @param maxEntries    The maximum number of cached pages.
+   * @param ttl           How long a page may be served from the cache.
+   * @param meterRegistry The registry the metrics are published to.
+   */
+  @Autowired
+  public SearchResultCache(@Value("${search.cache.max-entries:1000}") int maxEntries,
+                           @Value("${search.cache.ttl:10m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        boolean full = size() > SearchResultCache.this.maxEntries;
+        if (full) {
+          evictions.incrementAndGet();
+        }
+        return full;
+      }
+    };
+    FunctionCounter.builder("search.cache.hits", hits, AtomicLong::get)
+        .description("Searches answered from the search result cache").register(meterRegistry);
+    FunctionCounter.builder("search.cache.misses", misses, AtomicLong::get)
+        .description("Searches that had to be computed").register(meterRegistry);
+    FunctionCounter.builder("search.cache.evictions", evictions, AtomicLong::get)
+        .description("Cached pages evicted by writes, expiry or size").register(meterRegistry);
+    Gauge.builder("search.cache.size", this, SearchResultCache::size)
+        .description("Number of cached pages").register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached value of a search, computing and caching it on a miss.
+   *
+   * @param key    The canonical key of the search.
+   * @param loader Computes the value on a miss.
+   * @param <T>    The type of the value.
+   * @return Return the cached or computed value.
+   */
+  public <T> T get(Key key, Supplier<T> loader) {
+    return get(key, loader, value -> true);
+  }
+
+  /**
+   * Returns the cached value of a search, computing it on a miss and caching it if it is complete.
+   *
+   * @param key       The canonical key of the search.
+   * @param loader    Computes the value on a miss.
+   * @param cacheable Tells whether a computed value may be cached; incomplete values are only returned.
+   * @param <T>       The type of the value.
+   * @return Return the cached or computed value.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Key key, Supplier<T> loader, Predicate<T> cacheable) {
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.createdAt() < ttlNanos) {
+        hits.incrementAndGet();
+        return (T) entry.value();
+      }
+      if (entry != null) {
+        entries.remove(key);
+        evictions.incrementAndGet();
+      }
+    }
+    misses.incrementAndGet();
+    long startGeneration = generation.get();
+    T value = loader.get();
+    synchronized (entries) {
+      if (generation.get() == startGeneration && cacheable.test(value)) {
+        entries.put(key, new Entry(value, System.nanoTime()));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Evicts every cached search that could include a trip with the given index row.
+   *
+   * @param row The index row of the written trip; ignored if null.
+   */
+  public void evict(TripIndexRow row) {
+    if (row != null) {
+      evict(new TripSearchIndex.Route(row.originAirportId(), row.destinationAirportId(), row.departureDate()));
+    }
+  }
+
+  /**
+   * Evicts every cached search that could include a trip with the given route.
+   *
+   * @param route The route and departure of the written trip, as indexed; ignored if null.
+   */
+  public void evict(TripSearchIndex.Route route) {
+    if (route == null) {
+      return;
+    }
+    generation.incrementAndGet();
+    synchronized (entries) {
+      Iterator<Key> keys = entries.keySet().iterator();
+      while (keys.hasNext()) {
+        if (keys.next().covers(route)) {
+          keys.remove();
+          evictions.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  /**
+   * Evicts every cached search.
+   */
+  public void clear() {
+    generation.incrementAndGet();
+    synchronized (entries) {
+      evictions.addAndGet(entries.size());
+      entries.clear();
+    }
+  }
+
+  /**
+   * Return the number of cached pages.
+   *
+   * @return The number of cached pages.
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+}
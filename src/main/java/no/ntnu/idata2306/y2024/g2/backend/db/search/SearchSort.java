@@ -0,0 +1,50 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The orders search results can be returned in. Every order falls back to departure date and trip id for trips
+ * that compare equal, so pages never overlap.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public enum SearchSort {
+  /**
+   * By departure date of the leave leg.
+   */
+  DEPARTURE,
+  /**
+   * By arrival date of the leave leg.
+   */
+  ARRIVAL,
+  /**
+   * By lowest price, with trips without prices last.
+   */
+  PRICE,
+  /**
+   * By total time spent travelling, summed over both legs of round trips.
+   */
+  DURATION;
+
+  /**
+   * Parses a sort from its name, ignoring case.
+   *
+   * @param name The name of the sort, or null for the default sort.
+   * @return Return the sort, or {@link #DEPARTURE} if the name is null.
+   * @throws IllegalArgumentException If the name is not the name of a sort.
+   */
+  public static SearchSort parse(String name) throws IllegalArgumentException {
+    if (name == null) {
+      return DEPARTURE;
+    }
+    try {
+      return valueOf(name.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid sort. Must be one of " + Arrays.stream(values())
+          .map(sort -> sort.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")));
+    }
+  }
+}
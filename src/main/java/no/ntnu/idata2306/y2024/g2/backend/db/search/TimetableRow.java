@@ -0,0 +1,22 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a flight that the {@link ItineraryEngine} needs to use it as a connection.
+ * Instances are created directly by the JPQL constructor expressions in the flight repository.
+ *
+ * @param flightId           The id of the flight.
+ * @param departureAirportId The departure airport of the flight.
+ * @param arrivalAirportId   The arrival airport of the flight.
+ * @param departureDate      The departure date of the flight.
+ * @param arrivalDate        The arrival date of the flight.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TimetableRow(int flightId,
+                           int departureAirportId,
+                           int arrivalAirportId,
+                           LocalDateTime departureDate,
+                           LocalDateTime arrivalDate) {
+}
@@ -0,0 +1,120 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The columns of an active trip that the {@link TripSearchIndex} needs to place it in a route/day bucket, and to
+ * sort and filter it.
+ * Instances are created directly by the JPQL constructor expressions in the trip repository.
+ *
+ * @param tripId                 The id of the trip.
+ * @param originAirportId        The departure airport of the leave initial flight.
+ * @param destinationAirportId   The arrival airport of the last leave flight.
+ * @param departureDate          The departure date of the leave initial flight.
+ * @param arrivalDate            The arrival date of the last leave flight.
+ * @param returnDepartureDate    The departure date of the return initial flight, or null for one-way trips.
+ * @param returnArrivalAirportId The arrival airport of the last return flight, or null for one-way trips.
+ * @param returnArrivalDate      The arrival date of the last return flight, or null for one-way trips.
+ * @param minPrice               The lowest price of the trip, or null if the trip has no prices.
+ * @param minPriceId             The id of the lowest price of the trip, or null if the trip has no prices.
+ * @param stops                  The number of stops of the leg with the most stops.
+ * @param airlineIds             The ids of the airlines operating the flights of the trip.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TripIndexRow(int tripId,
+                           int originAirportId,
+                           int destinationAirportId,
+                           LocalDateTime departureDate,
+                           LocalDateTime arrivalDate,
+                           LocalDateTime returnDepartureDate,
+                           Integer returnArrivalAirportId,
+                           LocalDateTime returnArrivalDate,
+                           Integer minPrice,
+                           Integer minPriceId,
+                           int stops,
+                           Set<Integer> airlineIds) {
+
+  /**
+   * Construct a new TripIndexRow.
+   *
+   * @param tripId                 The id of the trip.
+   * @param originAirportId        The departure airport of the leave initial flight.
+   * @param destinationAirportId   The arrival airport of the last leave flight.
+   * @param departureDate          The departure date of the leave initial flight; must not be null.
+   * @param arrivalDate            The arrival date of the last leave flight; must not be null.
+   * @param returnDepartureDate    The departure date of the return initial flight, or null for one-way trips.
+   * @param returnArrivalAirportId The arrival airport of the last return flight, or null for one-way trips.
+   * @param returnArrivalDate      The arrival date of the last return flight, or null for one-way trips.
+   * @param minPrice               The lowest price of the trip, or null if the trip has no prices.
+   * @param minPriceId             The id of the lowest price of the trip, or null if the trip has no prices.
+   * @param stops                  The number of stops of the leg with the most stops.
+   * @param airlineIds             The ids of the airlines operating the flights of the trip, or null for none.
+   */
+  public TripIndexRow {
+    if (departureDate == null || arrivalDate == null) {
+      throw new IllegalArgumentException("Departure and arrival dates cannot be null");
+    }
+    airlineIds = airlineIds != null ? Set.copyOf(airlineIds) : Set.of();
+  }
+
+  /**
+   * Construct a new TripIndexRow from the flights of a trip, as selected by the trip repository.
+   * Only the airlines of the initial and arrival flights are known here; the airlines of the flights in
+   * between are added with {@link #withAirlineIds}.
+   *
+   * @param tripId                 The id of the trip.
+   * @param originAirportId        The departure airport of the leave initial flight.
+   * @param destinationAirportId   The arrival airport of the last leave flight.
+   * @param departureDate          The departure date of the leave initial flight.
+   * @param arrivalDate            The arrival date of the last leave flight.
+   * @param returnDepartureDate    The departure date of the return initial flight, or null for one-way trips.
+   * @param returnArrivalAirportId The arrival airport of the last return flight, or null for one-way trips.
+   * @param returnArrivalDate      The arrival date of the last return flight, or null for one-way trips.
+   * @param minPrice               The lowest price of the trip, or null if the trip has no prices.
+   * @param minPriceId             The id of the lowest price of the trip, or null if the trip has no prices.
+   * @param leaveAirlineId         The airline of the leave initial flight.
+   * @param leaveArrivalAirlineId  The airline of the leave arrival flight, or null for direct leave legs.
+   * @param leaveIntervals         The number of flights between the leave initial and arrival flights.
+   * @param returnAirlineId        The airline of the return initial flight, or null for one-way trips.
+   * @param returnArrivalAirlineId The airline of the return arrival flight, or null for direct return legs.
+   * @param returnIntervals        The number of flights between the return initial and arrival flights.
+   */
+  public TripIndexRow(int tripId, int originAirportId, int destinationAirportId,
+                      LocalDateTime departureDate, LocalDateTime arrivalDate,
+                      LocalDateTime returnDepartureDate, Integer returnArrivalAirportId, LocalDateTime returnArrivalDate,
+                      Integer minPrice, Integer minPriceId,
+                      Integer leaveAirlineId, Integer leaveArrivalAirlineId, int leaveIntervals,
+                      Integer returnAirlineId, Integer returnArrivalAirlineId, int returnIntervals) {
+    this(tripId, originAirportId, destinationAirportId, departureDate, arrivalDate, returnDepartureDate,
+        returnArrivalAirportId, returnArrivalDate, minPrice, minPriceId,
+        Math.max(leaveArrivalAirlineId != null ? leaveIntervals + 1 : 0, returnArrivalAirlineId != null ? returnIntervals + 1 : 0),
+        airlines(leaveAirlineId, leaveArrivalAirlineId, returnAirlineId, returnArrivalAirlineId));
+  }
+
+  /**
+   * Returns a copy of this row that is also operated by the given airlines.
+   *
+   * @param additionalAirlineIds The ids of the additional airlines.
+   * @return Return the row with the airlines added.
+   */
+  public TripIndexRow withAirlineIds(Collection<Integer> additionalAirlineIds) {
+    Set<Integer> airlines = new HashSet<>(airlineIds);
+    airlines.addAll(additionalAirlineIds);
+    return new TripIndexRow(tripId, originAirportId, destinationAirportId, departureDate, arrivalDate,
+        returnDepartureDate, returnArrivalAirportId, returnArrivalDate, minPrice, minPriceId, stops, airlines);
+  }
+
+  private static Set<Integer> airlines(Integer... airlineIds) {
+    Set<Integer> airlines = new HashSet<>();
+    for (Integer airlineId : airlineIds) {
+      if (airlineId != null) {
+        airlines.add(airlineId);
+      }
+    }
+    return airlines;
+  }
+}
@@ -0,0 +1,13 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+/**
+ * The airline of a flight between the initial and arrival flights of a trip leg.
+ * Instances are created directly by the JPQL constructor expressions in the trip repository.
+ *
+ * @param tripId    The id of the trip.
+ * @param airlineId The id of the airline operating the flight.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TripIntervalAirlineRow(int tripId, int airlineId) {
+}
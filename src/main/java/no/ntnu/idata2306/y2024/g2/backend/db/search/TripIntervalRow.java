@@ -0,0 +1,13 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+/**
+ * A flight between the initial and arrival flights of a trip leg.
+ * Instances are created directly by the JPQL constructor expressions in the trip repository.
+ *
+ * @param tripId   The id of the trip.
+ * @param flightId The id of the flight.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TripIntervalRow(int tripId, int flightId) {
+}
@@ -0,0 +1,15 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * A trip whose leave leg matched a search, with the departure date it is ordered by.
+ * Instances are created directly by the JPQL constructor expressions in the trip repository.
+ *
+ * @param tripId        The id of the trip.
+ * @param departureDate The departure date of the leave initial flight.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TripLegRow(int tripId, LocalDateTime departureDate) {
+}
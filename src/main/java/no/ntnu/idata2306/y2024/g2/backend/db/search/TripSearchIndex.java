@@ -0,0 +1,1131 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over active trips.
+ * Trips are bucketed by origin airport, destination airport and departure day. Each bucket keeps its trips
+ * in primitive arrays sorted by departure time, so a search only has to binary search the buckets covered by
+ * the requested airports and date window. Only the ids of the requested page are returned; hydrating the
+ * trips themselves is left to the caller.
+ * Pages can be requested by offset, or by seeking past a {@link SearchCursor}. Seeking only visits the days
+ * from the cursor onwards and stops as soon as the page is full, so a deep page costs the same as the first.
+ * Each bucket also keeps the lowest fare of its one-way trips and of its round trips per return day, updated as
+ * trips are added and removed, so a fare calendar only has to visit one bucket per route and day.
+ * Searches can be narrowed by a {@link SearchFilter}, checked against the bucket arrays, and sorted by another
+ * {@link SearchSort} than departure. Sorted searches have to visit every matching trip, but only keep the best
+ * trips up to the end of the requested page, so they never sort more than the page.
+ * The facets of a search are counted in the same pass that collects its matches.
+ * Besides the buckets, only the bucket of each trip is kept, as a number in a primitive map; everything else about
+ * an indexed trip is read back from the bucket arrays.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+public class TripSearchIndex {
+
+  private static final long NO_RETURN = Long.MIN_VALUE;
+  private static final long SECONDS_PER_DAY = 86400L;
+  // Departure seconds are stored relative to 2000-01-01T00:00:00Z so that they fit in 32 bits of the sort key.
+  private static final long KEY_EPOCH = 946684800L;
+  private static final long MAX_KEY_SECOND = 0xFFFFFFFFL;
+  private static final long TRIP_ID_MASK = 0x7FFFFFFFL;
+  // Fares pack the price in the high and the price id in the low 32 bits, so the lowest fare is the lowest long.
+  private static final long NO_FARE = Long.MAX_VALUE;
+
+  private final Map<RouteDay, Bucket> buckets = new HashMap<>();
+  // Buckets are numbered, so that the bucket of each trip can be kept as an int.
+  private final List<Bucket> bucketsByNumber = new ArrayList<>();
+  private final Deque<Integer> freeBucketNumbers = new ArrayDeque<>();
+  private final IntIntMap bucketNumbersByTripId = new IntIntMap();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * A page of matching trip ids, ordered by departure date and trip id.
+   *
+   * @param tripIds The ids of the trips on the requested page.
+   * @param total   The total number of trips matching the search.
+   * @param next    The cursor of the last trip on the page, or null if there are no more matches.
+   */
+  public record Page(int[] tripIds, int total, SearchCursor next) {
+  }
+
+  /**
+   * A page of matching trip ids found by seeking past a cursor, ordered by departure date and trip id.
+   * Unlike {@link Page} the total is not known, since matches past the page are never visited.
+   *
+   * @param tripIds The ids of the trips on the page.
+   * @param next    The cursor of the last trip on the page, or null if there are no more matches.
+   */
+  public record Slice(int[] tripIds, SearchCursor next) {
+  }
+
+  /**
+   * A page of matching trip ids together with the facets of all trips of the search.
+   *
+   * @param slice  The requested page.
+   * @param facets The facets of the search.
+   */
+  public record FacetedSlice(Slice slice, Facets facets) {
+  }
+
+  /**
+   * Counts of the trips of a search, for narrowing it down. Each facet counts the trips that meet every filter
+   * except the filter on the facet itself, so that choosing one value of a facet does not hide the others.
+   *
+   * @param total    The number of trips meeting every filter.
+   * @param airlines The trips per airline operating any of their flights, ordered by airline id.
+   * @param stops    The trips per number of stops, ordered by stops.
+   * @param prices   The trips per price range, ordered by price. Trips without prices are not counted.
+   */
+  public record Facets(int total, List<AirlineFacet> airlines, List<StopsFacet> stops, List<PriceFacet> prices) {
+  }
+
+  /**
+   * The trips of a search operated by one airline.
+   *
+   * @param airlineId  The id of the airline.
+   * @param count      The number of trips.
+   * @param minPrice   The lowest price of the trips, or null if none of them have prices.
+   * @param minPriceId The id of the lowest price, or null if none of the trips have prices.
+   */
+  public record AirlineFacet(int airlineId, int count, Integer minPrice, Integer minPriceId) {
+  }
+
+  /**
+   * The trips of a search with a number of stops.
+   *
+   * @param stops The number of stops of the leg with the most stops.
+   * @param count The number of trips.
+   */
+  public record StopsFacet(int stops, int count) {
+  }
+
+  /**
+   * The trips of a search priced in a range.
+   *
+   * @param from  The lowest price of the range, inclusive.
+   * @param to    The highest price of the range, exclusive.
+   * @param count The number of trips.
+   */
+  public record PriceFacet(long from, long to, int count) {
+  }
+
+  /**
+   * The lowest fare of the trips departing on one day, and returning on one day for round trips.
+   *
+   * @param departureDate The departure day.
+   * @param returnDate    The return day, or null for one-way trips.
+   * @param price         The lowest price.
+   * @param priceId       The id of the lowest price.
+   */
+  public record Fare(LocalDate departureDate, LocalDate returnDate, int price, int priceId) {
+  }
+
+  /**
+   * Where an indexed trip goes, which is what a write to the trip has to evict from the search result cache.
+   *
+   * @param originAirportId      The departure airport of the leave initial flight.
+   * @param destinationAirportId The arrival airport of the last leave flight.
+   * @param departureDate        The departure date of the leave initial flight.
+   */
+  public record Route(int originAirportId, int destinationAirportId, LocalDateTime departureDate) {
+  }
+
+  private record RouteDay(int originAirportId, int destinationAirportId, long day) {
+  }
+
+  private record ReturnDay(int arrivalAirportId, long day) {
+  }
+
+  /**
+   * Adds a trip to the index, replacing any previous entry for the same trip.
+   *
+   * @param row The index row of the trip.
+   */
+  public void put(TripIndexRow row) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(row.tripId());
+      addInternal(row);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a trip from the index. Does nothing if the trip is not indexed.
+   *
+   * @param tripId The id of the trip to remove.
+   */
+  public void remove(int tripId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(tripId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the whole content of the index.
+   *
+   * @param rows The index rows of all active trips.
+   */
+  public void replaceAll(Collection<TripIndexRow> rows) {
+    lock.writeLock().lock();
+    try {
+      buckets.clear();
+      bucketsByNumber.clear();
+      freeBucketNumbers.clear();
+      bucketNumbersByTripId.clear();
+      rows.forEach(this::addInternal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Return the route and departure of an indexed trip.
+   *
+   * @param tripId The id of the trip.
+   * @return The route of the trip, or null if the trip is not indexed.
+   */
+  public Route routeOf(int tripId) {
+    lock.readLock().lock();
+    try {
+      int number = bucketNumbersByTripId.get(tripId);
+      if (number < 0) {
+        return null;
+      }
+      Bucket bucket = bucketsByNumber.get(number);
+      long key = bucket.keys[bucket.indexOf(tripId)];
+      return new Route(bucket.routeDay.originAirportId(), bucket.routeDay.destinationAirportId(),
+          LocalDateTime.ofEpochSecond(toSecond(key), 0, ZoneOffset.UTC));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the cursor that continues a search in the given order right after a trip, for pages that had to be
+   * cut short after that trip.
+   *
+   * @param tripId The id of the trip.
+   * @param sort   The order of the search.
+   * @return Return the cursor, or null if the trip is not indexed.
+   */
+  public SearchCursor cursorOf(int tripId, SearchSort sort) {
+    lock.readLock().lock();
+    try {
+      int number = bucketNumbersByTripId.get(tripId);
+      if (number < 0) {
+        return null;
+      }
+      Bucket bucket = bucketsByNumber.get(number);
+      int index = bucket.indexOf(tripId);
+      long key = bucket.keys[index];
+      if (sort == SearchSort.DEPARTURE) {
+        return toCursor(key);
+      }
+      return toCursor(key, sort, sortValue(bucket, index, sort));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Return the number of indexed trips.
+   *
+   * @return The number of indexed trips.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return bucketNumbersByTripId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Finds one-way trips from any of the origin airports to any of the destination airports.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure date, inclusive.
+   * @param departureDateUpper    The latest departure date, inclusive.
+   * @param offset                The number of matches to skip.
+   * @param limit                 The maximum number of trip ids to return.
+   * @return Return the requested page of matching trip ids.
+   */
+  public Page findOneWay(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                         LocalDateTime departureDateLower, LocalDateTime departureDateUpper, int offset, int limit) {
+    return find(new Query(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper, null, null,
+        SearchFilter.NONE, SearchSort.DEPARTURE), offset, limit);
+  }
+
+  /**
+   * Finds round trips from any of the origin airports to any of the destination airports that return to
+   * any of the origin airports.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure date, inclusive.
+   * @param departureDateUpper    The latest departure date, inclusive.
+   * @param returnDateLower       The earliest return departure date, inclusive.
+   * @param returnDateUpper       The latest return departure date, inclusive.
+   * @param offset                The number of matches to skip.
+   * @param limit                 The maximum number of trip ids to return.
+   * @return Return the requested page of matching trip ids.
+   */
+  public Page findRoundTrip(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                            LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                            LocalDateTime returnDateLower, LocalDateTime returnDateUpper, int offset, int limit) {
+    return find(new Query(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper,
+        returnDateLower, returnDateUpper, SearchFilter.NONE, SearchSort.DEPARTURE), offset, limit);
+  }
+
+  /**
+   * Finds the one-way trips that come after a cursor, see {@link #findOneWay}.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure date, inclusive.
+   * @param departureDateUpper    The latest departure date, inclusive.
+   * @param after                 The cursor to seek past, or null to start at the first match.
+   * @param limit                 The maximum number of trip ids to return.
+   * @return Return the matching trip ids that follow the cursor.
+   */
+  public Slice findOneWayAfter(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                               LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                               SearchCursor after, int limit) {
+    return seek(new Query(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper, null, null,
+        SearchFilter.NONE, SearchSort.DEPARTURE), after, limit);
+  }
+
+  /**
+   * Finds the round trips that come after a cursor, see {@link #findRoundTrip}.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The earliest departure date, inclusive.
+   * @param departureDateUpper    The latest departure date, inclusive.
+   * @param returnDateLower       The earliest return departure date, inclusive.
+   * @param returnDateUpper       The latest return departure date, inclusive.
+   * @param after                 The cursor to seek past, or null to start at the first match.
+   * @param limit                 The maximum number of trip ids to return.
+   * @return Return the matching trip ids that follow the cursor.
+   */
+  public Slice findRoundTripAfter(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                                  LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                                  LocalDateTime returnDateLower, LocalDateTime returnDateUpper,
+                                  SearchCursor after, int limit) {
+    return seek(new Query(originAirportIds, destinationAirportIds, departureDateLower, departureDateUpper,
+        returnDateLower, returnDateUpper, SearchFilter.NONE, SearchSort.DEPARTURE), after, limit);
+  }
+
+  /**
+   * Finds the trips of a search that meet a filter, in the given order. One-way or round trips are searched
+   * depending on the query, see {@link #findOneWay} and {@link #findRoundTrip}.
+   *
+   * @param query  The search.
+   * @param sort   The order of the results.
+   * @param filter The criteria the trips have to meet.
+   * @param after  The cursor to seek past, or null to skip offset matches instead.
+   * @param offset The number of matches to skip; ignored when a cursor is given.
+   * @param limit  The maximum number of trip ids to return.
+   * @return Return the requested page of matching trip ids.
+   * @throws IllegalArgumentException If the cursor belongs to a search with another sort.
+   */
+  public Slice search(SearchQuery query, SearchSort sort, SearchFilter filter, SearchCursor after, int offset, int limit)
+      throws IllegalArgumentException {
+    if (after != null && after.sort() != sort) {
+      throw new IllegalArgumentException("The cursor belongs to a search with another sort");
+    }
+    Query criteria = new Query(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(),
+        query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), filter, sort);
+    if (sort != SearchSort.DEPARTURE) {
+      return rank(criteria, after, offset, limit);
+    }
+    if (after != null) {
+      return seek(criteria, after, limit);
+    }
+    Page page = find(criteria, offset, limit);
+    return new Slice(page.tripIds(), page.next());
+  }
+
+  /**
+   * Finds the trips of a search that meet a filter, in the given order, like {@link #search}, and counts the
+   * facets of the search while collecting them. Every trip of the search is visited, also when sorted by
+   * departure, so the facets do not depend on the page.
+   *
+   * @param query            The search.
+   * @param sort             The order of the results.
+   * @param filter           The criteria the trips have to meet.
+   * @param after            The cursor to seek past, or null to skip offset matches instead.
+   * @param offset           The number of matches to skip; ignored when a cursor is given.
+   * @param limit            The maximum number of trip ids to return.
+   * @param priceBucketWidth The width of the price ranges; must be positive.
+   * @return Return the requested page of matching trip ids and the facets of the search.
+   * @throws IllegalArgumentException If the cursor belongs to a search with another sort, or the width is not
+   *                                  positive.
+   */
+  public FacetedSlice searchWithFacets(SearchQuery query, SearchSort sort, SearchFilter filter, SearchCursor after,
+                                       int offset, int limit, int priceBucketWidth) throws IllegalArgumentException {
+    if (after != null && after.sort() != sort) {
+      throw new IllegalArgumentException("The cursor belongs to a search with another sort");
+    }
+    if (priceBucketWidth <= 0) {
+      throw new IllegalArgumentException("Price bucket width must be positive");
+    }
+    Query criteria = new Query(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(),
+        query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), filter, sort);
+    FacetCounter facets = new FacetCounter(criteria, priceBucketWidth);
+    criteria.facets = facets;
+    // Sorted by departure every sort value is the same, so ranking keeps the departure order.
+    Slice slice = rank(criteria, after, offset, limit);
+    return new FacetedSlice(slice, facets.toFacets(criteria.count));
+  }
+
+  /**
+   * Finds the lowest fare of the one-way trips per departure day.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The first departure day.
+   * @param departureDateUpper    The last departure day.
+   * @return Return the lowest fare of each day that has priced trips, ordered by day.
+   */
+  public List<Fare> findOneWayFares(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                                    LocalDateTime departureDateLower, LocalDateTime departureDateUpper) {
+    List<Fare> fares = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (long day = toDay(toEpochSecond(departureDateLower)); day <= toDay(toEpochSecond(departureDateUpper)); day++) {
+        long lowest = NO_FARE;
+        for (int origin : originAirportIds) {
+          for (int destination : destinationAirportIds) {
+            Bucket bucket = buckets.get(new RouteDay(origin, destination, day));
+            if (bucket != null) {
+              lowest = Math.min(lowest, bucket.oneWayFare);
+            }
+          }
+        }
+        if (lowest != NO_FARE) {
+          fares.add(toFare(day, null, lowest));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return fares;
+  }
+
+  /**
+   * Finds the lowest fare of the round trips per departure and return day. Only round trips that return to one
+   * of the origin airports are included.
+   *
+   * @param originAirportIds      The ids of the departure airports.
+   * @param destinationAirportIds The ids of the arrival airports.
+   * @param departureDateLower    The first departure day.
+   * @param departureDateUpper    The last departure day.
+   * @param returnDateLower       The first return day.
+   * @param returnDateUpper       The last return day.
+   * @return Return the lowest fare of each pair of days that has priced trips, ordered by departure and return day.
+   */
+  public List<Fare> findRoundTripFares(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                                       LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                                       LocalDateTime returnDateLower, LocalDateTime returnDateUpper) {
+    Set<Integer> origins = new HashSet<>(originAirportIds);
+    long returnLowerDay = toDay(toEpochSecond(returnDateLower));
+    long returnUpperDay = toDay(toEpochSecond(returnDateUpper));
+    List<Fare> fares = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (long day = toDay(toEpochSecond(departureDateLower)); day <= toDay(toEpochSecond(departureDateUpper)); day++) {
+        Map<Long, Long> lowestByReturnDay = new TreeMap<>();
+        for (int origin : origins) {
+          for (int destination : destinationAirportIds) {
+            Bucket bucket = buckets.get(new RouteDay(origin, destination, day));
+            if (bucket == null) {
+              continue;
+            }
+            bucket.roundTripFares.forEach((returnDay, fare) -> {
+              if (origins.contains(returnDay.arrivalAirportId())
+                  && returnDay.day() >= returnLowerDay && returnDay.day() <= returnUpperDay) {
+                lowestByReturnDay.merge(returnDay.day(), fare, Math::min);
+              }
+            });
+          }
+        }
+        long departureDay = day;
+        lowestByReturnDay.forEach((returnDay, fare) -> fares.add(toFare(departureDay, returnDay, fare)));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return fares;
+  }
+
+  private Page find(Query query, int offset, int limit) {
+    lock.readLock().lock();
+    try {
+      for (long day = toDay(query.lowerSecond); day <= toDay(query.upperSecond); day++) {
+        query.collectDay(day, query.lowerKey);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    long[] matches = query.matches;
+    int count = query.count;
+    Arrays.sort(matches, 0, count);
+    int from = Math.min(Math.max(offset, 0), count);
+    int to = (int) Math.min((long) from + Math.max(limit, 0), count);
+    int[] tripIds = new int[to - from];
+    for (int i = from; i < to; i++) {
+      tripIds[i - from] = (int) (matches[i] & TRIP_ID_MASK);
+    }
+    SearchCursor next = to < count && to > from ? toCursor(matches[to - 1]) : null;
+    return new Page(tripIds, count, next);
+  }
+
+  private Slice seek(Query query, SearchCursor after, int limit) {
+    long startKey = query.lowerKey;
+    if (after != null) {
+      startKey = Math.max(startKey, sortKey(toEpochSecond(after.departureDate()), after.tripId()) + 1);
+    }
+    // One match past the page tells whether there is a next page.
+    int wanted = (int) Math.min((long) Math.max(limit, 0) + 1, Integer.MAX_VALUE);
+    lock.readLock().lock();
+    try {
+      // Keys of one day all sort before the keys of the next, so sorting day by day keeps the overall order.
+      for (long day = Math.max(toDay(query.lowerSecond), toDay(toSecond(startKey)));
+           day <= toDay(query.upperSecond) && query.count < wanted; day++) {
+        int dayStart = query.count;
+        query.collectDay(day, startKey);
+        Arrays.sort(query.matches, dayStart, query.count);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    long[] matches = query.matches;
+    int count = query.count;
+
+    int size = Math.min(count, wanted - 1);
+    int[] tripIds = new int[size];
+    for (int i = 0; i < size; i++) {
+      tripIds[i] = (int) (matches[i] & TRIP_ID_MASK);
+    }
+    SearchCursor next = count > size && size > 0 ? toCursor(matches[size - 1]) : null;
+    return new Slice(tripIds, next);
+  }
+
+  /**
+   * Answers a search sorted by another order than departure. Every match has to be visited, but only the best
+   * matches up to the end of the page are kept in a bounded heap while collecting, so only those are ever stored
+   * and sorted.
+   */
+  private Slice rank(Query query, SearchCursor after, int offset, int limit) {
+    int skip = after != null ? 0 : Math.max(offset, 0);
+    // One match past the page tells whether there is a next page.
+    int wanted = (int) Math.min((long) skip + Math.max(limit, 0) + 1, Integer.MAX_VALUE);
+    Ranking ranking = new Ranking(wanted);
+    query.rankInto(ranking, after);
+    lock.readLock().lock();
+    try {
+      for (long day = toDay(query.lowerSecond); day <= toDay(query.upperSecond); day++) {
+        query.collectDay(day, query.lowerKey);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    int[] ranked = ranking.sorted();
+    int from = Math.min(skip, ranked.length);
+    int to = (int) Math.min((long) from + Math.max(limit, 0), ranked.length);
+    int[] tripIds = new int[to - from];
+    for (int i = from; i < to; i++) {
+      tripIds[i - from] = (int) (ranking.keys[ranked[i]] & TRIP_ID_MASK);
+    }
+    SearchCursor next = null;
+    if (to < ranked.length && to > from) {
+      int last = ranked[to - 1];
+      next = toCursor(ranking.keys[last], query.sort, ranking.values[last]);
+    }
+    return new Slice(tripIds, next);
+  }
+
+  private void addInternal(TripIndexRow row) {
+    long departureSecond = toEpochSecond(row.departureDate());
+    long arrivalSecond = toEpochSecond(row.arrivalDate());
+    long duration = arrivalSecond - departureSecond;
+    long returnSecond = NO_RETURN;
+    int returnArrival = -1;
+    if (row.returnDepartureDate() != null && row.returnArrivalAirportId() != null) {
+      returnSecond = toEpochSecond(row.returnDepartureDate());
+      returnArrival = row.returnArrivalAirportId();
+      if (row.returnArrivalDate() != null) {
+        duration += toEpochSecond(row.returnArrivalDate()) - returnSecond;
+      }
+    }
+    int[] airlines = row.airlineIds().stream().mapToInt(Integer::intValue).sorted().toArray();
+    long fare = NO_FARE;
+    if (row.minPrice() != null && row.minPriceId() != null) {
+      fare = ((long) row.minPrice() << 32) | (row.minPriceId() & 0xFFFFFFFFL);
+    }
+    RouteDay routeDay = new RouteDay(row.originAirportId(), row.destinationAirportId(), toDay(departureSecond));
+    Bucket bucket = buckets.computeIfAbsent(routeDay, this::newBucket);
+    bucket.insert(sortKey(departureSecond, row.tripId()), returnSecond, returnArrival, fare, arrivalSecond, duration,
+        row.stops(), airlines);
+    bucketNumbersByTripId.put(row.tripId(), bucket.number);
+  }
+
+  private void removeInternal(int tripId) {
+    int number = bucketNumbersByTripId.remove(tripId);
+    if (number < 0) {
+      return;
+    }
+    Bucket bucket = bucketsByNumber.get(number);
+    if (bucket.remove(bucket.keys[bucket.indexOf(tripId)]) && bucket.size == 0) {
+      buckets.remove(bucket.routeDay);
+      bucketsByNumber.set(number, null);
+      freeBucketNumbers.push(number);
+    }
+  }
+
+  private Bucket newBucket(RouteDay routeDay) {
+    Integer number = freeBucketNumbers.poll();
+    if (number == null) {
+      Bucket bucket = new Bucket(routeDay, bucketsByNumber.size());
+      bucketsByNumber.add(bucket);
+      return bucket;
+    }
+    Bucket bucket = new Bucket(routeDay, number);
+    bucketsByNumber.set(number, bucket);
+    return bucket;
+  }
+
+  private static long toEpochSecond(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static long toDay(long epochSecond) {
+    return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+  }
+
+  private static Fare toFare(long departureDay, Long returnDay, long fare) {
+    return new Fare(LocalDate.ofEpochDay(departureDay), returnDay != null ? LocalDate.ofEpochDay(returnDay) : null,
+        (int) (fare >>> 32), (int) fare);
+  }
+
+  private static long toSecond(long sortKey) {
+    return (sortKey >>> 31) + KEY_EPOCH;
+  }
+
+  private static SearchCursor toCursor(long sortKey) {
+    return new SearchCursor(LocalDateTime.ofEpochSecond(toSecond(sortKey), 0, ZoneOffset.UTC),
+        (int) (sortKey & TRIP_ID_MASK));
+  }
+
+  private static SearchCursor toCursor(long sortKey, SearchSort sort, long sortValue) {
+    return new SearchCursor(LocalDateTime.ofEpochSecond(toSecond(sortKey), 0, ZoneOffset.UTC),
+        (int) (sortKey & TRIP_ID_MASK), sort, sortValue);
+  }
+
+  private static long sortValue(Bucket bucket, int i, SearchSort sort) {
+    return switch (sort) {
+      case DEPARTURE -> 0;
+      case ARRIVAL -> bucket.arrivals[i];
+      case PRICE -> bucket.fares[i] == NO_FARE ? Long.MAX_VALUE : bucket.fares[i] >>> 32;
+      case DURATION -> bucket.durations[i];
+    };
+  }
+
+  private static int toSecondOfDay(LocalTime time) {
+    return time != null ? time.toSecondOfDay() : -1;
+  }
+
+  /**
+   * Checks if a second of the day falls in a window, which wraps around midnight if it starts after it ends.
+   */
+  private static boolean inWindow(long epochSecond, int from, int to) {
+    long second = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+    return from <= to ? second >= from && second <= to : second >= from || second <= to;
+  }
+
+  /**
+   * Packs a departure time and a trip id into a single long that sorts by departure time, then trip id.
+   */
+  private static long sortKey(long epochSecond, int tripId) {
+    long second = Math.min(Math.max(epochSecond - KEY_EPOCH, 0), MAX_KEY_SECOND);
+    return (second << 31) | (tripId & TRIP_ID_MASK);
+  }
+
+  /**
+   * The parsed criteria of one search, collecting matches one day at a time. Must be used under the read lock.
+   * Matches are either appended to the collected keys, or offered to a ranking with their sort value, which keeps
+   * only the best of them.
+   */
+  private final class Query {
+    private final Set<Integer> origins;
+    private final Set<Integer> destinations;
+    private final long lowerSecond;
+    private final long upperSecond;
+    private final boolean roundTrip;
+    private final long returnLowerSecond;
+    private final long returnUpperSecond;
+    private final long lowerKey;
+    private final long upperKey;
+    private final SearchSort sort;
+    private final boolean filtered;
+    private final int maxStops;
+    private final long maxPrice;
+    private final Set<Integer> airlineIds;
+    private final int departureFrom;
+    private final int departureTo;
+    private final int arrivalFrom;
+    private final int arrivalTo;
+    private long[] matches = new long[16];
+    private int count;
+    private FacetCounter facets;
+    private Ranking ranking;
+    private SearchCursor after;
+    private long afterKey;
+
+    private Query(Collection<Integer> originAirportIds, Collection<Integer> destinationAirportIds,
+                  LocalDateTime departureDateLower, LocalDateTime departureDateUpper,
+                  LocalDateTime returnDateLower, LocalDateTime returnDateUpper, SearchFilter filter, SearchSort sort) {
+      this.origins = new HashSet<>(originAirportIds);
+      this.destinations = new HashSet<>(destinationAirportIds);
+      this.lowerSecond = toEpochSecond(departureDateLower);
+      this.upperSecond = toEpochSecond(departureDateUpper);
+      this.roundTrip = returnDateLower != null;
+      this.returnLowerSecond = roundTrip ? toEpochSecond(returnDateLower) : NO_RETURN;
+      this.returnUpperSecond = roundTrip ? toEpochSecond(returnDateUpper) : NO_RETURN;
+      this.lowerKey = sortKey(lowerSecond, 0);
+      this.upperKey = sortKey(upperSecond, Integer.MAX_VALUE);
+      this.sort = sort;
+      this.filtered = !filter.isEmpty();
+      this.maxStops = filter.maxStops() != null ? filter.maxStops() : Integer.MAX_VALUE;
+      this.maxPrice = filter.maxPrice() != null ? filter.maxPrice() : -1;
+      this.airlineIds = filter.airlineIds();
+      this.departureFrom = toSecondOfDay(filter.departureTimeFrom());
+      this.departureTo = toSecondOfDay(filter.departureTimeTo());
+      this.arrivalFrom = toSecondOfDay(filter.arrivalTimeFrom());
+      this.arrivalTo = toSecondOfDay(filter.arrivalTimeTo());
+    }
+
+    /**
+     * Offers the matches to a ranking instead of appending them to the collected keys. Matches that do not sort
+     * after the cursor are counted but not offered.
+     *
+     * @param ranking The ranking that keeps the best matches.
+     * @param after   The cursor to rank past, or null.
+     */
+    private void rankInto(Ranking ranking, SearchCursor after) {
+      this.ranking = ranking;
+      this.after = after;
+      this.afterKey = after != null ? sortKey(toEpochSecond(after.departureDate()), after.tripId()) : 0;
+    }
+
+    /**
+     * Collects the matches on one day, from the start key onwards: appends their keys to the collected matches,
+     * or offers them to the ranking.
+     */
+    private void collectDay(long day, long startKey) {
+      for (int origin : origins) {
+        for (int destination : destinations) {
+          Bucket bucket = buckets.get(new RouteDay(origin, destination, day));
+          if (bucket == null) {
+            continue;
+          }
+          for (int i = bucket.lowerBound(startKey); i < bucket.size && bucket.keys[i] <= upperKey; i++) {
+            boolean match = roundTrip
+                ? bucket.returnDepartures[i] >= returnLowerSecond && bucket.returnDepartures[i] <= returnUpperSecond
+                && origins.contains(bucket.returnArrivals[i])
+                : bucket.returnDepartures[i] == NO_RETURN;
+            if (match && facets != null) {
+              facets.count(bucket, i);
+            }
+            if (match && (!filtered || passes(bucket, i))) {
+              collect(bucket, i);
+            }
+          }
+        }
+      }
+    }
+
+    private void collect(Bucket bucket, int i) {
+      long key = bucket.keys[i];
+      if (ranking != null) {
+        count++;
+        long value = sortValue(bucket, i, sort);
+        if (after == null || Ranking.compare(value, key, after.sortValue(), afterKey) > 0) {
+          ranking.offer(value, key);
+        }
+        return;
+      }
+      if (count == matches.length) {
+        matches = Arrays.copyOf(matches, count * 2);
+      }
+      matches[count++] = key;
+    }
+
+    private boolean passes(Bucket bucket, int i) {
+      return passesStops(bucket, i) && passesPrice(bucket, i) && passesAirlines(bucket, i) && passesTimes(bucket, i);
+    }
+
+    private boolean passesStops(Bucket bucket, int i) {
+      return bucket.stops[i] <= maxStops;
+    }
+
+    private boolean passesPrice(Bucket bucket, int i) {
+      return maxPrice < 0 || (bucket.fares[i] != NO_FARE && (bucket.fares[i] >>> 32) <= maxPrice);
+    }
+
+    /**
+     * Checks if one of the flights of a trip is operated by one of the airlines, the same trips the airline facets
+     * count under those airlines.
+     */
+    private boolean passesAirlines(Bucket bucket, int i) {
+      if (airlineIds.isEmpty()) {
+        return true;
+      }
+      for (int airlineId : bucket.airlines[i]) {
+        if (airlineIds.contains(airlineId)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean passesTimes(Bucket bucket, int i) {
+      if (departureFrom >= 0 && !inWindow(toSecond(bucket.keys[i]), departureFrom, departureTo)) {
+        return false;
+      }
+      return arrivalFrom < 0 || inWindow(bucket.arrivals[i], arrivalFrom, arrivalTo);
+    }
+
+  }
+
+  /**
+   * Counts the facets of a search while its matches are collected. Each facet counts the trips that pass every
+   * filter of the query except its own.
+   */
+  private static final class FacetCounter {
+    private final Query query;
+    private final int priceBucketWidth;
+    private final Map<Integer, Integer> airlineCounts = new TreeMap<>();
+    private final Map<Integer, Long> airlineFares = new HashMap<>();
+    private final Map<Integer, Integer> stopCounts = new TreeMap<>();
+    private final Map<Long, Integer> priceCounts = new TreeMap<>();
+
+    private FacetCounter(Query query, int priceBucketWidth) {
+      this.query = query;
+      this.priceBucketWidth = priceBucketWidth;
+    }
+
+    private void count(Bucket bucket, int i) {
+      if (!query.passesTimes(bucket, i)) {
+        return;
+      }
+      boolean stopsPass = query.passesStops(bucket, i);
+      boolean pricePass = query.passesPrice(bucket, i);
+      boolean airlinesPass = query.passesAirlines(bucket, i);
+      long fare = bucket.fares[i];
+      if (pricePass && airlinesPass) {
+        stopCounts.merge(bucket.stops[i], 1, Integer::sum);
+      }
+      if (stopsPass && pricePass) {
+        for (int airlineId : bucket.airlines[i]) {
+          airlineCounts.merge(airlineId, 1, Integer::sum);
+          airlineFares.merge(airlineId, fare, Math::min);
+        }
+      }
+      if (stopsPass && airlinesPass && fare != NO_FARE) {
+        priceCounts.merge((fare >>> 32) / priceBucketWidth, 1, Integer::sum);
+      }
+    }
+
+    private Facets toFacets(int total) {
+      List<AirlineFacet> airlines = new ArrayList<>(airlineCounts.size());
+      airlineCounts.forEach((airlineId, count) -> {
+        long fare = airlineFares.get(airlineId);
+        airlines.add(fare == NO_FARE
+            ? new AirlineFacet(airlineId, count, null, null)
+            : new AirlineFacet(airlineId, count, (int) (fare >>> 32), (int) fare));
+      });
+      List<StopsFacet> stops = new ArrayList<>(stopCounts.size());
+      stopCounts.forEach((stopCount, count) -> stops.add(new StopsFacet(stopCount, count)));
+      List<PriceFacet> prices = new ArrayList<>(priceCounts.size());
+      priceCounts.forEach((bucket, count) ->
+          prices.add(new PriceFacet(bucket * priceBucketWidth, (bucket + 1) * priceBucketWidth, count)));
+      return new Facets(total, airlines, stops, prices);
+    }
+  }
+
+  /**
+   * A bounded max-heap of matches, ordered by sort value, then sort key. Keeps the given number of lowest matches
+   * offered to it in slots of its own, which grow up to that number, so a ranking never holds more than a page.
+   */
+  private static final class Ranking {
+    private final int capacity;
+    private long[] values;
+    private long[] keys;
+    private int[] heap;
+    private int size;
+
+    private Ranking(int capacity) {
+      this.capacity = Math.max(capacity, 0);
+      int initial = Math.min(this.capacity, 16);
+      this.values = new long[initial];
+      this.keys = new long[initial];
+      this.heap = new int[initial];
+    }
+
+    private static int compare(long value, long key, long otherValue, long otherKey) {
+      int byValue = Long.compare(value, otherValue);
+      return byValue != 0 ? byValue : Long.compare(key, otherKey);
+    }
+
+    private int compare(int slot, int otherSlot) {
+      return compare(values[slot], keys[slot], values[otherSlot], keys[otherSlot]);
+    }
+
+    private void offer(long value, long key) {
+      if (size < capacity) {
+        if (size == heap.length) {
+          int length = (int) Math.min((long) size * 2, capacity);
+          values = Arrays.copyOf(values, length);
+          keys = Arrays.copyOf(keys, length);
+          heap = Arrays.copyOf(heap, length);
+        }
+        values[size] = value;
+        keys[size] = key;
+        heap[size] = size;
+        siftUp(size++);
+      } else if (size > 0 && compare(value, key, values[heap[0]], keys[heap[0]]) < 0) {
+        values[heap[0]] = value;
+        keys[heap[0]] = key;
+        siftDown(0, size);
+      }
+    }
+
+    /**
+     * Empties the heap into an array of slots, from the lowest match to the highest.
+     */
+    private int[] sorted() {
+      int count = size;
+      for (int end = size - 1; end > 0; end--) {
+        int top = heap[0];
+        heap[0] = heap[end];
+        heap[end] = top;
+        siftDown(0, end);
+      }
+      size = 0;
+      return Arrays.copyOf(heap, count);
+    }
+
+    private void siftUp(int index) {
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (compare(heap[index], heap[parent]) <= 0) {
+          return;
+        }
+        swap(index, parent);
+        index = parent;
+      }
+    }
+
+    private void siftDown(int index, int end) {
+      while (true) {
+        int largest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < end && compare(heap[left], heap[largest]) > 0) {
+          largest = left;
+        }
+        if (right < end && compare(heap[right], heap[largest]) > 0) {
+          largest = right;
+        }
+        if (largest == index) {
+          return;
+        }
+        swap(index, largest);
+        index = largest;
+      }
+    }
+
+    private void swap(int i, int j) {
+      int slot = heap[i];
+      heap[i] = heap[j];
+      heap[j] = slot;
+    }
+  }
+
+  /**
+   * The trips of one route on one day, kept sorted by their sort key, and their lowest fares.
+   * The attributes searches are filtered and sorted by are kept in arrays parallel to the keys.
+   */
+  private static final class Bucket {
+    private static final int[] NO_AIRLINES = new int[0];
+    private final RouteDay routeDay;
+    private final int number;
+    private long[] keys = new long[4];
+    private long[] returnDepartures = new long[4];
+    private int[] returnArrivals = new int[4];
+    private long[] fares = new long[4];
+    private long[] arrivals = new long[4];
+    private long[] durations = new long[4];
+    private int[] stops = new int[4];
+    private int[][] airlines = new int[4][];
+    private int size;
+    private long oneWayFare = NO_FARE;
+    private final Map<ReturnDay, Long> roundTripFares = new HashMap<>();
+
+    private Bucket(RouteDay routeDay, int number) {
+      this.routeDay = routeDay;
+      this.number = number;
+    }
+
+    /**
+     * Returns the index of a trip in the bucket, which has to be there. The trips of one route and day are few
+     * enough to be looked through.
+     */
+    private int indexOf(int tripId) {
+      for (int i = 0; i < size; i++) {
+        if ((keys[i] & TRIP_ID_MASK) == tripId) {
+          return i;
+        }
+      }
+      throw new IllegalStateException("Trip " + tripId + " is not in its bucket");
+    }
+
+    private int lowerBound(long key) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (keys[mid] < key) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private void insert(long key, long returnDeparture, int returnArrival, long fare, long arrival, long duration,
+                        int stopCount, int[] airlineIds) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        returnDepartures = Arrays.copyOf(returnDepartures, size * 2);
+        returnArrivals = Arrays.copyOf(returnArrivals, size * 2);
+        fares = Arrays.copyOf(fares, size * 2);
+        arrivals = Arrays.copyOf(arrivals, size * 2);
+        durations = Arrays.copyOf(durations, size * 2);
+        stops = Arrays.copyOf(stops, size * 2);
+        airlines = Arrays.copyOf(airlines, size * 2);
+      }
+      int index = lowerBound(key);
+      shift(index, index + 1, size - index);
+      keys[index] = key;
+      returnDepartures[index] = returnDeparture;
+      returnArrivals[index] = returnArrival;
+      fares[index] = fare;
+      arrivals[index] = arrival;
+      durations[index] = duration;
+      stops[index] = stopCount;
+      airlines[index] = airlineIds.length > 0 ? airlineIds : NO_AIRLINES;
+      size++;
+      if (fare == NO_FARE) {
+        return;
+      }
+      if (returnDeparture == NO_RETURN) {
+        oneWayFare = Math.min(oneWayFare, fare);
+      } else {
+        roundTripFares.merge(new ReturnDay(returnArrival, toDay(returnDeparture)), fare, Math::min);
+      }
+    }
+
+    private boolean remove(long key) {
+      int index = lowerBound(key);
+      if (index == size || keys[index] != key) {
+        return false;
+      }
+      long returnDeparture = returnDepartures[index];
+      int returnArrival = returnArrivals[index];
+      long fare = fares[index];
+      shift(index + 1, index, size - index - 1);
+      size--;
+      airlines[size] = null;
+      // Only a removed lowest fare has to be recomputed from the remaining trips.
+      if (returnDeparture == NO_RETURN && fare == oneWayFare) {
+        oneWayFare = lowestFare(NO_RETURN, -1);
+      } else if (returnDeparture != NO_RETURN && fare != NO_FARE) {
+        ReturnDay returnDay = new ReturnDay(returnArrival, toDay(returnDeparture));
+        Long current = roundTripFares.get(returnDay);
+        if (current != null && current == fare) {
+          long lowest = lowestFare(returnDay.day(), returnArrival);
+          if (lowest == NO_FARE) {
+            roundTripFares.remove(returnDay);
+          } else {
+            roundTripFares.put(returnDay, lowest);
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Moves a range of entries in all parallel arrays.
+     */
+    private void shift(int from, int to, int length) {
+      System.arraycopy(keys, from, keys, to, length);
+      System.arraycopy(returnDepartures, from, returnDepartures, to, length);
+      System.arraycopy(returnArrivals, from, returnArrivals, to, length);
+      System.arraycopy(fares, from, fares, to, length);
+      System.arraycopy(arrivals, from, arrivals, to, length);
+      System.arraycopy(durations, from, durations, to, length);
+      System.arraycopy(stops, from, stops, to, length);
+      System.arraycopy(airlines, from, airlines, to, length);
+    }
+
+    /**
+     * Returns the lowest fare of the one-way trips if the return day is NO_RETURN, otherwise of the round trips
+     * returning to the given airport on the given day.
+     */
+    private long lowestFare(long returnDay, int returnArrival) {
+      long lowest = NO_FARE;
+      for (int i = 0; i < size; i++) {
+        boolean match = returnDay == NO_RETURN
+            ? returnDepartures[i] == NO_RETURN
+            : returnDepartures[i] != NO_RETURN && returnArrivals[i] == returnArrival
+            && toDay(returnDepartures[i]) == returnDay;
+        if (match) {
+          lowest = Math.min(lowest, fares[i]);
+        }
+      }
+      return lowest;
+    }
+  }
+}
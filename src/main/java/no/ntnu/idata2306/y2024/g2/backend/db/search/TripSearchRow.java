@@ -0,0 +1,27 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+/**
+ * The columns of a trip that a search result shows besides its flights: the ids of its flights and its lowest
+ * price.
+ * Instances are created directly by the JPQL constructor expressions in the trip repository.
+ *
+ * @param tripId                The id of the trip.
+ * @param leaveInitialFlightId  The id of the leave initial flight.
+ * @param leaveArrivalFlightId  The id of the leave arrival flight, or null.
+ * @param returnInitialFlightId The id of the return initial flight, or null for one-way trips.
+ * @param returnArrivalFlightId The id of the return arrival flight, or null.
+ * @param minPriceId            The id of the lowest price of the trip, or null if the trip has no prices.
+ * @param minPrice              The amount of the lowest price, or null if the trip has no prices.
+ * @param minPriceCurrency      The currency of the lowest price, or null if the trip has no prices.
+ * @author agent
+ * @version 18.10.2026
+ */
+public record TripSearchRow(int tripId,
+                            int leaveInitialFlightId,
+                            Integer leaveArrivalFlightId,
+                            Integer returnInitialFlightId,
+                            Integer returnArrivalFlightId,
+                            Integer minPriceId,
+                            Integer minPrice,
+                            String minPriceCurrency) {
+}
@@ -0,0 +1,37 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies changes to the in-memory indexes once the write they follow has been committed.
+ * A write inside a transaction, such as a cascade deletion, may still be rolled back, and an index changed before
+ * then would keep showing the rolled back write until it is rebuilt.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  /**
+   * Runs the given task after the current transaction commits, or right away when there is no transaction.
+   * The task is dropped if the transaction is rolled back.
+   *
+   * @param task The change to the in-memory index.
+   */
+  static void run(Runnable task) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          task.run();
+        }
+      });
+    } else {
+      task.run();
+    }
+  }
+}
@@ -3,6 +3,7 @@ package no.ntnu.idata2306.y2024.g2.backend.db.services;
 import jakarta.persistence.EntityNotFoundException;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirlineRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchResultCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -22,6 +23,7 @@ public class AirlineService {
 
   private final AirlineRepository airlineRepository;
   private final FlightService flightService;
+  private final SearchResultCache searchResultCache;
 
   /**
    * Constructs an instance of AirlineService with necessary dependency.
@@ -29,9 +31,10 @@ public class AirlineService {
    * @param airlineRepository The repository handling airline operations.
    */
   @Autowired
-  public AirlineService(AirlineRepository airlineRepository, FlightService flightService) {
+  public AirlineService(AirlineRepository airlineRepository, FlightService flightService, SearchResultCache searchResultCache) {
     this.airlineRepository = airlineRepository;
     this.flightService = flightService;
+    this.searchResultCache = searchResultCache;
   }
 
   /**
@@ -74,6 +77,7 @@ public class AirlineService {
    */
   public void updateAirline(Airline airline) {
     airlineRepository.save(airline);
+    searchResultCache.clear();
   }
 
   /**
@@ -4,11 +4,18 @@ import jakarta.transaction.Transactional;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirportRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AirportLocationRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AirportResolver;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteIndex;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchResultCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -23,16 +30,29 @@ public class AirportService {
 
   private final AirportRepository airportRepository;
   private final FlightService flightService;
+  private final SearchResultCache searchResultCache;
+  private final AirportResolver airportResolver;
+  private final AutocompleteIndex autocompleteIndex;
+  private final ArrivalRollupService arrivalRollupService;
 
   /**
    * Constructs an instance of AirPortService with necessary dependency.
    *
-   * @param airportRepository The repository handling airport operations.
+   * @param airportRepository    The repository handling airport operations.
+   * @param airportResolver      The resolver of search airports, invalidated when airports are written.
+   * @param autocompleteIndex    The autocomplete index, updated when airports are written.
+   * @param arrivalRollupService The rollup of arrivals, built again when an airport moves to another location.
    */
   @Autowired
-  public AirportService(AirportRepository airportRepository, FlightService flightService) {
+  public AirportService(AirportRepository airportRepository, FlightService flightService, SearchResultCache searchResultCache,
+                        AirportResolver airportResolver, AutocompleteIndex autocompleteIndex,
+                        ArrivalRollupService arrivalRollupService) {
     this.airportRepository = airportRepository;
     this.flightService = flightService;
+    this.searchResultCache = searchResultCache;
+    this.airportResolver = airportResolver;
+    this.autocompleteIndex = autocompleteIndex;
+    this.arrivalRollupService = arrivalRollupService;
   }
 
   /**
@@ -60,6 +80,27 @@ public class AirportService {
     return airportRepository.findByLocation(location);
   }
 
+  /**
+   * Resolves the airport or location of a search into the ids of its airports, from memory.
+   *
+   * @param airportId  The id of the airport, or null to resolve the location.
+   * @param locationId The id of the location; ignored if an airport is given.
+   * @return Return the ids of the airports, which is empty if there is no such airport or location.
+   * @throws IllegalArgumentException If neither an airport nor a location is given.
+   */
+  public List<Integer> resolveAirportIds(Integer airportId, Integer locationId) throws IllegalArgumentException {
+    return airportResolver.resolve(airportId, locationId);
+  }
+
+  /**
+   * Retrieves the names and codes of all airports, for building the autocomplete index.
+   *
+   * @return Return the autocomplete rows of all airports.
+   */
+  public List<AutocompleteRow> getAutocompleteRows() {
+    return airportRepository.findAutocompleteRows();
+  }
+
 
   /**
    * Adds a new airport to the database.
@@ -68,16 +109,31 @@ public class AirportService {
    */
   public void addAirport(Airport airport) {
     airportRepository.save(airport);
+    airportResolver.invalidate();
+    autocompleteIndex.putAirport(new AutocompleteRow(airport.getId(), airport.getName(), airport.getCode()));
   }
 
   /**
    * Updates an existing airport in the database.
    * This method assumes the airport exists and will overwrite the existing one based on its ID.
+   * When the airport moves to another location, the arrival rollup cells of its flights are refreshed.
    *
    * @param airport The {@link Airport} to update; must not be null.
    */
   public void updateAirport(Airport airport) {
+    Integer previousLocationId = airportRepository.findAirportLocationRow(airport.getId())
+        .map(AirportLocationRow::locationId).orElse(null);
+    Integer locationId = airport.getLocation() != null ? airport.getLocation().getId() : null;
+    boolean moved = !Objects.equals(previousLocationId, locationId);
+    List<ArrivalCountRow> arrivals = moved ? new ArrayList<>(arrivalRollupService.getAirportCells(airport.getId())) : List.of();
     airportRepository.save(airport);
+    airportResolver.invalidate();
+    autocompleteIndex.putAirport(new AutocompleteRow(airport.getId(), airport.getName(), airport.getCode()));
+    searchResultCache.clear();
+    if (moved) {
+      arrivals.addAll(arrivalRollupService.getAirportCells(airport.getId()));
+      arrivalRollupService.refresh(arrivals);
+    }
   }
 
   /**
@@ -87,6 +143,8 @@ public class AirportService {
    */
   public void deleteAirport(Airport airport) {
     airportRepository.delete(airport);
+    airportResolver.invalidate();
+    autocompleteIndex.removeAirport(airport.getId());
   }
 
   /**
@@ -97,6 +155,8 @@ public class AirportService {
   public void deleteAirportById(int id) {
     flightService.deleteAirportById(id);
     airportRepository.deleteById(id);
+    airportResolver.invalidate();
+    autocompleteIndex.removeAirport(id);
   }
 
   /**
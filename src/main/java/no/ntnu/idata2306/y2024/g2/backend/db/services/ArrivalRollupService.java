@@ -0,0 +1,169 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.services;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ArrivalRollup;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ArrivalRollupRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.FlightRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.PopularityCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for the rollup of arrivals per origin location, destination location and day.
+ * The popular destinations are summed from the rollup instead of counted from the flights. The flight service
+ * reads the cells of a flight before writing it and refreshes them, together with the cells of the flight after
+ * the write, once it is written. A cell is refreshed by counting its flights again, so refreshing is idempotent and
+ * the rollup cannot drift from the flights by a write that was seen twice. When the flights are written in a
+ * transaction, the cells are written in it too, and the counters are only set once it commits. An airport that is
+ * moved to another location refreshes the cells of its flights in the same way. The whole rollup is only built from
+ * the flights when the application starts with an empty rollup, as it does right after the table is created. The
+ * {@link PopularityCounters} are set from every cell that is refreshed and loaded from the rollup when the
+ * application starts.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Service
+public class ArrivalRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ArrivalRollupService.class);
+
+  private final ArrivalRollupRepository arrivalRollupRepository;
+  private final FlightRepository flightRepository;
+  private final PopularityCounters popularityCounters;
+  private final TransactionTemplate transaction;
+  // Writes to the rollup are serialized, so two refreshes of a new cell do not both insert it.
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  /**
+   * Constructs an instance of ArrivalRollupService with necessary dependency.
+   *
+   * @param arrivalRollupRepository The repository handling the rollup.
+   * @param flightRepository        The repository the arrivals are counted from.
+   * @param popularityCounters      The in-memory counters of arrivals, kept in step with the rollup.
+   * @param transactionManager      The transaction manager the rollup is written in.
+   */
+  @Autowired
+  public ArrivalRollupService(ArrivalRollupRepository arrivalRollupRepository, FlightRepository flightRepository,
+                              PopularityCounters popularityCounters, PlatformTransactionManager transactionManager) {
+    this.arrivalRollupRepository = arrivalRollupRepository;
+    this.flightRepository = flightRepository;
+    this.popularityCounters = popularityCounters;
+    this.transaction = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Retrieves the cells of the rollup that the given flight counts towards.
+   *
+   * @param flightId The id of the flight.
+   * @return Return the cell of the flight, or an empty list if there is no such flight or its arrival airport has
+   *     no location.
+   */
+  public List<ArrivalCountRow> getCells(int flightId) {
+    return flightRepository.findArrivalCountRowsByFlightIds(List.of(flightId));
+  }
+
+  /**
+   * Retrieves the cells of the rollup that the flights departing from or arriving at the given airport count
+   * towards.
+   *
+   * @param airportId The id of the airport.
+   * @return Return the cells of the flights of the airport, which may be empty.
+   */
+  public List<ArrivalCountRow> getAirportCells(int airportId) {
+    return flightRepository.findArrivalCountRowsByAirportId(airportId);
+  }
+
+  /**
+   * Counts the arrivals of the given cells again after flights have been written.
+   *
+   * @param cells The cells to refresh; the number of arrivals of each is ignored.
+   */
+  public void refresh(Collection<ArrivalCountRow> cells) {
+    Set<ArrivalCountRow> distinct = new LinkedHashSet<>();
+    cells.forEach(cell -> distinct.add(new ArrivalCountRow(cell.originLocationId(), cell.destinationLocationId(), cell.day(), 0)));
+    if (distinct.isEmpty()) {
+      return;
+    }
+    writeLock.lock();
+    try {
+      List<ArrivalCountRow> refreshed = transaction.execute(status -> distinct.stream().map(this::refreshCell).toList());
+      AfterCommit.run(() -> refreshed.forEach(popularityCounters::set));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private ArrivalCountRow refreshCell(ArrivalCountRow cell) {
+    long arrivals = flightRepository.countArrivals(cell.originLocationId(), cell.destinationLocationId(),
+        cell.day().atStartOfDay(), cell.day().plusDays(1).atStartOfDay());
+    Optional<ArrivalRollup> existing = arrivalRollupRepository.findCell(cell.originLocationId(),
+        cell.destinationLocationId(), cell.day());
+    if (arrivals == 0) {
+      existing.ifPresent(arrivalRollupRepository::delete);
+    } else if (existing.isPresent()) {
+      existing.get().setArrivals(arrivals);
+      arrivalRollupRepository.save(existing.get());
+    } else {
+      arrivalRollupRepository.save(new ArrivalRollup(cell.originLocationId(), cell.destinationLocationId(), cell.day(), arrivals));
+    }
+    return new ArrivalCountRow(cell.originLocationId(), cell.destinationLocationId(), cell.day(), arrivals);
+  }
+
+  /**
+   * Builds the rollup from all flights in the database if it is empty, and loads the popularity counters from it.
+   * A rollup that is already there is kept up to date by the writes, so it is not built again.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    writeLock.lock();
+    try {
+      Integer cells = transaction.execute(status -> arrivalRollupRepository.findFirstByOrderByIdAsc().isPresent()
+          ? null : arrivalRollupRepository.insertFromFlights());
+      if (cells != null) {
+        logger.info("Arrival rollup built with {} cells.", cells);
+      }
+      popularityCounters.rebuild();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the locations with the most arrivals in the days around today from the rollup in the database.
+   * Used until the popularity counters have been loaded.
+   *
+   * @param fromLocationId The id of the location the flights depart from, or null for flights from anywhere.
+   * @param requireImage   Whether only locations with an image are returned.
+   * @param days           The number of days before and after today that arrivals are counted in.
+   * @param limit          The maximum number of locations to return.
+   * @return Return the locations with their number of arrivals, the most popular first.
+   */
+  public List<PopularDestination> getPopularDestinations(Integer fromLocationId, boolean requireImage, int days, int limit) {
+    Pageable pageable = Pageable.ofSize(limit);
+    LocalDate today = LocalDate.now();
+    LocalDate startDay = today.minusDays(days);
+    LocalDate endDay = today.plusDays(days);
+    if (requireImage) {
+      return arrivalRollupRepository.findPopularDestinationsWithImage(fromLocationId, startDay, endDay, pageable);
+    } else {
+      return arrivalRollupRepository.findPopularDestinationsWithoutImage(fromLocationId, startDay, endDay, pageable);
+    }
+  }
+}
@@ -1,16 +1,35 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.services;
 
 import jakarta.transaction.Transactional;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.ItinerarySearchResult;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.FlightRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ArrivalCountRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.ItineraryEngine;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchExecutor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TimetableRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Service class for managing flights.
@@ -24,16 +43,25 @@ public class FlightService {
 
   private final FlightRepository flightRepository;
   private final TripService tripService;
+  private final ExecutorService searchExecutor;
+  private final ArrivalRollupService arrivalRollupService;
+  private final ItineraryEngine itineraryEngine = new ItineraryEngine();
+  private static final Logger logger = LoggerFactory.getLogger(FlightService.class);
 
   /**
    * Constructs an instance of FlightService with necessary dependency.
    *
    * @param flightRepository The repository handling flight operations.
+   * @param searchExecutor       The executor that the return legs of round trip searches are searched on.
+   * @param arrivalRollupService The rollup of arrivals, refreshed when flights are written.
    */
   @Autowired
-  public FlightService(FlightRepository flightRepository, TripService tripService) {
+  public FlightService(FlightRepository flightRepository, TripService tripService, SearchExecutor searchExecutor,
+                       ArrivalRollupService arrivalRollupService) {
     this.flightRepository = flightRepository;
     this.tripService = tripService;
+    this.searchExecutor = searchExecutor.getExecutorService();
+    this.arrivalRollupService = arrivalRollupService;
   }
 
   /**
@@ -64,6 +92,22 @@ public class FlightService {
    */
   public void addFlight(Flight flight) {
     flightRepository.save(flight);
+    refreshTimetable(flight.getId());
+    arrivalRollupService.refresh(arrivalRollupService.getCells(flight.getId()));
+  }
+
+  /**
+   * Adds flights that were written to the database in bulk to the itinerary timetable and the rollup of arrivals.
+   *
+   * @param flightIds The ids of the written flights.
+   */
+  public void refreshAddedFlights(Collection<Integer> flightIds) {
+    if (flightIds.isEmpty()) {
+      return;
+    }
+    List<TimetableRow> rows = flightRepository.findTimetableRowsByFlightIds(flightIds);
+    AfterCommit.run(() -> rows.forEach(itineraryEngine::put));
+    arrivalRollupService.refresh(flightRepository.findArrivalCountRowsByFlightIds(flightIds));
   }
 
   public List<Flight> getFlightsByFromAirportAndDate(Airport fromAirport, Date date) {
@@ -77,11 +121,17 @@ public class FlightService {
   /**
    * Updates an existing flight in the database.
    * Assumes the flight already exists and updates it based on its ID.
+   * Trips that include the flight are re-indexed for search.
    *
    * @param flight The {@link Flight} to update; must not be null.
    */
   public void updateFlight(Flight flight) {
+    List<ArrivalCountRow> arrivals = new ArrayList<>(arrivalRollupService.getCells(flight.getId()));
     flightRepository.save(flight);
+    refreshTimetable(flight.getId());
+    tripService.refreshSearchIndexForFlight(flight.getId());
+    arrivals.addAll(arrivalRollupService.getCells(flight.getId()));
+    arrivalRollupService.refresh(arrivals);
   }
 
   /**
@@ -90,7 +140,10 @@ public class FlightService {
    * @param flight The {@link Flight} to delete; must not be null.
    */
   public void deleteFlight(Flight flight) {
+    List<ArrivalCountRow> arrivals = arrivalRollupService.getCells(flight.getId());
     flightRepository.delete(flight);
+    AfterCommit.run(() -> itineraryEngine.remove(flight.getId()));
+    arrivalRollupService.refresh(arrivals);
   }
 
   /**
@@ -99,8 +152,11 @@ public class FlightService {
    * @param id The unique identifier of the flight to delete.
    */
   public void deleteFlightById(int id) {
+    List<ArrivalCountRow> arrivals = arrivalRollupService.getCells(id);
     tripService.deleteFlightById(id);
     flightRepository.deleteById(id);
+    AfterCommit.run(() -> itineraryEngine.remove(id));
+    arrivalRollupService.refresh(arrivals);
   }
 
   /**
@@ -134,4 +190,89 @@ public class FlightService {
     deleteFlightById(flight.getId());
   }
 
+  /**
+   * Searches for one-way itineraries built from connecting flights.
+   *
+   * @param departureAirportIds The ids of the departure airports.
+   * @param arrivalAirportIds   The ids of the arrival airports.
+   * @param departureDateLower  The earliest departure date.
+   * @param departureDateUpper  The latest departure date.
+   * @param limits              The stop and connection time limits of the itineraries.
+   * @param pageable            The page to return.
+   * @param deadline            The deadline the search stops at.
+   * @return Return the requested page of itineraries, ordered by departure date, and whether it is partial.
+   */
+  public ItineraryEngine.Page<ItinerarySearchResult> getOneWayItineraries(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, ItineraryEngine.Limits limits, Pageable pageable, SearchDeadline deadline) {
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = itineraryEngine.findOneWay(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, limits, (int) pageable.getOffset(), pageable.getPageSize(), deadline);
+    Map<Integer, Flight> flights = loadFlights(page.items().stream().map(ItineraryEngine.Itinerary::flightIds).toList());
+    return new ItineraryEngine.Page<>(page.items().stream()
+        .filter(itinerary -> isLoaded(itinerary, flights))
+        .map(itinerary -> new ItinerarySearchResult(toFlights(itinerary, flights), List.of()))
+        .toList(), page.partial());
+  }
+
+  /**
+   * Searches for round trip itineraries built from connecting flights.
+   *
+   * @param departureAirportIds The ids of the departure airports.
+   * @param arrivalAirportIds   The ids of the arrival airports.
+   * @param departureDateLower  The earliest departure date.
+   * @param departureDateUpper  The latest departure date.
+   * @param returnDateLower     The earliest return date.
+   * @param returnDateUpper     The latest return date.
+   * @param limits              The stop and connection time limits of the itineraries.
+   * @param pageable            The page to return.
+   * @param deadline            The deadline the search stops at.
+   * @return Return the requested page of itineraries, ordered by departure date, and whether it is partial.
+   */
+  public ItineraryEngine.Page<ItinerarySearchResult> getRoundTripItineraries(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, LocalDateTime returnDateLower, LocalDateTime returnDateUpper, ItineraryEngine.Limits limits, Pageable pageable, SearchDeadline deadline) {
+    ItineraryEngine.Page<ItineraryEngine.RoundTrip> page = itineraryEngine.findRoundTrip(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, returnDateLower, returnDateUpper, limits, (int) pageable.getOffset(), pageable.getPageSize(), searchExecutor, deadline);
+    List<int[]> flightIds = new ArrayList<>();
+    page.items().forEach(roundTrip -> {
+      flightIds.add(roundTrip.outbound().flightIds());
+      flightIds.add(roundTrip.inbound().flightIds());
+    });
+    Map<Integer, Flight> flights = loadFlights(flightIds);
+    return new ItineraryEngine.Page<>(page.items().stream()
+        .filter(roundTrip -> isLoaded(roundTrip.outbound(), flights) && isLoaded(roundTrip.inbound(), flights))
+        .map(roundTrip -> new ItinerarySearchResult(toFlights(roundTrip.outbound(), flights), toFlights(roundTrip.inbound(), flights)))
+        .toList(), page.partial());
+  }
+
+  private Map<Integer, Flight> loadFlights(List<int[]> flightIds) {
+    Set<Integer> ids = new HashSet<>();
+    flightIds.forEach(array -> Arrays.stream(array).forEach(ids::add));
+    Map<Integer, Flight> flights = new HashMap<>();
+    flightRepository.findAllById(ids).forEach(flight -> flights.put(flight.getId(), flight));
+    return flights;
+  }
+
+  private boolean isLoaded(ItineraryEngine.Itinerary itinerary, Map<Integer, Flight> flights) {
+    return Arrays.stream(itinerary.flightIds()).allMatch(flights::containsKey);
+  }
+
+  private List<Flight> toFlights(ItineraryEngine.Itinerary itinerary, Map<Integer, Flight> flights) {
+    return Arrays.stream(itinerary.flightIds()).mapToObj(flights::get).toList();
+  }
+
+  /**
+   * Rebuilds the itinerary timetable from all flights in the database.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildTimetable() {
+    itineraryEngine.replaceAll(flightRepository.findTimetableRows());
+    logger.info("Itinerary timetable built with {} flights.", itineraryEngine.size());
+  }
+
+  private void refreshTimetable(int flightId) {
+    List<TimetableRow> rows = flightRepository.findTimetableRowsByFlightIds(List.of(flightId));
+    AfterCommit.run(() -> {
+      if (rows.isEmpty()) {
+        itineraryEngine.remove(flightId);
+      } else {
+        itineraryEngine.put(rows.get(0));
+      }
+    });
+  }
+
 }
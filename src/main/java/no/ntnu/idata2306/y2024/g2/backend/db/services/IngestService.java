@@ -0,0 +1,421 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import no.ntnu.idata2306.y2024.g2.backend.db.builders.TripBuilder;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.IngestReport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.FlightKeyRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestFormat;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestKind;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestReferences;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.ingest.IngestRowReader;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirlineRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirportRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ClassTypeRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ExtraFeatureRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.FlightRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.IngestRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ProviderRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Service class for ingesting flights, trips and prices in bulk from a streamed body.
+ * The rows of the body are read one at a time and collected into batches of {@code ingest.batch-size} rows. The
+ * references of the rows are resolved by their natural keys from maps loaded once for the ingest, and the flights
+ * trips refer to by one query for each batch. Each batch is written with JDBC batches in a transaction of its own,
+ * after which the timetable, rollup of arrivals and search index are refreshed for the rows of the batch, and the
+ * persistence context is cleared. A batch that fails to be written is written again one row at a time, so only the
+ * rows that fail are left out. A row that cannot be read, resolved or written is reported with its line and the
+ * reason, and does not stop the ingest.
+ *
+ * @author agent
+ * @version 18.10.2026
+ */
+@Service
+public class IngestService {
+
+  private static final Logger logger = LoggerFactory.getLogger(IngestService.class);
+
+  private final IngestRepository ingestRepository;
+  private final FlightRepository flightRepository;
+  private final TripRepository tripRepository;
+  private final AirportRepository airportRepository;
+  private final AirlineRepository airlineRepository;
+  private final ProviderRepository providerRepository;
+  private final ClassTypeRepository classTypeRepository;
+  private final ExtraFeatureRepository extraFeatureRepository;
+  private final FlightService flightService;
+  private final TripService tripService;
+  private final TransactionTemplate transaction;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final int maxErrors;
+
+  /**
+   * A row that has been read and resolved, waiting to be written.
+   *
+   * @param line   The number of the line the row starts on.
+   * @param entity What the row writes.
+   */
+  private record Pending<T>(long line, T entity) {
+  }
+
+  /**
+   * A new price of an existing trip.
+   */
+  private record TripPrice(int tripId, Price price) {
+  }
+
+  /**
+   * The natural key of a flight.
+   */
+  private record FlightKey(String name, LocalDateTime departureDate) {
+  }
+
+  /**
+   * Constructs an instance of IngestService with necessary dependency.
+   *
+   * @param ingestRepository       The repository the batches are written with.
+   * @param flightRepository       The repository the flights of trips are resolved from.
+   * @param tripRepository         The repository the trips of prices are resolved from.
+   * @param airportRepository      The repository the airports are loaded from.
+   * @param airlineRepository      The repository the airlines are loaded from.
+   * @param providerRepository     The repository the providers are loaded from.
+   * @param classTypeRepository    The repository the class types are loaded from.
+   * @param extraFeatureRepository The repository the extra features are loaded from.
+   * @param flightService          The service refreshing the timetable and rollup of arrivals for written flights.
+   * @param tripService            The service refreshing the search index for written trips and prices.
+   * @param transactionManager     The transaction manager the batches are written in.
+   * @param entityManager          The shared entity manager, cleared after each batch.
+   * @param objectMapper           The mapper that rows in JSON are read with.
+   * @param batchSize              The number of rows written in each batch.
+   * @param maxErrors              The number of row errors kept in the report of an ingest.
+   */
+  @Autowired
+  public IngestService(IngestRepository ingestRepository, FlightRepository flightRepository, TripRepository tripRepository,
+                       AirportRepository airportRepository, AirlineRepository airlineRepository,
+                       ProviderRepository providerRepository, ClassTypeRepository classTypeRepository,
+                       ExtraFeatureRepository extraFeatureRepository, FlightService flightService, TripService tripService,
+                       PlatformTransactionManager transactionManager, EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${ingest.batch-size:500}") int batchSize, @Value("${ingest.max-errors:1000}") int maxErrors) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (maxErrors < 0) {
+      throw new IllegalArgumentException("Max errors cannot be negative");
+    }
+    this.ingestRepository = ingestRepository;
+    this.flightRepository = flightRepository;
+    this.tripRepository = tripRepository;
+    this.airportRepository = airportRepository;
+    this.airlineRepository = airlineRepository;
+    this.providerRepository = providerRepository;
+    this.classTypeRepository = classTypeRepository;
+    this.extraFeatureRepository = extraFeatureRepository;
+    this.flightService = flightService;
+    this.tripService = tripService;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * Ingests the rows of a body.
+   *
+   * @param kind   The kind of the rows.
+   * @param format The format of the body.
+   * @param body   The body, read one row at a time.
+   * @return Return the report of how many rows were written, and why rows failed.
+   * @throws IOException              If the body cannot be read.
+   * @throws IllegalArgumentException If the header of the body names fields the rows cannot have.
+   */
+  public IngestReport ingest(IngestKind kind, IngestFormat format, Reader body) throws IOException, IllegalArgumentException {
+    IngestReferences references = new IngestReferences(airportRepository.findAll(), airlineRepository.findAll(),
+        providerRepository.findAll(), classTypeRepository.findAll(), extraFeatureRepository.findAll());
+    IngestReport report = new IngestReport(maxErrors);
+    try (IngestRowReader rows = IngestRowReader.open(format, body, objectMapper)) {
+      if (rows.getColumns() != null) {
+        checkFields(kind, rows.getColumns());
+      }
+      List<IngestRow> batch = new ArrayList<>(batchSize);
+      while (true) {
+        IngestRow row;
+        try {
+          row = rows.next();
+        } catch (IllegalArgumentException e) {
+          report.addRead();
+          report.addError(rows.getLine(), e.getMessage());
+          continue;
+        }
+        if (row == null) {
+          break;
+        }
+        report.addRead();
+        batch.add(row);
+        if (batch.size() == batchSize) {
+          writeBatch(kind, batch, references, report);
+          batch.clear();
+        }
+      }
+      if (!batch.isEmpty()) {
+        writeBatch(kind, batch, references, report);
+      }
+    }
+    logger.info("Ingested {}: {} rows read, {} written, {} failed.", kind, report.getRowsRead(), report.getRowsWritten(),
+        report.getRowsFailed());
+    return report;
+  }
+
+  private void writeBatch(IngestKind kind, List<IngestRow> rows, IngestReferences references, IngestReport report) {
+    switch (kind) {
+      case FLIGHTS -> writeFlights(rows, references, report);
+      case TRIPS -> writeTrips(rows, references, report);
+      case PRICES -> writePrices(rows, references, report);
+    }
+    // The entities loaded while refreshing are not used again, so the persistence context does not grow with the body.
+    entityManager.clear();
+  }
+
+  private void writeFlights(List<IngestRow> rows, IngestReferences references, IngestReport report) {
+    List<Pending<Flight>> flights = new ArrayList<>();
+    for (IngestRow row : rows) {
+      try {
+        checkFields(IngestKind.FLIGHTS, row.fields().keySet());
+        flights.add(new Pending<>(row.line(), new Flight(row.require("name"),
+            references.getAirport(row.require("departureAirport")), references.getAirport(row.require("arrivalAirport")),
+            references.getAirline(row.require("airline")),
+            parseDate(row.require("departureDate")), parseDate(row.require("arrivalDate")))));
+      } catch (IllegalArgumentException e) {
+        report.addError(row.line(), e.getMessage());
+      }
+    }
+    List<Flight> written = write(flights, ingestRepository::insertFlights, report);
+    flightService.refreshAddedFlights(written.stream().map(Flight::getId).toList());
+  }
+
+  private void writeTrips(List<IngestRow> rows, IngestReferences references, IngestReport report) {
+    Map<FlightKey, Integer> flightIds = resolveFlights(rows);
+    List<Pending<Trip>> trips = new ArrayList<>();
+    for (IngestRow row : rows) {
+      try {
+        checkFields(IngestKind.TRIPS, row.fields().keySet());
+        Set<Price> prices = new LinkedHashSet<>();
+        for (String price : row.getList("prices")) {
+          prices.add(parsePrice(price, references));
+        }
+        Set<ClassType> classTypes = new LinkedHashSet<>();
+        row.getList("classTypes").forEach(classType -> classTypes.add(references.getClassType(classType)));
+        Set<ExtraFeature> extraFeatures = new LinkedHashSet<>();
+        row.getList("extraFeatures").forEach(extraFeature -> extraFeatures.add(references.getExtraFeature(extraFeature)));
+        trips.add(new Pending<>(row.line(), new TripBuilder()
+            .setLeaveInitialFlight(getFlight(row.require("leaveInitialFlight"), flightIds))
+            .setLeaveArrivalFlight(getFlight(row.get("leaveArrivalFlight"), flightIds))
+            .setReturnInitialFlight(getFlight(row.get("returnInitialFlight"), flightIds))
+            .setReturnArrivalFlight(getFlight(row.get("returnArrivalFlight"), flightIds))
+            .setLeaveFlightIntervals(getFlights(row.getList("leaveFlightIntervals"), flightIds))
+            .setReturnFlightIntervals(getFlights(row.getList("returnFlightIntervals"), flightIds))
+            .setPrices(prices)
+            .setClassTypes(classTypes)
+            .setExtraFeatures(extraFeatures)
+            .build()));
+      } catch (IllegalArgumentException e) {
+        report.addError(row.line(), e.getMessage());
+      }
+    }
+    List<Trip> written = write(trips, ingestRepository::insertTrips, report);
+    tripService.refreshSearchIndex(written.stream().map(Trip::getId).toList());
+  }
+
+  private void writePrices(List<IngestRow> rows, IngestReferences references, IngestReport report) {
+    Set<Integer> tripIds = new HashSet<>();
+    for (IngestRow row : rows) {
+      try {
+        tripIds.add(Integer.parseInt(row.require("trip")));
+      } catch (IllegalArgumentException e) {
+        // Reported when the row is resolved.
+      }
+    }
+    Set<Integer> existingTripIds = tripIds.isEmpty() ? Set.of() : new HashSet<>(tripRepository.findExistingIds(tripIds));
+    List<Pending<TripPrice>> prices = new ArrayList<>();
+    for (IngestRow row : rows) {
+      try {
+        checkFields(IngestKind.PRICES, row.fields().keySet());
+        int tripId = parseInt("trip", row.require("trip"));
+        if (!existingTripIds.contains(tripId)) {
+          throw new IllegalArgumentException("Unknown trip: " + tripId);
+        }
+        prices.add(new Pending<>(row.line(), new TripPrice(tripId, new Price(references.getProvider(row.require("provider")),
+            parseInt("price", row.require("price")), row.require("currency")))));
+      } catch (IllegalArgumentException e) {
+        report.addError(row.line(), e.getMessage());
+      }
+    }
+    List<TripPrice> written = write(prices, batch -> ingestRepository.insertTripPrices(
+        batch.stream().map(TripPrice::tripId).toList(), batch.stream().map(TripPrice::price).toList()), report);
+    tripService.refreshSearchIndex(written.stream().map(TripPrice::tripId).distinct().toList());
+  }
+
+  /**
+   * Writes the entities in one transaction. If that fails, they are written again one at a time, and the
+   * entities that fail are reported.
+   *
+   * @return Return the entities that were written.
+   */
+  private <T> List<T> write(List<Pending<T>> pending, Consumer<List<T>> insert, IngestReport report) {
+    List<T> entities = pending.stream().map(Pending::entity).toList();
+    if (entities.isEmpty()) {
+      return entities;
+    }
+    try {
+      transaction.executeWithoutResult(status -> insert.accept(entities));
+      report.addWritten(entities.size());
+      return entities;
+    } catch (DataAccessException e) {
+      logger.warn("Writing a batch of {} rows failed, writing them one at a time: {}", entities.size(),
+          e.getMostSpecificCause().getMessage());
+    }
+    List<T> written = new ArrayList<>();
+    for (Pending<T> row : pending) {
+      try {
+        transaction.executeWithoutResult(status -> insert.accept(List.of(row.entity())));
+        written.add(row.entity());
+      } catch (DataAccessException e) {
+        report.addError(row.line(), "Could not be written: " + e.getMostSpecificCause().getMessage());
+      }
+    }
+    report.addWritten(written.size());
+    return written;
+  }
+
+  /**
+   * Looks up the ids of the flights the trips of a batch refer to, in one query. Keys that more than one flight
+   * has are mapped to null.
+   */
+  private Map<FlightKey, Integer> resolveFlights(List<IngestRow> rows) {
+    Set<String> names = new HashSet<>();
+    Set<LocalDateTime> departureDates = new HashSet<>();
+    for (IngestRow row : rows) {
+      List<String> references = new ArrayList<>(row.getList("leaveFlightIntervals"));
+      references.addAll(row.getList("returnFlightIntervals"));
+      for (String field : List.of("leaveInitialFlight", "leaveArrivalFlight", "returnInitialFlight", "returnArrivalFlight")) {
+        if (row.get(field) != null) {
+          references.add(row.get(field));
+        }
+      }
+      for (String reference : references) {
+        try {
+          FlightKey key = parseFlightKey(reference);
+          names.add(key.name());
+          departureDates.add(key.departureDate());
+        } catch (IllegalArgumentException e) {
+          // Reported when the row is resolved.
+        }
+      }
+    }
+    Map<FlightKey, Integer> flightIds = new HashMap<>();
+    if (!names.isEmpty()) {
+      for (FlightKeyRow flight : flightRepository.findFlightKeyRows(names, departureDates)) {
+        FlightKey key = new FlightKey(flight.name(), flight.departureDate());
+        flightIds.put(key, flightIds.containsKey(key) ? null : flight.flightId());
+      }
+    }
+    return flightIds;
+  }
+
+  private static Flight getFlight(String reference, Map<FlightKey, Integer> flightIds) {
+    if (reference == null) {
+      return null;
+    }
+    FlightKey key = parseFlightKey(reference);
+    Integer id = flightIds.get(key);
+    if (id == null) {
+      throw new IllegalArgumentException((flightIds.containsKey(key) ? "Ambiguous flight: " : "Unknown flight: ") + reference);
+    }
+    Flight flight = new Flight();
+    flight.setId(id);
+    return flight;
+  }
+
+  private static Set<Flight> getFlights(List<String> references, Map<FlightKey, Integer> flightIds) {
+    if (references.isEmpty()) {
+      return null;
+    }
+    Set<Flight> flights = new LinkedHashSet<>();
+    references.forEach(reference -> flights.add(getFlight(reference, flightIds)));
+    return flights;
+  }
+
+  private static FlightKey parseFlightKey(String reference) {
+    int separator = reference.lastIndexOf('@');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Flights must be written name@departureDate: " + reference);
+    }
+    return new FlightKey(reference.substring(0, separator).trim(), parseDate(reference.substring(separator + 1).trim()));
+  }
+
+  private static Price parsePrice(String text, IngestReferences references) {
+    int currencySeparator = text.lastIndexOf(':');
+    int priceSeparator = currencySeparator > 0 ? text.lastIndexOf(':', currencySeparator - 1) : -1;
+    if (priceSeparator <= 0) {
+      throw new IllegalArgumentException("Prices must be written provider:price:currency: " + text);
+    }
+    return new Price(references.getProvider(text.substring(0, priceSeparator)),
+        parseInt("price", text.substring(priceSeparator + 1, currencySeparator).trim()),
+        text.substring(currencySeparator + 1).trim());
+  }
+
+  private static LocalDateTime parseDate(String text) {
+    try {
+      return LocalDateTime.parse(text);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date: " + text);
+    }
+  }
+
+  private static int parseInt(String name, String text) {
+    try {
+      return Integer.parseInt(text);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + " must be a whole number: " + text);
+    }
+  }
+
+  private static void checkFields(IngestKind kind, Collection<String> fields) {
+    for (String field : fields) {
+      if (!kind.getFields().contains(field)) {
+        throw new IllegalArgumentException("Unknown field: " + field);
+      }
+    }
+  }
+}
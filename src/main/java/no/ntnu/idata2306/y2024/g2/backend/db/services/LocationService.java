@@ -3,14 +3,25 @@ package no.ntnu.idata2306.y2024.g2.backend.db.services;
 import no.ntnu.idata2306.y2024.g2.backend.db.dto.PopularDestination;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.LocationRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AirportResolver;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteIndex;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.AutocompleteRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.PopularityCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchResultCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class for handling operations related to {@link Location} entities.
@@ -22,18 +33,39 @@ import java.util.Optional;
 @Service
 public class LocationService {
 
+  private static final Logger logger = LoggerFactory.getLogger(LocationService.class);
+
   private final LocationRepository locationRepository;
   private final AirportService airportService;
+  private final SearchResultCache searchResultCache;
+  private final AirportResolver airportResolver;
+  private final AutocompleteIndex autocompleteIndex;
+  private final ArrivalRollupService arrivalRollupService;
+  private final PopularityCounters popularityCounters;
+  // The ids of the locations with an image, or null until they are loaded.
+  private volatile Set<Integer> locationIdsWithImage;
 
   /**
    * Constructs an instance of LocationService with necessary dependency.
    *
-   * @param locationRepository The repository handling location operations.
+   * @param locationRepository   The repository handling location operations.
+   * @param airportResolver      The resolver of search airports, invalidated when locations are written.
+   * @param autocompleteIndex    The autocomplete index, updated when locations are written.
+   * @param arrivalRollupService The rollup of arrivals that popular destinations are summed from until the
+   *                             popularity counters are loaded.
+   * @param popularityCounters   The in-memory counters of arrivals that popular destinations are ranked from.
    */
   @Autowired
-  public LocationService(LocationRepository locationRepository, AirportService airportService) {
+  public LocationService(LocationRepository locationRepository, AirportService airportService, SearchResultCache searchResultCache,
+                         AirportResolver airportResolver, AutocompleteIndex autocompleteIndex,
+                         ArrivalRollupService arrivalRollupService, PopularityCounters popularityCounters) {
     this.locationRepository = locationRepository;
     this.airportService = airportService;
+    this.searchResultCache = searchResultCache;
+    this.airportResolver = airportResolver;
+    this.autocompleteIndex = autocompleteIndex;
+    this.arrivalRollupService = arrivalRollupService;
+    this.popularityCounters = popularityCounters;
   }
 
   /**
@@ -57,6 +89,17 @@ public class LocationService {
     return locationRepository.findById(id);
   }
 
+  /**
+   * Retrieves the image of a location, which is not loaded with the location itself.
+   *
+   * @param id The ID of the location.
+   * @return Return an {@link Optional} containing the image, or an empty Optional if there is no such location or
+   *     it has no image.
+   */
+  public Optional<String> getLocationImage(int id) {
+    return locationRepository.findImageById(id);
+  }
+
   /**
    * Adds a new location to the database.
    *
@@ -64,6 +107,9 @@ public class LocationService {
    */
   public void addLocation(Location location) {
     locationRepository.save(location);
+    airportResolver.invalidate();
+    autocompleteIndex.putLocation(new AutocompleteRow(location.getId(), location.getName()));
+    putLocationImage(location);
   }
 
   /**
@@ -74,6 +120,10 @@ public class LocationService {
    */
   public void updateLocation(Location location) {
     locationRepository.save(location);
+    airportResolver.invalidate();
+    autocompleteIndex.putLocation(new AutocompleteRow(location.getId(), location.getName()));
+    searchResultCache.clear();
+    putLocationImage(location);
   }
 
 
@@ -84,6 +134,9 @@ public class LocationService {
    */
   public void deleteLocation(Location location) {
     locationRepository.delete(location);
+    airportResolver.invalidate();
+    autocompleteIndex.removeLocation(location.getId());
+    removeLocationImage(location.getId());
   }
 
   /**
@@ -94,17 +147,89 @@ public class LocationService {
   public void deleteLocationById(int id) {
     airportService.deleteLocationById(id);
     locationRepository.deleteById(id);
+    airportResolver.invalidate();
+    autocompleteIndex.removeLocation(id);
+    removeLocationImage(id);
+  }
+
+  /**
+   * Builds the autocomplete index from all locations and airports in the database.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildAutocompleteIndex() {
+    autocompleteIndex.rebuild(locationRepository::findAutocompleteRows, airportService::getAutocompleteRows);
+    logger.info("Autocomplete index built with {} locations and airports.", autocompleteIndex.size());
+  }
+
+  /**
+   * Loads the ids of the locations with an image, which popular destinations may be limited to.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadLocationIdsWithImage() {
+    Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    ids.addAll(locationRepository.findIdsWithImage());
+    locationIdsWithImage = ids;
+  }
+
+  private void putLocationImage(Location location) {
+    Set<Integer> ids = locationIdsWithImage;
+    if (ids != null && location.hasImage()) {
+      ids.add(location.getId());
+    } else if (ids != null) {
+      ids.remove(location.getId());
+    }
+  }
+
+  private void removeLocationImage(int id) {
+    Set<Integer> ids = locationIdsWithImage;
+    if (ids != null) {
+      ids.remove(id);
+    }
   }
 
-  public List<PopularDestination> getPopularDestinations(Location from, boolean requireImage, int limit) {
-    Pageable pageable = Pageable.ofSize(limit);
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime fromDate = now.minusDays(5);
-    LocalDateTime toDate = now.plusDays(5);
-    if (requireImage) {
-      return locationRepository.findPopularDestinationsWithImage(from, fromDate, toDate, pageable);
-    } else {
-      return locationRepository.findPopularDestinationsWithoutImage(from, fromDate, toDate, pageable);
+  /**
+   * Returns the number of days before and after today that popular destinations can be counted in.
+   *
+   * @return Return the largest window of popular destinations.
+   */
+  public int getMaxPopularDays() {
+    return popularityCounters.getMaxDays();
+  }
+
+  /**
+   * Retrieves the locations with the most arrivals in the days before and after today.
+   * They are ranked from the popularity counters in memory, or summed from the rollup of arrivals until the
+   * counters are loaded.
+   *
+   * @param from         The location the flights depart from, or null for flights from anywhere.
+   * @param requireImage Whether only locations with an image are returned.
+   * @param days         The number of days before and after today that arrivals are counted in.
+   * @param limit        The maximum number of locations to return.
+   * @return Return the locations with their number of arrivals, the most popular first.
+   * @throws IllegalArgumentException If the window is negative or larger than {@link #getMaxPopularDays()}, or the
+   *                                  limit is not positive.
+   */
+  public List<PopularDestination> getPopularDestinations(Location from, boolean requireImage, int days, int limit)
+      throws IllegalArgumentException {
+    if (days < 0 || days > popularityCounters.getMaxDays()) {
+      throw new IllegalArgumentException("d must be between 0 and " + popularityCounters.getMaxDays());
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("l must be positive");
+    }
+    Integer fromLocationId = from != null ? from.getId() : null;
+    Set<Integer> withImage = locationIdsWithImage;
+    if (!popularityCounters.isReady() || (requireImage && withImage == null)) {
+      return arrivalRollupService.getPopularDestinations(fromLocationId, requireImage, days, limit);
     }
+    List<PopularityCounters.Count> counts = popularityCounters.top(fromLocationId, days, limit,
+        requireImage ? withImage::contains : locationId -> true);
+    Map<Integer, Location> locations = new HashMap<>();
+    locationRepository.findAllWithImageByIdIn(counts.stream().map(PopularityCounters.Count::locationId).toList())
+        .forEach(location -> locations.put(location.getId(), location));
+    return counts.stream()
+        .filter(count -> locations.containsKey(count.locationId()))
+        .map(count -> new PopularDestination(locations.get(count.locationId()), count.arrivals()))
+        .toList();
   }
 }
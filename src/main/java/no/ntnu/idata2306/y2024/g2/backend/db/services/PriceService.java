@@ -21,15 +21,18 @@ import java.util.Optional;
 public class PriceService {
 
   private final PriceRepository priceRepository;
+  private final TripService tripService;
 
   /**
    * Constructs an instance of PriceService with necessary dependency.
    *
    * @param priceRepository The repository handling price operations.
+   * @param tripService     The service handling trips that use the prices.
    */
   @Autowired
-  public PriceService(PriceRepository priceRepository) {
+  public PriceService(PriceRepository priceRepository, TripService tripService) {
     this.priceRepository = priceRepository;
+    this.tripService = tripService;
   }
 
   /**
@@ -65,15 +68,18 @@ public class PriceService {
   /**
    * Updates an existing price in the database.
    * The operation assumes the price exists and will overwrite the existing price based on its ID.
+   * Trips that use the price are re-indexed for search.
    *
    * @param price The {@link Price} entity to update; must not be null.
    */
   public void updatePrice(Price price) {
     priceRepository.save(price);
+    tripService.refreshTripsForPrice(price.getId());
   }
 
   /**
    * Deletes a price from the database.
+   * A price that is still one of the prices of a trip cannot be deleted, so no trip needs to be re-indexed.
    *
    * @param price The {@link Price} entity to delete; must not be null.
    */
@@ -84,6 +90,7 @@ public class PriceService {
 
   /**
    * Deletes a price from the database by its ID.
+   * A price that is still one of the prices of a trip cannot be deleted, so no trip needs to be re-indexed.
    *
    * @param id The unique identifier of the price to delete.
    */
@@ -2,12 +2,17 @@ package no.ntnu.idata2306.y2024.g2.backend.db.services;
 
 import jakarta.transaction.Transactional;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Saved;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.SavedRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripFetchPlan;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,15 +27,18 @@ import java.util.Optional;
 public class SavedService {
 
   private final SavedRepository savedRepository;
+  private final TripRepository tripRepository;
 
   /**
    * Constructs an instance of SavedService with necessary dependency.
    *
    * @param savedRepository The repository handling saved operations.
+   * @param tripRepository  The repository the saved trips are loaded from.
    */
   @Autowired
-  public SavedService(SavedRepository savedRepository) {
+  public SavedService(SavedRepository savedRepository, TripRepository tripRepository) {
     this.savedRepository = savedRepository;
+    this.tripRepository = tripRepository;
   }
 
   /**
@@ -45,12 +53,25 @@ public class SavedService {
   }
 
   /**
-   * Retrieves all saved entities from the database.
+   * Retrieves all saved entities of the user with the given email from the database, with everything their
+   * trips hold. The trips are loaded by the full fetch plan before the saves, whose trips would otherwise be
+   * loaded one at a time with their flights as proxies, and the returned saves hold the loaded trips.
    *
    * @return Return a list of {@link Saved} instances, which may be empty if no entities are found.
    */
+  @Transactional
   public List<Saved> getAllSavesWithEmail(String email) {
-    return new ArrayList<>(savedRepository.findSavedsByUser_Email(email));
+    Map<Integer, Trip> tripsById = new HashMap<>();
+    tripRepository.findAllByIdWithPlan(savedRepository.findTripIdsByUserEmail(email), TripFetchPlan.FULL)
+        .forEach(trip -> tripsById.put(trip.getId(), trip));
+    List<Saved> saves = savedRepository.findSavedsByUser_Email(email);
+    List<Saved> result = new ArrayList<>();
+    for (Saved saved : saves) {
+      Saved withTrip = new Saved(saved.getUser(), tripsById.get(saved.getTrip().getId()), saved.getSavedDate());
+      withTrip.setId(saved.getId());
+      result.add(withTrip);
+    }
+    return result;
   }
 
   /**
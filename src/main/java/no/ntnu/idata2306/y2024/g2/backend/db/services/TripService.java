@@ -1,17 +1,64 @@
 package no.ntnu.idata2306.y2024.g2.backend.db.services;
 
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.CalendarFare;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.SearchFacets;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
 import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult;
 import jakarta.transaction.Transactional;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Flight;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Price;
 import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirlineRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.FlightRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.PriceRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripFetchPlan;
 import no.ntnu.idata2306.y2024.g2.backend.db.repository.TripRepository;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchCursor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchDeadline;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchExecutor;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchFilter;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQuery;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchQueryTimeout;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchResultCache;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.SearchSort;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIndexRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalAirlineRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripIntervalRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripLegRow;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripSearchIndex;
+import no.ntnu.idata2306.y2024.g2.backend.db.search.TripSearchRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 /**
  * Service layer for handling trip-related operations.
@@ -24,26 +71,57 @@ import java.util.Optional;
 public class TripService {
 
   private final TripRepository tripRepository;
+  private final PriceRepository priceRepository;
+  private final FlightRepository flightRepository;
+  private final AirlineRepository airlineRepository;
   private final SavedService savedService;
+  private final SearchResultCache searchResultCache;
+  private final ExecutorService searchExecutor;
+  private final int priceBucketWidth;
+  private final SearchQueryTimeout searchQueryTimeout;
+  private final TripSearchIndex searchIndex = new TripSearchIndex();
+  private volatile boolean searchIndexReady = false;
+  private static final Logger logger = LoggerFactory.getLogger(TripService.class);
+  // Pages are loaded in chunks so that a search reaching its deadline can still respond with the trips loaded so far.
+  private static final int HYDRATION_CHUNK_SIZE = 25;
 
   /**
    * Constructs an instance of TripService with necessary dependency.
    *
-   * @param tripRepository The repository handling trip operations.
+   * @param tripRepository     The repository handling trip operations.
+   * @param priceRepository    The repository handling price operations.
+   * @param flightRepository   The repository the flights of search results are read from.
+   * @param airlineRepository  The repository handling airline operations.
+   * @param savedService       The service handling saved trips.
+   * @param searchResultCache  The cache of search result pages.
+   * @param searchExecutor     The executor that the legs of round trip searches are looked up on.
+   * @param searchQueryTimeout Applies the deadlines of searches to their queries.
+   * @param priceBucketWidth   The width of the price ranges in the facets of a search.
    */
   @Autowired
-  public TripService(TripRepository tripRepository, SavedService savedService) {
+  public TripService(TripRepository tripRepository, PriceRepository priceRepository, FlightRepository flightRepository, AirlineRepository airlineRepository, SavedService savedService, SearchResultCache searchResultCache, SearchExecutor searchExecutor,
+                     SearchQueryTimeout searchQueryTimeout, @Value("${search.facets.price-bucket-width:1000}") int priceBucketWidth) {
+    if (priceBucketWidth <= 0) {
+      throw new IllegalArgumentException("Price bucket width must be positive");
+    }
     this.savedService = savedService;
     this.tripRepository = tripRepository;
+    this.priceRepository = priceRepository;
+    this.flightRepository = flightRepository;
+    this.airlineRepository = airlineRepository;
+    this.priceBucketWidth = priceBucketWidth;
+    this.searchQueryTimeout = searchQueryTimeout;
+    this.searchResultCache = searchResultCache;
+    this.searchExecutor = searchExecutor.getExecutorService();
   }
 
   /**
-   * Retrieves all trips from the database.
+   * Retrieves all trips from the database, with everything they hold.
    *
    * @return Return a list of {@link Trip} entities; this list may be empty if no trips are found.
    */
   public List<Trip> getAllTrips() {
-    return new ArrayList<>(tripRepository.findAll());
+    return new ArrayList<>(tripRepository.findAllWithPlan(TripFetchPlan.FULL));
   }
 
   /**
@@ -56,12 +134,517 @@ public class TripService {
     return tripRepository.findById(id);
   }
 
-  public List<TripSearchResult> getOneWayTripsByAirportIdsAndDepartureDate(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, Pageable pageable) {
-    return tripRepository.findOneWayTripsByAirportIdsAndDepartureDate(departureAirportIds, departureDateLower, departureDateUpper, arrivalAirportIds, pageable);
+  /**
+   * Retrieves a trip by its ID, with the parts of it that the given plan loads.
+   *
+   * @param id   The unique identifier of the trip to retrieve.
+   * @param plan The parts of the trip to load.
+   * @return Return an {@link Optional} containing the found trip, or an empty Optional if no trip is found.
+   */
+  public Optional<Trip> getTrip(int id, TripFetchPlan plan) {
+    return tripRepository.findAllByIdWithPlan(List.of(id), plan).stream().findFirst();
+  }
+
+  /**
+   * Searches for active one-way trips between the given airports.
+   * The search is answered by the in-memory {@link TripSearchIndex}; only the trips on the requested page are
+   * loaded from the database, and pages are cached until a trip on the same route and day is written.
+   * Until the index has been built the repository query is used instead.
+   * When a cursor is given the page starts right after it and the offset of the pageable is ignored.
+   * Queries time out at the deadline, and a search that reaches it responds with the trips loaded so far.
+   *
+   * @param departureAirportIds The ids of the departure airports.
+   * @param arrivalAirportIds   The ids of the arrival airports.
+   * @param departureDateLower  The earliest departure date.
+   * @param departureDateUpper  The latest departure date.
+   * @param after               The cursor to continue after, or null to use the offset of the pageable.
+   * @param pageable            The page to return.
+   * @param deadline            The deadline of the search.
+   * @return Return the requested page of trips, ordered by departure date and trip id; partial if the deadline
+   *         was reached.
+   */
+  @Transactional
+  public TripSearchPage getOneWayTripsByAirportIdsAndDepartureDate(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, SearchCursor after, Pageable pageable, SearchDeadline deadline) {
+    return searchQueryTimeout.within(deadline, () -> {
+      if (!searchIndexReady) {
+        List<TripSearchResult> trips;
+        try {
+          List<Integer> tripIds = after == null
+              ? tripRepository.findOneWayTripIdsByAirportIdsAndDepartureDate(departureAirportIds, departureDateLower, departureDateUpper, arrivalAirportIds, pageable)
+              : tripRepository.findOneWayTripIdsByAirportIdsAndDepartureDateAfter(departureAirportIds, departureDateLower, departureDateUpper, arrivalAirportIds, after.departureDate(), after.tripId(), PageRequest.of(0, pageable.getPageSize()));
+          trips = hydrateSearchResults(tripIds.stream().mapToInt(Integer::intValue).toArray());
+        } catch (QueryTimeoutException e) {
+          return new TripSearchPage(List.of(), after, null, true);
+        }
+        return toSearchPage(trips, pageable.getPageSize());
+      }
+      SearchResultCache.Key key = SearchResultCache.Key.of(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, null, null, SearchSort.DEPARTURE, SearchFilter.NONE, after, pageable.getOffset(), pageable.getPageSize(), false);
+      return searchResultCache.get(key, () -> {
+        if (after != null) {
+          TripSearchIndex.Slice slice = searchIndex.findOneWayAfter(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, after, pageable.getPageSize());
+          return toPage(slice.tripIds(), after, slice.next(), null, SearchSort.DEPARTURE, deadline);
+        }
+        TripSearchIndex.Page page = searchIndex.findOneWay(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, (int) pageable.getOffset(), pageable.getPageSize());
+        return toPage(page.tripIds(), null, page.next(), null, SearchSort.DEPARTURE, deadline);
+      }, page -> !page.isPartial());
+    });
+  }
+
+  /**
+   * Searches for active round trips between the given airports.
+   * The search is answered by the in-memory {@link TripSearchIndex}; only the trips on the requested page are
+   * loaded from the database, and pages are cached until a trip on the same route and day is written.
+   * Until the index has been built the leave and return legs are looked up in the database in parallel instead.
+   * When a cursor is given the page starts right after it and the offset of the pageable is ignored.
+   * Queries, including the parallel lookups, time out at the deadline, and a search that reaches it responds
+   * with the trips loaded so far.
+   *
+   * @param departureAirportIds The ids of the departure airports.
+   * @param arrivalAirportIds   The ids of the arrival airports.
+   * @param departureDateLower  The earliest departure date.
+   * @param departureDateUpper  The latest departure date.
+   * @param returnDateLower     The earliest return date.
+   * @param returnDateUpper     The latest return date.
+   * @param after               The cursor to continue after, or null to use the offset of the pageable.
+   * @param pageable            The page to return.
+   * @param deadline            The deadline of the search.
+   * @return Return the requested page of trips, ordered by departure date and trip id; partial if the deadline
+   *         was reached.
+   */
+  @Transactional
+  public TripSearchPage getRoundTripTripsByAirportIdsAndDateRange(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, LocalDateTime returnDateLower, LocalDateTime returnDateUpper, SearchCursor after, Pageable pageable, SearchDeadline deadline) {
+    return searchQueryTimeout.within(deadline, () -> {
+      if (!searchIndexReady) {
+        SearchQuery query = new SearchQuery(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, returnDateLower, returnDateUpper);
+        return findRoundTripsByLegs(query, after, (int) pageable.getOffset(), pageable.getPageSize(), deadline);
+      }
+      SearchResultCache.Key key = SearchResultCache.Key.of(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, returnDateLower, returnDateUpper, SearchSort.DEPARTURE, SearchFilter.NONE, after, pageable.getOffset(), pageable.getPageSize(), false);
+      return searchResultCache.get(key, () -> {
+        if (after != null) {
+          TripSearchIndex.Slice slice = searchIndex.findRoundTripAfter(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, returnDateLower, returnDateUpper, after, pageable.getPageSize());
+          return toPage(slice.tripIds(), after, slice.next(), null, SearchSort.DEPARTURE, deadline);
+        }
+        TripSearchIndex.Page page = searchIndex.findRoundTrip(departureAirportIds, arrivalAirportIds, departureDateLower, departureDateUpper, returnDateLower, returnDateUpper, (int) pageable.getOffset(), pageable.getPageSize());
+        return toPage(page.tripIds(), null, page.next(), null, SearchSort.DEPARTURE, deadline);
+      }, page -> !page.isPartial());
+    });
+  }
+
+  /**
+   * Searches for active trips that meet a filter, in the given order.
+   * Sorting and filtering are done by the in-memory {@link TripSearchIndex}, which only keeps the best trips up
+   * to the end of the requested page, so only the trips on the page are loaded from the database. Pages are
+   * cached like unsorted pages.
+   * When a cursor is given the page starts right after it and the offset of the pageable is ignored.
+   * The facets of the search can be counted in the same pass over the index; they cover every trip of the
+   * search, not just the page.
+   * Queries time out at the deadline, and a search that reaches it responds with the trips loaded so far.
+   *
+   * @param query    The search.
+   * @param sort     The order of the results.
+   * @param filter   The criteria the trips have to meet.
+   * @param after    The cursor to continue after, or null to use the offset of the pageable.
+   * @param pageable The page to return.
+   * @param facets   Whether to count the facets of the search.
+   * @param deadline The deadline of the search.
+   * @return Return the requested page of trips, with the facets of the search if they were asked for; partial if
+   *         the deadline was reached.
+   * @throws IllegalStateException    If the search index has not been built yet.
+   * @throws IllegalArgumentException If the cursor belongs to a search with another sort.
+   */
+  @Transactional
+  public TripSearchPage searchTrips(SearchQuery query, SearchSort sort, SearchFilter filter, SearchCursor after, Pageable pageable, boolean facets, SearchDeadline deadline)
+      throws IllegalStateException, IllegalArgumentException {
+    if (!searchIndexReady) {
+      throw new IllegalStateException("The search index has not been built yet");
+    }
+    return searchQueryTimeout.within(deadline, () -> {
+      SearchResultCache.Key key = SearchResultCache.Key.of(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), sort, filter, after, pageable.getOffset(), pageable.getPageSize(), facets);
+      return searchResultCache.get(key, () -> {
+        if (facets) {
+          TripSearchIndex.FacetedSlice result = searchIndex.searchWithFacets(query, sort, filter, after, (int) pageable.getOffset(), pageable.getPageSize(), priceBucketWidth);
+          return toPage(result.slice().tripIds(), after, result.slice().next(), hydrateFacets(result.facets()), sort, deadline);
+        }
+        TripSearchIndex.Slice slice = searchIndex.search(query, sort, filter, after, (int) pageable.getOffset(), pageable.getPageSize());
+        return toPage(slice.tripIds(), after, slice.next(), null, sort, deadline);
+      }, page -> !page.isPartial());
+    });
+  }
+
+  /**
+   * Returns the trips of a search that follow a cursor, bypassing the search result cache.
+   * Used to walk through all results of a search one chunk at a time, for example when streaming them, so that
+   * only one chunk of trips is loaded at once and the cache is not flooded with chunks nobody asks for again.
+   *
+   * @param query    The search.
+   * @param after    The cursor to continue after, or null to start at the first result.
+   * @param limit    The maximum number of trips to return.
+   * @param deadline The deadline of the whole walk.
+   * @return Return the trips following the cursor, ordered by departure date and trip id; partial if the deadline
+   *         was reached.
+   */
+  @Transactional
+  public TripSearchPage getTripsAfter(SearchQuery query, SearchCursor after, int limit, SearchDeadline deadline) {
+    return searchQueryTimeout.within(deadline, () -> {
+      if (!searchIndexReady && query.isRoundTrip()) {
+        return findRoundTripsByLegs(query, after, 0, limit, deadline);
+      }
+      if (!searchIndexReady) {
+        SearchCursor start = after != null ? after : new SearchCursor(query.departureDateLower(), 0);
+        List<TripSearchResult> trips;
+        try {
+          trips = hydrateSearchResults(tripRepository.findOneWayTripIdsByAirportIdsAndDepartureDateAfter(query.departureAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.arrivalAirportIds(), start.departureDate(), start.tripId(), PageRequest.of(0, limit))
+              .stream().mapToInt(Integer::intValue).toArray());
+        } catch (QueryTimeoutException e) {
+          return new TripSearchPage(List.of(), after, null, true);
+        }
+        return toSearchPage(trips, limit);
+      }
+      TripSearchIndex.Slice slice = query.isRoundTrip()
+          ? searchIndex.findRoundTripAfter(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper(), after, limit)
+          : searchIndex.findOneWayAfter(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), after, limit);
+      return toPage(slice.tripIds(), after, slice.next(), null, SearchSort.DEPARTURE, deadline);
+    });
+  }
+
+  /**
+   * Checks if the search index has been built. Searches are answered by slower repository queries until it is,
+   * and the price calendar is not available at all.
+   *
+   * @return Return true if the search index has been built.
+   */
+  public boolean isSearchIndexReady() {
+    return searchIndexReady;
+  }
+
+  /**
+   * Returns the lowest price per departure day of a search, and per return day for round trips.
+   * The lowest prices are kept up to date in the {@link TripSearchIndex}, so only the prices shown are loaded.
+   *
+   * @param query The search; its date windows are the days of the calendar.
+   * @return Return the lowest price of each day, or pair of days, that has priced trips, ordered by day.
+   */
+  @Transactional
+  public List<CalendarFare> getPriceCalendar(SearchQuery query) {
+    List<TripSearchIndex.Fare> fares = query.isRoundTrip()
+        ? searchIndex.findRoundTripFares(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper(), query.returnDateLower(), query.returnDateUpper())
+        : searchIndex.findOneWayFares(query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper());
+    Map<Integer, Price> pricesById = new HashMap<>();
+    priceRepository.findAllById(fares.stream().map(TripSearchIndex.Fare::priceId).distinct().toList())
+        .forEach(price -> pricesById.put(price.getId(), price));
+    List<CalendarFare> calendar = new ArrayList<>(fares.size());
+    for (TripSearchIndex.Fare fare : fares) {
+      Price price = pricesById.get(fare.priceId());
+      if (price != null) {
+        calendar.add(new CalendarFare(fare.departureDate(), fare.returnDate(), price));
+      }
+    }
+    return calendar;
+  }
+
+  /**
+   * Answers a round trip search with two simple lookups instead of one query joining all flights of both legs.
+   * The trips whose leave leg matches and the trips whose return leg matches are looked up in parallel, and
+   * the round trips are the trips found by both. Both lookups time out at the deadline, and are not waited for
+   * past it.
+   */
+  private TripSearchPage findRoundTripsByLegs(SearchQuery query, SearchCursor after, int offset, int limit, SearchDeadline deadline) {
+    CompletableFuture<List<TripLegRow>> outbound = CompletableFuture.supplyAsync(() -> searchQueryTimeout.call(deadline, () -> tripRepository.findRoundTripOutboundLegs(
+        query.departureAirportIds(), query.arrivalAirportIds(), query.departureDateLower(), query.departureDateUpper())), searchExecutor);
+    CompletableFuture<List<Integer>> inbound = CompletableFuture.supplyAsync(() -> searchQueryTimeout.call(deadline, () -> tripRepository.findRoundTripReturnLegTripIds(
+        query.departureAirportIds(), query.returnDateLower(), query.returnDateUpper())), searchExecutor);
+    Set<Integer> returning;
+    List<TripLegRow> outboundLegs;
+    try {
+      returning = new HashSet<>(inbound.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS));
+      outboundLegs = outbound.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      return new TripSearchPage(List.of(), after, null, true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new TripSearchPage(List.of(), after, null, true);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof QueryTimeoutException) {
+        return new TripSearchPage(List.of(), after, null, true);
+      }
+      throw new CompletionException(e.getCause());
+    }
+    List<TripLegRow> matches = outboundLegs.stream()
+        .filter(row -> returning.contains(row.tripId()))
+        .filter(row -> after == null || row.departureDate().isAfter(after.departureDate())
+            || (row.departureDate().isEqual(after.departureDate()) && row.tripId() > after.tripId()))
+        .sorted(Comparator.comparing(TripLegRow::departureDate).thenComparingInt(TripLegRow::tripId))
+        .toList();
+
+    int from = after == null ? Math.min(Math.max(offset, 0), matches.size()) : 0;
+    int to = (int) Math.min((long) from + limit, matches.size());
+    List<TripLegRow> page = matches.subList(from, to);
+    SearchCursor next = null;
+    if (to < matches.size() && !page.isEmpty()) {
+      TripLegRow last = page.get(page.size() - 1);
+      next = new SearchCursor(last.departureDate(), last.tripId());
+    }
+    return toPage(page.stream().mapToInt(TripLegRow::tripId).toArray(), after, next, null, SearchSort.DEPARTURE, deadline);
+  }
+
+  /**
+   * Wraps the results of a repository search in a page. The repository does not tell whether there are more
+   * results, so a full page always gets a cursor.
+   */
+  private TripSearchPage toSearchPage(List<TripSearchResult> trips, int pageSize) {
+    SearchCursor next = null;
+    if (!trips.isEmpty() && trips.size() == pageSize) {
+      TripSearchResult last = trips.get(trips.size() - 1);
+      next = new SearchCursor(last.getLeaveInitialFlight().getDepartureDate(), last.getId());
+    }
+    return new TripSearchPage(trips, next);
+  }
+
+  /**
+   * Loads the trips of a page in chunks, until the deadline of the search. If the deadline is reached first, the
+   * page is cut short after the last loaded trip and its cursor continues right after that trip.
+   *
+   * @param tripIds The ids of the trips on the page, in order.
+   * @param after   The cursor the page starts after, or null for offset pages.
+   * @param next    The cursor of the complete page.
+   * @param facets  The facets of the search, or null.
+   * @param sort    The order of the search.
+   * @return Return the page, partial if the deadline was reached.
+   */
+  private TripSearchPage toPage(int[] tripIds, SearchCursor after, SearchCursor next, SearchFacets facets, SearchSort sort, SearchDeadline deadline) {
+    List<TripSearchResult> trips = new ArrayList<>(tripIds.length);
+    for (int from = 0; from < tripIds.length; from += HYDRATION_CHUNK_SIZE) {
+      List<TripSearchResult> chunk = null;
+      if (!deadline.isExpired()) {
+        try {
+          chunk = hydrateSearchResults(Arrays.copyOfRange(tripIds, from, Math.min(from + HYDRATION_CHUNK_SIZE, tripIds.length)));
+        } catch (QueryTimeoutException e) {
+          logger.debug("Search reached its deadline after loading {} of {} trips", trips.size(), tripIds.length);
+        }
+      }
+      if (chunk == null) {
+        SearchCursor resume = after;
+        if (!trips.isEmpty()) {
+          TripSearchResult last = trips.get(trips.size() - 1);
+          resume = searchIndexReady ? searchIndex.cursorOf(last.getId(), sort) : null;
+          if (resume == null) {
+            resume = new SearchCursor(last.getLeaveInitialFlight().getDepartureDate(), last.getId());
+          }
+        }
+        return new TripSearchPage(trips, resume, facets, true);
+      }
+      trips.addAll(chunk);
+    }
+    return new TripSearchPage(trips, next, facets, false);
+  }
+
+  /**
+   * Loads the airlines and lowest prices shown in the facets of a search.
+   */
+  private SearchFacets hydrateFacets(TripSearchIndex.Facets facets) {
+    Map<Integer, Airline> airlinesById = new HashMap<>();
+    airlineRepository.findAllById(facets.airlines().stream().map(TripSearchIndex.AirlineFacet::airlineId).toList())
+        .forEach(airline -> airlinesById.put(airline.getId(), airline));
+    Map<Integer, Price> pricesById = new HashMap<>();
+    priceRepository.findAllById(facets.airlines().stream().map(TripSearchIndex.AirlineFacet::minPriceId).filter(Objects::nonNull).distinct().toList())
+        .forEach(price -> pricesById.put(price.getId(), price));
+    List<SearchFacets.AirlineCount> airlines = new ArrayList<>(facets.airlines().size());
+    for (TripSearchIndex.AirlineFacet facet : facets.airlines()) {
+      Airline airline = airlinesById.get(facet.airlineId());
+      if (airline != null) {
+        airlines.add(new SearchFacets.AirlineCount(airline, facet.count(), facet.minPriceId() != null ? pricesById.get(facet.minPriceId()) : null));
+      }
+    }
+    List<SearchFacets.StopsCount> stops = facets.stops().stream()
+        .map(facet -> new SearchFacets.StopsCount(facet.stops(), facet.count())).toList();
+    List<SearchFacets.PriceRange> prices = facets.prices().stream()
+        .map(facet -> new SearchFacets.PriceRange(facet.from(), facet.to(), facet.count())).toList();
+    return new SearchFacets(facets.total(), airlines, stops, prices);
+  }
+
+  /**
+   * Loads the search results of the given trips, in the given order. The trips are read as plain columns and
+   * assembled into results that no persistence context manages, so reading them costs no entity loading or dirty
+   * checking. Trips that no longer exist are left out.
+   */
+  private List<TripSearchResult> hydrateSearchResults(int[] tripIds) {
+    if (tripIds.length == 0) {
+      return List.of();
+    }
+    List<Integer> ids = Arrays.stream(tripIds).boxed().toList();
+    Map<Integer, TripSearchRow> rowsById = new HashMap<>();
+    tripRepository.findSearchRowsByTripIds(ids).forEach(row -> rowsById.put(row.tripId(), row));
+    if (rowsById.isEmpty()) {
+      return List.of();
+    }
+    Map<Integer, List<Integer>> leaveIntervals = groupByTrip(tripRepository.findLeaveIntervalRowsByTripIds(ids));
+    Map<Integer, List<Integer>> returnIntervals = groupByTrip(tripRepository.findReturnIntervalRowsByTripIds(ids));
+    Set<Integer> flightIds = new HashSet<>();
+    for (TripSearchRow row : rowsById.values()) {
+      flightIds.add(row.leaveInitialFlightId());
+      Stream.of(row.leaveArrivalFlightId(), row.returnInitialFlightId(), row.returnArrivalFlightId())
+          .filter(Objects::nonNull).forEach(flightIds::add);
+    }
+    leaveIntervals.values().forEach(flightIds::addAll);
+    returnIntervals.values().forEach(flightIds::addAll);
+    Map<Integer, Flight> flightsById = new HashMap<>();
+    flightRepository.findSearchFlightRowsByFlightIds(flightIds).forEach(row -> flightsById.put(row.flightId(), row.toFlight()));
+
+    List<TripSearchResult> results = new ArrayList<>(tripIds.length);
+    for (int tripId : tripIds) {
+      TripSearchRow row = rowsById.get(tripId);
+      if (row != null) {
+        Price minPrice = null;
+        if (row.minPriceId() != null) {
+          minPrice = new Price();
+          minPrice.setId(row.minPriceId());
+          minPrice.setPrice(row.minPrice());
+          minPrice.setCurrency(row.minPriceCurrency());
+        }
+        results.add(new TripSearchResult(tripId, flightsById.get(row.leaveInitialFlightId()),
+            row.leaveArrivalFlightId() != null ? flightsById.get(row.leaveArrivalFlightId()) : null,
+            row.returnInitialFlightId() != null ? flightsById.get(row.returnInitialFlightId()) : null,
+            row.returnArrivalFlightId() != null ? flightsById.get(row.returnArrivalFlightId()) : null,
+            toIntervals(leaveIntervals.get(tripId), flightsById), toIntervals(returnIntervals.get(tripId), flightsById), minPrice));
+      }
+    }
+    return results;
+  }
+
+  private static Map<Integer, List<Integer>> groupByTrip(List<TripIntervalRow> rows) {
+    Map<Integer, List<Integer>> flightIdsByTrip = new HashMap<>();
+    rows.forEach(row -> flightIdsByTrip.computeIfAbsent(row.tripId(), tripId -> new ArrayList<>()).add(row.flightId()));
+    return flightIdsByTrip;
+  }
+
+  /**
+   * Returns the flights between the initial and arrival flights of a leg, in the order they depart.
+   */
+  private static Set<Flight> toIntervals(List<Integer> flightIds, Map<Integer, Flight> flightsById) {
+    Set<Flight> intervals = new LinkedHashSet<>();
+    if (flightIds != null) {
+      flightIds.stream().map(flightsById::get).filter(Objects::nonNull)
+          .sorted(Comparator.comparing(Flight::getDepartureDate).thenComparingInt(Flight::getId))
+          .forEach(intervals::add);
+    }
+    return intervals;
+  }
+
+  /**
+   * Rebuilds the search index from all active trips in the database.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildSearchIndex() {
+    List<TripIntervalAirlineRow> intervalAirlines = new ArrayList<>(tripRepository.findLeaveIntervalAirlineRows());
+    intervalAirlines.addAll(tripRepository.findReturnIntervalAirlineRows());
+    searchIndex.replaceAll(withIntervalAirlines(tripRepository.findSearchIndexRows(), intervalAirlines));
+    searchResultCache.clear();
+    searchIndexReady = true;
+    logger.info("Search index built with {} trips.", searchIndex.size());
+  }
+
+  /**
+   * Refreshes the search index entries of all trips that include the given flight.
+   * Used when a flight's airports or dates change.
+   *
+   * @param flightId The id of the changed flight.
+   */
+  public void refreshSearchIndexForFlight(int flightId) {
+    tripRepository.findTripsIncludingFlight(flightId).forEach(trip -> refreshSearchIndex(trip.getId()));
+  }
+
+  /**
+   * Updates the lowest price and the search index entries of all trips that include the given price.
+   * Used when a price is changed.
+   *
+   * @param priceId The id of the changed price.
+   */
+  public void refreshTripsForPrice(int priceId) {
+    for (int tripId : tripRepository.findTripIdsByPriceId(priceId)) {
+      updateMinPrice(tripId);
+      refreshSearchIndex(tripId);
+    }
+  }
+
+  /**
+   * Stores the lowest of the prices of a trip on the trip, so searches can show and compare it without
+   * loading all of its prices. Prices with the same amount are told apart by the lowest id.
+   *
+   * @return Return the lowest price of the trip, or null if it has none.
+   */
+  private Price updateMinPrice(int tripId) {
+    List<Price> lowest = priceRepository.findPricesOfTripByPrice(tripId, PageRequest.of(0, 1));
+    Price minPrice = lowest.isEmpty() ? null : lowest.get(0);
+    tripRepository.findById(tripId).ifPresent(trip -> {
+      boolean unchanged = minPrice == null
+          ? trip.getMinPrice() == null
+          : trip.getMinPrice() != null && trip.getMinPrice().getId() == minPrice.getId()
+              && Integer.valueOf(minPrice.getPrice()).equals(trip.getMinPriceAmount());
+      if (!unchanged) {
+        trip.setMinPrice(minPrice);
+        tripRepository.save(trip);
+      }
+    });
+    return minPrice;
+  }
+
+  private void refreshSearchIndex(int tripId) {
+    refreshSearchIndex(List.of(tripId));
+  }
+
+  /**
+   * Refreshes the search index entries of the given trips from the database, in one query for all of them.
+   * Used when trips, or prices of trips, have been written to the database in bulk.
+   * The rows are read right away, but the index only changes once the current transaction, if any, commits.
+   *
+   * @param tripIds The ids of the trips.
+   */
+  public void refreshSearchIndex(Collection<Integer> tripIds) {
+    if (tripIds.isEmpty()) {
+      return;
+    }
+    List<TripIndexRow> rows = tripRepository.findSearchIndexRowsByTripIds(tripIds);
+    if (!rows.isEmpty()) {
+      List<TripIntervalAirlineRow> intervalAirlines = new ArrayList<>(tripRepository.findLeaveIntervalAirlineRowsByTripIds(tripIds));
+      intervalAirlines.addAll(tripRepository.findReturnIntervalAirlineRowsByTripIds(tripIds));
+      rows = withIntervalAirlines(rows, intervalAirlines);
+    }
+    Map<Integer, TripIndexRow> rowsByTripId = new HashMap<>();
+    rows.forEach(row -> rowsByTripId.put(row.tripId(), row));
+    AfterCommit.run(() -> {
+      for (int tripId : tripIds) {
+        searchResultCache.evict(searchIndex.routeOf(tripId));
+        TripIndexRow row = rowsByTripId.get(tripId);
+        if (row == null) {
+          searchIndex.remove(tripId);
+        } else {
+          searchIndex.put(row);
+          searchResultCache.evict(row);
+        }
+      }
+    });
+  }
+
+  /**
+   * Adds the airlines of the flights between the initial and arrival flights of each leg to the index rows,
+   * which only hold the airlines of the initial and arrival flights.
+   */
+  private List<TripIndexRow> withIntervalAirlines(List<TripIndexRow> rows, List<TripIntervalAirlineRow> intervalAirlines) {
+    if (intervalAirlines.isEmpty()) {
+      return rows;
+    }
+    Map<Integer, List<Integer>> airlinesByTripId = new HashMap<>();
+    intervalAirlines.forEach(airline -> airlinesByTripId.computeIfAbsent(airline.tripId(), tripId -> new ArrayList<>()).add(airline.airlineId()));
+    return rows.stream()
+        .map(row -> airlinesByTripId.containsKey(row.tripId()) ? row.withAirlineIds(airlinesByTripId.get(row.tripId())) : row)
+        .toList();
   }
 
-  public List<TripSearchResult> getRoundTripTripsByAirportIdsAndDateRange(List<Integer> departureAirportIds, List<Integer> arrivalAirportIds, LocalDateTime departureDateLower, LocalDateTime departureDateUpper, LocalDateTime returnDateLower, LocalDateTime returnDateUpper, Pageable pageable) {
-    return tripRepository.findRoundTripTripsByAirportIdsAndDateRange(departureAirportIds, departureDateLower, departureDateUpper, arrivalAirportIds, returnDateLower, returnDateUpper, pageable);
+  private void removeFromSearchIndex(int tripId) {
+    AfterCommit.run(() -> {
+      searchResultCache.evict(searchIndex.routeOf(tripId));
+      searchIndex.remove(tripId);
+    });
   }
 
   /**
@@ -71,6 +654,8 @@ public class TripService {
    */
   public void addTrip(Trip trip) {
     tripRepository.save(trip);
+    trip.setMinPrice(updateMinPrice(trip.getId()));
+    refreshSearchIndex(trip.getId());
   }
 
   /**
@@ -81,6 +666,8 @@ public class TripService {
    */
   public void updateTrip(Trip trip) {
     tripRepository.save(trip);
+    trip.setMinPrice(updateMinPrice(trip.getId()));
+    refreshSearchIndex(trip.getId());
   }
 
   /**
@@ -90,6 +677,7 @@ public class TripService {
    */
   public void deleteTrip(Trip trip) {
     tripRepository.delete(trip);
+    removeFromSearchIndex(trip.getId());
   }
 
   /**
@@ -100,6 +688,7 @@ public class TripService {
   public void deleteTripById(int id) {
     savedService.deleteTripById(id);
     tripRepository.deleteById(id);
+    removeFromSearchIndex(id);
   }
 
   /**
@@ -1,6 +1,8 @@
 package no.ntnu.idata2306.y2024.g2.backend.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -68,6 +70,9 @@ public class SecurityConfigurer {
         .cors(AbstractHttpConfigurer::disable)
         .authorizeHttpRequests((auth) -> auth.requestMatchers("/authenticate").permitAll())
         .authorizeHttpRequests((authorize) -> authorize.requestMatchers("/").permitAll())
+        // The health status is left open for load balancers, but the metrics include the Hibernate statistics.
+        .authorizeHttpRequests((authorize) -> authorize.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll())
+        .authorizeHttpRequests((authorize) -> authorize.requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority("ROLE_ADMIN"))
         .authorizeHttpRequests((authorize) -> authorize.anyRequest().permitAll())
         .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,53 @@
+--liquibase formatted sql
+
+-- The schema as Hibernate created it before the schema was managed by migrations. Databases that already have
+-- these tables, created by Hibernate, mark this changeset as run without changing them. Tables and columns added
+-- since then are added by the changesets after it, each of which checks whether its change is there already.
+
+--changeset agent:001-initial-schema
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'trip'
+create table airline (id integer not null auto_increment, name varchar(255) not null, logo TEXT, primary key (id)) engine=InnoDB;
+create table location (id integer not null auto_increment, country varchar(255) not null, name varchar(255) not null, image TEXT, primary key (id)) engine=InnoDB;
+create table airport (id integer not null auto_increment, location_id integer, code varchar(255) not null, name varchar(255) not null, primary key (id)) engine=InnoDB;
+create table flight (id integer not null auto_increment, name varchar(255) not null, departure_airport_id integer, arrival_airport_id integer, airline_id integer, departure_date datetime(6) not null, arrival_date datetime(6) not null, primary key (id)) engine=InnoDB;
+create table provider (id integer not null auto_increment, name varchar(255) not null, primary key (id)) engine=InnoDB;
+create table price (id integer not null auto_increment, provider_id integer, price integer not null, currency varchar(255) not null, primary key (id)) engine=InnoDB;
+create table class_type (id integer not null auto_increment, description varchar(255) not null, primary key (id)) engine=InnoDB;
+create table extra_feature (id integer not null auto_increment, description varchar(255) not null, primary key (id)) engine=InnoDB;
+create table trip (id integer not null auto_increment, leave_initial_flight_id integer, leave_arrival_flight_id integer, return_initial_flight_id integer, return_arrival_flight_id integer, active bit not null, primary key (id)) engine=InnoDB;
+create table trip_leave_flight_intervals (trip_id integer not null, leave_flight_intervals_id integer not null, primary key (leave_flight_intervals_id, trip_id)) engine=InnoDB;
+create table trip_return_flight_intervals (trip_id integer not null, return_flight_intervals_id integer not null, primary key (return_flight_intervals_id, trip_id)) engine=InnoDB;
+create table trip_prices (trip_id integer not null, prices_id integer not null, primary key (prices_id, trip_id)) engine=InnoDB;
+create table trip_class_types (trip_id integer not null, class_types_id integer not null, primary key (class_types_id, trip_id)) engine=InnoDB;
+create table trip_extra_features (trip_id integer not null, extra_features_id integer not null, primary key (extra_features_id, trip_id)) engine=InnoDB;
+create table users (id integer not null auto_increment, first_name varchar(255) not null, last_name varchar(255) not null, email varchar(255) not null, password varchar(255) not null, active bit not null, primary key (id)) engine=InnoDB;
+create table role (id integer not null, name varchar(255), primary key (id)) engine=InnoDB;
+create table role_seq (next_val bigint) engine=InnoDB;
+insert into role_seq values (1);
+create table user_role (user_id integer not null, role_id integer not null, primary key (role_id, user_id)) engine=InnoDB;
+create table saved (id integer not null auto_increment, user_id integer not null, trip_id integer, saved_date datetime(6) not null, primary key (id)) engine=InnoDB;
+
+alter table airport add constraint fk_airport_location foreign key (location_id) references location (id);
+alter table flight add constraint fk_flight_departure_airport foreign key (departure_airport_id) references airport (id);
+alter table flight add constraint fk_flight_arrival_airport foreign key (arrival_airport_id) references airport (id);
+alter table flight add constraint fk_flight_airline foreign key (airline_id) references airline (id);
+alter table price add constraint fk_price_provider foreign key (provider_id) references provider (id);
+alter table trip add constraint fk_trip_leave_initial_flight foreign key (leave_initial_flight_id) references flight (id);
+alter table trip add constraint fk_trip_leave_arrival_flight foreign key (leave_arrival_flight_id) references flight (id);
+alter table trip add constraint fk_trip_return_initial_flight foreign key (return_initial_flight_id) references flight (id);
+alter table trip add constraint fk_trip_return_arrival_flight foreign key (return_arrival_flight_id) references flight (id);
+alter table trip_leave_flight_intervals add constraint fk_trip_leave_flight_intervals_trip foreign key (trip_id) references trip (id);
+alter table trip_leave_flight_intervals add constraint fk_trip_leave_flight_intervals_flight foreign key (leave_flight_intervals_id) references flight (id);
+alter table trip_return_flight_intervals add constraint fk_trip_return_flight_intervals_trip foreign key (trip_id) references trip (id);
+alter table trip_return_flight_intervals add constraint fk_trip_return_flight_intervals_flight foreign key (return_flight_intervals_id) references flight (id);
+alter table trip_prices add constraint fk_trip_prices_trip foreign key (trip_id) references trip (id);
+alter table trip_prices add constraint fk_trip_prices_price foreign key (prices_id) references price (id);
+alter table trip_class_types add constraint fk_trip_class_types_trip foreign key (trip_id) references trip (id);
+alter table trip_class_types add constraint fk_trip_class_types_class_type foreign key (class_types_id) references class_type (id);
+alter table trip_extra_features add constraint fk_trip_extra_features_trip foreign key (trip_id) references trip (id);
+alter table trip_extra_features add constraint fk_trip_extra_features_extra_feature foreign key (extra_features_id) references extra_feature (id);
+alter table user_role add constraint fk_user_role_user foreign key (user_id) references users (id);
+alter table user_role add constraint fk_user_role_role foreign key (role_id) references role (id);
+alter table saved add constraint fk_saved_user foreign key (user_id) references users (id);
+alter table saved add constraint fk_saved_trip foreign key (trip_id) references trip (id);
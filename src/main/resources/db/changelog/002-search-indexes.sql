@@ -0,0 +1,77 @@
+--liquibase formatted sql
+
+-- Composite indexes for the query shapes of the repositories. Each index leads with the column a query filters or
+-- joins on and continues with the columns it then filters on or reads, so the rows are found without reading the
+-- table. MySQL drops the single column index it created for a foreign key once an index here can serve it.
+
+-- Searches start from the flights leaving the departure airports in the departure window.
+--changeset agent:002-search-indexes-flight-departure-airport-date
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'flight' AND index_name = 'idx_flight_departure_airport_date'
+create index idx_flight_departure_airport_date on flight (departure_airport_id, departure_date);
+
+-- The rollup of arrivals counts the flights arriving at the airports of a location on a day.
+--changeset agent:002-search-indexes-flight-arrival-airport-date
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'flight' AND index_name = 'idx_flight_arrival_airport_date'
+create index idx_flight_arrival_airport_date on flight (arrival_airport_id, arrival_date);
+
+-- From the first flight of a leg to its trips: one-way trips have no return flight, round trips must be active.
+--changeset agent:002-search-indexes-trip-leave-initial-flight
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip' AND index_name = 'idx_trip_leave_initial_flight'
+create index idx_trip_leave_initial_flight on trip (leave_initial_flight_id, return_initial_flight_id, active);
+
+--changeset agent:002-search-indexes-trip-return-initial-flight
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip' AND index_name = 'idx_trip_return_initial_flight'
+create index idx_trip_return_initial_flight on trip (return_initial_flight_id, active);
+
+-- The collections of trips are loaded by trip id, while the primary keys of the join tables lead with the element.
+--changeset agent:002-search-indexes-trip-leave-flight-intervals-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip_leave_flight_intervals' AND index_name = 'idx_trip_leave_flight_intervals_trip'
+create index idx_trip_leave_flight_intervals_trip on trip_leave_flight_intervals (trip_id, leave_flight_intervals_id);
+
+--changeset agent:002-search-indexes-trip-return-flight-intervals-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip_return_flight_intervals' AND index_name = 'idx_trip_return_flight_intervals_trip'
+create index idx_trip_return_flight_intervals_trip on trip_return_flight_intervals (trip_id, return_flight_intervals_id);
+
+--changeset agent:002-search-indexes-trip-prices-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip_prices' AND index_name = 'idx_trip_prices_trip'
+create index idx_trip_prices_trip on trip_prices (trip_id, prices_id);
+
+--changeset agent:002-search-indexes-trip-class-types-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip_class_types' AND index_name = 'idx_trip_class_types_trip'
+create index idx_trip_class_types_trip on trip_class_types (trip_id, class_types_id);
+
+--changeset agent:002-search-indexes-trip-extra-features-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'trip_extra_features' AND index_name = 'idx_trip_extra_features_trip'
+create index idx_trip_extra_features_trip on trip_extra_features (trip_id, extra_features_id);
+
+-- Every authenticated request looks its user and roles up by email.
+--changeset agent:002-search-indexes-users-email
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_email'
+create index idx_users_email on users (email);
+
+--changeset agent:002-search-indexes-user-role-user
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'user_role' AND index_name = 'idx_user_role_user'
+create index idx_user_role_user on user_role (user_id, role_id);
+
+-- The saved trips of a user.
+--changeset agent:002-search-indexes-saved-user-trip
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'saved' AND index_name = 'idx_saved_user_trip'
+create index idx_saved_user_trip on saved (user_id, trip_id);
+
+-- Autocompletion reads the id and name of every location.
+--changeset agent:002-search-indexes-location-name
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'location' AND index_name = 'idx_location_name'
+create index idx_location_name on location (name);
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+-- Searches and the timetable read flights by their departure date.
+
+--changeset agent:003-flight-departure-date-index
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'flight' AND index_name = 'idx_flight_departure_date'
+create index idx_flight_departure_date on flight (departure_date);
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+-- The lowest price of a trip is kept on the trip, so searches can sort and filter by price without reading the
+-- prices. The trips stored before then get it filled in once, from the lowest of their prices, with prices of the
+-- same amount told apart by the lowest id.
+
+--changeset agent:004-trip-min-price
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'trip' AND column_name = 'min_price_id'
+alter table trip add column min_price_id integer, add column min_price_amount integer;
+alter table trip add constraint fk_trip_min_price foreign key (min_price_id) references price (id);
+
+--changeset agent:004-trip-min-price-backfill
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'trip' AND column_name = 'min_price_id'
+update trip t join (select tp.trip_id, min(p.price) as amount from trip_prices tp join price p on p.id = tp.prices_id group by tp.trip_id) m on m.trip_id = t.id join (select tp.trip_id, p.price, min(p.id) as price_id from trip_prices tp join price p on p.id = tp.prices_id group by tp.trip_id, p.price) l on l.trip_id = t.id and l.price = m.amount set t.min_price_id = l.price_id, t.min_price_amount = m.amount where t.min_price_id is null;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+-- The number of flights arriving at each location each day, from each location, for popular destinations.
+
+--changeset agent:005-arrival-rollup
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'arrival_rollup'
+create table arrival_rollup (id integer not null auto_increment, origin_location_id integer, destination_location_id integer not null, arrival_day date not null, arrivals bigint not null, primary key (id)) engine=InnoDB;
+create index idx_arrival_rollup_day_origin on arrival_rollup (arrival_day, origin_location_id);
+alter table arrival_rollup add constraint uk_arrival_rollup_cell unique (arrival_day, destination_location_id, origin_location_id);
@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+-- Location images are kept in a table of their own, so loading a location does not read its image.
+
+--changeset agent:006-location-image-table
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'location_image'
+create table location_image (id integer not null auto_increment, image TEXT not null, primary key (id)) engine=InnoDB;
+
+--changeset agent:006-location-image-id
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'location' AND column_name = 'image_id'
+alter table location add column image_id integer;
+alter table location add constraint uk_location_image unique (image_id);
+alter table location add constraint fk_location_image foreign key (image_id) references location_image (id);
+
+-- The images still in the old column are moved to the new table. The id of the location is kept on each new row
+-- until the location has been linked to it.
+--changeset agent:006-location-image-data
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'location' AND column_name = 'image'
+alter table location_image add column location_id integer;
+insert into location_image (image, location_id) select image, id from location where image is not null and image_id is null;
+update location l join location_image i on i.location_id = l.id set l.image_id = i.id;
+alter table location_image drop column location_id;
+alter table location drop column image;
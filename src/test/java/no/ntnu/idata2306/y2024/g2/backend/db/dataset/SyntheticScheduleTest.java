@@ -0,0 +1,129 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SyntheticScheduleTest {
+
+  private static final LocalDate START = LocalDate.of(2026, 11, 1);
+
+  private SyntheticSchedule schedule(long seed) {
+    return new SyntheticSchedule(seed, 10, 4, 5, 3, 2, START);
+  }
+
+  /**
+   * Testing that the same seed gives the same schedule, and another seed another one
+   */
+  @Test
+  void testSeeded() {
+    SyntheticSchedule first = schedule(7);
+    SyntheticSchedule second = schedule(7);
+    SyntheticSchedule other = schedule(8);
+    boolean differs = false;
+    for (int route = 0; route < 40; route++) {
+      assertEquals(first.getDestination(route), second.getDestination(route));
+      assertEquals(first.getAirline(route), second.getAirline(route));
+      assertEquals(first.getDeparture(route, 2, 1), second.getDeparture(route, 2, 1));
+      differs |= !first.getDeparture(route, 2, 1).equals(other.getDeparture(route, 2, 1));
+    }
+    assertTrue(differs);
+  }
+
+  /**
+   * Testing that every airport has distinct routes to other airports, and that flight indexes cover the schedule
+   */
+  @Test
+  void testRoutesAndFlights() {
+    SyntheticSchedule schedule = schedule(1);
+    assertEquals(10 * 4 * 5 * 3, schedule.getFlightCount());
+    Set<Integer> flights = new HashSet<>();
+    for (int airport = 0; airport < 10; airport++) {
+      Set<Integer> destinations = new HashSet<>();
+      for (int i = 0; i < 4; i++) {
+        int route = schedule.getRoute(airport, i);
+        assertEquals(airport, schedule.getOrigin(route));
+        assertNotEquals(airport, schedule.getDestination(route));
+        assertTrue(destinations.add(schedule.getDestination(route)));
+        for (int day = 0; day < 5; day++) {
+          for (int slot = 0; slot < 3; slot++) {
+            flights.add(schedule.getFlight(route, day, slot));
+          }
+        }
+      }
+    }
+    assertEquals(schedule.getFlightCount(), flights.size());
+    assertFalse(flights.contains(-1));
+  }
+
+  /**
+   * Testing that routes back go from the destination to the origin, and that an even number of routes between an
+   * odd number of airports all have one
+   */
+  @Test
+  void testReverseRoute() {
+    SyntheticSchedule schedule = new SyntheticSchedule(3, 11, 4, 5, 3, 2, START);
+    int reversed = 0;
+    for (int route = 0; route < 44; route++) {
+      int back = schedule.getReverseRoute(route);
+      if (back >= 0) {
+        reversed++;
+        assertEquals(schedule.getDestination(route), schedule.getOrigin(back));
+        assertEquals(schedule.getOrigin(route), schedule.getDestination(back));
+      }
+    }
+    assertEquals(44, reversed);
+  }
+
+  /**
+   * Testing that flights depart in their part of their day and arrive after the duration of their route
+   */
+  @Test
+  void testTimes() {
+    SyntheticSchedule schedule = schedule(5);
+    for (int slot = 0; slot < 3; slot++) {
+      LocalDateTime departure = schedule.getDeparture(6, 2, slot);
+      assertEquals(START.plusDays(2), departure.toLocalDate());
+      assertEquals(slot, departure.getHour() / 8);
+      assertEquals(departure.plusMinutes(schedule.getDurationMinutes(6)), schedule.getArrival(6, 2, slot));
+    }
+    int duration = schedule.getDurationMinutes(6);
+    assertTrue(duration >= 45 && duration <= 12 * 60);
+  }
+
+  /**
+   * Testing that the first departure after a time is found on the same day or the day after
+   */
+  @Test
+  void testFindDepartureAfter() {
+    SyntheticSchedule schedule = schedule(9);
+    assertArrayEquals(new int[]{1, 0}, schedule.findDepartureAfter(2, 1, START.plusDays(1).atStartOfDay()));
+    assertArrayEquals(new int[]{2, 0}, schedule.findDepartureAfter(2, 1, START.plusDays(2).atStartOfDay()));
+    assertNull(schedule.findDepartureAfter(2, 4, START.plusDays(5).atStartOfDay()));
+  }
+
+  /**
+   * Testing that invalid settings are not allowed
+   */
+  @Test
+  void testInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 1, 1, 1, 1, 1, START));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 5, 5, 1, 1, 1, START));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 5, 2, 0, 1, 1, START));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 5, 2, 1, 0, 1, START));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 5, 2, 1, 1, 0, START));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 5, 2, 1, 1, 1, null));
+    assertThrows(IllegalArgumentException.class, () -> new SyntheticSchedule(1, 50000, 1000, 100, 100, 1, START));
+  }
+}
@@ -0,0 +1,65 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArrivalRollupTest {
+
+  /**
+   * Testing all valid parameters
+   */
+  @Test
+  void testArrivalRollupValidConstructor(){
+    LocalDate day = LocalDate.of(2026, 10, 18);
+    ArrivalRollup rollup = new ArrivalRollup(1, 2, day, 3);
+    assertEquals(1, rollup.getOriginLocationId());
+    assertEquals(2, rollup.getDestinationLocationId());
+    assertEquals(day, rollup.getDay());
+    assertEquals(3, rollup.getArrivals());
+  }
+
+  @Test
+  void testArrivalRollupValidNoOrigin(){
+    ArrivalRollup rollup = new ArrivalRollup(null, 2, LocalDate.of(2026, 10, 18), 1);
+    assertNull(rollup.getOriginLocationId());
+  }
+
+  @Test
+  void testArrivalRollupValidArrivals(){
+    ArrivalRollup rollup = new ArrivalRollup();
+    rollup.setArrivals(0);
+    assertEquals(0, rollup.getArrivals());
+  }
+
+  /**
+   * Testing invalid parameters
+   */
+  @Test
+  void testArrivalRollupInvalidId(){
+    ArrivalRollup rollup = new ArrivalRollup();
+    assertThrows(IllegalArgumentException.class, () -> rollup.setId(-2));
+  }
+
+  @Test
+  void testArrivalRollupInvalidDestination(){
+    ArrivalRollup rollup = new ArrivalRollup();
+    assertThrows(IllegalArgumentException.class, () -> rollup.setDestinationLocationId(-1));
+  }
+
+  @Test
+  void testArrivalRollupInvalidDay(){
+    ArrivalRollup rollup = new ArrivalRollup();
+    assertThrows(IllegalArgumentException.class, () -> rollup.setDay(null));
+  }
+
+  @Test
+  void testArrivalRollupInvalidArrivals(){
+    ArrivalRollup rollup = new ArrivalRollup();
+    assertThrows(IllegalArgumentException.class, () -> rollup.setArrivals(-1));
+  }
+}
@@ -0,0 +1,42 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.entities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LocationImageTest {
+
+  /**
+   * Testing all valid parameters
+   */
+  @Test
+  void testLocationImageValidId(){
+    LocationImage image = new LocationImage();
+    image.setId(5);
+    assertEquals(5, image.getId());
+  }
+
+  @Test
+  void testLocationImageValidImage(){
+    LocationImage image = new LocationImage("https://example.com/oslo.jpg");
+    assertEquals("https://example.com/oslo.jpg", image.getImage());
+  }
+
+  /**
+   * Testing invalid parameters
+   */
+  @Test
+  void testLocationImageInvalidId(){
+    LocationImage image = new LocationImage();
+    assertThrows(IllegalArgumentException.class, () -> image.setId(-2));
+  }
+
+  @Test
+  void testLocationImageInvalidImage(){
+    LocationImage image = new LocationImage();
+    assertThrows(IllegalArgumentException.class, () -> image.setImage(null));
+    assertThrows(IllegalArgumentException.class, () -> image.setImage(""));
+    assertThrows(IllegalArgumentException.class, () -> image.setImage("    "));
+  }
+}
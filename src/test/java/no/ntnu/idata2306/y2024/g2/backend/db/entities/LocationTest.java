@@ -42,6 +42,17 @@ public class LocationTest {
     assertEquals(location.getImage(), testString);
   }
 
+  @Test
+  void testLocationValidRemoveImage(){
+    Location location = new Location("country", "name", "img");
+    assertEquals(true, location.hasImage());
+    location.setImage("other");
+    assertEquals("other", location.getImage());
+    location.setImage(null);
+    assertEquals(false, location.hasImage());
+    assertEquals(null, location.getImage());
+  }
+
   /**
    * Test for all invalid parameters
    */
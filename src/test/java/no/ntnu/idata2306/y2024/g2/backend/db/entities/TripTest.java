@@ -105,6 +105,21 @@ public class TripTest {
     trip.setActive(false);
     assertFalse(trip.isActive());
   }
+  @Test
+  void testTripValidMinPrice(){
+    Trip trip = new Trip();
+    trip.setMinPrice(price);
+    assertEquals(trip.getMinPrice(), price);
+    assertEquals(trip.getMinPriceAmount(), price.getPrice());
+  }
+  @Test
+  void testTripNullMinPrice(){
+    Trip trip = new Trip();
+    trip.setMinPrice(price);
+    trip.setMinPrice(null);
+    assertNull(trip.getMinPrice());
+    assertNull(trip.getMinPriceAmount());
+  }
 
   /**
    * Testing invalid parameters
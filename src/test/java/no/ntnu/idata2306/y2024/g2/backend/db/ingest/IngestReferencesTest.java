@@ -0,0 +1,50 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airline;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Airport;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ClassType;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.ExtraFeature;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Location;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Provider;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IngestReferencesTest {
+
+  private final Location location = new Location("Norway", "Oslo", "oslo.png");
+  private final Airport oslo = new Airport("OSL", "Oslo Airport", location);
+  private final Airline sas = new Airline("SAS");
+  private final Provider google = new Provider("Google");
+  private final ClassType economy = new ClassType("Economy");
+  private final ExtraFeature wifi = new ExtraFeature("Wifi");
+
+  /**
+   * Testing that references are resolved by their keys, without case
+   */
+  @Test
+  void testResolve() {
+    IngestReferences references = new IngestReferences(List.of(oslo), List.of(sas), List.of(google),
+        List.of(economy), List.of(wifi));
+    assertSame(oslo, references.getAirport("osl"));
+    assertSame(sas, references.getAirline(" SAS "));
+    assertSame(google, references.getProvider("GOOGLE"));
+    assertSame(economy, references.getClassType("Economy"));
+    assertSame(wifi, references.getExtraFeature("wifi"));
+  }
+
+  /**
+   * Testing that unknown and ambiguous references are not resolved
+   */
+  @Test
+  void testUnknownAndAmbiguous() {
+    IngestReferences references = new IngestReferences(List.of(oslo), List.of(sas, new Airline("sas")), List.of(),
+        List.of(), List.of());
+    assertThrows(IllegalArgumentException.class, () -> references.getAirport("LAX"));
+    assertThrows(IllegalArgumentException.class, () -> references.getAirline("SAS"));
+    assertThrows(IllegalArgumentException.class, () -> references.getProvider("Google"));
+  }
+}
@@ -0,0 +1,134 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IngestRowReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private IngestRowReader open(IngestFormat format, String body) throws IOException {
+    return IngestRowReader.open(format, new StringReader(body), objectMapper);
+  }
+
+  /**
+   * Testing that CSV rows are read by the names in the header, with quoted values
+   */
+  @Test
+  void testCsv() throws IOException {
+    IngestRowReader rows = open(IngestFormat.CSV, "name,airline\r\nSK1,SAS\r\n\"SK2, late\",\"Say \"\"hi\"\"\"\r\n");
+    assertEquals(List.of("name", "airline"), rows.getColumns());
+
+    IngestRow row = rows.next();
+    assertEquals(Map.of("name", "SK1", "airline", "SAS"), row.fields());
+    assertEquals(2, row.line());
+    row = rows.next();
+    assertEquals(Map.of("name", "SK2, late", "airline", "Say \"hi\""), row.fields());
+    assertEquals(3, row.line());
+    assertNull(rows.next());
+  }
+
+  /**
+   * Testing that quoted CSV values may hold line breaks, and that the lines of later rows are still counted
+   */
+  @Test
+  void testCsvMultilineValue() throws IOException {
+    IngestRowReader rows = open(IngestFormat.CSV, "name,airline\n\"SK\n1\",SAS\nSK2,\n");
+    assertEquals(Map.of("name", "SK\n1", "airline", "SAS"), rows.next().fields());
+    IngestRow row = rows.next();
+    assertEquals(Map.of("name", "SK2"), row.fields());
+    assertEquals(4, row.line());
+    assertNull(rows.next());
+  }
+
+  /**
+   * Testing that a CSV row with the wrong number of values is reported, and reading continues after it
+   */
+  @Test
+  void testCsvBadRowContinues() throws IOException {
+    IngestRowReader rows = open(IngestFormat.CSV, "name,airline\nSK1\n\nSK2,SAS\n");
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertEquals(2, rows.getLine());
+    IngestRow row = rows.next();
+    assertEquals(Map.of("name", "SK2", "airline", "SAS"), row.fields());
+    assertEquals(4, row.line());
+  }
+
+  /**
+   * Testing that a CSV body needs a header of distinct names
+   */
+  @Test
+  void testCsvHeader() {
+    assertThrows(IllegalArgumentException.class, () -> open(IngestFormat.CSV, ""));
+    assertThrows(IllegalArgumentException.class, () -> open(IngestFormat.CSV, "name,name\n"));
+    assertThrows(IllegalArgumentException.class, () -> open(IngestFormat.CSV, "name,,airline\n"));
+  }
+
+  /**
+   * Testing that NDJSON rows are read with arrays as lists, and that blank lines and null values are skipped
+   */
+  @Test
+  void testNdjson() throws IOException {
+    IngestRowReader rows = open(IngestFormat.NDJSON,
+        "{\"trip\": 1, \"classTypes\": [\"Economy\", \"Business\"], \"extraFeatures\": null}\n\n{\"trip\": 2}");
+    assertNull(rows.getColumns());
+
+    IngestRow row = rows.next();
+    assertEquals(Map.of("trip", "1", "classTypes", "Economy|Business"), row.fields());
+    assertEquals(List.of("Economy", "Business"), row.getList("classTypes"));
+    assertEquals(List.of(), row.getList("extraFeatures"));
+    row = rows.next();
+    assertEquals("2", row.require("trip"));
+    assertEquals(3, row.line());
+    assertNull(rows.next());
+  }
+
+  /**
+   * Testing that invalid NDJSON rows are reported, and reading continues after them
+   */
+  @Test
+  void testNdjsonBadRowsContinue() throws IOException {
+    IngestRowReader rows = open(IngestFormat.NDJSON, "{\"trip\": \n[1]\n{\"trip\": {\"id\": 1}}\n{\"trip\": 3}\n");
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertEquals("3", rows.next().require("trip"));
+    assertNull(rows.next());
+  }
+
+  /**
+   * Testing that rows longer than the limit are skipped without being held in memory
+   */
+  @Test
+  void testLongRow() throws IOException {
+    String longValue = "x".repeat(IngestRowReader.MAX_ROW_LENGTH + 1);
+    IngestRowReader rows = open(IngestFormat.NDJSON, "{\"trip\": \"" + longValue + "\"}\n{\"trip\": 2}\n");
+    assertThrows(IllegalArgumentException.class, rows::next);
+    assertEquals("2", rows.next().require("trip"));
+
+    rows = open(IngestFormat.CSV, "trip\n\"" + longValue + "\n" + longValue + "\"\n2\n");
+    assertThrows(IllegalArgumentException.class, rows::next);
+    IngestRow row = rows.next();
+    assertEquals("2", row.require("trip"));
+    assertEquals(4, row.line());
+  }
+
+  /**
+   * Testing that a missing required field is reported
+   */
+  @Test
+  void testRequire() {
+    IngestRow row = new IngestRow(1, Map.of("trip", "1"));
+    assertEquals("1", row.require("trip"));
+    assertThrows(IllegalArgumentException.class, () -> row.require("price"));
+  }
+}
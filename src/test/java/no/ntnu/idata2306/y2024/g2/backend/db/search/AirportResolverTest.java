@@ -0,0 +1,74 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.AirportRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AirportResolverTest {
+
+  private final List<AirportLocationRow> rows = new ArrayList<>();
+  private final AirportRepository repository = repository();
+
+  /**
+   * Returns a repository that answers the query of the resolver from the rows of the test.
+   */
+  private AirportRepository repository() {
+    AirportRepository repository = mock(AirportRepository.class);
+    when(repository.findAirportLocationRows()).thenAnswer(invocation -> List.copyOf(rows));
+    return repository;
+  }
+
+  /**
+   * Testing that airports and locations are resolved from one load
+   */
+  @Test
+  void testResolve() {
+    rows.add(new AirportLocationRow(3, 1));
+    rows.add(new AirportLocationRow(1, 1));
+    rows.add(new AirportLocationRow(2, 2));
+    rows.add(new AirportLocationRow(4, null));
+    AirportResolver resolver = new AirportResolver(repository);
+
+    assertEquals(List.of(1, 3), resolver.resolve(null, 1));
+    assertEquals(List.of(2), resolver.resolve(null, 2));
+    assertEquals(List.of(4), resolver.resolve(4, null));
+    assertEquals(List.of(4), resolver.resolve(4, 1));
+    assertEquals(List.of(), resolver.resolve(5, null));
+    assertEquals(List.of(), resolver.resolve(null, 3));
+    verify(repository, times(1)).findAirportLocationRows();
+  }
+
+  /**
+   * Testing that neither an airport nor a location is not allowed
+   */
+  @Test
+  void testResolveNothing() {
+    AirportResolver resolver = new AirportResolver(repository);
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(null, null));
+  }
+
+  /**
+   * Testing that written airports are seen after invalidation
+   */
+  @Test
+  void testInvalidate() {
+    rows.add(new AirportLocationRow(1, 1));
+    AirportResolver resolver = new AirportResolver(repository);
+    assertEquals(List.of(1), resolver.resolve(null, 1));
+
+    rows.add(new AirportLocationRow(2, 1));
+    assertEquals(List.of(1), resolver.resolve(null, 1));
+    resolver.invalidate();
+    assertEquals(List.of(1, 2), resolver.resolve(null, 1));
+    verify(repository, times(2)).findAirportLocationRows();
+  }
+}
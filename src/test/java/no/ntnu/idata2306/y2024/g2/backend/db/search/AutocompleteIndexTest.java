@@ -0,0 +1,146 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.AutocompleteLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AutocompleteIndexTest {
+
+  private AutocompleteIndex createIndex() {
+    AutocompleteIndex index = new AutocompleteIndex();
+    index.rebuild(() -> List.of(
+        new AutocompleteRow(1, "Oslo"),
+        new AutocompleteRow(2, "Los Angeles"),
+        new AutocompleteRow(3, "Tromsø"),
+        new AutocompleteRow(4, "São Paulo")
+    ), () -> List.of(
+        new AutocompleteRow(1, "Oslo lufthavn", "OSL"),
+        new AutocompleteRow(2, "Los Angeles International Airport", "LAX"),
+        new AutocompleteRow(3, "Tromsø lufthavn", "TOS")
+    ));
+    return index;
+  }
+
+  private List<String> names(List<AutocompleteLocation> locations) {
+    return locations.stream().map(location -> location.getLocationTypeString() + ":" + location.getName()).toList();
+  }
+
+  /**
+   * Testing that words are matched by prefix, the best match first
+   */
+  @Test
+  void testPrefix() {
+    AutocompleteIndex index = createIndex();
+    assertTrue(index.isReady());
+    assertEquals(List.of("location:Oslo", "airport:Oslo lufthavn (OSL)"), names(index.search("os", 10)));
+    assertEquals(List.of("location:Los Angeles", "airport:Los Angeles International Airport (LAX)"),
+        names(index.search("los ang", 10)));
+    assertEquals(List.of("airport:Los Angeles International Airport (LAX)"), names(index.search("internat", 10)));
+  }
+
+  /**
+   * Testing that an airport code ranks its airport first
+   */
+  @Test
+  void testCode() {
+    AutocompleteIndex index = createIndex();
+    assertEquals("airport:Oslo lufthavn (OSL)", names(index.search("OSL", 10)).get(0));
+    assertEquals(List.of("airport:Los Angeles International Airport (LAX)"), names(index.search("lax", 10)));
+  }
+
+  /**
+   * Testing that accents and letters like ø are matched without them
+   */
+  @Test
+  void testNormalization() {
+    AutocompleteIndex index = createIndex();
+    assertEquals(List.of("location:Tromsø", "airport:Tromsø lufthavn (TOS)"), names(index.search("tromso", 10)));
+    assertEquals(List.of("location:São Paulo"), names(index.search("sao", 10)));
+  }
+
+  /**
+   * Testing that a few typos are allowed in longer words, ranked below exact matches
+   */
+  @Test
+  void testTypos() {
+    AutocompleteIndex index = createIndex();
+    assertEquals(List.of("location:Oslo", "airport:Oslo lufthavn (OSL)"), names(index.search("olso", 10)));
+    assertEquals("location:Los Angeles", names(index.search("los angelse", 10)).get(0));
+    assertEquals(List.of("airport:Los Angeles International Airport (LAX)"), names(index.search("intrenationl", 10)));
+    assertTrue(index.search("xyz", 10).isEmpty());
+    // Short words are not matched with typos.
+    assertTrue(index.search("olo", 10).isEmpty());
+  }
+
+  /**
+   * Testing that names containing the query are matched
+   */
+  @Test
+  void testInfix() {
+    AutocompleteIndex index = createIndex();
+    assertEquals(List.of("airport:Oslo lufthavn (OSL)", "airport:Tromsø lufthavn (TOS)"), names(index.search("ufthav", 10)));
+  }
+
+  /**
+   * Testing that only the top matches are returned
+   */
+  @Test
+  void testLimit() {
+    AutocompleteIndex index = createIndex();
+    assertEquals(List.of("location:Oslo"), names(index.search("oslo", 1)));
+    assertEquals(2, index.search("lufthavn", 2).size());
+    assertTrue(index.search("oslo", 0).isEmpty());
+    assertTrue(index.search(" - ", 10).isEmpty());
+  }
+
+  /**
+   * Testing that written locations and airports are updated in the index
+   */
+  @Test
+  void testPutAndRemove() {
+    AutocompleteIndex index = createIndex();
+    index.putLocation(new AutocompleteRow(5, "Bergen"));
+    index.putAirport(new AutocompleteRow(4, "Bergen lufthavn", "BGO"));
+    assertEquals(List.of("location:Bergen", "airport:Bergen lufthavn (BGO)"), names(index.search("berg", 10)));
+
+    index.putLocation(new AutocompleteRow(1, "Kristiansand"));
+    assertEquals(List.of("airport:Oslo lufthavn (OSL)"), names(index.search("oslo", 10)));
+
+    index.removeAirport(1);
+    index.removeAirport(3);
+    assertTrue(index.search("oslo", 10).isEmpty());
+    assertEquals(List.of("location:Tromsø"), names(index.search("tromso", 10)));
+    assertEquals(List.of("airport:Bergen lufthavn (BGO)"), names(index.search("ufthav", 10)));
+  }
+
+  /**
+   * Testing that every location and airport is returned without a query, locations first
+   */
+  @Test
+  void testGetAll() {
+    AutocompleteIndex index = createIndex();
+    List<AutocompleteLocation> all = index.getAll();
+    assertEquals(7, all.size());
+    assertEquals(7, index.size());
+    assertEquals("location:Oslo", names(all).get(0));
+    assertEquals("airport:Oslo lufthavn (OSL)", names(all).get(4));
+    assertFalse(new AutocompleteIndex().isReady());
+  }
+
+  /**
+   * Testing the edit distance, which counts a swap of two letters as one edit
+   */
+  @Test
+  void testEditDistance() {
+    assertEquals(0, AutocompleteIndex.editDistance("oslo", "oslo", 2));
+    assertEquals(1, AutocompleteIndex.editDistance("oslo", "olso", 2));
+    assertEquals(1, AutocompleteIndex.editDistance("oslo", "osl", 2));
+    assertEquals(2, AutocompleteIndex.editDistance("bergen", "bregn", 2));
+    assertEquals(2, AutocompleteIndex.editDistance("oslo", "abcd", 1));
+  }
+}
@@ -0,0 +1,76 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AutocompletePayloadCacheTest {
+
+  private AutocompleteIndex createIndex() {
+    AutocompleteIndex index = new AutocompleteIndex();
+    index.rebuild(() -> List.of(new AutocompleteRow(1, "Oslo")),
+        () -> List.of(new AutocompleteRow(1, "Oslo lufthavn", "OSL")));
+    return index;
+  }
+
+  /**
+   * Testing that the listing is serialized as JSON and gzipped JSON
+   */
+  @Test
+  void testSerialize() throws IOException {
+    AutocompletePayloadCache cache = new AutocompletePayloadCache(createIndex(), new ObjectMapper());
+    AutocompletePayloadCache.Payload payload = cache.get();
+    assertFalse(payload.empty());
+    assertEquals("[{\"id\":1,\"name\":\"Oslo\",\"type\":\"location\"},"
+        + "{\"id\":1,\"name\":\"Oslo lufthavn (OSL)\",\"type\":\"airport\"}]",
+        new String(payload.json(), StandardCharsets.UTF_8));
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.gzip()))) {
+      assertArrayEquals(payload.json(), in.readAllBytes());
+    }
+    assertTrue(payload.etag().startsWith("\"") && payload.etag().endsWith("\""));
+    assertNotEquals(payload.etag(), payload.gzipEtag());
+  }
+
+  /**
+   * Testing that the listing is only serialized again after the index has changed
+   */
+  @Test
+  void testReserializeOnWrite() {
+    AutocompleteIndex index = createIndex();
+    AutocompletePayloadCache cache = new AutocompletePayloadCache(index, new ObjectMapper());
+    AutocompletePayloadCache.Payload first = cache.get();
+    assertSame(first, cache.get());
+
+    index.removeAirport(7);
+    assertSame(first, cache.get());
+
+    index.putLocation(new AutocompleteRow(2, "Bergen"));
+    AutocompletePayloadCache.Payload second = cache.get();
+    assertNotEquals(first.etag(), second.etag());
+
+    index.removeLocation(2);
+    assertEquals(first.etag(), cache.get().etag());
+  }
+
+  /**
+   * Testing that an empty listing is marked as empty
+   */
+  @Test
+  void testEmpty() {
+    AutocompleteIndex index = new AutocompleteIndex();
+    index.rebuild(List::of, List::of);
+    assertTrue(new AutocompletePayloadCache(index, new ObjectMapper()).get().empty());
+  }
+}
@@ -0,0 +1,49 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IntIntMapTest {
+
+  /**
+   * Testing put and get
+   */
+  @Test
+  void testPutReplacesTheValue() {
+    IntIntMap map = new IntIntMap();
+    map.put(7, 1);
+    map.put(7, 2);
+    assertEquals(2, map.get(7));
+    assertEquals(-1, map.get(8));
+    assertEquals(1, map.size());
+  }
+
+  /**
+   * Testing that entries survive the map growing and entries around them being removed
+   */
+  @Test
+  void testRemoveKeepsTheOtherEntries() {
+    IntIntMap map = new IntIntMap();
+    for (int key = 0; key < 1000; key++) {
+      map.put(key, key * 2);
+    }
+    for (int key = 0; key < 1000; key += 3) {
+      assertEquals(key * 2, map.remove(key));
+    }
+    assertEquals(-1, map.remove(0));
+    for (int key = 0; key < 1000; key++) {
+      assertEquals(key % 3 == 0 ? -1 : key * 2, map.get(key));
+    }
+    assertEquals(666, map.size());
+  }
+
+  /**
+   * Testing that negative values are rejected, since -1 means no value
+   */
+  @Test
+  void testPutRejectsNegativeValues() {
+    assertThrows(IllegalArgumentException.class, () -> new IntIntMap().put(1, -1));
+  }
+}
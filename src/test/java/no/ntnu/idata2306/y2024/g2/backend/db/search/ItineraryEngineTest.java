@@ -0,0 +1,126 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItineraryEngineTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2024, 6, 1, 0, 0);
+  private static final ItineraryEngine.Limits ONE_STOP = new ItineraryEngine.Limits(1, Duration.ofMinutes(45), Duration.ofHours(24));
+  private static final SearchDeadline LATER = SearchDeadline.after(Duration.ofMinutes(1));
+
+  private ItineraryEngine createEngine() {
+    ItineraryEngine engine = new ItineraryEngine();
+    // 1 -> 2 direct, 1 -> 3 -> 2 with a valid and a too short connection, 2 -> 1 back
+    engine.put(new TimetableRow(1, 1, 2, DAY.plusHours(8), DAY.plusHours(18)));
+    engine.put(new TimetableRow(2, 1, 3, DAY.plusHours(6), DAY.plusHours(9)));
+    engine.put(new TimetableRow(3, 3, 2, DAY.plusHours(11), DAY.plusHours(15)));
+    engine.put(new TimetableRow(4, 3, 2, DAY.plusHours(9).plusMinutes(30), DAY.plusHours(13)));
+    engine.put(new TimetableRow(5, 2, 1, DAY.plusDays(3), DAY.plusDays(3).plusHours(10)));
+    return engine;
+  }
+
+  /**
+   * Testing one-way itineraries
+   */
+  @Test
+  void testFindOneWayRespectsMinimumConnectionTime() {
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = createEngine()
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), ONE_STOP, 0, 10, LATER);
+    assertEquals(2, page.items().size());
+    assertFalse(page.partial());
+    assertArrayEquals(new int[]{2, 3}, page.items().get(0).flightIds());
+    assertArrayEquals(new int[]{1}, page.items().get(1).flightIds());
+  }
+  @Test
+  void testFindOneWayRespectsMaxStops() {
+    ItineraryEngine.Limits direct = new ItineraryEngine.Limits(0, Duration.ofMinutes(45), Duration.ofHours(24));
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = createEngine()
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), direct, 0, 10, LATER);
+    assertEquals(1, page.items().size());
+    assertArrayEquals(new int[]{1}, page.items().get(0).flightIds());
+  }
+  @Test
+  void testRemovedFlightsAreNotUsed() {
+    ItineraryEngine engine = createEngine();
+    engine.remove(3);
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = engine
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), ONE_STOP, 0, 10, LATER);
+    assertEquals(1, page.items().size());
+  }
+  @Test
+  void testFindOneWayPagesInOrder() {
+    ItineraryEngine engine = createEngine();
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = engine
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), ONE_STOP, 1, 1, LATER);
+    assertEquals(1, page.items().size());
+    assertArrayEquals(new int[]{1}, page.items().get(0).flightIds());
+    assertTrue(engine.findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), ONE_STOP, 2, 1, LATER).items().isEmpty());
+  }
+  @Test
+  void testFlightIsBoardedOnceByTheFewestFlights() {
+    ItineraryEngine engine = new ItineraryEngine();
+    // 1 -> 3 -> 4 -> 2 and 1 -> 3 -> 5 -> 4 -> 2 both end with flight 5, which is boarded by the shorter one
+    engine.put(new TimetableRow(1, 1, 3, DAY.plusHours(6), DAY.plusHours(8)));
+    engine.put(new TimetableRow(2, 3, 4, DAY.plusHours(9), DAY.plusHours(12)));
+    engine.put(new TimetableRow(3, 3, 5, DAY.plusHours(9), DAY.plusHours(10)));
+    engine.put(new TimetableRow(4, 5, 4, DAY.plusHours(11), DAY.plusHours(13)));
+    engine.put(new TimetableRow(5, 4, 2, DAY.plusHours(15), DAY.plusHours(18)));
+    ItineraryEngine.Limits threeStops = new ItineraryEngine.Limits(3, Duration.ofMinutes(45), Duration.ofHours(24));
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = engine
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), threeStops, 0, 10, LATER);
+    assertEquals(1, page.items().size());
+    assertArrayEquals(new int[]{1, 2, 5}, page.items().get(0).flightIds());
+  }
+  @Test
+  void testItinerariesDoNotVisitAnAirportTwice() {
+    ItineraryEngine engine = new ItineraryEngine();
+    // 1 -> 3 -> 1 -> 2 goes back through the origin
+    engine.put(new TimetableRow(1, 1, 3, DAY.plusHours(6), DAY.plusHours(8)));
+    engine.put(new TimetableRow(2, 3, 1, DAY.plusHours(9), DAY.plusHours(11)));
+    engine.put(new TimetableRow(3, 1, 2, DAY.plusHours(12), DAY.plusHours(14)));
+    ItineraryEngine.Limits twoStops = new ItineraryEngine.Limits(2, Duration.ofMinutes(45), Duration.ofHours(24));
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> page = engine
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), twoStops, 0, 10, LATER);
+    assertEquals(1, page.items().size());
+    assertArrayEquals(new int[]{3}, page.items().get(0).flightIds());
+  }
+
+  /**
+   * Testing round trips
+   */
+  @Test
+  void testFindRoundTripPairsOutboundWithLaterReturns() {
+    ItineraryEngine.Page<ItineraryEngine.RoundTrip> page = createEngine()
+        .findRoundTrip(List.of(1), List.of(2), DAY, DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(4), ONE_STOP, 1, 10, Runnable::run, LATER);
+    assertEquals(1, page.items().size());
+    assertFalse(page.partial());
+    assertArrayEquals(new int[]{1}, page.items().get(0).outbound().flightIds());
+    assertArrayEquals(new int[]{5}, page.items().get(0).inbound().flightIds());
+  }
+
+  /**
+   * Testing that searches stop at their deadline
+   */
+  @Test
+  void testFindStopsAtTheDeadline() {
+    SearchDeadline expired = new SearchDeadline(System.nanoTime() - 1);
+    ItineraryEngine.Page<ItineraryEngine.Itinerary> oneWay = createEngine()
+        .findOneWay(List.of(1), List.of(2), DAY, DAY.plusDays(1), ONE_STOP, 0, 10, expired);
+    assertTrue(oneWay.items().isEmpty());
+    assertTrue(oneWay.partial());
+
+    ItineraryEngine.Page<ItineraryEngine.RoundTrip> roundTrip = createEngine()
+        .findRoundTrip(List.of(1), List.of(2), DAY, DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(4), ONE_STOP, 0, 10, Runnable::run, expired);
+    assertTrue(roundTrip.items().isEmpty());
+    assertTrue(roundTrip.partial());
+  }
+}
@@ -0,0 +1,157 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.repository.ArrivalRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PopularityCountersTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+  private final List<ArrivalCountRow> rows = new ArrayList<>();
+  private final ArrivalRollupRepository repository = repository();
+  private final MovableClock clock = new MovableClock();
+
+  /**
+   * A clock that can be moved forward a day at a time.
+   */
+  private static class MovableClock extends Clock {
+    private Instant instant = TODAY.atStartOfDay().toInstant(ZoneOffset.UTC).plusSeconds(3600);
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+
+    void nextDay() {
+      instant = instant.plusSeconds(24 * 3600);
+    }
+  }
+
+  /**
+   * Returns a repository that answers the query of the counters from the rows of the test.
+   */
+  private ArrivalRollupRepository repository() {
+    ArrivalRollupRepository repository = mock(ArrivalRollupRepository.class);
+    when(repository.findArrivalCountRows(any(), any())).thenAnswer(invocation -> {
+      LocalDate start = invocation.getArgument(0);
+      LocalDate end = invocation.getArgument(1);
+      return rows.stream().filter(row -> !row.day().isBefore(start) && !row.day().isAfter(end)).toList();
+    });
+    return repository;
+  }
+
+  private PopularityCounters createCounters() {
+    rows.add(new ArrivalCountRow(1, 2, TODAY, 3));
+    rows.add(new ArrivalCountRow(1, 3, TODAY.plusDays(1), 2));
+    rows.add(new ArrivalCountRow(1, 3, TODAY.minusDays(2), 2));
+    rows.add(new ArrivalCountRow(4, 3, TODAY, 1));
+    rows.add(new ArrivalCountRow(null, 4, TODAY, 1));
+    rows.add(new ArrivalCountRow(1, 5, TODAY.plusDays(5), 9));
+    PopularityCounters counters = new PopularityCounters(repository, 3, clock);
+    counters.rebuild();
+    return counters;
+  }
+
+  /**
+   * Testing that the windows around today are summed per destination, the most arrivals first
+   */
+  @Test
+  void testTop() {
+    PopularityCounters counters = createCounters();
+    assertTrue(counters.isReady());
+    assertEquals(List.of(new PopularityCounters.Count(3, 5), new PopularityCounters.Count(2, 3),
+        new PopularityCounters.Count(4, 1)), counters.top(null, 3, 10, id -> true));
+    assertEquals(List.of(new PopularityCounters.Count(2, 3), new PopularityCounters.Count(3, 3),
+        new PopularityCounters.Count(4, 1)), counters.top(null, 1, 10, id -> true));
+    assertEquals(List.of(new PopularityCounters.Count(2, 3)), counters.top(null, 0, 1, id -> true));
+    assertFalse(new PopularityCounters(repository, 3, clock).isReady());
+  }
+
+  /**
+   * Testing that the counts can be limited to flights from one location and to some destinations
+   */
+  @Test
+  void testTopFromLocation() {
+    PopularityCounters counters = createCounters();
+    assertEquals(List.of(new PopularityCounters.Count(3, 4), new PopularityCounters.Count(2, 3)),
+        counters.top(1, 3, 10, id -> true));
+    assertEquals(List.of(new PopularityCounters.Count(3, 1)), counters.top(4, 3, 10, id -> true));
+    assertEquals(List.of(new PopularityCounters.Count(2, 3)), counters.top(1, 3, 10, id -> id != 3));
+    assertTrue(counters.top(9, 3, 10, id -> true).isEmpty());
+  }
+
+  /**
+   * Testing that windows larger than the counters hold are not allowed
+   */
+  @Test
+  void testInvalidWindow() {
+    PopularityCounters counters = createCounters();
+    assertThrows(IllegalArgumentException.class, () -> counters.top(null, 4, 10, id -> true));
+    assertThrows(IllegalArgumentException.class, () -> counters.top(null, -1, 10, id -> true));
+  }
+
+  /**
+   * Testing that setting a cell replaces its count, and that days outside the range are ignored
+   */
+  @Test
+  void testSet() {
+    PopularityCounters counters = createCounters();
+    counters.set(new ArrivalCountRow(1, 2, TODAY, 1));
+    counters.set(new ArrivalCountRow(4, 2, TODAY, 5));
+    counters.set(new ArrivalCountRow(1, 3, TODAY.plusDays(1), 0));
+    counters.set(new ArrivalCountRow(1, 4, TODAY.plusDays(4), 7));
+    assertEquals(List.of(new PopularityCounters.Count(2, 6), new PopularityCounters.Count(3, 3),
+        new PopularityCounters.Count(4, 1)), counters.top(null, 3, 10, id -> true));
+    assertEquals(List.of(new PopularityCounters.Count(3, 2), new PopularityCounters.Count(2, 1)),
+        counters.top(1, 3, 10, id -> true));
+  }
+
+  /**
+   * Testing that the days entering the range are loaded as the days pass
+   */
+  @Test
+  void testNextDay() {
+    PopularityCounters counters = createCounters();
+    clock.nextDay();
+    clock.nextDay();
+    assertEquals(List.of(new PopularityCounters.Count(5, 9), new PopularityCounters.Count(2, 3),
+        new PopularityCounters.Count(3, 3), new PopularityCounters.Count(4, 1)), counters.top(null, 3, 10, id -> true));
+    ArgumentCaptor<LocalDate> start = ArgumentCaptor.forClass(LocalDate.class);
+    ArgumentCaptor<LocalDate> end = ArgumentCaptor.forClass(LocalDate.class);
+    verify(repository, atLeastOnce()).findArrivalCountRows(start.capture(), end.capture());
+    assertEquals(TODAY.plusDays(4), start.getValue());
+    assertEquals(TODAY.plusDays(5), end.getValue());
+    // The day two days before the first today has left the range.
+    assertEquals(List.of(new PopularityCounters.Count(5, 9), new PopularityCounters.Count(2, 3),
+        new PopularityCounters.Count(3, 2)), counters.top(1, 3, 10, id -> true));
+  }
+}
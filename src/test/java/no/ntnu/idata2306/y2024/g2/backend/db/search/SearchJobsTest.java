@@ -0,0 +1,164 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchPage;
+import no.ntnu.idata2306.y2024.g2.backend.db.dto.TripSearchResult;
+import no.ntnu.idata2306.y2024.g2.backend.db.entities.Trip;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchJobsTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+  private SearchJobs jobs;
+
+  @AfterEach
+  void shutdown() {
+    if (jobs != null) {
+      jobs.shutdown();
+    }
+  }
+
+  private SearchJobs createJobs(int workers, int queueCapacity, int maxPages, Duration ttl) {
+    jobs = new SearchJobs(workers, queueCapacity, 100, maxPages, ttl);
+    return jobs;
+  }
+
+  private SearchDeadline deadline() {
+    return SearchDeadline.after(Duration.ofMinutes(1));
+  }
+
+  /**
+   * Returns a page of trips with ids from the given id, continuing after the last of them unless it is the last page.
+   */
+  private TripSearchPage page(int firstId, int size, boolean last) {
+    List<TripSearchResult> trips = new ArrayList<>();
+    for (int id = firstId; id < firstId + size; id++) {
+      Trip trip = new Trip();
+      trip.setId(id);
+      trips.add(new TripSearchResult(trip));
+    }
+    return new TripSearchPage(trips, last ? null : new SearchCursor(DAY, firstId + size - 1));
+  }
+
+  private SearchJob await(SearchJob job) throws InterruptedException {
+    for (int i = 0; i < 500 && !job.isFinished(); i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(job.isFinished());
+    return job;
+  }
+
+  /**
+   * Testing that a job loads pages after each other's cursor until the last page
+   */
+  @Test
+  void testJobLoadsEveryPage() throws InterruptedException {
+    SearchJobs searchJobs = createJobs(1, 1, 10, Duration.ofMinutes(5));
+    SearchJob job = await(searchJobs.submit(null, deadline(), (after, page, deadline) -> {
+      assertEquals(page == 0 ? null : new SearchCursor(DAY, page * 2), after);
+      return page(page * 2 + 1, 2, page == 2);
+    }));
+    assertEquals(SearchJob.Status.DONE, job.getStatus());
+    assertEquals(3, job.getCompletedPages());
+    assertEquals(6, job.getFoundTrips());
+    assertEquals(5, job.getPage(2).get(0).getId());
+    assertNull(job.getPage(3));
+    assertNull(job.getNextCursor());
+    assertFalse(job.isPartial());
+  }
+
+  /**
+   * Testing that a job stops after the maximum number of pages with the cursor to continue with
+   */
+  @Test
+  void testJobStopsAtMaxPages() throws InterruptedException {
+    SearchJobs searchJobs = createJobs(1, 1, 2, Duration.ofMinutes(5));
+    SearchJob job = await(searchJobs.submit(null, deadline(), (after, page, deadline) -> page(page * 2 + 1, 2, false)));
+    assertEquals(2, job.getCompletedPages());
+    assertEquals(new SearchCursor(DAY, 4), job.getNextCursor());
+  }
+
+  /**
+   * Testing that a job stops at a partial page
+   */
+  @Test
+  void testJobStopsAtPartialPage() throws InterruptedException {
+    SearchJobs searchJobs = createJobs(1, 1, 10, Duration.ofMinutes(5));
+    AtomicInteger loads = new AtomicInteger();
+    SearchJob job = await(searchJobs.submit(null, deadline(), (after, page, deadline) -> {
+      loads.incrementAndGet();
+      return new TripSearchPage(page(1, 1, false).getTrips(), new SearchCursor(DAY, 1), null, true);
+    }));
+    assertEquals(1, loads.get());
+    assertTrue(job.isPartial());
+    assertEquals(new SearchCursor(DAY, 1), job.getNextCursor());
+  }
+
+  /**
+   * Testing that a failed search fails the job
+   */
+  @Test
+  void testFailedSearchFailsJob() throws InterruptedException {
+    SearchJobs searchJobs = createJobs(1, 1, 10, Duration.ofMinutes(5));
+    SearchJob job = await(searchJobs.submit(null, deadline(), (after, page, deadline) -> {
+      throw new IllegalStateException("Not ready");
+    }));
+    assertEquals(SearchJob.Status.FAILED, job.getStatus());
+    assertEquals("Not ready", job.getError());
+  }
+
+  /**
+   * Testing that jobs are refused when every worker is busy and the queue is full
+   */
+  @Test
+  void testJobsAreRefusedWhenFull() throws InterruptedException {
+    SearchJobs searchJobs = createJobs(1, 1, 10, Duration.ofMinutes(5));
+    CountDownLatch release = new CountDownLatch(1);
+    SearchJobs.PageLoader blocked = (after, page, deadline) -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return page(1, 1, true);
+    };
+    SearchJob running = searchJobs.submit(null, deadline(), blocked);
+    SearchJob queued = searchJobs.submit(null, deadline(), blocked);
+    assertThrows(RejectedExecutionException.class, () -> searchJobs.submit(null, deadline(), blocked));
+    release.countDown();
+    await(running);
+    await(queued);
+    assertNotNull(searchJobs.submit(null, deadline(), blocked));
+  }
+
+  /**
+   * Testing that finished jobs are kept until they expire
+   */
+  @Test
+  void testFinishedJobsExpire() throws InterruptedException {
+    SearchJobs kept = createJobs(1, 1, 10, Duration.ofMinutes(5));
+    SearchJob job = await(kept.submit(null, deadline(), (after, page, deadline) -> page(1, 1, true)));
+    assertTrue(kept.get(job.getId()).isPresent());
+    kept.shutdown();
+
+    SearchJobs expiring = createJobs(1, 1, 10, Duration.ZERO);
+    SearchJob expired = await(expiring.submit(null, deadline(), (after, page, deadline) -> page(1, 1, true)));
+    assertTrue(expiring.get(expired.getId()).isEmpty());
+  }
+}
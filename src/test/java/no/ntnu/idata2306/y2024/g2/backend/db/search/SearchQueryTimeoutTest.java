@@ -0,0 +1,58 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SearchQueryTimeoutTest {
+
+  private static final String QUERY_TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+  private EntityManager entityManager(Map<String, Object> properties) {
+    EntityManager entityManager = mock(EntityManager.class);
+    when(entityManager.getProperties()).thenReturn(properties);
+    doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+        .when(entityManager).setProperty(anyString(), any());
+    return entityManager;
+  }
+
+  /**
+   * Testing that the timeout applies while the search runs
+   */
+  @Test
+  void testWithinSetsTheTimeoutDuringTheSearch() {
+    Map<String, Object> properties = new HashMap<>();
+    SearchQueryTimeout timeout = new SearchQueryTimeout(entityManager(properties), mock(PlatformTransactionManager.class));
+    Object during = timeout.within(SearchDeadline.after(Duration.ofMillis(1500)), () -> properties.get(QUERY_TIMEOUT_HINT));
+    assertEquals(2000, during);
+  }
+
+  /**
+   * Testing that the previous timeout is put back, also when the search fails
+   */
+  @Test
+  void testWithinRestoresThePreviousTimeout() {
+    Map<String, Object> properties = new HashMap<>();
+    SearchQueryTimeout timeout = new SearchQueryTimeout(entityManager(properties), mock(PlatformTransactionManager.class));
+    timeout.within(SearchDeadline.after(Duration.ofSeconds(3)), () -> null);
+    assertEquals(0, properties.get(QUERY_TIMEOUT_HINT));
+
+    properties.put(QUERY_TIMEOUT_HINT, 5000);
+    assertThrows(IllegalStateException.class, () -> timeout.within(SearchDeadline.after(Duration.ofSeconds(3)), () -> {
+      throw new IllegalStateException("Search failed");
+    }));
+    assertEquals(5000, properties.get(QUERY_TIMEOUT_HINT));
+  }
+}
@@ -0,0 +1,80 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchResultCacheTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+  private SearchResultCache createCache(int maxEntries) {
+    return new SearchResultCache(maxEntries, Duration.ofMinutes(10), new SimpleMeterRegistry());
+  }
+
+  private SearchResultCache.Key key(List<Integer> from, List<Integer> to) {
+    return SearchResultCache.Key.of(from, to, DAY, DAY.plusDays(1), null, null,
+        SearchSort.DEPARTURE, SearchFilter.NONE, null, 0, 10, false);
+  }
+
+  /**
+   * Testing that equivalent searches share a cache entry
+   */
+  @Test
+  void testKeyIsCanonical() {
+    SearchResultCache cache = createCache(10);
+    AtomicInteger loads = new AtomicInteger();
+    cache.get(key(List.of(2, 1, 2), List.of(3)), loads::incrementAndGet);
+    cache.get(key(List.of(1, 2), List.of(3)), loads::incrementAndGet);
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.size());
+  }
+
+  /**
+   * Testing that only searches covering a written trip are evicted
+   */
+  @Test
+  void testEvictOnlyCoveringSearches() {
+    SearchResultCache cache = createCache(10);
+    cache.get(key(List.of(1), List.of(3)), () -> "a");
+    cache.get(key(List.of(2), List.of(3)), () -> "b");
+    cache.evict(new TripIndexRow(7, 1, 3, DAY.plusHours(5), DAY.plusHours(7), null, null, null,
+        null, null, 0, null));
+    assertEquals(1, cache.size());
+    assertEquals("b", cache.get(key(List.of(2), List.of(3)), () -> "c"));
+    assertEquals("d", cache.get(key(List.of(1), List.of(3)), () -> "d"));
+  }
+
+  /**
+   * Testing that the least recently used entry is dropped when the cache is full
+   */
+  @Test
+  void testLeastRecentlyUsedEntryIsDropped() {
+    SearchResultCache cache = createCache(2);
+    cache.get(key(List.of(1), List.of(3)), () -> "a");
+    cache.get(key(List.of(2), List.of(3)), () -> "b");
+    cache.get(key(List.of(1), List.of(3)), () -> "x");
+    cache.get(key(List.of(4), List.of(3)), () -> "c");
+    assertEquals(2, cache.size());
+    assertEquals("a", cache.get(key(List.of(1), List.of(3)), () -> "y"));
+    assertEquals("z", cache.get(key(List.of(2), List.of(3)), () -> "z"));
+  }
+
+  /**
+   * Testing that values that may not be cached, like partial pages, are returned but not stored
+   */
+  @Test
+  void testUncacheableValuesAreNotStored() {
+    SearchResultCache cache = createCache(10);
+    assertEquals("partial", cache.get(key(List.of(1), List.of(3)), () -> "partial", value -> false));
+    assertEquals(0, cache.size());
+    assertEquals("complete", cache.get(key(List.of(1), List.of(3)), () -> "complete", value -> true));
+    assertEquals("complete", cache.get(key(List.of(1), List.of(3)), () -> "other", value -> true));
+  }
+}
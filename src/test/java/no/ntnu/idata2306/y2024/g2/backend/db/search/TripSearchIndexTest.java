@@ -0,0 +1,367 @@
+package no.ntnu.idata2306.y2024.g2.backend.db.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TripSearchIndexTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+  private static TripIndexRow row(int tripId, int origin, int destination, LocalDateTime departure,
+                                  LocalDateTime returnDeparture, Integer returnArrival, Integer price, Integer priceId) {
+    return row(tripId, origin, destination, departure, departure.plusHours(2), returnDeparture, returnArrival,
+        price, priceId, 0, Set.of());
+  }
+
+  private static TripIndexRow row(int tripId, int origin, int destination, LocalDateTime departure,
+                                  LocalDateTime arrival, LocalDateTime returnDeparture, Integer returnArrival,
+                                  Integer price, Integer priceId, int stops, Set<Integer> airlineIds) {
+    return new TripIndexRow(tripId, origin, destination, departure, arrival, returnDeparture, returnArrival,
+        returnDeparture != null ? returnDeparture.plusHours(2) : null, price, priceId, stops, airlineIds);
+  }
+
+  private static SearchQuery oneWay(LocalDateTime lower, LocalDateTime upper) {
+    return new SearchQuery(List.of(10), List.of(20), lower, upper, null, null);
+  }
+
+  /**
+   * Testing one-way searches
+   */
+  @Test
+  void testFindOneWayReturnsTripsInWindowOrderedByDeparture() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(15), null, null, null, null));
+    index.put(row(2, 10, 20, DAY.plusHours(9), null, null, null, null));
+    index.put(row(3, 11, 20, DAY.plusDays(1).plusHours(8), null, null, null, null));
+    index.put(row(4, 10, 20, DAY.plusDays(5), null, null, null, null));
+    index.put(row(5, 10, 20, DAY.plusHours(10), DAY.plusDays(3), 10, null, null));
+
+    TripSearchIndex.Page page = index.findOneWay(List.of(10, 11), List.of(20), DAY, DAY.plusDays(2), 0, 10);
+    assertArrayEquals(new int[]{2, 1, 3}, page.tripIds());
+    assertEquals(3, page.total());
+  }
+  @Test
+  void testFindOneWayPaging() {
+    TripSearchIndex index = new TripSearchIndex();
+    for (int i = 1; i <= 5; i++) {
+      index.put(row(i, 10, 20, DAY.plusHours(i), null, null, null, null));
+    }
+    TripSearchIndex.Page page = index.findOneWay(List.of(10), List.of(20), DAY, DAY.plusDays(2), 2, 2);
+    assertArrayEquals(new int[]{3, 4}, page.tripIds());
+    assertEquals(5, page.total());
+  }
+
+  /**
+   * Testing round trip searches
+   */
+  @Test
+  void testFindRoundTripMatchesReturnWindowAndAirport() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusDays(7), 10, null, null));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusDays(7), 12, null, null));
+    index.put(row(3, 10, 20, DAY.plusHours(10), DAY.plusDays(12), 10, null, null));
+    index.put(row(4, 10, 20, DAY.plusHours(11), null, null, null, null));
+
+    TripSearchIndex.Page page = index.findRoundTrip(List.of(10), List.of(20), DAY, DAY.plusDays(2),
+        DAY.plusDays(6), DAY.plusDays(8), 0, 10);
+    assertArrayEquals(new int[]{1}, page.tripIds());
+  }
+
+  /**
+   * Testing index maintenance
+   */
+  @Test
+  void testPutReplacesAndRemoveDeletes() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), null, null, null, null));
+    index.put(row(1, 10, 30, DAY.plusHours(8), null, null, null, null));
+    assertEquals(1, index.size());
+    assertEquals(0, index.findOneWay(List.of(10), List.of(20), DAY, DAY.plusDays(1), 0, 10).total());
+    assertEquals(1, index.findOneWay(List.of(10), List.of(30), DAY, DAY.plusDays(1), 0, 10).total());
+    assertEquals(new TripSearchIndex.Route(10, 30, DAY.plusHours(8)), index.routeOf(1));
+
+    index.remove(1);
+    assertEquals(0, index.size());
+    assertNull(index.routeOf(1));
+    // The number of the emptied bucket is given to the next new bucket.
+    index.put(row(2, 40, 50, DAY.plusHours(9), null, null, null, null));
+    assertEquals(new TripSearchIndex.Route(40, 50, DAY.plusHours(9)), index.routeOf(2));
+    assertEquals(0, index.findOneWay(List.of(10), List.of(30), DAY, DAY.plusDays(1), 0, 10).total());
+  }
+
+  /**
+   * Testing cursor pagination
+   */
+  @Test
+  void testFindOneWayAfterFollowsCursorAcrossDays() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(5, 10, 20, DAY.plusHours(9), null, null, null, null));
+    index.put(row(2, 10, 20, DAY.plusHours(9), null, null, null, null));
+    index.put(row(3, 11, 20, DAY.plusDays(1).plusHours(8), null, null, null, null));
+    index.put(row(4, 10, 20, DAY.plusDays(1).plusHours(12), null, null, null, null));
+
+    TripSearchIndex.Slice first = index.findOneWayAfter(List.of(10, 11), List.of(20), DAY, DAY.plusDays(2), null, 2);
+    assertArrayEquals(new int[]{2, 5}, first.tripIds());
+    assertEquals(new SearchCursor(DAY.plusHours(9), 5), first.next());
+
+    TripSearchIndex.Slice second = index.findOneWayAfter(List.of(10, 11), List.of(20), DAY, DAY.plusDays(2),
+        SearchCursor.decode(first.next().encode()), 2);
+    assertArrayEquals(new int[]{3, 4}, second.tripIds());
+    assertNull(second.next());
+  }
+
+  @Test
+  void testCursorIsStableWhenEarlierTripsAreInserted() {
+    TripSearchIndex index = new TripSearchIndex();
+    for (int i = 1; i <= 4; i++) {
+      index.put(row(i, 10, 20, DAY.plusHours(i), null, null, null, null));
+    }
+    TripSearchIndex.Page page = index.findOneWay(List.of(10), List.of(20), DAY, DAY.plusDays(1), 0, 2);
+    assertEquals(new SearchCursor(DAY.plusHours(2), 2), page.next());
+
+    index.put(row(9, 10, 20, DAY.plusMinutes(30), null, null, null, null));
+    TripSearchIndex.Slice slice = index.findOneWayAfter(List.of(10), List.of(20), DAY, DAY.plusDays(1), page.next(), 2);
+    assertArrayEquals(new int[]{3, 4}, slice.tripIds());
+    assertNull(slice.next());
+  }
+
+  /**
+   * Testing the lowest fares kept per bucket
+   */
+  @Test
+  void testOneWayFaresFollowAddsAndRemoves() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), null, null, 300, 31));
+    index.put(row(2, 11, 20, DAY.plusHours(9), null, null, 200, 32));
+    index.put(row(3, 10, 20, DAY.plusDays(1), null, null, 500, 33));
+    index.put(row(4, 10, 20, DAY.plusDays(1), null, null, null, null));
+    index.put(row(5, 10, 20, DAY.plusHours(10), DAY.plusDays(3), 10, 100, 34));
+
+    List<TripSearchIndex.Fare> fares = index.findOneWayFares(List.of(10, 11), List.of(20), DAY, DAY.plusDays(2));
+    assertEquals(List.of(new TripSearchIndex.Fare(DAY.toLocalDate(), null, 200, 32),
+        new TripSearchIndex.Fare(DAY.plusDays(1).toLocalDate(), null, 500, 33)), fares);
+
+    index.remove(2);
+    index.put(row(3, 10, 20, DAY.plusDays(1), null, null, 450, 35));
+    fares = index.findOneWayFares(List.of(10, 11), List.of(20), DAY, DAY.plusDays(2));
+    assertEquals(List.of(new TripSearchIndex.Fare(DAY.toLocalDate(), null, 300, 31),
+        new TripSearchIndex.Fare(DAY.plusDays(1).toLocalDate(), null, 450, 35)), fares);
+  }
+
+  @Test
+  void testRoundTripFaresPerDepartureAndReturnDay() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusDays(5), 10, 300, 31));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusDays(5).plusHours(2), 10, 250, 32));
+    index.put(row(3, 10, 20, DAY.plusHours(9), DAY.plusDays(6), 10, 400, 33));
+    index.put(row(4, 10, 20, DAY.plusHours(9), DAY.plusDays(6), 12, 100, 34));
+
+    List<TripSearchIndex.Fare> fares = index.findRoundTripFares(List.of(10), List.of(20), DAY, DAY.plusDays(1),
+        DAY.plusDays(4), DAY.plusDays(7));
+    assertEquals(List.of(new TripSearchIndex.Fare(DAY.toLocalDate(), DAY.plusDays(5).toLocalDate(), 250, 32),
+        new TripSearchIndex.Fare(DAY.toLocalDate(), DAY.plusDays(6).toLocalDate(), 400, 33)), fares);
+
+    index.remove(2);
+    fares = index.findRoundTripFares(List.of(10), List.of(20), DAY, DAY.plusDays(1), DAY.plusDays(4), DAY.plusDays(5));
+    assertEquals(List.of(new TripSearchIndex.Fare(DAY.toLocalDate(), DAY.plusDays(5).toLocalDate(), 300, 31)), fares);
+  }
+
+  /**
+   * Testing sorting by price, with the cheapest trips first and trips without prices last
+   */
+  @Test
+  void testSearchSortedByPrice() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), null, null, 300, 31));
+    index.put(row(2, 10, 20, DAY.plusHours(9), null, null, 100, 32));
+    index.put(row(3, 10, 20, DAY.plusDays(1), null, null, null, null));
+    index.put(row(4, 10, 20, DAY.plusDays(1).plusHours(1), null, null, 200, 34));
+    index.put(row(5, 10, 20, DAY.plusHours(10), null, null, 100, 35));
+
+    TripSearchIndex.Slice slice = index.search(oneWay(DAY, DAY.plusDays(2)), SearchSort.PRICE, SearchFilter.NONE,
+        null, 0, 10);
+    assertArrayEquals(new int[]{2, 5, 4, 1, 3}, slice.tripIds());
+    assertNull(slice.next());
+
+    slice = index.search(oneWay(DAY, DAY.plusDays(2)), SearchSort.PRICE, SearchFilter.NONE, null, 1, 2);
+    assertArrayEquals(new int[]{5, 4}, slice.tripIds());
+    assertEquals(new SearchCursor(DAY.plusDays(1).plusHours(1), 4, SearchSort.PRICE, 200), slice.next());
+  }
+
+  /**
+   * Testing that sorted pages continue after the cursor
+   */
+  @Test
+  void testSearchSortedCursorContinuesAfterLastTrip() {
+    TripSearchIndex index = new TripSearchIndex();
+    for (int i = 1; i <= 7; i++) {
+      index.put(row(i, 10, 20, DAY.plusHours(i), DAY.plusHours(i + 10 - i % 3), null, null, null, null, 0, Set.of()));
+    }
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+    TripSearchIndex.Slice first = index.search(query, SearchSort.DURATION, SearchFilter.NONE, null, 0, 3);
+    assertArrayEquals(new int[]{2, 5, 1}, first.tripIds());
+    TripSearchIndex.Slice second = index.search(query, SearchSort.DURATION, SearchFilter.NONE, first.next(), 0, 3);
+    assertArrayEquals(new int[]{4, 7, 3}, second.tripIds());
+    TripSearchIndex.Slice third = index.search(query, SearchSort.DURATION, SearchFilter.NONE, second.next(), 0, 3);
+    assertArrayEquals(new int[]{6}, third.tripIds());
+    assertNull(third.next());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> index.search(query, SearchSort.PRICE, SearchFilter.NONE, first.next(), 0, 3));
+  }
+
+  /**
+   * Testing sorting by arrival
+   */
+  @Test
+  void testSearchSortedByArrival() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusHours(20), null, null, null, null, 0, Set.of()));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusHours(11), null, null, null, null, 0, Set.of()));
+    index.put(row(3, 10, 20, DAY.plusHours(10), DAY.plusHours(12), null, null, null, null, 0, Set.of()));
+
+    TripSearchIndex.Slice slice = index.search(oneWay(DAY, DAY.plusDays(1)), SearchSort.ARRIVAL, SearchFilter.NONE,
+        null, 0, 10);
+    assertArrayEquals(new int[]{2, 3, 1}, slice.tripIds());
+  }
+
+  /**
+   * Testing filtering by stops, airlines and price
+   */
+  @Test
+  void testSearchFilteredByStopsAirlinesAndPrice() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusHours(10), null, null, 300, 31, 0, Set.of(1)));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusHours(15), null, null, 100, 32, 1, Set.of(1, 2)));
+    index.put(row(3, 10, 20, DAY.plusHours(10), DAY.plusHours(12), null, null, 500, 33, 0, Set.of(2)));
+    index.put(row(4, 10, 20, DAY.plusHours(11), DAY.plusHours(20), null, null, null, null, 2, Set.of(3)));
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+
+    assertArrayEquals(new int[]{1, 3}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(0, null, null, null, null, null, null), null, 0, 10).tripIds());
+    assertArrayEquals(new int[]{1, 2, 3}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(null, Set.of(1, 2), null, null, null, null, null), null, 0, 10).tripIds());
+    assertArrayEquals(new int[]{2, 1}, index.search(query, SearchSort.PRICE,
+        new SearchFilter(null, null, null, null, null, null, 300), null, 0, 10).tripIds());
+    assertArrayEquals(new int[]{1}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(0, Set.of(1), null, null, null, null, 400), null, 0, 10).tripIds());
+  }
+
+  /**
+   * Testing filtering by time of day, including windows that wrap past midnight
+   */
+  @Test
+  void testSearchFilteredByTimeOfDay() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(6), DAY.plusHours(8), null, null, null, null, 0, Set.of()));
+    index.put(row(2, 10, 20, DAY.plusHours(12), DAY.plusHours(14), null, null, null, null, 0, Set.of()));
+    index.put(row(3, 10, 20, DAY.plusHours(23), DAY.plusDays(1).plusHours(1), null, null, null, null, 0, Set.of()));
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+
+    assertArrayEquals(new int[]{1, 2}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(null, null, LocalTime.of(5, 0), LocalTime.of(12, 0), null, null, null), null, 0, 10)
+        .tripIds());
+    assertArrayEquals(new int[]{1, 3}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(null, null, LocalTime.of(22, 0), LocalTime.of(7, 0), null, null, null), null, 0, 10)
+        .tripIds());
+    assertArrayEquals(new int[]{3}, index.search(query, SearchSort.DEPARTURE,
+        new SearchFilter(null, null, null, null, LocalTime.of(0, 0), LocalTime.of(2, 0), null), null, 0, 10)
+        .tripIds());
+  }
+
+  /**
+   * Testing invalid filters
+   */
+  @Test
+  void testSearchFilterInvalid() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SearchFilter(-1, null, null, null, null, null, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SearchFilter(null, null, LocalTime.NOON, null, null, null, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SearchFilter(null, null, null, null, null, null, -5));
+  }
+
+  /**
+   * Testing that each facet counts the trips passing every filter except its own
+   */
+  @Test
+  void testSearchWithFacets() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusHours(10), null, null, 300, 31, 0, Set.of(1)));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusHours(15), null, null, 1200, 32, 1, Set.of(1, 2)));
+    index.put(row(3, 10, 20, DAY.plusHours(10), DAY.plusHours(12), null, null, 500, 33, 0, Set.of(2)));
+    index.put(row(4, 10, 20, DAY.plusHours(11), DAY.plusHours(20), null, null, null, null, 2, Set.of(3)));
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+
+    TripSearchIndex.FacetedSlice result = index.searchWithFacets(query, SearchSort.PRICE,
+        new SearchFilter(0, null, null, null, null, null, null), null, 0, 1, 1000);
+    assertArrayEquals(new int[]{1}, result.slice().tripIds());
+    assertEquals(new SearchCursor(DAY.plusHours(8), 1, SearchSort.PRICE, 300), result.slice().next());
+    assertEquals(new TripSearchIndex.Facets(2,
+        List.of(new TripSearchIndex.AirlineFacet(1, 1, 300, 31), new TripSearchIndex.AirlineFacet(2, 1, 500, 33)),
+        List.of(new TripSearchIndex.StopsFacet(0, 2), new TripSearchIndex.StopsFacet(1, 1),
+            new TripSearchIndex.StopsFacet(2, 1)),
+        List.of(new TripSearchIndex.PriceFacet(0, 1000, 2))), result.facets());
+
+    result = index.searchWithFacets(query, SearchSort.DEPARTURE,
+        new SearchFilter(null, Set.of(1, 2), null, null, null, null, null), null, 0, 10, 1000);
+    assertArrayEquals(new int[]{1, 2, 3}, result.slice().tripIds());
+    assertNull(result.slice().next());
+    assertEquals(new TripSearchIndex.Facets(3,
+        List.of(new TripSearchIndex.AirlineFacet(1, 2, 300, 31), new TripSearchIndex.AirlineFacet(2, 2, 500, 33),
+            new TripSearchIndex.AirlineFacet(3, 1, null, null)),
+        List.of(new TripSearchIndex.StopsFacet(0, 2), new TripSearchIndex.StopsFacet(1, 1)),
+        List.of(new TripSearchIndex.PriceFacet(0, 1000, 2), new TripSearchIndex.PriceFacet(1000, 2000, 1))),
+        result.facets());
+  }
+
+  /**
+   * Testing that the trips counted under an airline are the trips found when filtering by that airline
+   */
+  @Test
+  void testAirlineFacetMatchesAirlineFilter() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), DAY.plusHours(10), null, null, 300, 31, 0, Set.of(1)));
+    index.put(row(2, 10, 20, DAY.plusHours(9), DAY.plusHours(15), null, null, 1200, 32, 1, Set.of(1, 2)));
+    index.put(row(3, 10, 20, DAY.plusHours(10), DAY.plusHours(12), null, null, 500, 33, 0, Set.of(2)));
+    index.put(row(4, 10, 20, DAY.plusHours(11), DAY.plusHours(20), null, null, null, null, 2, Set.of(2, 3)));
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+
+    List<TripSearchIndex.AirlineFacet> airlines = index.searchWithFacets(query, SearchSort.DEPARTURE,
+        SearchFilter.NONE, null, 0, 10, 1000).facets().airlines();
+    assertEquals(3, airlines.size());
+    for (TripSearchIndex.AirlineFacet airline : airlines) {
+      TripSearchIndex.FacetedSlice filtered = index.searchWithFacets(query, SearchSort.DEPARTURE,
+          new SearchFilter(null, Set.of(airline.airlineId()), null, null, null, null, null), null, 0, 10, 1000);
+      assertEquals(airline.count(), filtered.facets().total());
+      assertEquals(airline.count(), filtered.slice().tripIds().length);
+    }
+  }
+
+  /**
+   * Testing that the cursor of a trip continues a search right after it
+   */
+  @Test
+  void testCursorOfContinuesAfterTrip() {
+    TripSearchIndex index = new TripSearchIndex();
+    index.put(row(1, 10, 20, DAY.plusHours(8), null, null, 300, 31));
+    index.put(row(2, 10, 20, DAY.plusHours(9), null, null, 100, 32));
+    index.put(row(3, 10, 20, DAY.plusHours(10), null, null, 200, 33));
+    SearchQuery query = oneWay(DAY, DAY.plusDays(1));
+
+    assertEquals(new SearchCursor(DAY.plusHours(9), 2), index.cursorOf(2, SearchSort.DEPARTURE));
+    assertArrayEquals(new int[]{1}, index.search(query, SearchSort.PRICE, SearchFilter.NONE,
+        index.cursorOf(3, SearchSort.PRICE), 0, 10).tripIds());
+    assertNull(index.cursorOf(4, SearchSort.PRICE));
+  }
+}